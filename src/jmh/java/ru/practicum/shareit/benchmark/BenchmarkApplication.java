@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Контекст приложения без веб-сервера на отдельной H2 в памяти. Каждый запуск получает свою базу,
+ * журналы SQL и запись событий в файл выключены, чтобы не мерить ввод-вывод логов.
+ */
+@UtilityClass
+class BenchmarkApplication {
+    private static final String[] DEFAULTS = {
+            "spring.main.banner-mode=off",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.generate_statistics=false",
+            "logging.level.root=WARN",
+            "logging.level.ru.practicum.shareit=WARN",
+            "logging.level.org.springframework.orm.jpa=WARN",
+            "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+            "logging.level.org.springframework.transaction=WARN",
+            "logging.level.org.springframework.transaction.interceptor=WARN",
+            "shareit.search.index.enabled=false",
+            "shareit.outbox.sink.file.enabled=false",
+            "shareit.bookings.list-cache.bucket=0s"};
+
+    /**
+     * Свойства передаются как аргументы командной строки, чтобы перекрыть application.properties;
+     * переданные здесь заменяют одноимённые значения по умолчанию.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        Map<String, String> args = new LinkedHashMap<>();
+        args.put("spring.datasource.url", "jdbc:h2:mem:benchmark-" + UUID.randomUUID());
+        Stream.concat(Stream.of(DEFAULTS), Stream.of(properties)).forEach(property -> {
+            int separator = property.indexOf('=');
+            args.put(property.substring(0, separator), property.substring(separator + 1));
+        });
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.entrySet().stream()
+                        .map(arg -> "--" + arg.getKey() + "=" + arg.getValue())
+                        .toArray(String[]::new));
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Наполняет базу через сервисы: владельцы с предметами, арендаторы и их бронирования, часть подтверждена
+ * или отклонена. Сервис принимает только бронирования с окончанием в будущем, поэтому две трети из них
+ * затем сдвигаются на 20 и 40 дней назад прямо в таблицах (в профиле memory — через репозиторий) — так появляются прошедшие и текущие.
+ * По неотклонённым бронированиям, сдвинутым на 40 дней, арендаторы оставляют отзывы.
+ * Генератор с фиксированным зерном, поэтому данные одинаковы во всех прогонах.
+ */
+@Getter
+class Dataset {
+    static final String[] WORDS = {"Дрель", "Пила", "Молоток", "Лестница", "Палатка", "Велосипед", "Шуруповёрт",
+            "Гитара", "Проектор", "Самокат", "Перфоратор", "Спальник", "Лыжи", "Тележка", "Бензопила", "Рюкзак"};
+
+    private final List<Long> owners = new ArrayList<>();
+    private final List<Long> bookers = new ArrayList<>();
+    private final List<Long> items = new ArrayList<>();
+    private final Map<Long, Long> itemOwners = new HashMap<>();
+    private final List<Long> bookings = new ArrayList<>();
+    private final Map<Long, Long> bookingBookers = new HashMap<>();
+
+    Dataset(ApplicationContext context, int ownerCount, int itemsPerOwner, int bookerCount, int bookingsPerBooker) {
+        Random random = new Random(42);
+        UserService userService = context.getBean(UserService.class);
+        BulkImportService bulkImportService = context.getBean(BulkImportService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        BookingService bookingService = context.getBean(BookingService.class);
+
+        StringBuilder users = new StringBuilder();
+        for (int i = 0; i < ownerCount + bookerCount; i++) {
+            users.append("{\"name\":\"user").append(i).append("\",\"email\":\"user").append(i)
+                    .append("@bench.ru\"}\n");
+        }
+        bulkImportService.importUsers(reader(users));
+        List<Long> userIds = userService.getUsers(0, ownerCount + bookerCount).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        owners.addAll(userIds.subList(0, ownerCount));
+        bookers.addAll(userIds.subList(ownerCount, userIds.size()));
+
+        for (Long owner : owners) {
+            StringBuilder ownerItems = new StringBuilder();
+            for (int i = 0; i < itemsPerOwner; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                ownerItems.append("{\"name\":\"").append(word).append(' ').append(i)
+                        .append("\",\"description\":\"").append(word).append(" в хорошем состоянии, ")
+                        .append(WORDS[random.nextInt(WORDS.length)].toLowerCase())
+                        .append(" в комплекте\",\"available\":true}\n");
+            }
+            bulkImportService.importItems(owner, reader(ownerItems));
+            for (ItemDto item : itemService.getItemsByUser(owner, 0, itemsPerOwner)) {
+                items.add(item.getId());
+                itemOwners.put(item.getId(), owner);
+            }
+        }
+
+        Map<Long, Long> commentedItems = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long booker : bookers) {
+            for (int i = 0; i < bookingsPerBooker; i++) {
+                LocalDateTime start = now.plusHours(1 + random.nextInt(24 * 30));
+                Long item = items.get(random.nextInt(items.size()));
+                BookingDto booking = bookingService.saveBooking(booker, BookingDto.builder()
+                        .itemId(item)
+                        .start(start)
+                        .end(start.plusHours(1 + random.nextInt(72)))
+                        .build());
+                bookings.add(booking.getId());
+                bookingBookers.put(booking.getId(), booker);
+                int decision = random.nextInt(3);
+                if (decision < 2) {
+                    bookingService.confirmOrCancelBooking(itemOwners.get(item), booking.getId(), decision == 0);
+                }
+                if (decision != 1 && booking.getId() % 3 == 2) {
+                    commentedItems.put(booking.getId(), item);
+                }
+            }
+        }
+        if (context.getEnvironment().acceptsProfiles(Profiles.of("memory"))) {
+            shiftInRepository(context.getBean(BookingRepository.class), bookings);
+        } else {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            for (String table : List.of("BOOKINGS", "OWNER_BOOKINGS_VIEW", "BOOKER_BOOKINGS_VIEW")) {
+                jdbcTemplate.update("UPDATE " + table + " SET START_DATE = DATEADD('DAY', -20 * MOD(BOOKING_ID, 3), " +
+                        "START_DATE), END_DATE = DATEADD('DAY', -20 * MOD(BOOKING_ID, 3), END_DATE)");
+            }
+        }
+        commentedItems.forEach((booking, item) -> itemService.postComment(bookingBookers.get(booking), item,
+                CommentDto.builder().text(WORDS[random.nextInt(WORDS.length)] + " не подвела").build()));
+    }
+
+    /**
+     * В профиле memory таблиц нет: тот же сдвиг делается через репозиторий, списки бронирований
+     * хранилище строит из самих бронирований.
+     */
+    private static void shiftInRepository(BookingRepository bookingRepository, List<Long> bookingIds) {
+        for (Long id : bookingIds) {
+            long days = 20 * (id % 3);
+            if (days > 0) {
+                Booking booking = bookingRepository.findById(id).orElseThrow();
+                booking.setStart(booking.getStart().minusDays(days));
+                booking.setEnd(booking.getEnd().minusDays(days));
+                bookingRepository.save(booking);
+            }
+        }
+    }
+
+    Long owner(int i) {
+        return owners.get(i % owners.size());
+    }
+
+    Long booker(int i) {
+        return bookers.get(i % bookers.size());
+    }
+
+    Long item(int i) {
+        return items.get(i % items.size());
+    }
+
+    Long booking(int i) {
+        return bookings.get(i % bookings.size());
+    }
+
+    private static BufferedReader reader(StringBuilder ndjson) {
+        return new BufferedReader(new StringReader(ndjson.toString()));
+    }
+}
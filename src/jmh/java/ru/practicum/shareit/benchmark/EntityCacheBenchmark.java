@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Чтения, которые берут User, Item и Item.comments из кэша второго уровня: карточка предмета с отзывами
+ * и их авторами и бронирование с предметом. {@code secondLevelCache=false} выключает кэш Hibernate —
+ * те же строки читаются из базы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class EntityCacheBenchmark {
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private Dataset dataset;
+    private ItemService itemService;
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache);
+        dataset = new Dataset(context, 50, 20, 200, 20);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemDto getItemById() {
+        int i = next();
+        return itemService.getItemById(dataset.booker(i), dataset.item(i));
+    }
+
+    @Benchmark
+    public Booking getBookingForBooker() {
+        Long booking = dataset.booking(next());
+        return bookingService.getBookingForOwnerOrBooker(dataset.getBookingBookers().get(booking), booking);
+    }
+
+    private int next() {
+        return counter.getAndIncrement() & Integer.MAX_VALUE;
+    }
+}
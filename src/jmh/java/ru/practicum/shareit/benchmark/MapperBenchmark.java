@@ -0,0 +1,133 @@
+package ru.practicum.shareit.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentMapper;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.mappers.BookingMapper;
+import ru.practicum.shareit.mappers.ItemMapper;
+import ru.practicum.shareit.mappers.RequestMapper;
+import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущностей и DTO без базы через сгенерированные MapStruct мапперы. {@code commentFromDtoModelMapper}
+ * оставлен как точка отсчёта: так {@code ItemServiceImpl.postComment} собирал отзыв через ModelMapper.
+ * Профиль benchmark запускает JMH с {@code -prof gc}, поэтому рядом со временем видно и выделение памяти на операцию.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private User user;
+    private Item item;
+    private Booking booking;
+    private Request request;
+    private Comment comment;
+    private CommentDto commentDto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = User.builder().id(1L).name("Ivan").email("ivan@mail.ru").build();
+        item = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Дрель ударная, в комплекте набор свёрл")
+                .available(true)
+                .ownerId(2L)
+                .request(3L)
+                .build();
+        booking = Booking.builder()
+                .id(1L)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        List<Item> items = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            items.add(Item.builder()
+                    .id(i)
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(true)
+                    .ownerId(2L)
+                    .request(3L)
+                    .build());
+        }
+        request = Request.builder()
+                .id(3L)
+                .description("Нужна дрель на выходные")
+                .requestor(user)
+                .created(now)
+                .items(items)
+                .build();
+        comment = Comment.builder()
+                .id(1L)
+                .text("Отличная дрель")
+                .item(item)
+                .author(user)
+                .created(now)
+                .build();
+        commentDto = CommentDto.builder()
+                .text("Отличная дрель")
+                .build();
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public RequestDtoWithRequest requestToDtoWithItems() {
+        return RequestMapper.toRequestDtoWithRequest(request);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public Comment commentFromDto() {
+        return CommentMapper.toComment(user, item, commentDto, comment.getCreated());
+    }
+
+    @Benchmark
+    public Comment commentFromDtoModelMapper() {
+        return modelMapper.map(commentDto, Comment.class);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Чтения через сервисы на наполненной H2: поиск с индексом и без, предметы владельца,
+ * списки бронирований владельца и арендатора с кэшем списков и без него.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class ServiceBenchmark {
+    @Param({"false", "true"})
+    public boolean searchIndex;
+    @Param({"0s", "1m"})
+    public String listCacheBucket;
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private Path indexDir;
+    private Dataset dataset;
+    private ItemService itemService;
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        indexDir = Files.createTempDirectory("shareit-search");
+        context = BenchmarkApplication.start(
+                "shareit.search.index.enabled=" + searchIndex,
+                "shareit.search.index.dir=" + indexDir,
+                "shareit.search.index.fsync=false",
+                "shareit.bookings.list-cache.bucket=" + listCacheBucket);
+        dataset = new Dataset(context, 50, 20, 200, 20);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(indexDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Collection<ItemDto> searchItem() {
+        return itemService.searchItem(Dataset.WORDS[next() % Dataset.WORDS.length], 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> getItemsByUser() {
+        return itemService.getItemsByUser(dataset.owner(next()), 0, 20);
+    }
+
+    @Benchmark
+    public List<Booking> getAllBookingsForOwner() {
+        return bookingService.getAllBookingsForUser(dataset.owner(next()), "ALL", true, 0, 20);
+    }
+
+    @Benchmark
+    public List<Booking> getPastBookingsForOwner() {
+        return bookingService.getAllBookingsForUser(dataset.owner(next()), "PAST", true, 0, 20);
+    }
+
+    @Benchmark
+    public List<Booking> getFutureBookingsForBooker() {
+        return bookingService.getAllBookingsForUser(dataset.booker(next()), "FUTURE", false, 0, 20);
+    }
+
+    private int next() {
+        return counter.getAndIncrement() & Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Всплеск регистраций: {@link #THREADS} потоков без пауз регистрируют пачки по {@link #BURST} новых
+ * пользователей поверх {@link #EXISTING} уже зарегистрированных. С {@code emailFilter=false} фильтр Блума
+ * выключен и каждая регистрация проверяет email запросом к базе — разница и есть выигрыш фильтра.
+ * Результат — регистраций в секунду.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(SignUpBenchmark.THREADS)
+@Fork(1)
+public class SignUpBenchmark {
+    static final int THREADS = 16;
+    static final int BURST = 20;
+    static final int EXISTING = 10_000;
+
+    @Param({"true", "false"})
+    public boolean emailFilter;
+
+    private final AtomicLong counter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("shareit.users.email-filter.enabled=" + emailFilter);
+        StringBuilder users = new StringBuilder();
+        for (int i = 0; i < EXISTING; i++) {
+            users.append("{\"name\":\"user").append(i).append("\",\"email\":\"user").append(i)
+                    .append("@bench.ru\"}\n");
+        }
+        context.getBean(BulkImportService.class).importUsers(new BufferedReader(new StringReader(users.toString())));
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void signUpBurst(Blackhole blackhole) {
+        for (int i = 0; i < BURST; i++) {
+            long n = counter.incrementAndGet();
+            blackhole.consume(userService.saveUser(User.builder()
+                    .name("user" + n)
+                    .email("signup" + n + "@bench.ru")
+                    .build()));
+        }
+    }
+}
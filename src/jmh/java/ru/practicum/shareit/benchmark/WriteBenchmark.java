@@ -0,0 +1,146 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.bulk.dto.ImportReport;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Запись: предметы по одному через сервис против NDJSON-импорта той же пачки и пакетная вставка
+ * бронирований и отзывов одной транзакцией. Одна операция — {@link #BATCH} строк.
+ * {@code jdbcBatchSize=0} выключает пакетную отправку и упорядочивание вставок Hibernate — это база
+ * для сравнения с пакетами по 50 строк.
+ * Регистрация пользователей — в {@link SignUpBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WriteBenchmark {
+    static final int BATCH = 100;
+
+    @Param({"0", "50"})
+    public int jdbcBatchSize;
+
+    private final AtomicLong counter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private Dataset dataset;
+    private ItemService itemService;
+    private BulkImportService bulkImportService;
+    private BookingRepository bookingRepository;
+    private CommentRepository commentRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Item> items;
+    private List<User> bookers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                "spring.jpa.properties.hibernate.order_inserts=" + (jdbcBatchSize > 0),
+                "spring.jpa.properties.hibernate.order_updates=" + (jdbcBatchSize > 0));
+        dataset = new Dataset(context, 10, 10, 10, 1);
+        itemService = context.getBean(ItemService.class);
+        bulkImportService = context.getBean(BulkImportService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        items = context.getBean(ItemRepository.class).findAllById(dataset.getItems());
+        bookers = context.getBean(UserRepository.class).findAllById(dataset.getBookers());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> saveItemsOneByOne() {
+        Long owner = dataset.owner((int) counter.incrementAndGet());
+        List<Item> saved = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            saved.add(itemService.saveItem(ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Дрель ударная")
+                    .available(true)
+                    .build(), owner));
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public ImportReport importItems() {
+        Long owner = dataset.owner((int) counter.incrementAndGet());
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < BATCH; i++) {
+            ndjson.append("{\"name\":\"Дрель ").append(i)
+                    .append("\",\"description\":\"Дрель ударная\",\"available\":true}\n");
+        }
+        return bulkImportService.importItems(owner, new BufferedReader(new StringReader(ndjson.toString())));
+    }
+
+    @Benchmark
+    public Iterable<Booking> insertBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            bookings.add(Booking.builder()
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .item(items.get(i % items.size()))
+                    .booker(bookers.get(i % bookers.size()))
+                    .status(Status.WAITING)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> bookingRepository.saveAll(bookings));
+    }
+
+    @Benchmark
+    public List<Comment> insertComments() {
+        LocalDateTime created = LocalDateTime.now();
+        List<Comment> comments = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            comments.add(Comment.builder()
+                    .text("Отличная дрель")
+                    .item(items.get(i % items.size()))
+                    .author(bookers.get(i % bookers.size()))
+                    .created(created)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> commentRepository.saveAll(comments));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.seed.DataGenerator;
+import ru.practicum.shareit.seed.SeedReport;
+import ru.practicum.shareit.seed.SeedVolumes;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Данные прогона: база заполняется {@link DataGenerator}, затем сюда читаются id, из которых сценарии
+ * собирают запросы, и очередь ожидающих бронирований для подтверждения владельцами.
+ */
+@Getter
+class Dataset {
+    private final long[] users;
+    private final long[] owners;
+    private final long[] items;
+    private final long[] itemOwners;
+    private final ConcurrentLinkedQueue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    Dataset(ApplicationContext context, LoadSettings settings) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        SeedReport report = context.getBean(DataGenerator.class).generate(SeedVolumes.builder()
+                .users(settings.getUsers())
+                .owners(settings.getOwners())
+                .itemsPerOwner(settings.getItemsPerOwner())
+                .requests(settings.getUsers() / 10)
+                .bookings(settings.getBookings())
+                .commentRate(0.2)
+                .requestAnswerRate(0.1)
+                .zipfExponent(1.1)
+                .historyDays(365)
+                .horizonDays(60)
+                .now(now)
+                .seed(settings.getSeed())
+                .threads(Runtime.getRuntime().availableProcessors())
+                .batchSize(5000)
+                .build());
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        users = toArray(jdbcTemplate.queryForList("SELECT USER_ID FROM USERS WHERE USER_ID >= ? ORDER BY USER_ID",
+                Long.class, report.getFirstUserId()));
+        owners = toArray(jdbcTemplate.queryForList("SELECT DISTINCT OWNER_ID FROM ITEMS WHERE ITEM_ID >= ? " +
+                "ORDER BY OWNER_ID", Long.class, report.getFirstItemId()));
+        List<long[]> available = jdbcTemplate.query("SELECT ITEM_ID, OWNER_ID FROM ITEMS WHERE ITEM_ID >= ? " +
+                        "AND IS_AVAILABLE ORDER BY ITEM_ID",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, report.getFirstItemId());
+        items = available.stream().mapToLong(row -> row[0]).toArray();
+        itemOwners = available.stream().mapToLong(row -> row[1]).toArray();
+        waitingBookings.addAll(jdbcTemplate.query("SELECT b.BOOKING_ID, i.OWNER_ID FROM BOOKINGS b " +
+                        "JOIN ITEMS i ON i.ITEM_ID = b.ITEM_ID WHERE b.STATUS = 'WAITING' AND b.START_DATE > ? " +
+                        "AND i.IS_AVAILABLE ORDER BY b.BOOKING_ID",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, Timestamp.valueOf(now)));
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
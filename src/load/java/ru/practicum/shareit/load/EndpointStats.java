@@ -0,0 +1,56 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки одного сценария в микросекундах и счётчики исходов. Ответы 4xx/5xx и ошибки соединения
+ * учитываются в задержках наравне с успешными: медленный отказ тоже ожидание для клиента.
+ */
+@Getter
+class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, boolean error) {
+        latencies.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Запрос не отправлен: в полёте уже max-in-flight запросов, генератор не успевает за заданной частотой.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    /**
+     * Повторённый запрос получил другой статус, чем при записи.
+     */
+    void mismatch() {
+        mismatched.increment();
+    }
+
+    /**
+     * Запрос не из чего собрать: сценарию нечего отправить или тело записано обрезанным.
+     */
+    void skip() {
+        skipped.increment();
+    }
+}
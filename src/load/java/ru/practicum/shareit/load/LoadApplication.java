@@ -0,0 +1,54 @@
+package ru.practicum.shareit.load;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Приложение с веб-сервером на случайном порту и отдельной H2 в памяти. Конфигурация та же, что в работе,
+ * кроме журналов SQL и записи событий в файл; индекс поиска пишется во временный каталог.
+ */
+@UtilityClass
+class LoadApplication {
+    private static final String[] DEFAULTS = {
+            "server.port=0",
+            "spring.main.banner-mode=off",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.generate_statistics=false",
+            "logging.level.root=WARN",
+            "logging.level.ru.practicum.shareit=WARN",
+            "shareit.outbox.sink.file.enabled=false"};
+
+    /**
+     * Свойства передаются как аргументы командной строки, чтобы перекрыть application.properties;
+     * переданные здесь заменяют одноимённые значения по умолчанию.
+     */
+    static ConfigurableApplicationContext start(List<String> args) throws IOException {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:load-" + UUID.randomUUID());
+        properties.put("shareit.search.index.dir", Files.createTempDirectory("shareit-load-search").toString());
+        Stream.concat(Stream.of(DEFAULTS), args.stream().map(arg -> arg.substring(2))).forEach(property -> {
+            int separator = property.indexOf('=');
+            properties.put(property.substring(0, separator), property.substring(separator + 1));
+        });
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .logStartupInfo(false)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
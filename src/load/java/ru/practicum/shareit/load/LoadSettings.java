@@ -0,0 +1,132 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Параметры прогона из аргументов {@code --key=value}. Известные ключи настраивают нагрузку и объём данных,
+ * остальные передаются приложению, например {@code --shareit.bookings.list-cache.bucket=0s}.
+ * Пустые значения пропускаются, чтобы профиль Maven мог передавать необязательные параметры; аргумент
+ * с пробелами делится на несколько, поэтому в -Dload.app-args помещается список свойств приложения.
+ */
+@Getter
+class LoadSettings {
+    private double rate = 200;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private final Map<String, Integer> mix = new LinkedHashMap<>();
+    private int maxInFlight = 1000;
+    private long seed = 42;
+    private int users = 20000;
+    private int owners = 4000;
+    private int itemsPerOwner = 5;
+    private long bookings = 200000;
+    private Path reportDir = Path.of("target", "load");
+    private Path replay;
+    private String target;
+    private double speed = 1;
+    private Path baseline;
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadSettings parse(String... args) {
+        LoadSettings settings = new LoadSettings();
+        settings.setMix("search=30,item=25,book=10,approve=8,owner=17,requests=5,user=5");
+        for (String arg : Stream.of(args).flatMap(arg -> Stream.of(arg.trim().split("\\s+")))
+                .collect(Collectors.toList())) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("ожидается --key=value: " + arg);
+            }
+            String key = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (!settings.set(key, value)) {
+                settings.applicationArgs.add(arg);
+            }
+        }
+        return settings;
+    }
+
+    private boolean set(String key, String value) {
+        switch (key) {
+            case "rate":
+                rate = Double.parseDouble(value);
+                return true;
+            case "duration":
+                duration = DurationStyle.detectAndParse(value);
+                return true;
+            case "warmup":
+                warmup = DurationStyle.detectAndParse(value);
+                return true;
+            case "mix":
+                setMix(value);
+                return true;
+            case "max-in-flight":
+                maxInFlight = Integer.parseInt(value);
+                return true;
+            case "seed":
+                seed = Long.parseLong(value);
+                return true;
+            case "users":
+                users = Integer.parseInt(value);
+                return true;
+            case "owners":
+                owners = Integer.parseInt(value);
+                return true;
+            case "items-per-owner":
+                itemsPerOwner = Integer.parseInt(value);
+                return true;
+            case "bookings":
+                bookings = Long.parseLong(value);
+                return true;
+            case "report-dir":
+                reportDir = Path.of(value);
+                return true;
+            case "replay":
+                replay = Path.of(value);
+                return true;
+            case "target":
+                target = value;
+                return true;
+            case "speed":
+                speed = Double.parseDouble(value);
+                return true;
+            case "baseline":
+                baseline = Path.of(value);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Веса сценариев в виде {@code name=weight,...}; сценарии с нулевым весом не выполняются.
+     */
+    private void setMix(String value) {
+        mix.clear();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("ожидается name=weight: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(parts[0].trim(), weight);
+            }
+        }
+    }
+}
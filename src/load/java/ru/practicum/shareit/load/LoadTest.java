@@ -0,0 +1,135 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузочный прогон HTTP API на одной машине: поднимает приложение на случайном порту, заполняет базу,
+ * прогревает и подаёт смесь сценариев открытой моделью, затем печатает пропускную способность
+ * и перцентили задержек по сценариям, а распределения пишет в {@code <report-dir>/<scenario>.hgrm}.
+ * С --replay вместо смеси сценариев повторяется записанный трафик, см. {@link TrafficReplay}.
+ * <p>
+ * {@code mvn -Pload verify -Dload.rate=500 -Dload.duration=2m -Dload.mix=search=50,owner=50}
+ */
+@Slf4j
+public final class LoadTest {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    Thread thread = new Thread(runnable, "load-client");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        try {
+            if (settings.getReplay() != null && settings.getTarget() != null) {
+                replay(client, settings.getTarget(), settings);
+                return;
+            }
+            try (ConfigurableApplicationContext context = LoadApplication.start(settings.getApplicationArgs())) {
+                String baseUrl = "http://localhost:" + LoadApplication.port(context);
+                if (settings.getReplay() != null) {
+                    if (settings.getApplicationArgs().stream()
+                            .noneMatch(arg -> arg.startsWith("--spring.datasource.url="))) {
+                        new Dataset(context, settings);
+                    }
+                    replay(client, baseUrl, settings);
+                } else {
+                    drive(client, baseUrl, new Dataset(context, settings), settings);
+                }
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static void drive(HttpClient client, String baseUrl, Dataset dataset, LoadSettings settings)
+            throws InterruptedException, IOException {
+        Scenarios scenarios = new Scenarios(baseUrl, dataset, 1.1);
+        OpenModelDriver driver = new OpenModelDriver(client, scenarios.forMix(settings.getMix()),
+                settings.getMix(), settings.getRate(), settings.getMaxInFlight(), settings.getSeed());
+        log.warn("Прогрев {} при {} запросов/с на {}", settings.getWarmup(), settings.getRate(), baseUrl);
+        driver.run(settings.getWarmup());
+        log.warn("Замер {} при {} запросов/с", settings.getDuration(), settings.getRate());
+        Map<String, EndpointStats> stats = driver.run(settings.getDuration());
+        report(stats, settings, System.out);
+    }
+
+    /**
+     * Без --target приложение поднимается здесь же. Базу можно задать аргументом, например
+     * {@code --spring.datasource.url=jdbc:h2:file:/tmp/shareit-copy/shareit}; иначе новая база заполняется
+     * генератором с теми же параметрами, что в нагрузочном прогоне, и получает те же id — так повторяется
+     * трафик, записанный во время прогона другой сборки.
+     */
+    private static void replay(HttpClient client, String baseUrl, LoadSettings settings)
+            throws IOException, InterruptedException {
+        log.warn("Повтор {} со скоростью {}x на {}", settings.getReplay(), settings.getSpeed(), baseUrl);
+        new TrafficReplay(client, baseUrl, settings.getSpeed(), settings.getMaxInFlight())
+                .run(settings.getReplay(), settings, System.out);
+    }
+
+    private static void report(Map<String, EndpointStats> stats, LoadSettings settings, PrintStream out)
+            throws IOException {
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        Files.createDirectories(settings.getReportDir());
+        out.printf("%nЗаданная частота %.1f запросов/с, замер %s, задержки в мс%n", settings.getRate(),
+                settings.getDuration());
+        out.printf("%-10s %9s %9s %7s %7s %7s %9s %9s %9s %9s %9s%n", "scenario", "count", "rps", "errors",
+                "dropped", "skipped", "p50", "p90", "p99", "p99.9", "max");
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        long skipped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram latencies = endpoint.getLatencies();
+            total.add(latencies);
+            errors += endpoint.getErrors().sum();
+            dropped += endpoint.getDropped().sum();
+            skipped += endpoint.getSkipped().sum();
+            printRow(out, endpoint.getName(), latencies, seconds, endpoint.getErrors().sum(),
+                    endpoint.getDropped().sum(), endpoint.getSkipped().sum());
+            writeDistribution(settings.getReportDir().resolve(endpoint.getName() + ".hgrm"), latencies);
+        }
+        printRow(out, "total", total, seconds, errors, dropped, skipped);
+        writeDistribution(settings.getReportDir().resolve("total.hgrm"), total);
+        out.printf("Распределения: %s%n", settings.getReportDir().toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latencies, double seconds, long errors,
+                                 long dropped, long skipped) {
+        out.printf("%-10s %9d %9.1f %7d %7d %7d", name, latencies.getTotalCount(),
+                latencies.getTotalCount() / seconds, errors, dropped, skipped);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", latencies.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.2f%n", latencies.getMaxValue() / 1000.0);
+    }
+
+    private static void writeDistribution(Path path, Histogram latencies) throws IOException {
+        try (PrintStream file = new PrintStream(Files.newOutputStream(path), false, StandardCharsets.UTF_8)) {
+            latencies.outputPercentileDistribution(file, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы приходят пуассоновским потоком с заданной средней частотой и не ждут
+ * ответов на предыдущие, как независимые клиенты. Задержка считается от запланированного момента отправки,
+ * а не от фактического, поэтому отставание генератора и очереди в сервере попадают в перцентили
+ * (поправка на coordinated omission).
+ */
+@Slf4j
+class OpenModelDriver {
+    private final HttpClient client;
+    private final List<Scenario> scenarios;
+    private final int[] cumulativeWeights;
+    private final double rate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final SplittableRandom random;
+
+    OpenModelDriver(HttpClient client, List<Scenario> scenarios, Map<String, Integer> mix, double rate,
+                    int maxInFlight, long seed) {
+        this.client = client;
+        this.scenarios = scenarios;
+        this.cumulativeWeights = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            total += mix.get(scenarios.get(i).name());
+            cumulativeWeights[i] = total;
+        }
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Подаёт нагрузку в течение {@code duration} и ждёт ответов на отправленные запросы.
+     */
+    Map<String, EndpointStats> run(Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> stats.put(scenario.name(), new EndpointStats(scenario.name())));
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long started = System.nanoTime();
+        long end = started + duration.toNanos();
+        long intended = started;
+        while (true) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = pick();
+            EndpointStats endpoint = stats.get(scenario.name());
+            HttpRequest request = scenario.next(random);
+            if (request == null) {
+                endpoint.skip();
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                endpoint.drop();
+                continue;
+            }
+            send(scenario, endpoint, request, intended);
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            log.warn("Не дождались ответов на {} запросов", maxInFlight - inFlight.availablePermits());
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return stats;
+    }
+
+    private void send(Scenario scenario, EndpointStats endpoint, HttpRequest request, long intended) {
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            try {
+                endpoint.record(System.nanoTime() - intended, error != null || response.statusCode() >= 400);
+                if (response != null) {
+                    scenario.onResponse(response);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private Scenario pick() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("вес вне диапазона: " + roll);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.load;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+
+/**
+ * Один вид запроса в смеси нагрузки. {@link #next} вызывается только из потока генератора прибытий,
+ * {@link #onResponse} — из потоков HTTP-клиента.
+ */
+interface Scenario {
+    String name();
+
+    /**
+     * Следующий запрос или null, если сейчас его не из чего собрать (например, нечего подтверждать).
+     */
+    HttpRequest next(SplittableRandom random);
+
+    default void onResponse(HttpResponse<String> response) {
+    }
+}
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.seed.ZipfSampler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Сценарии смеси: поиск, карточка предмета, создание и подтверждение бронирования, списки владельца,
+ * запросы и профиль пользователя. Предметы и пользователи выбираются по Ципфу, как в реальном трафике,
+ * где небольшая доля популярных записей получает большую часть запросов.
+ */
+class Scenarios {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SEARCH_WORDS = {"дрель", "палатка", "велосипед", "проектор", "лыжи", "мангал",
+            "аккумулятор", "складн", "детский", "рюкзак", "самокат", "штатив"};
+    private static final String[] OWNER_STATES = {"ALL", "ALL", "ALL", "ALL", "ALL", "FUTURE", "FUTURE", "PAST",
+            "PAST", "WAITING"};
+
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ZipfSampler userPopularity;
+    private final ZipfSampler ownerPopularity;
+    private final ZipfSampler itemPopularity;
+    private final Map<String, Function<SplittableRandom, HttpRequest>> requests = Map.of(
+            "search", this::search,
+            "item", this::item,
+            "book", this::book,
+            "approve", this::approve,
+            "owner", this::owner,
+            "requests", this::requests,
+            "user", this::user);
+
+    Scenarios(String baseUrl, Dataset dataset, double zipfExponent) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.userPopularity = new ZipfSampler(dataset.getUsers().length, zipfExponent);
+        this.ownerPopularity = new ZipfSampler(dataset.getOwners().length, zipfExponent);
+        this.itemPopularity = new ZipfSampler(dataset.getItems().length, zipfExponent);
+    }
+
+    List<Scenario> forMix(Map<String, Integer> mix) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : mix.keySet()) {
+            Function<SplittableRandom, HttpRequest> request = requests.get(name);
+            if (request == null) {
+                throw new IllegalArgumentException("неизвестный сценарий " + name + ", доступны " + requests.keySet());
+            }
+            scenarios.add("book".equals(name) ? new BookScenario() : new SimpleScenario(name, request));
+        }
+        return scenarios;
+    }
+
+    private HttpRequest search(SplittableRandom random) {
+        String text = SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)];
+        return get("/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&from=0&size=20",
+                randomUser(random));
+    }
+
+    private HttpRequest item(SplittableRandom random) {
+        return get("/items/" + dataset.getItems()[popularItem(random)], randomUser(random));
+    }
+
+    /**
+     * Бронирование популярного доступного предмета на 1–5 дней в ближайшие два месяца.
+     */
+    private HttpRequest book(SplittableRandom random) {
+        int item = popularItem(random);
+        long booker = randomUser(random);
+        if (booker == dataset.getItemOwners()[item]) {
+            return null;
+        }
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1 + random.nextInt(60));
+        LocalDateTime end = start.plusDays(1 + random.nextInt(5));
+        String body = "{\"itemId\":" + dataset.getItems()[item] + ",\"start\":\"" + start + "\",\"end\":\"" + end
+                + "\"}";
+        return request("/bookings", booker)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Владелец подтверждает или (в одном случае из пяти) отклоняет ожидающее бронирование.
+     */
+    private HttpRequest approve(SplittableRandom random) {
+        long[] booking = dataset.getWaitingBookings().poll();
+        if (booking == null) {
+            return null;
+        }
+        return request("/bookings/" + booking[0] + "?approved=" + (random.nextInt(5) != 0), booking[1])
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private HttpRequest owner(SplittableRandom random) {
+        long owner = dataset.getOwners()[(int) ownerPopularity.sample(random) - 1];
+        return get("/bookings/owner?state=" + OWNER_STATES[random.nextInt(OWNER_STATES.length)] + "&from=0&size=20",
+                owner);
+    }
+
+    private HttpRequest requests(SplittableRandom random) {
+        return get("/requests/all?from=0&size=20", randomUser(random));
+    }
+
+    private HttpRequest user(SplittableRandom random) {
+        return get("/users/" + randomUser(random), randomUser(random));
+    }
+
+    private int popularItem(SplittableRandom random) {
+        return (int) itemPopularity.sample(random) - 1;
+    }
+
+    private long randomUser(SplittableRandom random) {
+        return dataset.getUsers()[(int) userPopularity.sample(random) - 1];
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header(USER_ID_HEADER, String.valueOf(userId));
+    }
+
+    private static class SimpleScenario implements Scenario {
+        private final String name;
+        private final Function<SplittableRandom, HttpRequest> request;
+
+        SimpleScenario(String name, Function<SplittableRandom, HttpRequest> request) {
+            this.name = name;
+            this.request = request;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public HttpRequest next(SplittableRandom random) {
+            return request.apply(random);
+        }
+    }
+
+    /**
+     * Созданные бронирования попадают в очередь сценария approve вместе с владельцем предмета.
+     */
+    private class BookScenario extends SimpleScenario {
+        BookScenario() {
+            super("book", Scenarios.this::book);
+        }
+
+        @Override
+        public void onResponse(HttpResponse<String> response) {
+            if (response.statusCode() != 200) {
+                return;
+            }
+            try {
+                JsonNode booking = objectMapper.readTree(response.body());
+                JsonNode owner = booking.path("item").path("ownerId");
+                if (owner.isNumber()) {
+                    dataset.getWaitingBookings().add(new long[]{booking.path("id").asLong(), owner.asLong()});
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
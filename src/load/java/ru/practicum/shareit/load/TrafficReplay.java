@@ -0,0 +1,210 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import ru.practicum.shareit.traffic.TrafficLog;
+import ru.practicum.shareit.traffic.TrafficRecord;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+
+/**
+ * Повтор трафика, записанного {@code TrafficRecordingFilter}: запросы отправляются с теми же интервалами,
+ * что при записи, делёнными на speed (speed 0 — без пауз), и не ждут ответов на предыдущие.
+ * Задержка считается от запланированного момента, как в {@link OpenModelDriver}.
+ * <p>
+ * Запросы группируются по методу и шаблону пути (числовые сегменты заменяются на {id}). Гистограммы прогона
+ * сохраняются в {@code <report-dir>/replay.hdr}; если передан baseline — такой же файл прогона другой
+ * сборки, — отчёт показывает изменение p50 и p99 по каждой группе. Повторять нужно на копии той базы,
+ * с которой записан трафик: запросы ссылаются на её id и меняют её.
+ */
+@Slf4j
+class TrafficReplay {
+    static final String RESULT_FILE = "replay.hdr";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final double speed;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final Map<String, Histogram> recorded = new LinkedHashMap<>();
+    private long firstStartedAtMicros = -1;
+    private long replayStarted;
+
+    TrafficReplay(HttpClient client, String baseUrl, double speed, int maxInFlight) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    static String endpoint(TrafficRecord record) {
+        int query = record.getUri().indexOf('?');
+        String path = query < 0 ? record.getUri() : record.getUri().substring(0, query);
+        return record.getMethod() + " " + NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    void run(Path file, LoadSettings settings, PrintStream out) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        TrafficLog.read(file, this::replay);
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            log.warn("Не дождались ответов на {} запросов", maxInFlight - inFlight.availablePermits());
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Files.createDirectories(settings.getReportDir());
+        Map<String, Histogram> baseline = settings.getBaseline() == null ? Map.of() : load(settings.getBaseline());
+        save(settings.getReportDir().resolve(RESULT_FILE));
+        report(out, seconds, baseline);
+    }
+
+    private void replay(TrafficRecord record) {
+        String endpoint = endpoint(record);
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        recorded.computeIfAbsent(endpoint, name -> new Histogram(3)).recordValue(record.getDurationMicros());
+        if (record.isBodyTruncated()) {
+            endpointStats.skip();
+            return;
+        }
+        long intended = schedule(record);
+        if (!inFlight.tryAcquire()) {
+            endpointStats.drop();
+            return;
+        }
+        client.sendAsync(request(record), HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            try {
+                endpointStats.record(System.nanoTime() - intended, error != null || response.statusCode() >= 400);
+                if (response != null && response.statusCode() != record.getStatus()) {
+                    endpointStats.mismatch();
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Ждёт момента отправки записи и возвращает его в System.nanoTime().
+     */
+    private long schedule(TrafficRecord record) {
+        if (firstStartedAtMicros < 0) {
+            firstStartedAtMicros = record.getStartedAtMicros();
+            replayStarted = System.nanoTime();
+        }
+        if (speed <= 0) {
+            return System.nanoTime();
+        }
+        long offsetNanos = (long) (TimeUnit.MICROSECONDS.toNanos(record.getStartedAtMicros() - firstStartedAtMicros)
+                / speed);
+        long intended = replayStarted + offsetNanos;
+        long wait = intended - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        return intended;
+    }
+
+    private HttpRequest request(TrafficRecord record) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + record.getUri()))
+                .timeout(TIMEOUT)
+                .method(record.getMethod(), record.getBody().length == 0 ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(record.getBody()));
+        if (record.getUserId() != null) {
+            request.header(USER_ID_HEADER, String.valueOf(record.getUserId()));
+        }
+        if (record.getContentType() != null) {
+            request.header("Content-Type", record.getContentType());
+        }
+        return request.build();
+    }
+
+    private void report(PrintStream out, double seconds, Map<String, Histogram> baseline) {
+        out.printf("%nПовтор за %.1f с, задержки в мс%n", seconds);
+        out.printf("%-32s %8s %7s %8s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "mismatch",
+                "skipped", "rec p50", "rec p99", "p50", "p99", "Δp50 %", "Δp99 %");
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram latencies = endpoint.getLatencies();
+            Histogram original = recorded.get(endpoint.getName());
+            Histogram previous = baseline.get(endpoint.getName());
+            out.printf("%-32s %8d %7d %8d %7d %9.2f %9.2f %9.2f %9.2f %9s %9s%n", endpoint.getName(),
+                    latencies.getTotalCount(), endpoint.getErrors().sum(), endpoint.getMismatched().sum(),
+                    endpoint.getSkipped().sum() + endpoint.getDropped().sum(),
+                    original.getValueAtPercentile(50) / 1000.0, original.getValueAtPercentile(99) / 1000.0,
+                    latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+                    delta(latencies, previous, 50), delta(latencies, previous, 99));
+        }
+        if (!baseline.isEmpty()) {
+            List<String> missing = new ArrayList<>(baseline.keySet());
+            missing.removeAll(stats.keySet());
+            if (!missing.isEmpty()) {
+                out.printf("Нет в этом прогоне: %s%n", missing);
+            }
+        }
+    }
+
+    private static String delta(Histogram current, Histogram previous, double percentile) {
+        if (previous == null || previous.getTotalCount() == 0 || current.getTotalCount() == 0) {
+            return "-";
+        }
+        double before = previous.getValueAtPercentile(percentile);
+        double after = current.getValueAtPercentile(percentile);
+        return String.format("%+.1f", (after - before) * 100 / Math.max(1, before));
+    }
+
+    /**
+     * Строки «группа TAB гистограмма в сжатом формате HdrHistogram, Base64».
+     */
+    private void save(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram latencies = endpoint.getLatencies();
+            ByteBuffer buffer = ByteBuffer.allocate(latencies.getNeededByteBufferCapacity());
+            int length = latencies.encodeIntoCompressedByteBuffer(buffer);
+            lines.add(endpoint.getName() + "\t" + Base64.getEncoder().encodeToString(
+                    Arrays.copyOf(buffer.array(), length)));
+        }
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Histogram> load(Path path) throws IOException {
+        Path file = Files.isDirectory(path) ? path.resolve(RESULT_FILE) : path;
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int separator = line.lastIndexOf('\t');
+            if (separator < 0) {
+                continue;
+            }
+            try {
+                histograms.put(line.substring(0, separator), Histogram.decodeFromCompressedByteBuffer(
+                        ByteBuffer.wrap(Base64.getDecoder().decode(line.substring(separator + 1))), 0));
+            } catch (DataFormatException e) {
+                throw new IOException("повреждена строка базового прогона " + file, e);
+            }
+        }
+        return histograms;
+    }
+}
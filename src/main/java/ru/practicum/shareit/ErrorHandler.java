@@ -102,6 +102,13 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage(), "Бронирование не найдено.");
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GONE)
+    public ErrorResponse handleChangesExpiredException(final ChangesExpiredException e) {
+        log.debug("Получен статус 410 Gone {}", e.getMessage(), e);
+        return new ErrorResponse(e.getMessage(), "Изменения удалены, требуется полная синхронизация.");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final RuntimeException e) {
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.admin;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.admin.dto.ProjectionRebuildDto;
+import ru.practicum.shareit.history.BookingHistoryService;
+
+/**
+ * Пересборка таблицы BOOKINGS из журнала событий бронирований и снимков.
+ */
+@RestController
+@RequestMapping("/admin/bookings/projection")
+@RequiredArgsConstructor
+@Slf4j
+public class BookingProjectionController {
+    private final BookingHistoryService bookingHistoryService;
+
+    @PostMapping
+    public ProjectionRebuildDto rebuildProjection() {
+        log.info("Получен POST-запрос /admin/bookings/projection");
+        long started = System.nanoTime();
+        int bookings = bookingHistoryService.rebuildProjection();
+        return ProjectionRebuildDto.builder()
+                .bookings(bookings)
+                .millis((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+}
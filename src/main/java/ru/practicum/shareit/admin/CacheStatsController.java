@@ -0,0 +1,60 @@
+package ru.practicum.shareit.admin;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.admin.dto.CacheRegionStatsDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Статистика кэша второго уровня Hibernate по регионам (User, Item, Comment, Item.comments).
+ */
+@RestController
+@RequestMapping("/admin/cache")
+@Slf4j
+public class CacheStatsController {
+    private final Statistics statistics;
+    private final String regionPrefix;
+
+    public CacheStatsController(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statistics = sessionFactory.getStatistics();
+        String prefix = sessionFactory.getSessionFactoryOptions().getCacheRegionPrefix();
+        this.regionPrefix = prefix == null ? "" : prefix + ".";
+    }
+
+    @GetMapping
+    public List<CacheRegionStatsDto> getCacheStats() {
+        log.info("Получен GET-запрос /admin/cache");
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(this::stripPrefix)
+                .sorted()
+                .map(region -> toDto(region, statistics.getDomainDataRegionStatistics(region)))
+                .collect(Collectors.toList());
+    }
+
+    private String stripPrefix(String region) {
+        return region.startsWith(regionPrefix) ? region.substring(regionPrefix.length()) : region;
+    }
+
+    private static CacheRegionStatsDto toDto(String region, CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        return CacheRegionStatsDto.builder()
+                .region(region)
+                .hits(hits)
+                .misses(misses)
+                .puts(regionStatistics.getPutCount())
+                .elementsInMemory(regionStatistics.getElementCountInMemory())
+                .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.admin;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.admin.dto.FlightRecordingDto;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.profiling.FlightRecorderControl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Запуск, остановка и выгрузка записи Java Flight Recorder с событиями запросов, сервисов и репозиториев.
+ */
+@RestController
+@RequestMapping("/admin/jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecordingController {
+    private final FlightRecorderControl flightRecorder;
+
+    @GetMapping
+    public FlightRecordingDto getRecording() {
+        log.info("Получен GET-запрос /admin/jfr");
+        return flightRecorder.status();
+    }
+
+    @PostMapping("/start")
+    public FlightRecordingDto startRecording(@RequestParam(defaultValue = "profile") String settings,
+                                             @RequestParam(defaultValue = "1h") String maxAge) {
+        log.info("Получен POST-запрос /admin/jfr/start с настройками {}", settings);
+        return flightRecorder.start(settings, toDuration(maxAge));
+    }
+
+    @PostMapping("/stop")
+    public FlightRecordingDto stopRecording() {
+        log.info("Получен POST-запрос /admin/jfr/stop");
+        return flightRecorder.stop();
+    }
+
+    /**
+     * Снимок идущей записи в формате .jfr для JDK Mission Control или {@code jfr print}. Снимок пишется
+     * во временный файл, который удаляется после отправки ответа, так что на диске снимки не копятся.
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording() throws IOException {
+        log.info("Получен POST-запрос /admin/jfr/dump");
+        Path file = flightRecorder.dumpToTempFile();
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"shareit.jfr\"")
+                .body(body);
+    }
+
+    private static Duration toDuration(String value) {
+        try {
+            return DurationStyle.detectAndParse(value);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(HttpStatus.BAD_REQUEST, "Неверная длительность: " + value);
+        }
+    }
+}
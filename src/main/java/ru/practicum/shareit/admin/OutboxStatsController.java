@@ -0,0 +1,27 @@
+package ru.practicum.shareit.admin;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.admin.dto.OutboxStatsDto;
+import ru.practicum.shareit.outbox.OutboxRelay;
+
+/**
+ * Отставание доставки событий из OUTBOX: сколько ждёт отправки, возраст самого старого события,
+ * задержка последней доставленной пачки и число неудачных попыток.
+ */
+@RestController
+@RequestMapping("/admin/outbox")
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxStatsController {
+    private final OutboxRelay outboxRelay;
+
+    @GetMapping
+    public OutboxStatsDto getOutboxStats() {
+        log.info("Получен GET-запрос /admin/outbox");
+        return outboxRelay.stats();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.admin;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.admin.dto.SlowQueryDto;
+import ru.practicum.shareit.jdbc.SlowQueryLog;
+
+import java.util.List;
+
+/**
+ * Журнал медленных операторов SQL, от новых к старым.
+ */
+@RestController
+@RequestMapping("/admin/slow-queries")
+@ConditionalOnProperty(prefix = "shareit.sql.slow-log", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SlowQueryController {
+    private final SlowQueryLog slowQueryLog;
+
+    @GetMapping
+    public List<SlowQueryDto> getSlowQueries() {
+        log.info("Получен GET-запрос /admin/slow-queries");
+        return slowQueryLog.entries();
+    }
+
+    @DeleteMapping
+    public void clearSlowQueries() {
+        log.info("Получен DELETE-запрос /admin/slow-queries");
+        slowQueryLog.clear();
+    }
+}
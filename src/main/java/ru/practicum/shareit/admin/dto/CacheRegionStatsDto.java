@@ -0,0 +1,18 @@
+package ru.practicum.shareit.admin.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CacheRegionStatsDto {
+     String region;
+     long hits;
+     long misses;
+     long puts;
+     long elementsInMemory;
+     double hitRatio;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.admin.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FlightRecordingDto {
+     long id;
+     String state;
+     String settings;
+     Instant startedAt;
+     String file;
+     long bytes;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.admin.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxStatsDto {
+     long pending;
+     long oldestPendingAgeMillis;
+     long lastDeliveryLagMillis;
+     LocalDateTime lastPublishedAt;
+     long published;
+     long failedAttempts;
+     List<String> sinks;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.admin.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SlowQueryDto {
+     Instant executedAt;
+     double millis;
+     String sql;
+     List<String> binds;
+     long rows;
+     int batchSize;
+     boolean failed;
+     String caller;
+     String thread;
+     String plan;
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.aop;
+
+import lombok.Getter;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Вызванный метод бина: имя класса и метода и транзакционные атрибуты, вычисленные один раз на место вызова.
+ * Унаследованные методы Spring Data (например, CrudRepository.findById) — один и тот же {@link Method}
+ * у всех репозиториев, поэтому место вызова определяется прокси, целевым классом и методом вместе.
+ */
+@Getter
+public class CallSite {
+    private static final TransactionAttributeSource TRANSACTIONS = new AnnotationTransactionAttributeSource();
+    private static final Map<Key, CallSite> SITES = new ConcurrentHashMap<>();
+
+    private final Method method;
+    private final Class<?> targetClass;
+    private final String className;
+    private final String name;
+    private final boolean transactional;
+    private final boolean readOnly;
+
+    private CallSite(Method method, Class<?> targetClass, String className, TransactionAttribute transaction) {
+        this.method = method;
+        this.targetClass = targetClass;
+        this.className = className;
+        this.name = className + "." + method.getName();
+        this.transactional = transaction != null;
+        this.readOnly = transaction != null && transaction.isReadOnly();
+    }
+
+    public static CallSite of(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getThis() == null ? method.getDeclaringClass()
+                : AopUtils.getTargetClass(invocation.getThis());
+        Object proxy = invocation instanceof ProxyMethodInvocation
+                ? ((ProxyMethodInvocation) invocation).getProxy() : null;
+        return SITES.computeIfAbsent(new Key(proxy == null ? null : proxy.getClass(), targetClass, method),
+                key -> new CallSite(method, targetClass, className(proxy, targetClass),
+                        TRANSACTIONS.getTransactionAttribute(method, targetClass)));
+    }
+
+    /**
+     * Для репозиториев Spring Data целью служит SimpleJpaRepository — берётся интерфейс репозитория,
+     * который реализует прокси.
+     */
+    private static String className(Object proxy, Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        if (userClass.getName().startsWith(LayerAdvisors.BASE_PACKAGE) || proxy == null) {
+            return userClass.getSimpleName();
+        }
+        return Arrays.stream(AopProxyUtils.proxiedUserInterfaces(proxy))
+                .filter(type -> type.getName().startsWith(LayerAdvisors.BASE_PACKAGE))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(userClass.getSimpleName());
+    }
+
+    @lombok.Value
+    private static class Key {
+        Class<?> proxyClass;
+        Class<?> targetClass;
+        Method method;
+    }
+}
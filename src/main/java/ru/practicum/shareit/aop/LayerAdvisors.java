@@ -0,0 +1,33 @@
+package ru.practicum.shareit.aop;
+
+import lombok.experimental.UtilityClass;
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+/**
+ * Советники для всех бинов приложения одного слоя: контроллеров, сервисов или репозиториев. Сторонние бины
+ * с теми же аннотациями пропускаются; интерфейсы Spring Data попадают сюда как JDK-прокси своих интерфейсов.
+ */
+@UtilityClass
+public class LayerAdvisors {
+    public static final String BASE_PACKAGE = "ru.practicum.shareit.";
+
+    private static final ClassFilter APPLICATION_CLASSES = type -> type.getName().startsWith(BASE_PACKAGE)
+            || Proxy.isProxyClass(type)
+            && Arrays.stream(type.getInterfaces()).anyMatch(i -> i.getName().startsWith(BASE_PACKAGE));
+
+    public static DefaultPointcutAdvisor advisor(Class<? extends Annotation> stereotype, Advice advice, int order) {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationClassFilter(stereotype, true))
+                .intersection(APPLICATION_CLASSES);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, advice);
+        advisor.setOrder(order);
+        return advisor;
+    }
+}
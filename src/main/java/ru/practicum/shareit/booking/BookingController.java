@@ -6,6 +6,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.history.BookingHistoryService;
+import ru.practicum.shareit.history.dto.BookingHistoryDto;
 import ru.practicum.shareit.mappers.BookingMapper;
 
 import javax.validation.Valid;
@@ -26,6 +28,7 @@ import static ru.practicum.shareit.mappers.BookingMapper.toBookingDto;
 public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
     private final BookingService bookingService;
+    private final BookingHistoryService bookingHistoryService;
 
     @PostMapping
     public BookingDto saveBooking(@RequestHeader(name = USER_ID_HEADER) Long userId,
@@ -50,6 +53,13 @@ public class BookingController {
         return toBookingDto(bookingService.getBookingForOwnerOrBooker(userId, bookingId));
     }
 
+    @GetMapping("/{bookingId}/history")
+    public BookingHistoryDto getBookingHistory(@RequestHeader(name = USER_ID_HEADER) Long userId,
+                                               @PathVariable Long bookingId) {
+        log.info("Получен GET-запрос истории переходов бронирования {}", bookingId);
+        return bookingHistoryService.getHistory(userId, bookingId);
+    }
+
     @GetMapping
     public List<BookingDto> getAllBookingsForBooker(@RequestHeader(name = USER_ID_HEADER) Long userId,
                                                     @RequestParam(defaultValue = "ALL")
@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.shard.ShardSequenceGenerator;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -25,7 +28,9 @@ import java.time.LocalDateTime;
 public class Booking {
     @Id
     @Column(name = "booking_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "bookings_seq")
+    @GenericGenerator(name = "bookings_seq", strategy = "ru.practicum.shareit.shard.ShardSequenceGenerator",
+            parameters = @Parameter(name = ShardSequenceGenerator.SEQUENCE_PARAM, value = "BOOKINGS_SEQ"))
      Long id;
     @Column(name = "start_date")
      LocalDateTime start;
@@ -40,7 +45,8 @@ public class Booking {
     @ToString.Exclude
     @JoinColumn(name = "booker_id", nullable = false)
      User booker;
-    @Column(name = "status", nullable = false)
+    // Статус меняется только условным UPDATE (см. BookingRepository.updateStatusIfWaiting), не грязной проверкой
+    @Column(name = "status", nullable = false, updatable = false)
     @Enumerated(EnumType.STRING)
      Status status;
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.jdbc.CursorStatementCreator;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение бронирований вместе с предметом и арендатором одним запросом через JDBC-курсор.
+ * Должен вызываться внутри транзакции.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+    private static final String SELECT = "SELECT b.BOOKING_ID, b.START_DATE, b.END_DATE, b.STATUS, " +
+            "i.ITEM_ID, i.ITEM_NAME, i.DESCRIPTION, i.IS_AVAILABLE, i.OWNER_ID, i.REQUEST, " +
+            "u.USER_ID, u.USER_NAME, u.EMAIL " +
+            "FROM BOOKINGS b JOIN ITEMS i ON i.ITEM_ID = b.ITEM_ID JOIN USERS u ON u.USER_ID = b.BOOKER_ID ";
+    private static final String SELECT_BY_OWNER = SELECT + "WHERE i.OWNER_ID = ? ORDER BY b.START_DATE DESC";
+    private static final String SELECT_BY_BOOKER = SELECT + "WHERE b.BOOKER_ID = ? ORDER BY b.START_DATE DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamByOwner(Long ownerId, Consumer<Booking> consumer) {
+        jdbcTemplate.query(new CursorStatementCreator(SELECT_BY_OWNER, ownerId),
+                (RowCallbackHandler) rs -> consumer.accept(mapBooking(rs)));
+    }
+
+    public void streamByBooker(Long bookerId, Consumer<Booking> consumer) {
+        jdbcTemplate.query(new CursorStatementCreator(SELECT_BY_BOOKER, bookerId),
+                (RowCallbackHandler) rs -> consumer.accept(mapBooking(rs)));
+    }
+
+    private static Booking mapBooking(ResultSet rs) throws SQLException {
+        return Booking.builder()
+                .id(rs.getLong("BOOKING_ID"))
+                .start(rs.getObject("START_DATE", LocalDateTime.class))
+                .end(rs.getObject("END_DATE", LocalDateTime.class))
+                .status(Status.valueOf(rs.getString("STATUS")))
+                .item(ItemJdbcRepository.mapItem(rs))
+                .booker(User.builder()
+                        .id(rs.getLong("USER_ID"))
+                        .name(rs.getString("USER_NAME"))
+                        .email(rs.getString("EMAIL"))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.metrics.MetricTag;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Модель чтения для списков бронирований владельца и арендатора: таблицы OWNER_BOOKINGS_VIEW и
+ * BOOKER_BOOKINGS_VIEW хранят ровно поля {@code BookingDto}, поэтому списки читаются без соединений.
+ * Индекс (пользователь, начало по убыванию) отдаёт ALL и PAST в нужном порядке без сортировки,
+ * индекс (пользователь, статус, начало по убыванию) — WAITING и REJECTED. CURRENT и FUTURE фильтруют
+ * по окончанию, которого в индексах нет, — см. {@link #findCurrent} и {@link #findFuture}.
+ * Таблицы обновляются в транзакциях записи бронирований, предметов и пользователей.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingViewRepository {
+    private static final String OWNER_VIEW = "OWNER_BOOKINGS_VIEW";
+    private static final String BOOKER_VIEW = "BOOKER_BOOKINGS_VIEW";
+    private static final String COLUMNS = "BOOKING_ID, START_DATE, END_DATE, STATUS, ITEM_ID, ITEM_NAME, " +
+            "DESCRIPTION, IS_AVAILABLE, OWNER_ID, REQUEST, BOOKER_ID, USER_NAME, EMAIL";
+    private static final String ORDER = " ORDER BY START_DATE DESC, BOOKING_ID DESC LIMIT ? OFFSET ?";
+    private static final RowMapper<Booking> BOOKING_MAPPER = (rs, rowNum) -> Booking.builder()
+            .id(rs.getLong("BOOKING_ID"))
+            .start(rs.getObject("START_DATE", LocalDateTime.class))
+            .end(rs.getObject("END_DATE", LocalDateTime.class))
+            .status(Status.valueOf(rs.getString("STATUS")))
+            .item(ItemJdbcRepository.mapItem(rs))
+            .booker(User.builder()
+                    .id(rs.getLong("BOOKER_ID"))
+                    .name(rs.getString("USER_NAME"))
+                    .email(rs.getString("EMAIL"))
+                    .build())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Booking booking) {
+        for (String view : List.of(OWNER_VIEW, BOOKER_VIEW)) {
+            Item item = booking.getItem();
+            User booker = booking.getBooker();
+            jdbcTemplate.update("INSERT INTO " + view + " (" + COLUMNS + ") " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    booking.getId(), Timestamp.valueOf(booking.getStart()), Timestamp.valueOf(booking.getEnd()),
+                    booking.getStatus().name(), item.getId(), item.getName(), item.getDescription(),
+                    item.getAvailable(), item.getOwnerId(), item.getRequest(), booker.getId(), booker.getName(),
+                    booker.getEmail());
+        }
+    }
+
+    public void updateStatus(Long bookingId, Status status) {
+        updateStatuses(Map.of(bookingId, status));
+    }
+
+    public void updateStatuses(Map<Long, Status> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Status>> entries = new ArrayList<>(statuses.entrySet());
+        for (String view : List.of(OWNER_VIEW, BOOKER_VIEW)) {
+            jdbcTemplate.batchUpdate("UPDATE " + view + " SET STATUS = ? WHERE BOOKING_ID = ?", entries,
+                    entries.size(), (statement, entry) -> {
+                        statement.setString(1, entry.getValue().name());
+                        statement.setLong(2, entry.getKey());
+                    });
+        }
+    }
+
+    public void updateItem(Item item) {
+        for (String view : List.of(OWNER_VIEW, BOOKER_VIEW)) {
+            jdbcTemplate.update("UPDATE " + view + " SET ITEM_NAME = ?, DESCRIPTION = ?, IS_AVAILABLE = ?, " +
+                            "OWNER_ID = ?, REQUEST = ? WHERE ITEM_ID = ?", item.getName(), item.getDescription(),
+                    item.getAvailable(), item.getOwnerId(), item.getRequest(), item.getId());
+        }
+    }
+
+    public void updateBooker(User booker) {
+        for (String view : List.of(OWNER_VIEW, BOOKER_VIEW)) {
+            jdbcTemplate.update("UPDATE " + view + " SET USER_NAME = ?, EMAIL = ? WHERE BOOKER_ID = ?",
+                    booker.getName(), booker.getEmail(), booker.getId());
+        }
+    }
+
+    public List<Booking> findAll(Long userId, @MetricTag(MetricTag.ROLE) boolean isOwner, Pageable pageable) {
+        return find(isOwner, "", pageable, userId);
+    }
+
+    /**
+     * Чтение одного диапазона индекса (пользователь, статус, начало по убыванию).
+     */
+    public List<Booking> findByStatus(Long userId, @MetricTag(MetricTag.ROLE) boolean isOwner,
+                                      @MetricTag(MetricTag.STATE) Status status, Pageable pageable) {
+        return find(isOwner, " AND STATUS = ?", pageable, userId, status.name());
+    }
+
+    /**
+     * Начало не позже {@code now} ограничивает диапазон сверху, а окончание проверяется у каждой строки:
+     * обход идёт от текущего момента в прошлое и кончается на заполненной странице, а если текущих
+     * бронирований меньше страницы — только на конце истории пользователя.
+     */
+    public List<Booking> findCurrent(Long userId, @MetricTag(MetricTag.ROLE) boolean isOwner, LocalDateTime now, Pageable pageable) {
+        Timestamp time = Timestamp.valueOf(now);
+        return find(isOwner, " AND START_DATE <= ? AND END_DATE >= ?", pageable, userId, time, time);
+    }
+
+    /**
+     * Окончание раньше {@code now} влечёт и начало раньше него — это условие ограничивает диапазон индекса.
+     */
+    public List<Booking> findPast(Long userId, @MetricTag(MetricTag.ROLE) boolean isOwner, LocalDateTime now, Pageable pageable) {
+        Timestamp time = Timestamp.valueOf(now);
+        return find(isOwner, " AND START_DATE < ? AND END_DATE < ?", pageable, userId, time, time);
+    }
+
+    /**
+     * Условие только на окончание: диапазон не ограничен, индекс даёт лишь порядок. Будущие бронирования
+     * начинаются позже прошедших, поэтому обход от последнего начала обычно быстро заполняет страницу, но
+     * у пользователя без будущих бронирований проходит всю его историю.
+     */
+    public List<Booking> findFuture(Long userId, @MetricTag(MetricTag.ROLE) boolean isOwner, LocalDateTime now, Pageable pageable) {
+        return find(isOwner, " AND END_DATE > ?", pageable, userId, Timestamp.valueOf(now));
+    }
+
+    private List<Booking> find(boolean isOwner, String condition, Pageable pageable, Object... params) {
+        String sql = "SELECT " + COLUMNS + " FROM " + (isOwner ? OWNER_VIEW + " WHERE OWNER_ID = ?"
+                : BOOKER_VIEW + " WHERE BOOKER_ID = ?") + condition + ORDER;
+        Object[] args = new Object[params.length + 2];
+        System.arraycopy(params, 0, args, 0, params.length);
+        args[params.length] = pageable.getPageSize();
+        args[params.length + 1] = pageable.getOffset();
+        return jdbcTemplate.query(sql, BOOKING_MAPPER, args);
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.events.BookingStatusChangedEvent;
+import ru.practicum.shareit.events.ChangeType;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Кэш страниц {@code getAllBookingsForUser} по ключу (пользователь, роль, состояние, страница, интервал времени).
+ * PAST, CURRENT и FUTURE считаются на начало интервала длиной {@code bucket}, а не на текущий момент,
+ * поэтому повтор запроса внутри интервала даёт тот же ответ, что и запрос к базе, а на границе интервала
+ * ключ меняется сам. Запись бронирования увеличивает поколение арендатора и владельца после коммита —
+ * страницы, прочитанные со старым поколением, становятся недостижимы. Изменения предметов и пользователей
+ * попадают в страницы многих пользователей и сбрасывают поколение всех.
+ * Поколения хранятся не по пользователю, а в фиксированном массиве ячеек по хэшу id: память не растёт
+ * с числом пользователей, а совпадение ячеек лишь сбрасывает страницы соседа по ячейке.
+ * Сброс действует только в этом экземпляре: записи живут не дольше одного интервала.
+ */
+@Component
+public class BookingListCache {
+    private static final Set<String> TIME_DEPENDENT = Set.of("CURRENT", "PAST", "FUTURE");
+    private static final int GENERATION_SLOTS = 1 << 14;
+
+    private final ItemRepository itemRepository;
+    private final Clock clock;
+    private final long bucketMillis;
+    private final Cache<Key, List<Booking>> pages;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    @Autowired
+    public BookingListCache(ItemRepository itemRepository,
+                            @Value("${shareit.bookings.list-cache.bucket:1m}") Duration bucket,
+                            @Value("${shareit.bookings.list-cache.max-size:10000}") long maxSize) {
+        this(itemRepository, Clock.systemDefaultZone(), bucket, maxSize);
+    }
+
+    BookingListCache(ItemRepository itemRepository, Clock clock, Duration bucket, long maxSize) {
+        this.itemRepository = itemRepository;
+        this.clock = clock;
+        this.bucketMillis = bucket.toMillis();
+        this.pages = bucketMillis <= 0 || maxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(bucket)
+                .build();
+    }
+
+    /**
+     * Кэш выключен: каждый запрос идёт в базу на текущий момент.
+     */
+    public static BookingListCache disabled() {
+        return new BookingListCache(null, Clock.systemDefaultZone(), Duration.ZERO, 0);
+    }
+
+    /**
+     * Страница из кэша или результат {@code loader}, вызванного с моментом, на который считаются состояния.
+     * Исключения {@code loader} не кэшируются.
+     */
+    public List<Booking> get(Long userId, boolean isOwner, String state, int from, int size,
+                             Function<LocalDateTime, List<Booking>> loader) {
+        if (pages == null) {
+            return loader.apply(LocalDateTime.now(clock));
+        }
+        long now = clock.millis();
+        long bucketStart = now - Math.floorMod(now, bucketMillis);
+        boolean timeDependent = TIME_DEPENDENT.contains(state);
+        Key key = new Key(userId, isOwner, state, from, size, timeDependent ? bucketStart : 0,
+                generation(userId), globalGeneration.get());
+        List<Booking> cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        LocalDateTime time = timeDependent
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(bucketStart), clock.getZone())
+                : LocalDateTime.now(clock);
+        List<Booking> loaded = List.copyOf(loader.apply(time));
+        pages.put(key, loaded);
+        return loaded;
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        invalidate(event.getBookerId(), event.getItemId());
+    }
+
+    /**
+     * Сбрасывает страницы арендатора и владельца предмета после коммита. Для изменений бронирования
+     * без события перехода, например при пересборке проекции из журнала.
+     */
+    public void invalidate(Long bookerId, Long itemId) {
+        if (pages == null) {
+            return;
+        }
+        Long ownerId = itemRepository.findById(itemId).map(Item::getOwnerId).orElse(null);
+        afterCommit(() -> {
+            bump(bookerId);
+            bump(ownerId);
+        });
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntityType() == EntityType.ITEM && event.getChangeType() != ChangeType.CREATED) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Сбрасывает страницы всех пользователей, например после изменения имени или удаления пользователя.
+     */
+    public void invalidateAll() {
+        if (pages != null) {
+            afterCommit(globalGeneration::incrementAndGet);
+        }
+    }
+
+    private long generation(Long userId) {
+        return generations.get(slot(userId));
+    }
+
+    private void bump(Long userId) {
+        if (userId != null) {
+            generations.incrementAndGet(slot(userId));
+        }
+    }
+
+    private static int slot(Long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (GENERATION_SLOTS - 1);
+    }
+
+    /**
+     * До коммита другие транзакции ещё видят старые данные и положили бы их под новым поколением.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @lombok.Value
+    private static class Key {
+        Long userId;
+        boolean owner;
+        String state;
+        int from;
+        int size;
+        long bucket;
+        long generation;
+        long globalGeneration;
+    }
+}
@@ -2,22 +2,31 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.events.BookingStatusChangedEvent;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.MetricTag;
+import ru.practicum.shareit.shard.ShardKey;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.shard.Sharded;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 
 import static ru.practicum.shareit.mappers.BookingMapper.toBooking;
@@ -28,14 +37,21 @@ import static ru.practicum.shareit.mappers.BookingMapper.toBookingDto;
 @Transactional(readOnly = true)
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final Comparator<Booking> BOOKER_ORDER = Comparator.comparing(Booking::getStart).reversed()
+            .thenComparing(Booking::getId, Comparator.reverseOrder());
 
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingViewRepository bookingViewRepository;
+    private final BookingListCache bookingListCache;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
     @Transactional
+    @Sharded("#bookingDto.itemId")
     public BookingDto saveBooking(Long userId, BookingDto bookingDto) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new UserNotFoundException("Пользователь не найден " + userId));
@@ -66,11 +82,16 @@ public class BookingServiceImpl implements BookingService {
         log.info("Предмет {} ожидает подтверждения бронирования от владельца: {} ",
                 booking.getItem(), booking.getItem().getOwnerId());
 
-        return toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingViewRepository.insert(savedBooking);
+        eventPublisher.publishEvent(EntityChangedEvent.created(EntityType.BOOKING, savedBooking.getId()));
+        eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking));
+        return toBookingDto(savedBooking);
     }
 
     @Override
     @Transactional
+    @Sharded("#bookingId")
     public Booking confirmOrCancelBooking(Long userId, Long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new BookingNotFoundException("Бронирование не найдено"));
@@ -80,8 +101,8 @@ public class BookingServiceImpl implements BookingService {
             throw new UserNotFoundException("Пользователь не найден " + userId);
         }
 
-        if (booking.getStatus() == Status.APPROVED) {
-            log.debug("Бронирование уже подтверждено ранее");
+        if (booking.getStatus() != Status.WAITING) {
+            log.debug("Решение по бронированию уже принято ранее: {}", booking.getStatus());
             throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
         }
 
@@ -91,17 +112,22 @@ public class BookingServiceImpl implements BookingService {
                     "владелец предмета - " + userId);
         }
 
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+            log.debug("Решение по бронированию {} уже принято в другом запросе", bookingId);
+            throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
         }
+        booking.setStatus(status);
 
-        return bookingRepository.save(booking);
+        bookingViewRepository.updateStatus(booking.getId(), status);
+        eventPublisher.publishEvent(EntityChangedEvent.updated(EntityType.BOOKING, booking.getId()));
+        eventPublisher.publishEvent(BookingStatusChangedEvent.of(booking));
+        return booking;
     }
 
     @Override
     @Transactional
+    @Sharded("#bookingId")
     public Booking getBookingForOwnerOrBooker(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new BookingNotFoundException("Бронирование не найдено"));
@@ -125,53 +151,47 @@ public class BookingServiceImpl implements BookingService {
         return booking;
     }
 
+    /**
+     * Читает модель чтения {@link BookingViewRepository} через {@link BookingListCache}. Бронирования владельца
+     * лежат на его шарде, бронирования арендатора собираются со всех шардов.
+     */
     @Override
-    public List<Booking> getAllBookingsForUser(Long userId, String state, boolean isOwner, int from, int size) {
-        if (!userRepository.existsById(userId)) {
-            log.debug("Пользователь {} не найден ", userId);
-            throw new UserNotFoundException("Пользователь не найден " + userId);
-        }
-
-        LocalDateTime timeNow = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
+    @Sharded(value = "#isOwner ? #userId : null", by = ShardKey.OWNER)
+    public List<Booking> getAllBookingsForUser(Long userId,
+                                               @MetricTag(value = MetricTag.STATE, values = {"ALL", "CURRENT", "PAST",
+                                                       "FUTURE", "WAITING", "REJECTED"}) String state,
+                                               @MetricTag(MetricTag.ROLE) boolean isOwner,
+                                               int from, int size) {
+        return bookingListCache.get(userId, isOwner, state, from, size, timeNow -> {
+            if (!userRepository.existsById(userId)) {
+                log.debug("Пользователь {} не найден ", userId);
+                throw new UserNotFoundException("Пользователь не найден " + userId);
+            }
+
+            Pageable pageable = PageRequest.of(from / size, size);
+            if (isOwner) {
+                return getBookings(userId, state, true, timeNow, pageable);
+            }
+            return shardRouter.gather(pageable, BOOKER_ORDER,
+                    page -> getBookings(userId, state, false, timeNow, page));
+        });
+    }
 
+    private List<Booking> getBookings(Long userId, String state, boolean isOwner, LocalDateTime timeNow,
+                                      Pageable pageable) {
         switch (state) {
             case "ALL":
-                if (isOwner) {
-                    return bookingRepository.getBookingListByOwnerId(userId, pageable);
-                } else {
-                    return bookingRepository.getBookingListByBookerId(userId, pageable);
-                }
+                return bookingViewRepository.findAll(userId, isOwner, pageable);
             case "REJECTED":
-                if (isOwner) {
-                    return bookingRepository.getAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                } else {
-                    return bookingRepository.getAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                }
+                return bookingViewRepository.findByStatus(userId, isOwner, Status.REJECTED, pageable);
             case "WAITING":
-                if (isOwner) {
-                    return bookingRepository.getAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                } else {
-                    return bookingRepository.getAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                }
+                return bookingViewRepository.findByStatus(userId, isOwner, Status.WAITING, pageable);
             case "CURRENT":
-                if (isOwner) {
-                    return bookingRepository.getAllCurrentBookingsByOwner(userId, timeNow, timeNow, pageable);
-                } else {
-                    return bookingRepository.getAllCurrentBookingsByBooker(userId, timeNow, timeNow, pageable);
-                }
+                return bookingViewRepository.findCurrent(userId, isOwner, timeNow, pageable);
             case "PAST":
-                if (isOwner) {
-                    return bookingRepository.getAllPastBookingsByOwner(userId, timeNow, pageable);
-                } else {
-                    return bookingRepository.getAllPastBookingsByBooker(userId, timeNow, pageable);
-                }
+                return bookingViewRepository.findPast(userId, isOwner, timeNow, pageable);
             case "FUTURE":
-                if (isOwner) {
-                    return bookingRepository.getAllFutureBookingsByOwner(userId, timeNow, pageable);
-                } else {
-                    return bookingRepository.getAllFutureBookingsByBooker(userId, timeNow, pageable);
-                }
+                return bookingViewRepository.findFuture(userId, isOwner, timeNow, pageable);
             default:
                 throw new UnsupportedStateException("Unknown state: "
                         + state);
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulk.dto.ImportReport;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Массовая загрузка пользователей и предметов: тело запроса — NDJSON, один UserDto/ItemDto на строку.
+ * Владелец всех загружаемых предметов — пользователь из заголовка X-Sharer-User-Id;
+ * строки, в которых ownerId указывает на другого пользователя, отклоняются.
+ */
+@RestController
+@RequestMapping("/import")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportController {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private final BulkImportService bulkImportService;
+
+    @PostMapping("/users")
+    public ImportReport importUsers(InputStream body) {
+        log.info("Получен POST-запрос /import/users");
+        return bulkImportService.importUsers(toReader(body));
+    }
+
+    @PostMapping("/items")
+    public ImportReport importItems(@RequestHeader(name = USER_ID_HEADER) Long userId,
+                                    InputStream body) {
+        log.info("Получен POST-запрос /import/items, владелец {}", userId);
+        return bulkImportService.importItems(userId, toReader(body));
+    }
+
+    private static BufferedReader toReader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
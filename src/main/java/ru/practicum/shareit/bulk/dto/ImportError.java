@@ -0,0 +1,14 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportError {
+     long line;
+     String message;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог массовой загрузки. Список ошибок ограничен, счётчик failed учитывает все отклонённые строки.
+ */
+@Data
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportReport {
+    public static final int MAX_ERRORS = 1000;
+
+     long imported;
+     long failed;
+     List<ImportError> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportError(line, message));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bulk.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.jdbc.SequenceIdAllocator;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC-операции массовой загрузки: проверки пачкой через IN (...) и вставка через batchUpdate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkImportRepository {
+    private static final String INSERT_USER = "INSERT INTO USERS (USER_ID, USER_NAME, EMAIL) VALUES (?, ?, ?)";
+    private static final String INSERT_ITEM = "INSERT INTO ITEMS (ITEM_ID, ITEM_NAME, DESCRIPTION, IS_AVAILABLE, " +
+            "OWNER_ID, REQUEST) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+
+    /**
+     * Сравнение без учёта регистра, как в UserRepository.existsByEmailIgnoreCase:
+     * передаваемые email должны быть приведены через EmailBloomFilter.normalize.
+     */
+    public Set<String> findExistingEmails(Collection<String> normalizedEmails) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT EMAIL FROM USERS WHERE LOWER(EMAIL) IN (:emails)",
+                new MapSqlParameterSource("emails", normalizedEmails), String.class));
+    }
+
+    public Set<Long> findExistingUserIds(Collection<Long> ids) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT USER_ID FROM USERS WHERE USER_ID IN (:ids)",
+                new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    public void insertUsers(List<User> users) {
+        users.forEach(user -> user.setId(idAllocator.next("USERS_SEQ")));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER, users, users.size(), (statement, user) -> {
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getName());
+            statement.setString(3, user.getEmail());
+        });
+    }
+
+    public void insertItems(List<Item> items) {
+        items.forEach(item -> item.setId(idAllocator.next("ITEMS_SEQ")));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ITEM, items, items.size(), (statement, item) -> {
+            statement.setLong(1, item.getId());
+            statement.setString(2, item.getName());
+            statement.setString(3, item.getDescription());
+            statement.setObject(4, item.getAvailable(), Types.BOOLEAN);
+            statement.setLong(5, item.getOwnerId());
+            statement.setObject(6, item.getRequest(), Types.BIGINT);
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.bulk.service;
+
+import ru.practicum.shareit.bulk.dto.ImportReport;
+
+import java.io.BufferedReader;
+
+public interface BulkImportService {
+    ImportReport importUsers(BufferedReader reader);
+
+    ImportReport importItems(Long ownerId, BufferedReader reader);
+}
@@ -0,0 +1,232 @@
+package ru.practicum.shareit.bulk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.bulk.dto.ImportReport;
+import ru.practicum.shareit.bulk.repository.BulkImportRepository;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.mappers.UserMapper;
+import ru.practicum.shareit.search.ItemSearchIndex;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.shard.UserShardReplicator;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка из NDJSON: строки читаются потоком, проверяются и вставляются
+ * пачками по shareit.import.batch-size, каждая пачка — в своей транзакции.
+ * Если база отклоняет пачку целиком, её строки повторяются по одной, чтобы указать виновные.
+ */
+@Service
+@Slf4j
+public class BulkImportServiceImpl implements BulkImportService {
+    private final BulkImportRepository bulkImportRepository;
+    private final EmailBloomFilter emailFilter;
+    private final ShardRouter shardRouter;
+    private final UserShardReplicator shardReplicator;
+    private final ItemSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public BulkImportServiceImpl(BulkImportRepository bulkImportRepository,
+                                 EmailBloomFilter emailFilter,
+                                 ShardRouter shardRouter,
+                                 UserShardReplicator shardReplicator,
+                                 ItemSearchIndex searchIndex,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${shareit.import.batch-size:500}") int batchSize) {
+        this.bulkImportRepository = bulkImportRepository;
+        this.emailFilter = emailFilter;
+        this.shardRouter = shardRouter;
+        this.shardReplicator = shardReplicator;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportReport importUsers(BufferedReader reader) {
+        ImportReport report = readRows(reader, UserDto.class, this::writeUsers);
+        log.info("Загружено пользователей: {}, отклонено: {}", report.getImported(), report.getFailed());
+        return report;
+    }
+
+    @Override
+    public ImportReport importItems(Long ownerId, BufferedReader reader) {
+        ImportReport report = readRows(reader, ItemDto.class, (rows, result) -> writeItems(ownerId, rows, result));
+        log.info("Загружено предметов: {}, отклонено: {}", report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private <T> ImportReport readRows(BufferedReader reader, Class<T> type,
+                                      BiConsumer<List<ImportRow<T>>, ImportReport> batchWriter) {
+        ImportReport report = new ImportReport();
+        List<ImportRow<T>> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                T value;
+                try {
+                    value = objectMapper.readValue(line, type);
+                } catch (JsonProcessingException e) {
+                    report.addError(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                Set<ConstraintViolation<T>> violations = validator.validate(value);
+                if (!violations.isEmpty()) {
+                    report.addError(lineNumber, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+                batch.add(new ImportRow<>(lineNumber, value));
+                if (batch.size() >= batchSize) {
+                    batchWriter.accept(batch, report);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            batchWriter.accept(batch, report);
+        }
+        return report;
+    }
+
+    private void writeUsers(List<ImportRow<UserDto>> rows, ImportReport report) {
+        Map<String, ImportRow<UserDto>> byEmail = new LinkedHashMap<>();
+        Set<String> maybeExisting = new HashSet<>();
+        for (ImportRow<UserDto> row : rows) {
+            String email = EmailBloomFilter.normalize(row.getValue().getEmail());
+            if (byEmail.putIfAbsent(email, row) != null) {
+                report.addError(row.getLine(), "Email повторяется в загрузке: " + row.getValue().getEmail());
+            } else if (emailFilter.mightContain(email)) {
+                maybeExisting.add(email);
+            }
+        }
+        if (!maybeExisting.isEmpty()) {
+            for (String existing : bulkImportRepository.findExistingEmails(maybeExisting)) {
+                ImportRow<UserDto> row = byEmail.remove(EmailBloomFilter.normalize(existing));
+                if (row != null) {
+                    report.addError(row.getLine(), "Пользователь с таким email уже существует " + existing);
+                }
+            }
+        }
+        insert(new ArrayList<>(byEmail.values()), report,
+                batch -> {
+                    List<User> users = batch.stream()
+                            .map(row -> UserMapper.toUser(row.getValue()))
+                            .collect(Collectors.toList());
+                    bulkImportRepository.insertUsers(users);
+                    shardReplicator.replicate(users);
+                },
+                row -> emailFilter.put(row.getValue().getEmail()));
+    }
+
+    /**
+     * Все предметы загрузки принадлежат пользователю из заголовка: строка с чужим ownerId отклоняется,
+     * иначе загрузка позволила бы создавать предметы от имени других пользователей.
+     */
+    private void writeItems(Long ownerId, List<ImportRow<ItemDto>> rows, ImportReport report) {
+        List<ImportRow<ItemDto>> owned = new ArrayList<>(rows.size());
+        for (ImportRow<ItemDto> row : rows) {
+            Long rowOwnerId = row.getValue().getOwnerId();
+            if (rowOwnerId != null && !rowOwnerId.equals(ownerId)) {
+                report.addError(row.getLine(), "Предмет принадлежит другому пользователю " + rowOwnerId);
+            } else {
+                row.getValue().setOwnerId(ownerId);
+                owned.add(row);
+            }
+        }
+        if (owned.isEmpty()) {
+            return;
+        }
+        if (bulkImportRepository.findExistingUserIds(Set.of(ownerId)).isEmpty()) {
+            owned.forEach(row -> report.addError(row.getLine(), "Пользователь не найден " + ownerId));
+            return;
+        }
+        shardRouter.onShard(shardRouter.shardForOwner(ownerId), () -> insert(owned, report,
+                batch -> {
+                    List<Item> items = batch.stream()
+                            .map(row -> toItem(row.getValue()))
+                            .collect(Collectors.toList());
+                    bulkImportRepository.insertItems(items);
+                    searchIndex.index(items);
+                    items.forEach(item -> eventPublisher.publishEvent(
+                            EntityChangedEvent.created(EntityType.ITEM, item.getId())));
+                },
+                row -> {
+                }));
+    }
+
+    private <T> void insert(List<ImportRow<T>> rows, ImportReport report,
+                            Consumer<List<ImportRow<T>>> batchInsert, Consumer<ImportRow<T>> afterInsert) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchInsert.accept(rows));
+            rows.forEach(afterInsert);
+            report.addImported(rows.size());
+        } catch (DataAccessException batchError) {
+            log.debug("Пачка из {} строк отклонена, повтор по одной строке", rows.size(), batchError);
+            for (ImportRow<T> row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> batchInsert.accept(List.of(row)));
+                    afterInsert.accept(row);
+                    report.addImported(1);
+                } catch (DataAccessException e) {
+                    report.addError(row.getLine(), "Строка отклонена базой данных: "
+                            + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private static Item toItem(ItemDto itemDto) {
+        Item item = new Item();
+        item.setName(itemDto.getName());
+        item.setDescription(itemDto.getDescription());
+        item.setAvailable(itemDto.getAvailable());
+        item.setOwnerId(itemDto.getOwnerId());
+        item.setRequest(itemDto.getRequestId());
+        return item;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.bulk.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Строка NDJSON, прошедшая разбор и валидацию, вместе с её номером для отчёта об ошибках.
+ */
+@Getter
+@AllArgsConstructor
+class ImportRow<T> {
+    private final long line;
+    private final T value;
+}
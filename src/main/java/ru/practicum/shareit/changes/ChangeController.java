@@ -0,0 +1,29 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.changes.dto.ChangePageDto;
+
+/**
+ * Лента изменений предметов, бронирований, отзывов и запросов для инкрементальной синхронизации клиентов:
+ * клиент хранит next из прошлого ответа и запрашивает только то, что изменилось после него.
+ * Ответ 410 означает, что нужные изменения уже удалены и клиенту нужна полная синхронизация.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping(path = "/changes")
+public class ChangeController {
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping
+    public ChangePageDto getChanges(@RequestParam(name = "since", defaultValue = "0") long since,
+                                    @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        log.debug("Получен GET-запрос /changes?since={}&limit={}", since, limit);
+        return changeFeedService.getChanges(since, limit);
+    }
+}
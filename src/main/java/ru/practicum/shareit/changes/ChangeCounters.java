@@ -0,0 +1,12 @@
+package ru.practicum.shareit.changes;
+
+import lombok.Value;
+
+/**
+ * Последний выданный номер изменения и граница, до которой журнал очищен по сроку хранения.
+ */
+@Value
+public class ChangeCounters {
+    long seq;
+    long purgedSeq;
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.changes;
+
+import ru.practicum.shareit.changes.dto.ChangePageDto;
+
+public interface ChangeFeedService {
+    ChangePageDto getChanges(long since, int limit);
+
+    void compact();
+}
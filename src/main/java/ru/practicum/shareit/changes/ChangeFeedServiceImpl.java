@@ -0,0 +1,124 @@
+package ru.practicum.shareit.changes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.changes.dto.ChangeDto;
+import ru.practicum.shareit.changes.dto.ChangePageDto;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ChangesExpiredException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Чтение журнала изменений. Счётчики из CHANGE_COUNTER кэшируются на shareit.changes.head-ttl,
+ * а свежие изменения отдаются из {@link RecentChanges}, поэтому опрос без новых изменений
+ * и опрос клиента, отстающего не больше чем на размер кэша, обходятся без запроса к базе.
+ */
+@Service
+@Slf4j
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final RecentChanges recentChanges;
+    private final TransactionTemplate transactionTemplate;
+    private final long headTtlNanos;
+    private final Duration retention;
+    private final int compactionBatchSize;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile ChangeCounters counters = new ChangeCounters(0, 0);
+    private volatile long countersReadAt;
+
+    public ChangeFeedServiceImpl(ChangeLogRepository changeLogRepository,
+                                 RecentChanges recentChanges,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${shareit.changes.head-ttl:200ms}") Duration headTtl,
+                                 @Value("${shareit.changes.retention:7d}") Duration retention,
+                                 @Value("${shareit.changes.compaction-batch-size:1000}") int compactionBatchSize) {
+        this.changeLogRepository = changeLogRepository;
+        this.recentChanges = recentChanges;
+        this.transactionTemplate = transactionTemplate;
+        this.headTtlNanos = headTtl.toNanos();
+        this.retention = retention;
+        this.compactionBatchSize = compactionBatchSize;
+        this.countersReadAt = System.nanoTime() - headTtlNanos - 1;
+    }
+
+    @Override
+    public ChangePageDto getChanges(long since, int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException(HttpStatus.BAD_REQUEST,
+                    "Неправильные параметры: since >= 0, limit от 1 до " + MAX_LIMIT);
+        }
+        ChangeCounters current = counters(false);
+        if (since < current.getPurgedSeq()) {
+            throw new ChangesExpiredException(HttpStatus.GONE, "Изменения до " + current.getPurgedSeq()
+                    + " удалены по сроку хранения, требуется полная синхронизация");
+        }
+        long head = Math.max(current.getSeq(), recentChanges.head());
+        if (since >= head) {
+            return page(List.of(), since, Math.max(since, head));
+        }
+        List<ChangeDto> changes = recentChanges.contiguousFrom(since + 1, limit);
+        if (changes.isEmpty()) {
+            changes = changeLogRepository.findAfter(since, limit);
+        }
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return page(changes, next, Math.max(head, next));
+    }
+
+    @Override
+    public void compact() {
+        int superseded = 0;
+        int deleted;
+        do {
+            deleted = changeLogRepository.deleteSuperseded(compactionBatchSize);
+            superseded += deleted;
+        } while (deleted == compactionBatchSize);
+
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int expired = 0;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    changeLogRepository.purgeOlderThan(before, compactionBatchSize));
+            expired += deleted;
+        } while (deleted > 0);
+        counters(true);
+        if (superseded > 0 || expired > 0) {
+            log.info("Журнал изменений сжат: перекрытых записей удалено {}, устаревших {}", superseded, expired);
+        }
+    }
+
+    /**
+     * Счётчики не старше head-ttl; обновляет их один поток, остальные читают предыдущее значение.
+     */
+    private ChangeCounters counters(boolean force) {
+        if (force) {
+            refreshLock.lock();
+        } else if (System.nanoTime() - countersReadAt <= headTtlNanos || !refreshLock.tryLock()) {
+            return counters;
+        }
+        try {
+            counters = changeLogRepository.readCounters();
+            countersReadAt = System.nanoTime();
+        } finally {
+            refreshLock.unlock();
+        }
+        return counters;
+    }
+
+    private static ChangePageDto page(List<ChangeDto> changes, long next, long head) {
+        return ChangePageDto.builder()
+                .changes(changes)
+                .next(next)
+                .head(head)
+                .hasMore(next < head)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.changes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодически сжимает журнал изменений в фоновом потоке.
+ */
+@Component
+@Slf4j
+public class ChangeLogCompactor implements InitializingBean, DisposableBean {
+    private final ChangeFeedService changeFeedService;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public ChangeLogCompactor(ChangeFeedService changeFeedService,
+                              @Value("${shareit.changes.compaction-interval:1m}") Duration interval) {
+        this.changeFeedService = changeFeedService;
+        this.interval = interval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::compactQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void compactQuietly() {
+        try {
+            changeFeedService.compact();
+        } catch (RuntimeException e) {
+            log.error("Не удалось сжать журнал изменений", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.changes.dto.ChangeDto;
+import ru.practicum.shareit.events.EntityChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пишет изменения в журнал в той же транзакции, что и сами данные. События транзакции копятся
+ * и записываются одной пачкой перед коммитом, так что блокировка счётчика держится только на время коммита.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogRecorder {
+    private final ChangeLogRepository changeLogRepository;
+    private final RecentChanges recentChanges;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<ChangeDto> changes = transactionTemplate.execute(status ->
+                    changeLogRepository.append(List.of(event), LocalDateTime.now()));
+            recentChanges.addAll(changes);
+            return;
+        }
+        PendingChanges pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingChanges.class::isInstance)
+                .map(PendingChanges.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingChanges registered = new PendingChanges();
+                    TransactionSynchronizationManager.registerSynchronization(registered);
+                    return registered;
+                });
+        pending.events.add(event);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+        private final List<EntityChangedEvent> events = new ArrayList<>();
+        private List<ChangeDto> written = List.of();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            written = changeLogRepository.append(events, LocalDateTime.now());
+        }
+
+        @Override
+        public void afterCommit() {
+            recentChanges.addAll(written);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.changes.dto.ChangeDto;
+import ru.practicum.shareit.events.ChangeType;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Журнал изменений в таблице CHANGES. Номера выдаются из единственной строки CHANGE_COUNTER:
+ * её блокировка держится до коммита, поэтому транзакции фиксируют изменения строго в порядке номеров
+ * и читатель, дошедший до номера N, уже не увидит позже изменение с меньшим номером.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeLogRepository {
+    private static final String INSERT_CHANGE = "INSERT INTO CHANGES (SEQ, ENTITY_TYPE, ENTITY_ID, CHANGE_TYPE, " +
+            "CHANGED_AT) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_AFTER = "SELECT SEQ, ENTITY_TYPE, ENTITY_ID, CHANGE_TYPE, CHANGED_AT " +
+            "FROM CHANGES WHERE SEQ > ? ORDER BY SEQ LIMIT ?";
+    private static final String DELETE_SUPERSEDED = "DELETE FROM CHANGES WHERE SEQ IN (" +
+            "SELECT c.SEQ FROM CHANGES c WHERE EXISTS (SELECT 1 FROM CHANGES n " +
+            "WHERE n.ENTITY_TYPE = c.ENTITY_TYPE AND n.ENTITY_ID = c.ENTITY_ID AND n.SEQ > c.SEQ) " +
+            "ORDER BY c.SEQ LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Записывает изменения в текущей транзакции и возвращает их с присвоенными номерами.
+     */
+    public List<ChangeDto> append(List<EntityChangedEvent> events, LocalDateTime changedAt) {
+        jdbcTemplate.update("UPDATE CHANGE_COUNTER SET SEQ = SEQ + ? WHERE COUNTER_ID = 1", events.size());
+        long last = jdbcTemplate.queryForObject("SELECT SEQ FROM CHANGE_COUNTER WHERE COUNTER_ID = 1", Long.class);
+        List<ChangeDto> changes = new ArrayList<>(events.size());
+        long seq = last - events.size();
+        for (EntityChangedEvent event : events) {
+            changes.add(ChangeDto.builder()
+                    .seq(++seq)
+                    .entityType(event.getEntityType())
+                    .entityId(event.getEntityId())
+                    .changeType(event.getChangeType())
+                    .changedAt(changedAt)
+                    .build());
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getSeq());
+            statement.setString(2, change.getEntityType().name());
+            statement.setLong(3, change.getEntityId());
+            statement.setString(4, change.getChangeType().name());
+            statement.setTimestamp(5, Timestamp.valueOf(change.getChangedAt()));
+        });
+        return changes;
+    }
+
+    public List<ChangeDto> findAfter(long since, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER, (rs, rowNum) -> mapChange(rs), since, limit);
+    }
+
+    public ChangeCounters readCounters() {
+        return jdbcTemplate.queryForObject("SELECT SEQ, PURGED_SEQ FROM CHANGE_COUNTER WHERE COUNTER_ID = 1",
+                (rs, rowNum) -> new ChangeCounters(rs.getLong("SEQ"), rs.getLong("PURGED_SEQ")));
+    }
+
+    /**
+     * Удаляет до {@code limit} записей, у сущности которых есть более позднее изменение.
+     */
+    public int deleteSuperseded(int limit) {
+        return jdbcTemplate.update(DELETE_SUPERSEDED, limit);
+    }
+
+    /**
+     * Удаляет до {@code limit} самых старых записей, сделанных раньше {@code before}, и сдвигает PURGED_SEQ.
+     * Вызывать в транзакции.
+     */
+    public int purgeOlderThan(LocalDateTime before, int limit) {
+        Long maxSeq = jdbcTemplate.queryForObject("SELECT MAX(SEQ) FROM (SELECT SEQ FROM CHANGES " +
+                "WHERE CHANGED_AT < ? ORDER BY SEQ LIMIT ?)", Long.class, Timestamp.valueOf(before), limit);
+        if (maxSeq == null) {
+            return 0;
+        }
+        jdbcTemplate.update("UPDATE CHANGE_COUNTER SET PURGED_SEQ = GREATEST(PURGED_SEQ, ?) WHERE COUNTER_ID = 1",
+                maxSeq);
+        return jdbcTemplate.update("DELETE FROM CHANGES WHERE SEQ <= ?", maxSeq);
+    }
+
+    private static ChangeDto mapChange(ResultSet rs) throws SQLException {
+        return ChangeDto.builder()
+                .seq(rs.getLong("SEQ"))
+                .entityType(EntityType.valueOf(rs.getString("ENTITY_TYPE")))
+                .entityId(rs.getLong("ENTITY_ID"))
+                .changeType(ChangeType.valueOf(rs.getString("CHANGE_TYPE")))
+                .changedAt(rs.getTimestamp("CHANGED_AT").toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.changes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.changes.dto.ChangeDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Последние закоммиченные в этом экземпляре изменения, чтобы частые опросы /changes не доходили до базы.
+ * Изменения добавляются после коммита, возможно не по порядку номеров, поэтому отдаётся только
+ * непрерывная цепочка номеров: на пропуске чтение останавливается до следующего опроса.
+ */
+@Component
+public class RecentChanges {
+    private final NavigableMap<Long, ChangeDto> changes = new ConcurrentSkipListMap<>();
+    private final AtomicLong head = new AtomicLong();
+    private final int capacity;
+
+    public RecentChanges(@Value("${shareit.changes.cache-size:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void addAll(List<ChangeDto> committed) {
+        if (capacity <= 0) {
+            return;
+        }
+        for (ChangeDto change : committed) {
+            changes.put(change.getSeq(), change);
+            head.accumulateAndGet(change.getSeq(), Math::max);
+        }
+        while (changes.size() > capacity) {
+            changes.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Наибольший номер, закоммиченный этим экземпляром.
+     */
+    public long head() {
+        return head.get();
+    }
+
+    /**
+     * Изменения с номерами from, from + 1, ... не больше limit; пусто, если from уже вытеснен или ещё не пришёл.
+     */
+    public List<ChangeDto> contiguousFrom(long from, int limit) {
+        List<ChangeDto> result = new ArrayList<>(Math.min(limit, 64));
+        for (long seq = from; result.size() < limit; seq++) {
+            ChangeDto change = changes.get(seq);
+            if (change == null) {
+                break;
+            }
+            result.add(change);
+        }
+        return result;
+    }
+}
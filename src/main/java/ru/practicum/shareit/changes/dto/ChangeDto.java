@@ -0,0 +1,21 @@
+package ru.practicum.shareit.changes.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.events.ChangeType;
+import ru.practicum.shareit.events.EntityType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ChangeDto {
+     long seq;
+     EntityType entityType;
+     Long entityId;
+     ChangeType changeType;
+     LocalDateTime changedAt;
+}
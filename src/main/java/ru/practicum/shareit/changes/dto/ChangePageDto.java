@@ -0,0 +1,22 @@
+package ru.practicum.shareit.changes.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * Порция изменений после since. Следующий запрос делается с since = next;
+ * hasMore означает, что до head остались изменения и их можно забрать сразу.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ChangePageDto {
+     List<ChangeDto> changes;
+     long next;
+     long head;
+     boolean hasMore;
+}
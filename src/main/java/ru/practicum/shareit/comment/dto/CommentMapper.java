@@ -1,29 +1,24 @@
 package ru.practicum.shareit.comment.dto;
 
 import lombok.experimental.UtilityClass;
+import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.tracing.Tracing;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
 @UtilityClass
 public class CommentMapper {
+    private static final CommentMapping MAPPING =
+            Tracing.traced(CommentMapping.class, Mappers.getMapper(CommentMapping.class));
+
     public static CommentDto toCommentDto(Comment comment) {
-        return CommentDto.builder()
-                .id(comment.getId())
-                .text(comment.getText())
-                .created(comment.getCreated())
-                .authorName(comment.getAuthor().getName())
-                .build();
+        return MAPPING.toCommentDto(comment);
     }
 
     public static Comment toComment(User user, Item item, CommentDto commentDto, LocalDateTime created) {
-        Comment comment = new Comment();
-        comment.setAuthor(user);
-        comment.setText(commentDto.getText());
-        comment.setItem(item);
-        comment.setCreated(created);
-        return comment;
+        return MAPPING.toComment(user, item, commentDto, created);
     }
 }
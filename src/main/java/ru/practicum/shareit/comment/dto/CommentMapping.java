@@ -0,0 +1,23 @@
+package ru.practicum.shareit.comment.dto;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+interface CommentMapping {
+    @Mapping(target = "authorName", source = "author.name")
+    CommentDto toCommentDto(Comment comment);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "text", source = "commentDto.text")
+    @Mapping(target = "author", source = "user")
+    @Mapping(target = "item", source = "item")
+    @Mapping(target = "created", source = "created")
+    Comment toComment(User user, Item item, CommentDto commentDto, LocalDateTime created);
+}
@@ -2,7 +2,12 @@ package ru.practicum.shareit.comment.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.shard.ShardSequenceGenerator;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -15,10 +20,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Table(name = "comments")
 @FieldDefaults(level = AccessLevel.PRIVATE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Comment {
     @Id
     @Column(name = "comment_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "comments_seq")
+    @GenericGenerator(name = "comments_seq", strategy = "ru.practicum.shareit.shard.ShardSequenceGenerator",
+            parameters = @Parameter(name = ShardSequenceGenerator.SEQUENCE_PARAM, value = "COMMENTS_SEQ"))
      Long id;
     @Column(name = "text", nullable = false)
      String text;
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.events;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование создано со статусом WAITING, подтверждено или отклонено владельцем либо истекло без ответа.
+ */
+@Value
+public class BookingStatusChangedEvent {
+    Long bookingId;
+    Long itemId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+
+    public static BookingStatusChangedEvent of(Booking booking) {
+        return new BookingStatusChangedEvent(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.events;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.events;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Арендатор оставил отзыв о предмете.
+ */
+@Value
+public class CommentPostedEvent {
+    Long commentId;
+    Long itemId;
+    Long authorId;
+    String text;
+    LocalDateTime created;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.events;
+
+import lombok.Value;
+
+/**
+ * Изменение предмета, бронирования, отзыва или запроса. Публикуется сервисом внутри его транзакции,
+ * слушатели через {@code @EventListener} выполняются в той же транзакции.
+ */
+@Value
+public class EntityChangedEvent {
+    EntityType entityType;
+    Long entityId;
+    ChangeType changeType;
+
+    public static EntityChangedEvent created(EntityType entityType, Long entityId) {
+        return new EntityChangedEvent(entityType, entityId, ChangeType.CREATED);
+    }
+
+    public static EntityChangedEvent updated(EntityType entityType, Long entityId) {
+        return new EntityChangedEvent(entityType, entityId, ChangeType.UPDATED);
+    }
+
+    public static EntityChangedEvent deleted(EntityType entityType, Long entityId) {
+        return new EntityChangedEvent(entityType, entityId, ChangeType.DELETED);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.events;
+
+public enum EntityType {
+    ITEM,
+    BOOKING,
+    COMMENT,
+    REQUEST
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ChangesExpiredException extends ResponseStatusException {
+    public ChangesExpiredException(HttpStatus httpStatus, String message) {
+        super(httpStatus, message);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.export;
+
+import java.util.function.Function;
+
+/**
+ * Колонка CSV-выгрузки: заголовок и способ получить значение из DTO.
+ */
+public class ExportColumn<T> {
+    private final String header;
+    private final Function<T, Object> value;
+
+    public ExportColumn(String header, Function<T, Object> value) {
+        this.header = header;
+        this.value = value;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public Object valueOf(T row) {
+        return value.apply(row);
+    }
+}
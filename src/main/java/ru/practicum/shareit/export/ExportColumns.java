@@ -0,0 +1,33 @@
+package ru.practicum.shareit.export;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+@UtilityClass
+public class ExportColumns {
+    public static final List<ExportColumn<ItemDto>> ITEM = List.of(
+            new ExportColumn<>("id", ItemDto::getId),
+            new ExportColumn<>("name", ItemDto::getName),
+            new ExportColumn<>("description", ItemDto::getDescription),
+            new ExportColumn<>("available", ItemDto::getAvailable),
+            new ExportColumn<>("requestId", ItemDto::getRequestId));
+
+    public static final List<ExportColumn<BookingDto>> BOOKING = List.of(
+            new ExportColumn<>("id", BookingDto::getId),
+            new ExportColumn<>("start", BookingDto::getStart),
+            new ExportColumn<>("end", BookingDto::getEnd),
+            new ExportColumn<>("status", BookingDto::getStatus),
+            new ExportColumn<>("itemId", booking -> booking.getItem().getId()),
+            new ExportColumn<>("itemName", booking -> booking.getItem().getName()),
+            new ExportColumn<>("bookerId", booking -> booking.getBooker().getId()),
+            new ExportColumn<>("bookerName", booking -> booking.getBooker().getName()));
+
+    public static final List<ExportColumn<UserDto>> USER = List.of(
+            new ExportColumn<>("id", UserDto::getId),
+            new ExportColumn<>("name", UserDto::getName),
+            new ExportColumn<>("email", UserDto::getEmail));
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.export.service.ExportService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.mappers.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Выгрузка данных для отчётов одним ответом вместо постраничного обхода /items и /bookings.
+ * Строки читаются JDBC-курсором и сразу пишутся в ответ в формате NDJSON или CSV, при gzip=true
+ * ответ сжимается (Content-Encoding: gzip).
+ */
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private final ExportService exportService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/items")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader(name = USER_ID_HEADER) Long userId,
+                                                             @RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Получен GET-запрос /export/items пользователя {}", userId);
+        exportService.checkUserExists(userId);
+        return stream("items", toFormat(format), gzip, ItemDto.class, ExportColumns.ITEM,
+                writer -> exportService.exportItems(userId, writer));
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForBooker(
+            @RequestHeader(name = USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Получен GET-запрос /export/bookings пользователя {}", userId);
+        exportService.checkUserExists(userId);
+        return stream("bookings", toFormat(format), gzip, BookingDto.class, ExportColumns.BOOKING,
+                writer -> exportService.exportBookings(userId, false, writer));
+    }
+
+    @GetMapping("/bookings/owner")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(
+            @RequestHeader(name = USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Получен GET-запрос /export/bookings/owner пользователя {}", userId);
+        exportService.checkUserExists(userId);
+        return stream("bookings", toFormat(format), gzip, BookingDto.class, ExportColumns.BOOKING,
+                writer -> exportService.exportBookings(userId, true, writer));
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Получен GET-запрос /export/users");
+        return stream("users", toFormat(format), gzip, UserDto.class, ExportColumns.USER,
+                writer -> userService.streamAllUsers(user -> writer.accept(UserMapper.toUserDto(user))));
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, boolean gzip,
+                                                            Class<T> type, List<ExportColumn<T>> columns,
+                                                            Consumer<ExportWriter<T>> source) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            ExportWriter<T> writer = new ExportWriter<>(format, objectMapper, type, columns, out);
+            writer.writeHeader();
+            source.accept(writer);
+            writer.flush();
+            if (gzip) {
+                ((GZIPOutputStream) out).finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "."
+                        + format.name().toLowerCase(Locale.ROOT) + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static ExportFormat toFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(HttpStatus.BAD_REQUEST, "Неизвестный формат выгрузки: " + format);
+        }
+    }
+}
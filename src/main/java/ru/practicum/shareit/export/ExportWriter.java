@@ -0,0 +1,92 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Построчная запись DTO в NDJSON или CSV. Ничего не накапливает, кроме буфера вывода.
+ */
+public class ExportWriter<T> implements Consumer<T> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportFormat format;
+    private final ObjectWriter jsonWriter;
+    private final List<ExportColumn<T>> columns;
+    private final OutputStream out;
+
+    public ExportWriter(ExportFormat format, ObjectMapper objectMapper, Class<T> type,
+                        List<ExportColumn<T>> columns, OutputStream out) {
+        this.format = format;
+        this.jsonWriter = objectMapper.writerFor(type)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.columns = columns;
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+
+    public void writeHeader() {
+        if (format == ExportFormat.CSV) {
+            StringBuilder line = new StringBuilder();
+            for (ExportColumn<T> column : columns) {
+                appendCsvValue(line, column.getHeader());
+            }
+            writeLine(line);
+        }
+    }
+
+    @Override
+    public void accept(T row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                jsonWriter.writeValue(out, row);
+                out.write('\n');
+            } else {
+                StringBuilder line = new StringBuilder();
+                for (ExportColumn<T> column : columns) {
+                    appendCsvValue(line, column.valueOf(row));
+                }
+                writeLine(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(StringBuilder line) {
+        line.setCharAt(line.length() - 1, '\n');
+        try {
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendCsvValue(StringBuilder line, Object value) {
+        if (value != null) {
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        line.append(',');
+    }
+}
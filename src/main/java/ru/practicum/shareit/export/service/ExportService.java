@@ -0,0 +1,14 @@
+package ru.practicum.shareit.export.service;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.function.Consumer;
+
+public interface ExportService {
+    void checkUserExists(Long userId);
+
+    void exportItems(Long ownerId, Consumer<ItemDto> consumer);
+
+    void exportBookings(Long userId, boolean isOwner, Consumer<BookingDto> consumer);
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.export.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.mappers.BookingMapper;
+import ru.practicum.shareit.mappers.ItemMapper;
+import ru.practicum.shareit.shard.ShardKey;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.shard.Sharded;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+    private final UserRepository userRepository;
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            log.debug("Пользователь {} не найден ", userId);
+            throw new UserNotFoundException("Пользователь не найден " + userId);
+        }
+    }
+
+    @Override
+    @Sharded(value = "#ownerId", by = ShardKey.OWNER)
+    public void exportItems(Long ownerId, Consumer<ItemDto> consumer) {
+        log.info("Выгрузка предметов владельца {}", ownerId);
+        itemJdbcRepository.streamByOwner(ownerId, item -> consumer.accept(ItemMapper.toItemDto(item)));
+    }
+
+    /**
+     * Бронирования арендатора выгружаются шард за шардом, общий порядок по дате между шардами не сохраняется.
+     */
+    @Override
+    @Sharded(value = "#isOwner ? #userId : null", by = ShardKey.OWNER)
+    public void exportBookings(Long userId, boolean isOwner, Consumer<BookingDto> consumer) {
+        log.info("Выгрузка бронирований пользователя {}, владелец: {}", userId, isOwner);
+        if (isOwner) {
+            bookingJdbcRepository.streamByOwner(userId, booking -> consumer.accept(BookingMapper.toBookingDto(booking)));
+        } else {
+            shardRouter.forEachShard(() -> bookingJdbcRepository.streamByBooker(userId,
+                    booking -> consumer.accept(BookingMapper.toBookingDto(booking))));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.history;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала BOOKING_EVENTS. Каждое событие самодостаточно: даты и участники повторяются в нём,
+ * чтобы состояние можно было восстановить с любого события без чтения BOOKINGS.
+ */
+@Value
+@Builder
+public class BookingEvent {
+    Long eventId;
+    Long bookingId;
+    Long itemId;
+    Long bookerId;
+    BookingEventType type;
+    LocalDateTime start;
+    LocalDateTime end;
+    LocalDateTime occurredAt;
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.history;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.events.BookingStatusChangedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Дописывает переход бронирования в журнал BOOKING_EVENTS в транзакции, изменившей BOOKINGS.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventRecorder {
+    private final BookingEventRepository bookingEventRepository;
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        BookingEventType type = BookingEventType.of(event.getStatus());
+        if (type == null) {
+            return;
+        }
+        bookingEventRepository.append(BookingEvent.builder()
+                .bookingId(event.getBookingId())
+                .itemId(event.getItemId())
+                .bookerId(event.getBookerId())
+                .type(type)
+                .start(event.getStart())
+                .end(event.getEnd())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+}
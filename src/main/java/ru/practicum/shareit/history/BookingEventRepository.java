@@ -0,0 +1,217 @@
+package ru.practicum.shareit.history;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Журнал событий бронирований BOOKING_EVENTS, их снимки BOOKING_SNAPSHOTS и проекция текущего состояния BOOKINGS.
+ * Журнал только дописывается; снимки и проекция выводятся из него и могут быть пересобраны.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingEventRepository {
+    private static final String EVENT_COLUMNS = "e.EVENT_ID, e.BOOKING_ID, e.ITEM_ID, e.BOOKER_ID, e.EVENT_TYPE, " +
+            "e.START_DATE, e.END_DATE, e.OCCURRED_AT";
+    private static final String SNAPSHOT_COLUMNS = "BOOKING_ID, ITEM_ID, BOOKER_ID, START_DATE, END_DATE, STATUS, " +
+            "CREATED_AT, DECIDED_AT, LAST_EVENT_ID";
+    private static final String INSERT_EVENT = "INSERT INTO BOOKING_EVENTS (BOOKING_ID, ITEM_ID, BOOKER_ID, " +
+            "EVENT_TYPE, START_DATE, END_DATE, OCCURRED_AT) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SNAPSHOT = "UPDATE BOOKING_SNAPSHOTS SET ITEM_ID = ?, BOOKER_ID = ?, " +
+            "START_DATE = ?, END_DATE = ?, STATUS = ?, CREATED_AT = ?, DECIDED_AT = ?, LAST_EVENT_ID = ? " +
+            "WHERE BOOKING_ID = ?";
+    private static final String INSERT_SNAPSHOT = "INSERT INTO BOOKING_SNAPSHOTS (ITEM_ID, BOOKER_ID, START_DATE, " +
+            "END_DATE, STATUS, CREATED_AT, DECIDED_AT, LAST_EVENT_ID, BOOKING_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_EVENTS_AFTER_SNAPSHOTS = "SELECT " + EVENT_COLUMNS +
+            " FROM BOOKING_EVENTS e LEFT JOIN BOOKING_SNAPSHOTS s ON s.BOOKING_ID = e.BOOKING_ID " +
+            "WHERE e.EVENT_ID > COALESCE(s.LAST_EVENT_ID, 0) ORDER BY e.EVENT_ID LIMIT ?";
+    private static final String UPDATE_PROJECTION = "UPDATE BOOKINGS SET STATUS = ?, START_DATE = ?, END_DATE = ? " +
+            "WHERE BOOKING_ID = ? AND (STATUS <> ? OR START_DATE <> ? OR END_DATE <> ?)";
+    private static final String SELECT_ITEM_EVENTS_AFTER_SNAPSHOTS = "SELECT " + EVENT_COLUMNS +
+            " FROM BOOKING_EVENTS e LEFT JOIN BOOKING_SNAPSHOTS s ON s.BOOKING_ID = e.BOOKING_ID " +
+            "WHERE e.ITEM_ID = ? AND e.EVENT_ID > COALESCE(s.LAST_EVENT_ID, 0) ORDER BY e.EVENT_ID";
+    private static final RowMapper<BookingEvent> EVENT_MAPPER = (rs, rowNum) -> BookingEvent.builder()
+            .eventId(rs.getLong("EVENT_ID"))
+            .bookingId(rs.getLong("BOOKING_ID"))
+            .itemId(rs.getLong("ITEM_ID"))
+            .bookerId(rs.getLong("BOOKER_ID"))
+            .type(BookingEventType.valueOf(rs.getString("EVENT_TYPE")))
+            .start(rs.getTimestamp("START_DATE").toLocalDateTime())
+            .end(rs.getTimestamp("END_DATE").toLocalDateTime())
+            .occurredAt(rs.getTimestamp("OCCURRED_AT").toLocalDateTime())
+            .build();
+    private static final RowMapper<BookingState> SNAPSHOT_MAPPER = (rs, rowNum) -> BookingState.builder()
+            .bookingId(rs.getLong("BOOKING_ID"))
+            .itemId(rs.getLong("ITEM_ID"))
+            .bookerId(rs.getLong("BOOKER_ID"))
+            .start(rs.getTimestamp("START_DATE").toLocalDateTime())
+            .end(rs.getTimestamp("END_DATE").toLocalDateTime())
+            .status(Status.valueOf(rs.getString("STATUS")))
+            .createdAt(toLocalDateTime(rs, "CREATED_AT"))
+            .decidedAt(toLocalDateTime(rs, "DECIDED_AT"))
+            .lastEventId(rs.getLong("LAST_EVENT_ID"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Единственная запись пути изменения — вставка в конец журнала.
+     */
+    public void append(BookingEvent event) {
+        jdbcTemplate.update(INSERT_EVENT, event.getBookingId(), event.getItemId(), event.getBookerId(),
+                event.getType().name(), Timestamp.valueOf(event.getStart()), Timestamp.valueOf(event.getEnd()),
+                Timestamp.valueOf(event.getOccurredAt()));
+    }
+
+    public List<BookingEvent> findByBooking(Long bookingId) {
+        return jdbcTemplate.query("SELECT " + EVENT_COLUMNS + " FROM BOOKING_EVENTS e WHERE e.BOOKING_ID = ? " +
+                "ORDER BY e.EVENT_ID", EVENT_MAPPER, bookingId);
+    }
+
+    /**
+     * События, ещё не учтённые в снимках своих бронирований. Граница своя у каждого бронирования:
+     * номера событий выдаются до коммита, и событие с меньшим номером может зафиксироваться позже
+     * событий другого бронирования, уже попавших в снимки. События одного бронирования так обогнать
+     * друг друга не могут — их переходы сериализует условное обновление строки BOOKINGS.
+     */
+    public List<BookingEvent> findAfterSnapshots(int limit) {
+        return jdbcTemplate.query(SELECT_EVENTS_AFTER_SNAPSHOTS, EVENT_MAPPER, limit);
+    }
+
+    public Map<Long, BookingState> findSnapshots(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return Map.of();
+        }
+        return namedParameterJdbcTemplate.query("SELECT " + SNAPSHOT_COLUMNS + " FROM BOOKING_SNAPSHOTS " +
+                        "WHERE BOOKING_ID IN (:ids)", new MapSqlParameterSource("ids", bookingIds), SNAPSHOT_MAPPER)
+                .stream()
+                .collect(Collectors.toMap(BookingState::getBookingId, Function.identity()));
+    }
+
+    public List<BookingState> findSnapshotsOfItem(Long itemId) {
+        return jdbcTemplate.query("SELECT " + SNAPSHOT_COLUMNS + " FROM BOOKING_SNAPSHOTS WHERE ITEM_ID = ?",
+                SNAPSHOT_MAPPER, itemId);
+    }
+
+    /**
+     * События бронирований предмета, ещё не учтённые в их снимках.
+     */
+    public List<BookingEvent> findEventsOfItemAfterSnapshots(Long itemId) {
+        return jdbcTemplate.query(SELECT_ITEM_EVENTS_AFTER_SNAPSHOTS, EVENT_MAPPER, itemId);
+    }
+
+    /**
+     * Блокирует строки BOOKINGS предмета до конца транзакции. Решения и истечения бронирований предмета
+     * ждут пересборку, а события, зафиксированные до блокировки, пересборка прочитает после неё.
+     */
+    public void lockBookingsOfItem(Long itemId) {
+        jdbcTemplate.queryForList("SELECT BOOKING_ID FROM BOOKINGS WHERE ITEM_ID = ? FOR UPDATE", Long.class, itemId);
+    }
+
+    public List<Long> findItemIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT ITEM_ID FROM BOOKING_EVENTS", Long.class);
+    }
+
+    public void saveSnapshots(List<BookingState> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT, states, states.size(),
+                BookingEventRepository::setSnapshot)[0];
+        List<BookingState> inserted = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserted.add(states.get(i));
+            }
+        }
+        if (!inserted.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, inserted, inserted.size(), BookingEventRepository::setSnapshot);
+        }
+    }
+
+    /**
+     * Переписывает текущее состояние в BOOKINGS; строки удалённых бронирований и строки, уже совпадающие
+     * с состоянием, пропускаются.
+     *
+     * @return состояния, которые действительно изменили проекцию
+     */
+    public List<BookingState> updateProjection(List<BookingState> states) {
+        if (states.isEmpty()) {
+            return List.of();
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_PROJECTION, states, states.size(), (statement, state) -> {
+            Timestamp start = Timestamp.valueOf(state.getStart());
+            Timestamp end = Timestamp.valueOf(state.getEnd());
+            statement.setString(1, state.getStatus().name());
+            statement.setTimestamp(2, start);
+            statement.setTimestamp(3, end);
+            statement.setLong(4, state.getBookingId());
+            statement.setString(5, state.getStatus().name());
+            statement.setTimestamp(6, start);
+            statement.setTimestamp(7, end);
+        })[0];
+        List<BookingState> changed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                changed.add(states.get(i));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Бронирования, так и не подтверждённые до окончания срока.
+     */
+    public List<BookingEvent> findWaitingEndedBefore(LocalDateTime now, int limit) {
+        return jdbcTemplate.query("SELECT BOOKING_ID, ITEM_ID, BOOKER_ID, START_DATE, END_DATE FROM BOOKINGS " +
+                "WHERE STATUS = ? AND END_DATE < ? ORDER BY BOOKING_ID LIMIT ?", (rs, rowNum) -> BookingEvent.builder()
+                .bookingId(rs.getLong("BOOKING_ID"))
+                .itemId(rs.getLong("ITEM_ID"))
+                .bookerId(rs.getLong("BOOKER_ID"))
+                .start(rs.getTimestamp("START_DATE").toLocalDateTime())
+                .end(rs.getTimestamp("END_DATE").toLocalDateTime())
+                .build(), Status.WAITING.name(), Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Переводит бронирование из WAITING в EXPIRED; false, если владелец успел ответить.
+     */
+    public boolean markExpired(Long bookingId) {
+        return jdbcTemplate.update("UPDATE BOOKINGS SET STATUS = ? WHERE BOOKING_ID = ? AND STATUS = ?",
+                Status.EXPIRED.name(), bookingId, Status.WAITING.name()) == 1;
+    }
+
+    private static void setSnapshot(PreparedStatement statement, BookingState state) throws SQLException {
+        statement.setLong(1, state.getItemId());
+        statement.setLong(2, state.getBookerId());
+        statement.setTimestamp(3, Timestamp.valueOf(state.getStart()));
+        statement.setTimestamp(4, Timestamp.valueOf(state.getEnd()));
+        statement.setString(5, state.getStatus().name());
+        statement.setTimestamp(6, state.getCreatedAt() == null ? null : Timestamp.valueOf(state.getCreatedAt()));
+        statement.setTimestamp(7, state.getDecidedAt() == null ? null : Timestamp.valueOf(state.getDecidedAt()));
+        statement.setLong(8, state.getLastEventId());
+        statement.setLong(9, state.getBookingId());
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.history;
+
+import ru.practicum.shareit.booking.enums.Status;
+
+/**
+ * Переходы жизненного цикла бронирования и статус, в который каждый из них переводит бронирование.
+ */
+public enum BookingEventType {
+    CREATED(Status.WAITING),
+    APPROVED(Status.APPROVED),
+    REJECTED(Status.REJECTED),
+    EXPIRED(Status.EXPIRED);
+
+    private final Status status;
+
+    BookingEventType(Status status) {
+        this.status = status;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Переход, приводящий к статусу, или null, если статус не порождается переходом жизненного цикла.
+     */
+    public static BookingEventType of(Status status) {
+        for (BookingEventType type : values()) {
+            if (type.status == status) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
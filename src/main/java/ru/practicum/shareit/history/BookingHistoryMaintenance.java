@@ -0,0 +1,55 @@
+package ru.practicum.shareit.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодически переводит просроченные бронирования в EXPIRED и снимает снимки в фоновом потоке.
+ */
+@Component
+@Slf4j
+public class BookingHistoryMaintenance implements InitializingBean, DisposableBean {
+    private final BookingHistoryService bookingHistoryService;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public BookingHistoryMaintenance(BookingHistoryService bookingHistoryService,
+                                     @Value("${shareit.bookings.history.maintenance-interval:5m}")
+                                     Duration interval) {
+        this.bookingHistoryService = bookingHistoryService;
+        this.interval = interval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-history-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void maintainQuietly() {
+        try {
+            bookingHistoryService.expireStale();
+            bookingHistoryService.snapshot();
+        } catch (RuntimeException e) {
+            log.error("Не удалось обслужить журнал событий бронирований", e);
+        }
+    }
+}
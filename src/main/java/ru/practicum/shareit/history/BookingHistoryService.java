@@ -0,0 +1,28 @@
+package ru.practicum.shareit.history;
+
+import ru.practicum.shareit.history.dto.BookingHistoryDto;
+
+public interface BookingHistoryService {
+    BookingHistoryDto getHistory(Long userId, Long bookingId);
+
+    /**
+     * Переводит в EXPIRED бронирования, оставшиеся в WAITING после окончания срока.
+     *
+     * @return число истёкших бронирований
+     */
+    int expireStale();
+
+    /**
+     * Сворачивает новые события в снимки.
+     *
+     * @return число обновлённых снимков
+     */
+    int snapshot();
+
+    /**
+     * Пересобирает BOOKINGS из снимков и последующих событий, параллельно по предметам.
+     *
+     * @return число бронирований, чья строка в BOOKINGS расходилась с журналом
+     */
+    int rebuildProjection();
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.booking.service.BookingListCache;
+import ru.practicum.shareit.events.BookingStatusChangedEvent;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
+import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.history.dto.BookingEventDto;
+import ru.practicum.shareit.history.dto.BookingHistoryDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.tracing.Tracing;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * История бронирований поверх журнала событий. Снимки ограничивают повторное проигрывание: пересборка
+ * проекции читает снимок бронирования и только события после него. Бронирования разных предметов
+ * независимы, поэтому пересборка идёт параллельно по предметам, каждый предмет в своей транзакции.
+ */
+@Service
+@Slf4j
+public class BookingHistoryServiceImpl implements BookingHistoryService {
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingViewRepository bookingViewRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingListCache bookingListCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int rebuildParallelism;
+
+    public BookingHistoryServiceImpl(BookingEventRepository bookingEventRepository,
+                                     BookingViewRepository bookingViewRepository,
+                                     UserRepository userRepository,
+                                     ItemRepository itemRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     BookingListCache bookingListCache,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${shareit.bookings.history.batch-size:1000}") int batchSize,
+                                     @Value("${shareit.bookings.history.rebuild-parallelism:4}")
+                                     int rebuildParallelism) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.bookingViewRepository = bookingViewRepository;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.bookingListCache = bookingListCache;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingHistoryDto getHistory(Long userId, Long bookingId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден " + userId);
+        }
+        List<BookingEvent> events = bookingEventRepository.findByBooking(bookingId);
+        if (events.isEmpty()) {
+            throw new BookingNotFoundException("История бронирования не найдена " + bookingId);
+        }
+        BookingState state = BookingState.replay(null, events);
+        boolean owner = itemRepository.findById(state.getItemId())
+                .map(item -> item.getOwnerId().equals(userId))
+                .orElse(false);
+        if (!owner && !state.getBookerId().equals(userId)) {
+            throw new BookingNotFoundException("История бронирования доступна только владельцу предмета" +
+                    " или его арендатору");
+        }
+        return BookingHistoryDto.builder()
+                .bookingId(bookingId)
+                .status(state.getStatus())
+                .createdAt(state.getCreatedAt())
+                .decidedAt(state.getDecidedAt())
+                .events(events.stream()
+                        .map(event -> BookingEventDto.builder()
+                                .eventId(event.getEventId())
+                                .type(event.getType())
+                                .occurredAt(event.getOccurredAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public int expireStale() {
+        int expired = 0;
+        int found;
+        do {
+            int[] batch = transactionTemplate.execute(status -> {
+                List<BookingEvent> waiting = bookingEventRepository.findWaitingEndedBefore(LocalDateTime.now(),
+                        batchSize);
+                int marked = 0;
+                for (BookingEvent booking : waiting) {
+                    if (bookingEventRepository.markExpired(booking.getBookingId())) {
+                        bookingViewRepository.updateStatus(booking.getBookingId(), Status.EXPIRED);
+                        eventPublisher.publishEvent(EntityChangedEvent.updated(EntityType.BOOKING,
+                                booking.getBookingId()));
+                        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getBookingId(),
+                                booking.getItemId(), booking.getBookerId(), booking.getStart(), booking.getEnd(),
+                                Status.EXPIRED));
+                        marked++;
+                    }
+                }
+                return new int[]{waiting.size(), marked};
+            });
+            found = batch[0];
+            expired += batch[1];
+        } while (found == batchSize);
+        if (expired > 0) {
+            log.info("Истекло бронирований без ответа владельца: {}", expired);
+        }
+        return expired;
+    }
+
+    @Override
+    public int snapshot() {
+        int written = 0;
+        int read;
+        do {
+            int[] batch = transactionTemplate.execute(status -> {
+                List<BookingEvent> events = bookingEventRepository.findAfterSnapshots(batchSize);
+                Map<Long, List<BookingEvent>> byBooking = events.stream()
+                        .collect(Collectors.groupingBy(BookingEvent::getBookingId, LinkedHashMap::new,
+                                Collectors.toList()));
+                Map<Long, BookingState> snapshots = bookingEventRepository.findSnapshots(byBooking.keySet());
+                List<BookingState> states = byBooking.entrySet().stream()
+                        .map(entry -> BookingState.replay(snapshots.get(entry.getKey()), entry.getValue()))
+                        .collect(Collectors.toList());
+                bookingEventRepository.saveSnapshots(states);
+                return new int[]{events.size(), states.size()};
+            });
+            read = batch[0];
+            written += batch[1];
+        } while (read == batchSize);
+        log.debug("Обновлено снимков бронирований: {}", written);
+        return written;
+    }
+
+    @Override
+    public int rebuildProjection() {
+        List<Long> itemIds = bookingEventRepository.findItemIds();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Tracing.propagating(Executors.newFixedThreadPool(rebuildParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "booking-projection-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+        try {
+            List<Future<Integer>> tasks = new ArrayList<>(itemIds.size());
+            for (Long itemId : itemIds) {
+                tasks.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildItem(itemId))));
+            }
+            int updated = 0;
+            for (Future<Integer> task : tasks) {
+                updated += task.get();
+            }
+            log.info("Проекция бронирований пересобрана: предметов {}, исправлено бронирований {}", itemIds.size(),
+                    updated);
+            return updated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Пересборка проекции бронирований прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось пересобрать проекцию бронирований", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Строки предмета заблокированы на всё время пересборки, поэтому решение владельца, принятое параллельно,
+     * не будет перезаписано устаревшим состоянием. Изменённые строки публикуются как изменения бронирований:
+     * их видят журнал изменений и кэш списков. События переходов не публикуются — журнал уже содержит их.
+     */
+    private int rebuildItem(Long itemId) {
+        bookingEventRepository.lockBookingsOfItem(itemId);
+        Map<Long, BookingState> states = bookingEventRepository.findSnapshotsOfItem(itemId).stream()
+                .collect(Collectors.toMap(BookingState::getBookingId, state -> state, (a, b) -> a,
+                        LinkedHashMap::new));
+        Map<Long, List<BookingEvent>> events = bookingEventRepository.findEventsOfItemAfterSnapshots(itemId).stream()
+                .collect(Collectors.groupingBy(BookingEvent::getBookingId, LinkedHashMap::new, Collectors.toList()));
+        events.forEach((bookingId, bookingEvents) ->
+                states.put(bookingId, BookingState.replay(states.get(bookingId), bookingEvents)));
+        List<BookingState> changed = bookingEventRepository.updateProjection(new ArrayList<>(states.values()));
+        bookingViewRepository.updateStatuses(changed.stream()
+                .collect(Collectors.toMap(BookingState::getBookingId, BookingState::getStatus)));
+        for (BookingState state : changed) {
+            eventPublisher.publishEvent(EntityChangedEvent.updated(EntityType.BOOKING, state.getBookingId()));
+            bookingListCache.invalidate(state.getBookerId(), state.getItemId());
+        }
+        return changed.size();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.history;
+
+import lombok.Builder;
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Состояние бронирования, свёрнутое из событий; оно же хранится как снимок в BOOKING_SNAPSHOTS.
+ * {@code createdAt} пуст у бронирований, созданных до появления журнала событий.
+ */
+@Value
+@Builder(toBuilder = true)
+public class BookingState {
+    Long bookingId;
+    Long itemId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+    LocalDateTime createdAt;
+    LocalDateTime decidedAt;
+    Long lastEventId;
+
+    /**
+     * Применяет к снимку (может быть null) события по возрастанию id; события, уже учтённые в снимке, пропускаются.
+     */
+    public static BookingState replay(BookingState snapshot, List<BookingEvent> events) {
+        BookingState state = snapshot;
+        for (BookingEvent event : events) {
+            if (state == null) {
+                state = BookingState.builder()
+                        .bookingId(event.getBookingId())
+                        .createdAt(event.getType() == BookingEventType.CREATED ? event.getOccurredAt() : null)
+                        .build()
+                        .apply(event);
+            } else if (event.getEventId() > state.getLastEventId()) {
+                state = state.apply(event);
+            }
+        }
+        return state;
+    }
+
+    private BookingState apply(BookingEvent event) {
+        return toBuilder()
+                .itemId(event.getItemId())
+                .bookerId(event.getBookerId())
+                .start(event.getStart())
+                .end(event.getEnd())
+                .status(event.getType().getStatus())
+                .decidedAt(event.getType() == BookingEventType.CREATED ? decidedAt : event.getOccurredAt())
+                .lastEventId(event.getEventId())
+                .build();
+    }
+}
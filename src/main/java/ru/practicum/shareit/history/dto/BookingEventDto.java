@@ -0,0 +1,18 @@
+package ru.practicum.shareit.history.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.history.BookingEventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingEventDto {
+     Long eventId;
+     BookingEventType type;
+     LocalDateTime occurredAt;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.history.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingHistoryDto {
+     Long bookingId;
+     Status status;
+     LocalDateTime createdAt;
+     LocalDateTime decidedAt;
+     List<BookingEventDto> events;
+}
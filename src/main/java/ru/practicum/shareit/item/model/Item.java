@@ -2,8 +2,13 @@ package ru.practicum.shareit.item.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.shard.ShardSequenceGenerator;
 
 import javax.persistence.*;
 import java.util.List;
@@ -21,10 +26,13 @@ import java.util.List;
 @Table(name = "items")
 @Builder
 @FieldDefaults(level = AccessLevel.PRIVATE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Item {
     @Id
     @Column(name = "item_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "items_seq")
+    @GenericGenerator(name = "items_seq", strategy = "ru.practicum.shareit.shard.ShardSequenceGenerator",
+            parameters = @Parameter(name = ShardSequenceGenerator.SEQUENCE_PARAM, value = "ITEMS_SEQ"))
      Long id;
     @Column(name = "item_name", nullable = false)
      String name;
@@ -39,5 +47,7 @@ public class Item {
     @OneToMany(mappedBy = "item")
      List<Booking> bookings;
     @OneToMany(mappedBy = "item")
+    @OrderBy("created")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
      List<Comment> comments;
 }
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.jdbc.CursorStatementCreator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение предметов через JDBC-курсор без загрузки сущностей в контекст персистентности.
+ * Должен вызываться внутри транзакции.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemJdbcRepository {
+    private static final String SELECT_BY_OWNER = "SELECT ITEM_ID, ITEM_NAME, DESCRIPTION, IS_AVAILABLE, " +
+            "OWNER_ID, REQUEST FROM ITEMS WHERE OWNER_ID = ? ORDER BY ITEM_ID";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamByOwner(Long ownerId, Consumer<Item> consumer) {
+        jdbcTemplate.query(new CursorStatementCreator(SELECT_BY_OWNER, ownerId),
+                (RowCallbackHandler) rs -> consumer.accept(mapItem(rs)));
+    }
+
+    public static Item mapItem(ResultSet rs) throws SQLException {
+        return Item.builder()
+                .id(rs.getLong("ITEM_ID"))
+                .name(rs.getString("ITEM_NAME"))
+                .description(rs.getString("DESCRIPTION"))
+                .available(rs.getObject("IS_AVAILABLE", Boolean.class))
+                .ownerId(rs.getLong("OWNER_ID"))
+                .request(rs.getObject("REQUEST", Long.class))
+                .build();
+    }
+}
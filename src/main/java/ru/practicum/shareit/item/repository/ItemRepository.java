@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,7 +15,9 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     @Query("SELECT i FROM Item i WHERE upper(i.available)" +
             " LIKE upper('true') AND (upper(i.name) LIKE upper(CONCAT('%', ?1,'%')) " +
-            "OR upper(i.description) LIKE upper(CONCAT('%', ?1,'%')))")
+            "OR upper(i.description) LIKE upper(CONCAT('%', ?1,'%'))) ORDER BY i.id")
     List<Item> searchItem(String text, Pageable pageable);
 
+    List<Item> findAllByRequestIn(Collection<Long> requestIds);
+
 }
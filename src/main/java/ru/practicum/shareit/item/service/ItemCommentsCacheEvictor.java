@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.service;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.events.CommentPostedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Сбрасывает закэшированную коллекцию Item.comments после коммита нового отзыва.
+ * Отзыв — владеющая сторона связи, поэтому Hibernate сам кэш коллекции не обновляет,
+ * а добавление в item.getComments() загружало бы всю коллекцию только ради записи.
+ */
+@Component
+public class ItemCommentsCacheEvictor {
+    private static final String COMMENTS_ROLE = Item.class.getName() + ".comments";
+
+    private final Cache cache;
+
+    public ItemCommentsCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @EventListener
+    public void onCommentPosted(CommentPostedEvent event) {
+        Runnable evict = () -> cache.evictCollectionData(COMMENTS_ROLE, event.getItemId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
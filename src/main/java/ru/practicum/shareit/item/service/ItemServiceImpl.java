@@ -3,7 +3,7 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -12,10 +12,14 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.events.CommentPostedEvent;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -24,14 +28,23 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mappers.ItemMapper;
+import ru.practicum.shareit.search.ItemSearchIndex;
+import ru.practicum.shareit.shard.ShardKey;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.shard.Sharded;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.comment.dto.CommentMapper.toCommentDto;
@@ -48,11 +61,15 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final BookingViewRepository bookingViewRepository;
+    private final ShardRouter shardRouter;
+    private final ItemSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private final ModelMapper mapper = new ModelMapper();
 
     @Override
     @Transactional
+    @Sharded(value = "#userId", by = ShardKey.OWNER)
     @SneakyThrows
     public Item saveItem(ItemDto itemDto, Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
@@ -62,11 +79,15 @@ public class ItemServiceImpl implements ItemService {
         item.setOwnerId(userId);
         item.setRequest(itemDto.getRequestId());
 
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        searchIndex.index(savedItem);
+        eventPublisher.publishEvent(EntityChangedEvent.created(EntityType.ITEM, savedItem.getId()));
+        return savedItem;
     }
 
     @Override
     @Transactional
+    @Sharded("#itemDto.id")
     public Item updateItem(ItemDto itemDto, Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new UserNotFoundException("Пользователь не найден " + userId));
@@ -85,15 +106,20 @@ public class ItemServiceImpl implements ItemService {
         }
         log.info("Выполнено обновление информации о предмете = {}, " +
                 "принадлежащем пользователю, id = {}", item.getId(), userId);
-        return itemRepository.save(itemUpdate);
+        Item savedItem = itemRepository.save(itemUpdate);
+        searchIndex.index(savedItem);
+        bookingViewRepository.updateItem(savedItem);
+        eventPublisher.publishEvent(EntityChangedEvent.updated(EntityType.ITEM, savedItem.getId()));
+        return savedItem;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Sharded("#itemId")
     public ItemDto getItemById(Long userId, Long itemId) {
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new ItemNotFoundException("Предмет не найден " + itemId));
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
+        List<Comment> comments = item.getComments();
         ItemDto itemDto = toItemDto(item);
         if (item.getOwnerId().equals(userId)) {
             addLastAndNextDateTimeForBookingToItem(itemDto);
@@ -107,6 +133,7 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
+    @Sharded(value = "#userId", by = ShardKey.OWNER)
     public List<ItemDto> getItemsByUser(Long userId, int from, int size) {
         if (!userRepository.existsById(userId)) {
             log.debug("Пользователь {} не найден", userId);
@@ -151,7 +178,13 @@ public class ItemServiceImpl implements ItemService {
             pageable = PageRequest.of(from / size, size);
         }
         log.info("Выполнен поиск среди предметов по : {}.", text);
-        return itemRepository.searchItem(textToLowerCase, pageable)
+        if (searchIndex.canSearch(text) && !shardRouter.isSharded()) {
+            return searchWithIndex(text, pageable).stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
+        return shardRouter.gather(pageable, Comparator.comparing(Item::getId),
+                        page -> itemRepository.searchItem(textToLowerCase, page))
                 .stream()
                 .map(item -> toItemDto(item))
                 .collect(Collectors.toList());
@@ -159,6 +192,7 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
+    @Sharded("#itemId")
     public CommentDto postComment(Long userId, Long itemId, CommentDto commentDto) {
         if (commentDto.getText().isEmpty()) {
             log.debug("Комментарий не может быть пустьм");
@@ -186,24 +220,59 @@ public class ItemServiceImpl implements ItemService {
                             "и статусом НЕ REJECTED");
         }
 
-        Comment comment = mapper.map(commentDto, Comment.class);
-        comment.setItem(item);
-        comment.setAuthor(user);
-        comment.setCreated(LocalDateTime.now());
+        Comment comment = CommentMapper.toComment(user, item, commentDto, LocalDateTime.now());
 
         commentRepository.save(comment);
+        eventPublisher.publishEvent(EntityChangedEvent.created(EntityType.COMMENT, comment.getId()));
+        eventPublisher.publishEvent(new CommentPostedEvent(comment.getId(), itemId, userId, comment.getText(),
+                comment.getCreated()));
 
         return toCommentDto(comment);
     }
 
     @Override
     @Transactional
+    @Sharded("#itemId")
     public void deleteItemById(Long userId, Long itemId) {
         userRepository.findById(userId);
         itemRepository.deleteById(itemId);
+        searchIndex.remove(itemId);
+        eventPublisher.publishEvent(EntityChangedEvent.deleted(EntityType.ITEM, itemId));
         log.info("Удален предмет {}, принадлежащий пользователю {}", itemId, userId);
     }
 
+    /**
+     * Страница поиска по id из индекса. Индекс отдаёт id лениво, поэтому читается только {@code offset}
+     * плюс размер страницы. Предметы, которых уже нет в базе или которые больше не подходят под запрос,
+     * исправляются в индексе и пропускаются, поэтому страница добирается следующими id.
+     */
+    private List<Item> searchWithIndex(String text, Pageable pageable) {
+        PrimitiveIterator.OfLong ids = searchIndex.search(text);
+        for (long skipped = 0; skipped < pageable.getOffset() && ids.hasNext(); skipped++) {
+            ids.nextLong();
+        }
+        List<Item> found = new ArrayList<>(pageable.getPageSize());
+        while (found.size() < pageable.getPageSize() && ids.hasNext()) {
+            List<Long> chunk = new ArrayList<>(pageable.getPageSize() - found.size());
+            while (chunk.size() < pageable.getPageSize() - found.size() && ids.hasNext()) {
+                chunk.add(ids.nextLong());
+            }
+            Map<Long, Item> items = itemRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Long id : chunk) {
+                Item item = items.get(id);
+                if (item == null) {
+                    searchIndex.remove(id);
+                } else if (!ItemSearchIndex.matches(item, text)) {
+                    searchIndex.index(item);
+                } else {
+                    found.add(item);
+                }
+            }
+        }
+        return found;
+    }
+
     private void addLastAndNextDateTimeForBookingToItem(ItemDto itemDto) {
         LocalDateTime timeNow = LocalDateTime.now();
 
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Однонаправленный read-only курсор с заданным fetch size для потоковой выгрузки строк.
+ * PostgreSQL учитывает fetch size только внутри транзакции (autocommit выключен).
+ */
+public class CursorStatementCreator implements PreparedStatementCreator, SqlProvider {
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final String sql;
+    private final Object[] args;
+
+    public CursorStatementCreator(String sql, Object... args) {
+        this.sql = sql;
+        this.args = args;
+    }
+
+    @Override
+    public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(DEFAULT_FETCH_SIZE);
+        new ArgumentPreparedStatementSetter(args).setValues(statement);
+        return statement;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+}
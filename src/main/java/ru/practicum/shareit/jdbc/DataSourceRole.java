@@ -0,0 +1,6 @@
+package ru.practicum.shareit.jdbc;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,244 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Оборачивает соединения и операторы в прокси, которые сообщают {@link StatementListener} о каждом
+ * выполнении: тексте оператора, параметрах, размере пачки, времени в базе и числе строк.
+ */
+public class ObservedDataSource extends DelegatingDataSource implements Closeable {
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTIONS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<StatementListener> listenerProvider;
+    private volatile List<StatementListener> listeners;
+
+    public ObservedDataSource(DataSource target, ObjectProvider<StatementListener> listenerProvider) {
+        super(target);
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observe(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observe(super.getConnection(username, password));
+    }
+
+    /**
+     * Закрывает пул под обёрткой: Spring вызывает close у объекта, который стал бином.
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    /**
+     * Слушатели запрашиваются при первом выполнении, а не при создании источника данных: иначе бины
+     * слушателей создавались бы раньше, чем контекст готов их внедрить.
+     */
+    private List<StatementListener> listeners() {
+        List<StatementListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().collect(Collectors.toList());
+            listeners = resolved;
+        }
+        return resolved;
+    }
+
+    private Connection observe(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ObservedDataSource.invoke(connection, method, args);
+            if (!STATEMENT_FACTORIES.contains(method.getName())) {
+                return result;
+            }
+            Statement statement = (Statement) result;
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, (Connection) proxy, sql));
+        }
+    }
+
+    /**
+     * Выполнение запроса с результатом сообщается слушателям, когда закрыт его ResultSet (или сам оператор):
+     * только тогда известно число строк. Время включает выборку строк в {@code next()}.
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+        private final String preparedSql;
+        private final List<Object> binds = new ArrayList<>();
+        private String batchSql;
+        private int batchSize;
+        private String pendingSql;
+        private Object[] pendingBinds;
+        private long pendingNanos;
+        private long pendingRows;
+        private boolean pending;
+
+        StatementHandler(Statement statement, Connection connection, String preparedSql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                binds.clear();
+            } else if ("addBatch".equals(name)) {
+                batchSize++;
+                if (args != null && batchSql == null) {
+                    batchSql = (String) args[0];
+                }
+            } else if ("clearBatch".equals(name)) {
+                batchSize = 0;
+                batchSql = null;
+            } else if ("close".equals(name)) {
+                finish();
+            }
+            if ("getResultSet".equals(name)) {
+                ResultSet resultSet = (ResultSet) ObservedDataSource.invoke(statement, method, args);
+                return pending && resultSet != null ? observe(resultSet) : resultSet;
+            }
+            if (!EXECUTIONS.contains(name)) {
+                return ObservedDataSource.invoke(statement, method, args);
+            }
+            finish();
+            boolean batch = name.endsWith("Batch");
+            String sql = args != null && args.length > 0 ? (String) args[0] : batch && batchSql != null ? batchSql
+                    : preparedSql;
+            int size = batch ? batchSize : 1;
+            long started = System.nanoTime();
+            Object result = null;
+            try {
+                result = ObservedDataSource.invoke(statement, method, args);
+            } finally {
+                if (batch) {
+                    batchSize = 0;
+                    batchSql = null;
+                }
+                long nanos = System.nanoTime() - started;
+                if (result instanceof ResultSet || Boolean.TRUE.equals(result)) {
+                    pending = true;
+                    pendingSql = sql;
+                    pendingBinds = binds.toArray();
+                    pendingNanos = nanos;
+                    pendingRows = 0;
+                } else {
+                    notify(new StatementExecution(sql, size, nanos, result == null, Arrays.asList(binds.toArray()),
+                            updated(result)));
+                }
+            }
+            return result instanceof ResultSet ? observe((ResultSet) result) : result;
+        }
+
+        private void bind(int index, Object value) {
+            while (binds.size() < index) {
+                binds.add(null);
+            }
+            binds.set(index - 1, value);
+        }
+
+        private ResultSet observe(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        if ("next".equals(method.getName())) {
+                            long started = System.nanoTime();
+                            Object next = ObservedDataSource.invoke(resultSet, method, args);
+                            pendingNanos += System.nanoTime() - started;
+                            if (Boolean.TRUE.equals(next)) {
+                                pendingRows++;
+                            }
+                            return next;
+                        }
+                        if ("close".equals(method.getName())) {
+                            finish();
+                        }
+                        return ObservedDataSource.invoke(resultSet, method, args);
+                    });
+        }
+
+        private void finish() {
+            if (pending) {
+                pending = false;
+                notify(new StatementExecution(pendingSql, 1, pendingNanos, false, Arrays.asList(pendingBinds),
+                        pendingRows));
+                pendingBinds = null;
+            }
+        }
+
+        private void notify(StatementExecution execution) {
+            for (StatementListener listener : listeners()) {
+                listener.afterExecute(execution);
+            }
+        }
+
+        private long updated(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                return Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum();
+            }
+            if (result instanceof long[]) {
+                return Arrays.stream((long[]) result).filter(count -> count > 0).sum();
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает основной источник данных (бин dataSource — пул, маршрутизатор реплики или шардов)
+ * в {@link ObservedDataSource}, так что каждый оператор виден слушателям ровно один раз.
+ */
+@Configuration
+public class ObservedDataSourceConfiguration {
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource
+                        && !(bean instanceof ObservedDataSource)) {
+                    return new ObservedDataSource((DataSource) bean, listeners);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementListener queryCountListener() {
+        return execution -> QueryCounter.record(execution.getSql());
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Предупреждает о запросах к API, которые обращаются к базе больше shareit.sql.query-count.max-statements раз
+ * или повторяют один и тот же оператор не меньше shareit.sql.query-count.max-repeats раз — типичный след N+1.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.sql.query-count", name = "enabled", havingValue = "true")
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    public QueryCountFilter(@Value("${shareit.sql.query-count.max-statements:20}") int maxStatements,
+                            @Value("${shareit.sql.query-count.max-repeats:5}") int maxRepeats) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.Scope scope = QueryCounter.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryCounter.Scope scope) {
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        for (Map.Entry<String, Integer> execution : scope.getExecutions().entrySet()) {
+            if (execution.getValue() >= maxRepeats) {
+                log.warn("Возможный N+1 в {}: оператор выполнен {} раз из {}: {}", endpoint, execution.getValue(),
+                        scope.getStatements(), execution.getKey());
+            }
+        }
+        if (scope.getStatements() > maxStatements) {
+            log.warn("{} обратился к базе {} раз, порог {}", endpoint, scope.getStatements(), maxStatements);
+        }
+    }
+}
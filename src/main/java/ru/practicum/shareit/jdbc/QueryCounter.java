@@ -0,0 +1,61 @@
+package ru.practicum.shareit.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Считает обращения к базе в пределах области, открытой в текущем потоке: HTTP-запроса или теста.
+ * Области вкладываются, обращение засчитывается всем открытым областям потока.
+ */
+public final class QueryCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.executions.merge(sql == null ? "?" : sql, 1, Integer::sum);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * Сколько раз выполнялся каждый текст оператора.
+         */
+        public Map<String, Integer> getExecutions() {
+            return executions;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() != this) {
+                throw new IllegalStateException("Область подсчёта запросов закрывается не в порядке открытия");
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
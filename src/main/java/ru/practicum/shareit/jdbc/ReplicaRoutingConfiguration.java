@@ -0,0 +1,67 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Включается свойством shareit.datasource.replica.url. Основная база настраивается как обычно
+ * через spring.datasource.*, реплика — через shareit.datasource.replica.* (url, username, password, driver-class-name).
+ * Схему на реплику переносит репликация, приложение её там не создаёт.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.datasource.replica", name = "url")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(Environment environment) {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind("shareit.datasource.replica", DataSourceProperties.class)
+                .get();
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public ReplicationLagGuard replicationLagGuard(@Value("${shareit.datasource.replica.max-lag:5s}") Duration maxLag) {
+        return new ReplicationLagGuard(maxLag);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicationLagGuard lagGuard) {
+        return new ReadYourWritesFilter(lagGuard);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicationLagGuard lagGuard) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lagGuard));
+    }
+
+    /**
+     * Без этого Hibernate держит соединение до конца сессии (а при open-in-view — до конца запроса),
+     * и запись после чтения в том же запросе ушла бы на соединение реплики.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Отправляет readOnly-транзакции на реплику, всё остальное — на основную базу.
+ * Работает только за {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * признак readOnly выставляется после начала транзакции, и соединение нужно брать не раньше первого запроса.
+ * Пользователь, только что закоммитивший запись, читает с основной базы, пока реплика может отставать.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReplicationLagGuard lagGuard;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicationLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWriteCallback();
+            return DataSourceRole.PRIMARY;
+        }
+        return lagGuard.mustReadPrimary() ? DataSourceRole.PRIMARY : DataSourceRole.REPLICA;
+    }
+
+    private void registerWriteCallback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long userId = lagGuard.currentUser();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagGuard.recordWrite(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.jdbc;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes поверх асинхронной реплики: после коммита записи пользователь
+ * в течение максимального отставания реплики читает с основной базы.
+ * Пользователь текущего запроса привязывается к потоку {@link ReadYourWritesFilter}.
+ */
+public class ReplicationLagGuard {
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ThreadLocal<Long> currentUser = new ThreadLocal<>();
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final long maxLagNanos;
+
+    public ReplicationLagGuard(Duration maxLag) {
+        this.maxLagNanos = maxLag.toNanos();
+    }
+
+    public void bindUser(Long userId) {
+        currentUser.set(userId);
+    }
+
+    public void clear() {
+        currentUser.remove();
+    }
+
+    public Long currentUser() {
+        return currentUser.get();
+    }
+
+    public void recordWrite(Long userId) {
+        long now = System.nanoTime();
+        if (primaryUntil.size() > PURGE_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until - now <= 0);
+        }
+        primaryUntil.put(userId, now + maxLagNanos);
+    }
+
+    public boolean mustReadPrimary() {
+        Long userId = currentUser.get();
+        if (userId == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        primaryUntil.remove(userId, until);
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сдвигает последовательности за максимальный существующий id.
+ * Нужен для баз, созданных до перехода с auto_increment на последовательности:
+ * без него новые id совпали бы с уже занятыми.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceAligner implements InitializingBean {
+    private static final String[][] SEQUENCES = {
+            {"USERS", "USER_ID", "USERS_SEQ"},
+            {"REQUESTS", "REQUEST_ID", "REQUESTS_SEQ"},
+            {"ITEMS", "ITEM_ID", "ITEMS_SEQ"},
+            {"BOOKINGS", "BOOKING_ID", "BOOKINGS_SEQ"},
+            {"COMMENTS", "COMMENT_ID", "COMMENTS_SEQ"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String[] sequence : SEQUENCES) {
+            align(sequence[0], sequence[1], sequence[2]);
+        }
+    }
+
+    private void align(String table, String idColumn, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        if (maxId == 0) {
+            return;
+        }
+        Long next = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+        if (next <= maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+            log.info("Последовательность {} сдвинута за максимальный id {} таблицы {}", sequence, maxId, table);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.shard.ShardContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Идентификаторы для вставок через JDBC из тех же последовательностей, что использует Hibernate.
+ * Как и оптимизатор pooled-lo, каждый nextval резервирует блок [value, value + ALLOCATION_SIZE),
+ * поэтому выданные здесь id не пересекаются с id сущностей. Блоки ведутся отдельно для каждого шарда.
+ */
+@Component
+@RequiredArgsConstructor
+public class SequenceIdAllocator {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public long next(String sequence) {
+        Block block = blocks.computeIfAbsent(ShardContext.current() + ":" + sequence, name -> new Block());
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                Long value = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+                block.next = value;
+                block.limit = value + ALLOCATION_SIZE;
+            }
+            return block.next++;
+        }
+    }
+
+    private static class Block {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.admin.dto.SlowQueryDto;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Последние shareit.sql.slow-log.capacity операторов медленнее shareit.sql.slow-log.threshold: текст, параметры,
+ * число строк, вызвавший метод сервиса (или первый метод приложения, если сервиса в стеке нет). С
+ * shareit.sql.slow-log.explain=true для запросов SELECT в фоне выполняется EXPLAIN с теми же параметрами.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.sql.slow-log", name = "enabled", havingValue = "true")
+public class SlowQueryLog implements StatementListener {
+    private static final String BASE_PACKAGE = "ru.practicum.shareit.";
+    private static final String OWN_PACKAGE = SlowQueryLog.class.getPackageName() + ".";
+    private static final StackWalker STACK = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final int maxBindLength;
+    private final boolean explain;
+    private final ObjectProvider<DataSource> dataSource;
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+    private final ExecutorService explainer;
+
+    public SlowQueryLog(@Value("${shareit.sql.slow-log.threshold:100ms}") Duration threshold,
+                        @Value("${shareit.sql.slow-log.capacity:200}") int capacity,
+                        @Value("${shareit.sql.slow-log.max-bind-length:200}") int maxBindLength,
+                        @Value("${shareit.sql.slow-log.explain:false}") boolean explain,
+                        ObjectProvider<DataSource> dataSource) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.maxBindLength = maxBindLength;
+        this.explain = explain;
+        this.dataSource = dataSource;
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        if (execution.getNanos() < thresholdNanos || execution.getSql() == null) {
+            return;
+        }
+        SlowQuery entry = new SlowQuery(Instant.now(), execution, caller(), Thread.currentThread().getName(),
+                execution.getBinds().stream().map(this::format).collect(Collectors.toList()));
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeLast();
+            }
+            entries.addFirst(entry);
+        }
+        if (explain && execution.getBatchSize() == 1 && isSelect(execution.getSql())) {
+            try {
+                explainer.execute(() -> entry.plan = explain(execution));
+            } catch (RejectedExecutionException e) {
+                log.debug("Очередь EXPLAIN переполнена, план для {} не построен", execution.getSql());
+            }
+        }
+    }
+
+    /**
+     * Записи от новых к старым.
+     */
+    public List<SlowQueryDto> entries() {
+        List<SlowQuery> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries);
+        }
+        return snapshot.stream().map(SlowQuery::toDto).collect(Collectors.toList());
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        explainer.shutdownNow();
+    }
+
+    /**
+     * Ближайший по стеку метод класса с {@code @Service}; стек разбирается только для медленных операторов.
+     */
+    private static String caller() {
+        return STACK.walk(frames -> {
+            List<StackWalker.StackFrame> ours = frames
+                    .filter(frame -> frame.getClassName().startsWith(BASE_PACKAGE)
+                            && !frame.getClassName().startsWith(OWN_PACKAGE)
+                            && !frame.getClassName().contains("$$"))
+                    .collect(Collectors.toList());
+            Optional<StackWalker.StackFrame> service = ours.stream()
+                    .filter(frame -> AnnotatedElementUtils.hasAnnotation(frame.getDeclaringClass(), Service.class))
+                    .findFirst();
+            return service.or(() -> ours.stream().findFirst())
+                    .map(frame -> frame.getDeclaringClass().getSimpleName() + "." + frame.getMethodName())
+                    .orElse(null);
+        });
+    }
+
+    private String format(Object bind) {
+        String value = String.valueOf(bind);
+        return value.length() > maxBindLength ? value.substring(0, maxBindLength) + "…" : value;
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    /**
+     * EXPLAIN идёт мимо {@link ObservedDataSource}, чтобы не попасть в этот же журнал.
+     */
+    private String explain(StatementExecution execution) {
+        try {
+            DataSource target = dataSource.getObject();
+            if (target instanceof ObservedDataSource) {
+                target = ((ObservedDataSource) target).getTargetDataSource();
+            }
+            List<String> plan = new JdbcTemplate(target).queryForList("EXPLAIN " + execution.getSql(), String.class,
+                    execution.getBinds().toArray());
+            return String.join("\n", plan);
+        } catch (RuntimeException e) {
+            log.debug("Не удалось построить план для {}: {}", execution.getSql(), e.getMessage());
+            return "EXPLAIN не выполнен: " + e.getMessage();
+        }
+    }
+
+    private static class SlowQuery {
+        private final Instant executedAt;
+        private final StatementExecution execution;
+        private final String caller;
+        private final String thread;
+        private final List<String> binds;
+        private volatile String plan;
+
+        SlowQuery(Instant executedAt, StatementExecution execution, String caller, String thread, List<String> binds) {
+            this.executedAt = executedAt;
+            this.execution = execution;
+            this.caller = caller;
+            this.thread = thread;
+            this.binds = Collections.unmodifiableList(binds);
+        }
+
+        SlowQueryDto toDto() {
+            return SlowQueryDto.builder()
+                    .executedAt(executedAt)
+                    .millis(execution.getNanos() / 1_000_000.0)
+                    .sql(execution.getSql())
+                    .binds(binds)
+                    .rows(execution.getRows())
+                    .batchSize(execution.getBatchSize())
+                    .failed(execution.isFailed())
+                    .caller(caller)
+                    .thread(thread)
+                    .plan(plan)
+                    .build();
+        }
+    }
+}
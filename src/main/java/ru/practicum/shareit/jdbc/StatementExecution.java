@@ -0,0 +1,19 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Одно обращение к базе: выполнение оператора или пачки операторов. {@code binds} — параметры по номерам
+ * (для пачки — последнего набора), {@code rows} — прочитанные или изменённые строки, -1 если неизвестно.
+ */
+@Value
+public class StatementExecution {
+    String sql;
+    int batchSize;
+    long nanos;
+    boolean failed;
+    List<Object> binds;
+    long rows;
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.jdbc;
+
+/**
+ * Получает каждое выполнение оператора через основной источник данных в потоке, который его выполнил.
+ * Вызывается на горячем пути — реализация не должна обращаться к базе и блокироваться.
+ */
+public interface StatementListener {
+
+    void afterExecute(StatementExecution execution);
+}
@@ -1,58 +1,37 @@
 package ru.practicum.shareit.mappers;
 
 import lombok.experimental.UtilityClass;
+import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.tracing.Tracing;
 import ru.practicum.shareit.user.model.User;
 
 @UtilityClass
 public class BookingMapper {
+    private static final BookingMapping MAPPING =
+            Tracing.traced(BookingMapping.class, Mappers.getMapper(BookingMapping.class));
 
     public static BookingDto toBookingDto(Booking booking) {
-        return BookingDto.builder()
-                .booker(UserMapper.toUserDto(booking.getBooker()))
-                .item(ItemMapper.toItemDto(booking.getItem()))
-                .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .status(booking.getStatus())
-                .build();
+        return MAPPING.toBookingDto(booking);
     }
 
     public static BookingDtoShort toBookingDtoShort(Booking booking) {
-        return BookingDtoShort.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .build();
+        return MAPPING.toBookingDtoShort(booking);
     }
 
     public static Booking toBooking(User user, Item item, BookingDto bookingDto) {
-        Booking booking = new Booking();
-        booking.setId(bookingDto.getId());
-        booking.setBooker(user);
-        booking.setItem(item);
-        booking.setStart(bookingDto.getStart());
-        booking.setEnd(bookingDto.getEnd());
-        return booking;
+        return MAPPING.toBooking(user, item, bookingDto);
     }
 
     public static Booking toBookingFromBookingDtoForItem(BookingDtoForItem dto, User user, Item item) {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(user);
-        booking.setStart(dto.getStart());
-        booking.setEnd(dto.getEnd());
-        return booking;
+        return MAPPING.toBookingFromBookingDtoForItem(dto, user, item);
     }
 
     public static BookingDtoForItem toBookingDtoForItem(Booking booking) {
-        return BookingDtoForItem.builder()
-                .itemId(booking.getItem().getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .build();
+        return MAPPING.toBookingDtoForItem(booking);
     }
 }
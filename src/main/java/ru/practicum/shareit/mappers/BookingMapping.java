@@ -0,0 +1,39 @@
+package ru.practicum.shareit.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR, uses = {UserMapping.class, ItemMapping.class})
+interface BookingMapping {
+    @Mapping(target = "itemId", ignore = true)
+    BookingDto toBookingDto(Booking booking);
+
+    @Mapping(target = "bookerId", source = "booker.id")
+    BookingDtoShort toBookingDtoShort(Booking booking);
+
+    @Mapping(target = "id", source = "bookingDto.id")
+    @Mapping(target = "start", source = "bookingDto.start")
+    @Mapping(target = "end", source = "bookingDto.end")
+    @Mapping(target = "booker", source = "user")
+    @Mapping(target = "item", source = "item")
+    @Mapping(target = "status", ignore = true)
+    Booking toBooking(User user, Item item, BookingDto bookingDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "start", source = "dto.start")
+    @Mapping(target = "end", source = "dto.end")
+    @Mapping(target = "booker", source = "user")
+    @Mapping(target = "item", source = "item")
+    @Mapping(target = "status", ignore = true)
+    Booking toBookingFromBookingDtoForItem(BookingDtoForItem dto, User user, Item item);
+
+    @Mapping(target = "itemId", source = "item.id")
+    BookingDtoForItem toBookingDtoForItem(Booking booking);
+}
@@ -1,50 +1,33 @@
 package ru.practicum.shareit.mappers;
 
 import lombok.experimental.UtilityClass;
+import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoReq;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.tracing.Tracing;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @UtilityClass
 public class ItemMapper {
+    private static final ItemMapping MAPPING =
+            Tracing.traced(ItemMapping.class, Mappers.getMapper(ItemMapping.class));
+
     public static ItemDto toItemDto(Item item) {
-        return ItemDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .requestId(item.getRequest())
-                .build();
+        return MAPPING.toItemDto(item);
     }
 
     public static Item toItem(User user, ItemDto itemDto) {
-        Item item = new Item();
-        item.setId(itemDto.getId());
-        item.setName(itemDto.getName());
-        item.setDescription(itemDto.getDescription());
-        item.setOwnerId(user.getId());
-        item.setAvailable(itemDto.getAvailable());
-        return item;
+        return MAPPING.toItem(user, itemDto);
     }
 
     public static ItemDtoReq toItemDtoReq(Item item) {
-        return ItemDtoReq.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .ownerId(item.getOwnerId())
-                .requestId(item.getRequest())
-                .available(item.getAvailable())
-                .build();
+        return MAPPING.toItemDtoReq(item);
     }
 
     public static List<ItemDtoReq> toItemDtoList(List<Item> items) {
-        return items.stream()
-                .map(ItemMapper::toItemDtoReq)
-                .collect(Collectors.toList());
+        return MAPPING.toItemDtoList(items);
     }
 }
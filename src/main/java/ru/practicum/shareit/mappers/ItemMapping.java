@@ -0,0 +1,36 @@
+package ru.practicum.shareit.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoReq;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+interface ItemMapping {
+    @Mapping(target = "requestId", source = "request")
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    ItemDto toItemDto(Item item);
+
+    @Mapping(target = "id", source = "itemDto.id")
+    @Mapping(target = "name", source = "itemDto.name")
+    @Mapping(target = "description", source = "itemDto.description")
+    @Mapping(target = "available", source = "itemDto.available")
+    @Mapping(target = "ownerId", source = "user.id")
+    @Mapping(target = "request", ignore = true)
+    @Mapping(target = "bookings", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    Item toItem(User user, ItemDto itemDto);
+
+    @Mapping(target = "requestId", source = "request")
+    ItemDtoReq toItemDtoReq(Item item);
+
+    List<ItemDtoReq> toItemDtoList(List<Item> items);
+}
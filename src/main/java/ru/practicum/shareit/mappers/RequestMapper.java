@@ -1,36 +1,27 @@
 package ru.practicum.shareit.mappers;
 
 import lombok.experimental.UtilityClass;
+import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
 import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.tracing.Tracing;
 import ru.practicum.shareit.user.model.User;
 
 @UtilityClass
 public class RequestMapper {
+    private static final RequestMapping MAPPING =
+            Tracing.traced(RequestMapping.class, Mappers.getMapper(RequestMapping.class));
+
     public static Request toItemRequest(User user, RequestDto requestDto) {
-        return Request.builder()
-                .description(requestDto.getDescription())
-                .requestor(user)
-                .build();
+        return MAPPING.toItemRequest(user, requestDto);
     }
 
     public static RequestDto toItemRequestDto(Request request) {
-        return RequestDto.builder()
-                .id(request.getId())
-                .description(request.getDescription())
-                .created(request.getCreated())
-                .build();
+        return MAPPING.toItemRequestDto(request);
     }
 
     public static RequestDtoWithRequest toRequestDtoWithRequest(Request request) {
-        return RequestDtoWithRequest.builder()
-                .id(request.getId())
-                .description(request.getDescription())
-                .created(request.getCreated())
-                .items(ItemMapper.toItemDtoList(request.getItems()))
-                .build();
+        return MAPPING.toRequestDtoWithRequest(request);
     }
-
-
 }
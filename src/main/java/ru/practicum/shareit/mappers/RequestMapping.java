@@ -0,0 +1,27 @@
+package ru.practicum.shareit.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR, uses = ItemMapping.class)
+interface RequestMapping {
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "description", source = "requestDto.description")
+    @Mapping(target = "requestor", source = "user")
+    @Mapping(target = "created", ignore = true)
+    @Mapping(target = "items", ignore = true)
+    Request toItemRequest(User user, RequestDto requestDto);
+
+    @Mapping(target = "requestor", ignore = true)
+    @Mapping(target = "items", ignore = true)
+    RequestDto toItemRequestDto(Request request);
+
+    @Mapping(target = "requestor", ignore = true)
+    @Mapping(target = "items", ignore = true)
+    RequestDtoWithRequest toRequestDtoWithRequest(Request request);
+}
@@ -1,32 +1,25 @@
 package ru.practicum.shareit.mappers;
 
 import lombok.experimental.UtilityClass;
+import org.mapstruct.factory.Mappers;
+import ru.practicum.shareit.tracing.Tracing;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 @UtilityClass
 public class UserMapper {
+    private static final UserMapping MAPPING =
+            Tracing.traced(UserMapping.class, Mappers.getMapper(UserMapping.class));
 
     public static UserDto toUserDto(User user) {
-        return new UserDto(
-                user.getId(),
-                user.getName(),
-                user.getEmail()
-        );
+        return MAPPING.toUserDto(user);
     }
 
     public static User toUser(UserDto userDto) {
-        User user = new User();
-        user.setName(userDto.getName());
-        user.setEmail(userDto.getEmail());
-        return user;
+        return MAPPING.toUser(userDto);
     }
 
     public static User toUserWithId(long userId, UserDto userDto) {
-        User user = new User();
-        user.setId(userId);
-        user.setName(userDto.getName());
-        user.setEmail(userDto.getEmail());
-        return user;
+        return MAPPING.toUserWithId(userId, userDto);
     }
 }
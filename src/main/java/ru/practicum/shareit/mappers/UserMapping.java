@@ -0,0 +1,18 @@
+package ru.practicum.shareit.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+interface UserMapping {
+    UserDto toUserDto(User user);
+
+    @Mapping(target = "id", ignore = true)
+    User toUser(UserDto userDto);
+
+    @Mapping(target = "id", source = "userId")
+    User toUserWithId(Long userId, UserDto userDto);
+}
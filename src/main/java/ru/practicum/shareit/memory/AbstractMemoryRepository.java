@@ -0,0 +1,233 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Общая часть репозиториев поверх {@link MemoryStore}: CRUD и постраничное чтение в порядке id.
+ * Сортировка через {@link Sort} и запросы по образцу не поддерживаются — запросы репозиториев
+ * сами задают порядок, как и их JPQL-аналоги.
+ */
+public abstract class AbstractMemoryRepository<T> implements JpaRepository<T, Long> {
+    protected final MemoryStore store;
+    private final MemoryTable table;
+
+    protected AbstractMemoryRepository(MemoryStore store, MemoryTable table) {
+        this.store = store;
+        this.table = table;
+    }
+
+    protected abstract Optional<T> load(Long id);
+
+    /**
+     * Записывает сущность; id уже назначен.
+     */
+    protected abstract void store(T entity);
+
+    protected abstract Long idOf(T entity);
+
+    protected abstract void assignId(T entity, Long id);
+
+    /**
+     * Как и Spring Data, null вместо Pageable означает запрос без страниц.
+     */
+    protected static <R> List<R> page(Stream<R> rows, Pageable pageable) {
+        if (pageable != null && pageable.isPaged()) {
+            rows = rows.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return rows.collect(Collectors.toList());
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        if (!store.contains(table, idOf(entity))) {
+            assignId(entity, store.nextId(table));
+        }
+        store(entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false)
+                .map(this::save)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return load(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.contains(table, id);
+    }
+
+    @Override
+    public T getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getReferenceById(Long id) {
+        return load(id).orElseThrow(() -> new EntityNotFoundException(table + " с id " + id + " не найден"));
+    }
+
+    @Override
+    public List<T> findAll() {
+        return page(store.ids(table), Pageable.unpaged()).stream()
+                .map(this::load)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("Сортировка не поддерживается хранилищем в памяти");
+        }
+        return findAll();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            throw new UnsupportedOperationException("Сортировка не поддерживается хранилищем в памяти");
+        }
+        List<T> content = page(store.ids(table), pageable).stream()
+                .map(this::load)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, count());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(this::load)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return store.count(table);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        if (!store.contains(table, id)) {
+            throw new EmptyResultDataAccessException(
+                    String.format("No %s entity with id %s exists!", table, id), 1);
+        }
+        store.delete(table, id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        store.delete(table, idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.ids(table).collect(Collectors.toList()).forEach(id -> store.delete(table, id));
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        ids.forEach(id -> store.delete(table, id));
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupportedExample();
+    }
+
+    private static UnsupportedOperationException unsupportedExample() {
+        return new UnsupportedOperationException("Запросы по образцу не поддерживаются хранилищем в памяти");
+    }
+}
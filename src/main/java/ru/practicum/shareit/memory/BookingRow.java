@@ -0,0 +1,20 @@
+package ru.practicum.shareit.memory;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+@Jacksonized
+public class BookingRow {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    Long itemId;
+    Long bookerId;
+    Status status;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.memory;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+@Jacksonized
+public class CommentRow {
+    Long id;
+    String text;
+    Long itemId;
+    Long authorId;
+    LocalDateTime created;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.memory;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+public class ItemRow {
+    Long id;
+    String name;
+    String description;
+    Long ownerId;
+    Boolean available;
+    Long request;
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.memory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Список связей сущности, который собирается при первом обращении — замена ленивой коллекции JPA
+ * для сущностей из {@link MemoryStore}. После сборки ведёт себя как обычный изменяемый список.
+ */
+class LazyList<T> extends AbstractList<T> {
+    private Supplier<List<T>> loader;
+    private List<T> rows;
+
+    LazyList(Supplier<List<T>> loader) {
+        this.loader = loader;
+    }
+
+    @Override
+    public T get(int index) {
+        return rows().get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows().size();
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return rows().set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        rows().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        modCount++;
+        return rows().remove(index);
+    }
+
+    boolean isLoaded() {
+        return rows != null;
+    }
+
+    private List<T> rows() {
+        if (rows == null) {
+            rows = new ArrayList<>(loader.get());
+            loader = null;
+        }
+        return rows;
+    }
+}
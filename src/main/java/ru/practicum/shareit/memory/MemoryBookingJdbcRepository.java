@@ -0,0 +1,35 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение бронирований из {@link MemoryStore} в порядке, как у JDBC-запросов.
+ */
+@Repository
+@Primary
+@Profile("memory")
+public class MemoryBookingJdbcRepository extends BookingJdbcRepository {
+    private final MemoryStore store;
+
+    public MemoryBookingJdbcRepository(JdbcTemplate jdbcTemplate, MemoryStore store) {
+        super(jdbcTemplate);
+        this.store = store;
+    }
+
+    @Override
+    public void streamByOwner(Long ownerId, Consumer<Booking> consumer) {
+        store.bookingsOfOwner(ownerId).map(store::toBooking).forEach(consumer);
+    }
+
+    @Override
+    public void streamByBooker(Long bookerId, Consumer<Booking> consumer) {
+        store.bookingsOfBooker(bookerId).map(store::toBooking).forEach(consumer);
+    }
+}
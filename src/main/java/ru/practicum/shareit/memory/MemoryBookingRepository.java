@@ -0,0 +1,76 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Optional;
+
+@Repository
+@Profile("memory")
+public class MemoryBookingRepository extends AbstractMemoryRepository<Booking> implements BookingRepository {
+    private static final Comparator<BookingRow> BY_START = Comparator.comparing(BookingRow::getStart)
+            .thenComparing(BookingRow::getId);
+
+    public MemoryBookingRepository(MemoryStore store) {
+        super(store, MemoryTable.BOOKINGS);
+    }
+
+    @Override
+    public Booking findFirstBookingByItemIdAndStartIsAfterAndStatusNotLikeOrderByStartAsc(Long itemId,
+                                                                                          LocalDateTime dateTime,
+                                                                                          Status status) {
+        return store.bookingsOfItem(itemId)
+                .filter(booking -> booking.getStart().isAfter(dateTime) && booking.getStatus() != status)
+                .min(BY_START)
+                .map(store::toBooking)
+                .orElse(null);
+    }
+
+    @Override
+    public Booking findFirstBookingByItemIdAndStartIsBeforeAndStatusNotLikeOrderByStartDesc(Long itemId,
+                                                                                            LocalDateTime dateTime,
+                                                                                            Status status) {
+        return store.bookingsOfItem(itemId)
+                .filter(booking -> booking.getStart().isBefore(dateTime) && booking.getStatus() != status)
+                .max(BY_START)
+                .map(store::toBooking)
+                .orElse(null);
+    }
+
+    @Override
+    public int updateStatusIfWaiting(Long bookingId, Status status) {
+        return store.compareAndSetBookingStatus(bookingId, Status.WAITING, status) ? 1 : 0;
+    }
+
+    @Override
+    protected Optional<Booking> load(Long id) {
+        return store.booking(id).map(store::toBooking);
+    }
+
+    @Override
+    protected void store(Booking booking) {
+        store.putBooking(BookingRow.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .status(booking.getStatus())
+                .build());
+    }
+
+    @Override
+    protected Long idOf(Booking booking) {
+        return booking.getId();
+    }
+
+    @Override
+    protected void assignId(Booking booking, Long id) {
+        booking.setId(id);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Списки бронирований прямо из индексов {@link MemoryStore}: отдельная модель чтения хранилищу в памяти
+ * не нужна, поэтому обновления представлений ничего не делают.
+ */
+@Repository
+@Primary
+@Profile("memory")
+public class MemoryBookingViewRepository extends BookingViewRepository {
+    private final MemoryStore store;
+
+    public MemoryBookingViewRepository(JdbcTemplate jdbcTemplate, MemoryStore store) {
+        super(jdbcTemplate);
+        this.store = store;
+    }
+
+    @Override
+    public void insert(Booking booking) {
+    }
+
+    @Override
+    public void updateStatuses(Map<Long, Status> statuses) {
+    }
+
+    @Override
+    public void updateItem(Item item) {
+    }
+
+    @Override
+    public void updateBooker(User booker) {
+    }
+
+    @Override
+    public List<Booking> findAll(Long userId, boolean isOwner, Pageable pageable) {
+        return find(userId, isOwner, row -> true, pageable);
+    }
+
+    @Override
+    public List<Booking> findByStatus(Long userId, boolean isOwner, Status status, Pageable pageable) {
+        return find(userId, isOwner, row -> row.getStatus() == status, pageable);
+    }
+
+    @Override
+    public List<Booking> findCurrent(Long userId, boolean isOwner, LocalDateTime now, Pageable pageable) {
+        return find(userId, isOwner, row -> !row.getStart().isAfter(now) && !row.getEnd().isBefore(now), pageable);
+    }
+
+    @Override
+    public List<Booking> findPast(Long userId, boolean isOwner, LocalDateTime now, Pageable pageable) {
+        return find(userId, isOwner, row -> row.getEnd().isBefore(now), pageable);
+    }
+
+    @Override
+    public List<Booking> findFuture(Long userId, boolean isOwner, LocalDateTime now, Pageable pageable) {
+        return find(userId, isOwner, row -> row.getEnd().isAfter(now), pageable);
+    }
+
+    private List<Booking> find(Long userId, boolean isOwner, Predicate<BookingRow> filter, Pageable pageable) {
+        Stream<BookingRow> rows = isOwner ? store.bookingsOfOwner(userId) : store.bookingsOfBooker(userId);
+        return rows.filter(filter)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(store::toBooking)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.bulk.repository.BulkImportRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.jdbc.SequenceIdAllocator;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка в {@link MemoryStore}. Пачка записывается целиком или не записывается вовсе, поэтому повтор пачки построчно
+ * после ошибки не создаёт дублей.
+ */
+@Repository
+@Primary
+@Profile("memory")
+public class MemoryBulkImportRepository extends BulkImportRepository {
+    private final MemoryStore store;
+
+    public MemoryBulkImportRepository(NamedParameterJdbcTemplate jdbcTemplate, SequenceIdAllocator idAllocator,
+                                      MemoryStore store) {
+        super(jdbcTemplate, idAllocator);
+        this.store = store;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> normalizedEmails) {
+        return normalizedEmails.stream().filter(store::emailExistsIgnoreCase).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<Long> findExistingUserIds(Collection<Long> ids) {
+        return ids.stream().filter(id -> store.contains(MemoryTable.USERS, id)).collect(Collectors.toSet());
+    }
+
+    @Override
+    public void insertUsers(List<User> users) {
+        users.forEach(user -> user.setId(store.nextId(MemoryTable.USERS)));
+        store.putUsers(users.stream()
+                .map(user -> UserRow.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .email(user.getEmail())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void insertItems(List<Item> items) {
+        items.forEach(item -> item.setId(store.nextId(MemoryTable.ITEMS)));
+        store.putItems(items.stream()
+                .map(MemoryItemRepository::toRow)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("memory")
+public class MemoryCommentRepository extends AbstractMemoryRepository<Comment> implements CommentRepository {
+
+    public MemoryCommentRepository(MemoryStore store) {
+        super(store, MemoryTable.COMMENTS);
+    }
+
+    @Override
+    public List<Comment> findAllByItemId(Long itemId) {
+        return store.commentsOfItem(itemId)
+                .map(store::toComment)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Optional<Comment> load(Long id) {
+        return store.comment(id).map(store::toComment);
+    }
+
+    @Override
+    protected void store(Comment comment) {
+        store.putComment(CommentRow.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .itemId(comment.getItem().getId())
+                .authorId(comment.getAuthor().getId())
+                .created(comment.getCreated())
+                .build());
+    }
+
+    @Override
+    protected Long idOf(Comment comment) {
+        return comment.getId();
+    }
+
+    @Override
+    protected void assignId(Comment comment, Long id) {
+        comment.setId(id);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.memory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Вторичный индекс: значение столбца → упорядоченное множество id строк.
+ * Изменяется только под блокировкой {@link MemoryStore}, читается без блокировок.
+ */
+class MemoryIndex<K> {
+    private final Map<K, NavigableSet<Long>> ids = new ConcurrentHashMap<>();
+
+    void add(K key, Long id) {
+        if (key != null) {
+            ids.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    void remove(K key, Long id) {
+        if (key != null) {
+            ids.computeIfPresent(key, (k, set) -> {
+                set.remove(id);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    NavigableSet<Long> get(K key) {
+        NavigableSet<Long> set = key == null ? null : ids.get(key);
+        return set == null ? Collections.emptyNavigableSet() : set;
+    }
+
+    boolean contains(K key) {
+        return !get(key).isEmpty();
+    }
+
+    void clear() {
+        ids.clear();
+    }
+}
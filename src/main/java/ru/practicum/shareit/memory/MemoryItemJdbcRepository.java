@@ -0,0 +1,30 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение предметов владельца из {@link MemoryStore} вместо JDBC-курсора.
+ */
+@Repository
+@Primary
+@Profile("memory")
+public class MemoryItemJdbcRepository extends ItemJdbcRepository {
+    private final MemoryStore store;
+
+    public MemoryItemJdbcRepository(JdbcTemplate jdbcTemplate, MemoryStore store) {
+        super(jdbcTemplate);
+        this.store = store;
+    }
+
+    @Override
+    public void streamByOwner(Long ownerId, Consumer<Item> consumer) {
+        store.itemsOfOwner(ownerId).map(store::toItemWithoutRelations).forEach(consumer);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("memory")
+public class MemoryItemRepository extends AbstractMemoryRepository<Item> implements ItemRepository {
+
+    public MemoryItemRepository(MemoryStore store) {
+        super(store, MemoryTable.ITEMS);
+    }
+
+    static ItemRow toRow(Item item) {
+        return ItemRow.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .ownerId(item.getOwnerId())
+                .available(item.getAvailable())
+                .request(item.getRequest())
+                .build();
+    }
+
+    @Override
+    public List<Item> findAllByOwnerId(Long ownerId, Pageable pageable) {
+        return page(store.itemsOfOwner(ownerId), pageable).stream()
+                .map(store::toItem)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Item> searchItem(String text, Pageable pageable) {
+        return page(store.availableItemsContaining(text.toUpperCase(Locale.ROOT)), pageable).stream()
+                .map(store::toItem)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Item> findAllByRequestIn(Collection<Long> requestIds) {
+        return requestIds.stream()
+                .distinct()
+                .flatMap(store::itemsOfRequest)
+                .map(store::toItemWithoutRelations)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Optional<Item> load(Long id) {
+        return store.item(id).map(store::toItem);
+    }
+
+    @Override
+    protected void store(Item item) {
+        store.putItem(toRow(item));
+    }
+
+    @Override
+    protected Long idOf(Item item) {
+        return item.getId();
+    }
+
+    @Override
+    protected void assignId(Item item, Long id) {
+        item.setId(id);
+    }
+}
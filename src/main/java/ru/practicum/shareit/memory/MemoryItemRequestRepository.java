@@ -0,0 +1,61 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("memory")
+public class MemoryItemRequestRepository extends AbstractMemoryRepository<Request> implements ItemRequestRepository {
+
+    public MemoryItemRequestRepository(MemoryStore store) {
+        super(store, MemoryTable.REQUESTS);
+    }
+
+    @Override
+    public List<Request> findAllByRequestorId(Long userId) {
+        return store.requestsOfRequestor(userId)
+                .map(store::toRequest)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Request> findByOwnerId(Long userId, Pageable pageable) {
+        return page(store.requestsByCreated()
+                .filter(request -> !Objects.equals(request.getRequestorId(), userId)), pageable).stream()
+                .map(store::toRequest)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Optional<Request> load(Long id) {
+        return store.request(id).map(store::toRequest);
+    }
+
+    @Override
+    protected void store(Request request) {
+        store.putRequest(RequestRow.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requestorId(request.getRequestor().getId())
+                .created(request.getCreated())
+                .build());
+    }
+
+    @Override
+    protected Long idOf(Request request) {
+        return request.getId();
+    }
+
+    @Override
+    protected void assignId(Request request, Long id) {
+        request.setId(id);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.memory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Вторичный индекс со строками, упорядоченными компаратором: значение столбца → множество строк.
+ * Запрос страницы идёт по множеству в готовом порядке и останавливается на последней нужной строке.
+ * Как и {@link MemoryIndex}, изменяется только под блокировкой {@link MemoryStore}, читается без блокировок.
+ */
+class MemorySortedIndex<K, R> {
+    private final Map<K, NavigableSet<R>> rows = new ConcurrentHashMap<>();
+    private final Comparator<? super R> order;
+
+    MemorySortedIndex(Comparator<? super R> order) {
+        this.order = order;
+    }
+
+    void add(K key, R row) {
+        if (key != null) {
+            rows.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(order)).add(row);
+        }
+    }
+
+    void remove(K key, R row) {
+        if (key != null) {
+            rows.computeIfPresent(key, (k, set) -> {
+                set.remove(row);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    NavigableSet<R> get(K key) {
+        NavigableSet<R> set = key == null ? null : rows.get(key);
+        return set == null ? Collections.emptyNavigableSet() : set;
+    }
+}
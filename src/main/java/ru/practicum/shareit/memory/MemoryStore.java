@@ -0,0 +1,694 @@
+package ru.practicum.shareit.memory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.search.Trigrams;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище всех таблиц в памяти процесса для профиля {@code memory}.
+ * Строки лежат в {@link ConcurrentSkipListMap} по id, для запросов репозиториев поддерживаются вторичные индексы,
+ * поэтому чтение идёт без блокировок и без обращения к базе. Запись сериализуется монитором хранилища:
+ * проверяются внешние ключи и уникальность email, запись попадает в {@link WriteAheadLog}
+ * и только затем применяется к картам. Удаления каскадируются так же, как ON DELETE CASCADE в schema.sql.
+ * <p>
+ * Изменения не участвуют в транзакциях Spring: откат транзакции сервиса не отменяет уже сделанную запись.
+ * Репозитории отдают копии строк в виде сущностей, изменение сущности без save ничего не меняет.
+ */
+@Slf4j
+@Component
+@Profile("memory")
+public class MemoryStore implements DisposableBean {
+    private static final Comparator<RequestRow> REQUEST_ORDER = Comparator.comparing(RequestRow::getCreated,
+                    Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(RequestRow::getId, Comparator.reverseOrder());
+    private static final Comparator<BookingRow> START_DESC = Comparator.comparing(BookingRow::getStart)
+            .thenComparing(BookingRow::getId)
+            .reversed();
+
+    private final NavigableMap<Long, UserRow> users = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final MemoryIndex<String> usersByEmailIgnoreCase = new MemoryIndex<>();
+
+    private final NavigableMap<Long, RequestRow> requests = new ConcurrentSkipListMap<>();
+    private final MemoryIndex<Long> requestsByRequestor = new MemoryIndex<>();
+    private final NavigableSet<RequestRow> requestsByCreated = new ConcurrentSkipListSet<>(REQUEST_ORDER);
+
+    private final NavigableMap<Long, ItemRow> items = new ConcurrentSkipListMap<>();
+    private final MemoryIndex<Long> itemsByOwner = new MemoryIndex<>();
+    private final MemoryIndex<Long> itemsByRequest = new MemoryIndex<>();
+    private final MemoryIndex<Long> availableItemsByTrigram = new MemoryIndex<>();
+
+    private final NavigableMap<Long, BookingRow> bookings = new ConcurrentSkipListMap<>();
+    private final MemoryIndex<Long> bookingsByItem = new MemoryIndex<>();
+    private final MemorySortedIndex<Long, BookingRow> bookingsByBooker = new MemorySortedIndex<>(START_DESC);
+    private final MemorySortedIndex<Long, BookingRow> bookingsByOwner = new MemorySortedIndex<>(START_DESC);
+
+    private final NavigableMap<Long, CommentRow> comments = new ConcurrentSkipListMap<>();
+    private final MemoryIndex<Long> commentsByItem = new MemoryIndex<>();
+    private final MemoryIndex<Long> commentsByAuthor = new MemoryIndex<>();
+
+    private final Map<MemoryTable, AtomicLong> sequences = new EnumMap<>(MemoryTable.class);
+    private final ObjectMapper objectMapper;
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService snapshotScheduler;
+
+    public MemoryStore(ObjectMapper objectMapper,
+                       @Value("${shareit.memory.dir:./db/memory}") String directory,
+                       @Value("${shareit.memory.fsync:true}") boolean fsync,
+                       @Value("${shareit.memory.snapshot-interval:10m}") Duration snapshotInterval) {
+        this.objectMapper = objectMapper;
+        for (MemoryTable table : MemoryTable.values()) {
+            sequences.put(table, new AtomicLong());
+        }
+        this.wal = new WriteAheadLog(Path.of(directory), objectMapper, fsync);
+        wal.recover(this::replay);
+        log.info("Хранилище в памяти восстановлено из {}: пользователей {}, предметов {}, бронирований {}, " +
+                "отзывов {}, запросов {}", directory, users.size(), items.size(), bookings.size(), comments.size(),
+                requests.size());
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "memory-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = snapshotInterval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public long nextId(MemoryTable table) {
+        return sequences.get(table).incrementAndGet();
+    }
+
+    public boolean contains(MemoryTable table, Long id) {
+        return id != null && rows(table).containsKey(id);
+    }
+
+    public long count(MemoryTable table) {
+        return rows(table).size();
+    }
+
+    public Stream<Long> ids(MemoryTable table) {
+        return rows(table).keySet().stream();
+    }
+
+    // ---------------------------------------------------------------- запись
+
+    public synchronized void putUser(UserRow row) {
+        checkEmail(row, Set.of());
+        write(MemoryTable.USERS, row.getId(), row);
+        applyUser(row);
+    }
+
+    /**
+     * Вставляет пачку пользователей целиком или не вставляет ни одного.
+     */
+    public synchronized void putUsers(List<UserRow> rows) {
+        Set<String> batchEmails = new HashSet<>();
+        for (UserRow row : rows) {
+            checkEmail(row, batchEmails);
+            batchEmails.add(row.getEmail());
+        }
+        for (UserRow row : rows) {
+            write(MemoryTable.USERS, row.getId(), row);
+            applyUser(row);
+        }
+    }
+
+    public synchronized void putRequest(RequestRow row) {
+        requireRow(users, row.getRequestorId(), "Пользователь");
+        write(MemoryTable.REQUESTS, row.getId(), row);
+        applyRequest(row);
+    }
+
+    public synchronized void putItem(ItemRow row) {
+        requireRow(users, row.getOwnerId(), "Пользователь");
+        write(MemoryTable.ITEMS, row.getId(), row);
+        applyItem(row);
+    }
+
+    /**
+     * Вставляет пачку предметов целиком или не вставляет ни одного.
+     */
+    public synchronized void putItems(List<ItemRow> rows) {
+        rows.forEach(row -> requireRow(users, row.getOwnerId(), "Пользователь"));
+        for (ItemRow row : rows) {
+            write(MemoryTable.ITEMS, row.getId(), row);
+            applyItem(row);
+        }
+    }
+
+    public synchronized void putBooking(BookingRow row) {
+        requireRow(items, row.getItemId(), "Предмет");
+        requireRow(users, row.getBookerId(), "Пользователь");
+        write(MemoryTable.BOOKINGS, row.getId(), row);
+        applyBooking(row);
+    }
+
+    /**
+     * Меняет статус бронирования, только если текущий равен ожидаемому; проверка и запись под одной блокировкой.
+     */
+    public synchronized boolean compareAndSetBookingStatus(Long id, Status expected, Status status) {
+        BookingRow row = id == null ? null : bookings.get(id);
+        if (row == null || row.getStatus() != expected) {
+            return false;
+        }
+        putBooking(BookingRow.builder()
+                .id(row.getId())
+                .start(row.getStart())
+                .end(row.getEnd())
+                .itemId(row.getItemId())
+                .bookerId(row.getBookerId())
+                .status(status)
+                .build());
+        return true;
+    }
+
+    public synchronized void putComment(CommentRow row) {
+        requireRow(items, row.getItemId(), "Предмет");
+        requireRow(users, row.getAuthorId(), "Пользователь");
+        write(MemoryTable.COMMENTS, row.getId(), row);
+        applyComment(row);
+    }
+
+    public synchronized void delete(MemoryTable table, Long id) {
+        if (contains(table, id)) {
+            wal.append(WalRecord.builder().op(WalRecord.Op.DELETE).table(table).id(id).build());
+            applyDelete(table, id);
+        }
+    }
+
+    // ---------------------------------------------------------------- чтение строк
+
+    public Optional<UserRow> user(Long id) {
+        return Optional.ofNullable(id == null ? null : users.get(id));
+    }
+
+    public Stream<UserRow> users() {
+        return users.values().stream();
+    }
+
+    public Stream<UserRow> usersAfter(long id) {
+        return users.tailMap(id, false).values().stream();
+    }
+
+    public boolean emailExists(String email) {
+        return userIdsByEmail.containsKey(email);
+    }
+
+    public boolean emailExistsIgnoreCase(String email) {
+        return usersByEmailIgnoreCase.contains(email.toLowerCase(Locale.ROOT));
+    }
+
+    public Optional<RequestRow> request(Long id) {
+        return Optional.ofNullable(id == null ? null : requests.get(id));
+    }
+
+    public Stream<RequestRow> requests() {
+        return requests.values().stream();
+    }
+
+    public Stream<RequestRow> requestsOfRequestor(Long requestorId) {
+        return rowsOf(requests, requestsByRequestor.get(requestorId));
+    }
+
+    /**
+     * Запросы от новых к старым.
+     */
+    public Stream<RequestRow> requestsByCreated() {
+        return requestsByCreated.stream();
+    }
+
+    public Optional<ItemRow> item(Long id) {
+        return Optional.ofNullable(id == null ? null : items.get(id));
+    }
+
+    public Stream<ItemRow> items() {
+        return items.values().stream();
+    }
+
+    /**
+     * Доступные предметы, название или описание которых содержит {@code pattern} в верхнем регистре,
+     * по возрастанию id. Для образца от трёх символов кандидаты берутся из самого короткого списка
+     * его триграмм и проверяются по остальным, иначе просматриваются все предметы.
+     */
+    public Stream<ItemRow> availableItemsContaining(String pattern) {
+        long[] trigrams = Trigrams.of(pattern);
+        Stream<ItemRow> candidates;
+        if (trigrams.length == 0) {
+            candidates = items.values().stream()
+                    .filter(row -> Boolean.TRUE.equals(row.getAvailable()));
+        } else {
+            List<NavigableSet<Long>> postings = LongStream.of(trigrams)
+                    .mapToObj(availableItemsByTrigram::get)
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .collect(Collectors.toList());
+            candidates = rowsOf(items, postings.get(0))
+                    .filter(row -> postings.stream().allMatch(ids -> ids.contains(row.getId())));
+        }
+        return candidates.filter(row -> contains(row.getName(), pattern) || contains(row.getDescription(), pattern));
+    }
+
+    public Stream<ItemRow> itemsOfOwner(Long ownerId) {
+        return rowsOf(items, itemsByOwner.get(ownerId));
+    }
+
+    public Stream<ItemRow> itemsOfRequest(Long requestId) {
+        return rowsOf(items, itemsByRequest.get(requestId));
+    }
+
+    public Optional<BookingRow> booking(Long id) {
+        return Optional.ofNullable(id == null ? null : bookings.get(id));
+    }
+
+    public Stream<BookingRow> bookings() {
+        return bookings.values().stream();
+    }
+
+    public Stream<BookingRow> bookingsOfItem(Long itemId) {
+        return rowsOf(bookings, bookingsByItem.get(itemId));
+    }
+
+    /**
+     * Бронирования арендатора от поздних к ранним по началу, затем по id.
+     */
+    public Stream<BookingRow> bookingsOfBooker(Long bookerId) {
+        return bookingsByBooker.get(bookerId).stream();
+    }
+
+    /**
+     * Бронирования предметов владельца от поздних к ранним по началу, затем по id.
+     */
+    public Stream<BookingRow> bookingsOfOwner(Long ownerId) {
+        return bookingsByOwner.get(ownerId).stream();
+    }
+
+    public Optional<CommentRow> comment(Long id) {
+        return Optional.ofNullable(id == null ? null : comments.get(id));
+    }
+
+    public Stream<CommentRow> comments() {
+        return comments.values().stream();
+    }
+
+    public Stream<CommentRow> commentsOfItem(Long itemId) {
+        return rowsOf(comments, commentsByItem.get(itemId));
+    }
+
+    // ---------------------------------------------------------------- сборка сущностей
+
+    public User toUser(UserRow row) {
+        return User.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .email(row.getEmail())
+                .build();
+    }
+
+    /**
+     * Предмет с ленивыми списками бронирований и отзывов, как после загрузки через JPA:
+     * строки связей читаются из хранилища только при первом обращении к списку.
+     */
+    public Item toItem(ItemRow row) {
+        Item item = toItemWithoutRelations(row);
+        item.setBookings(new LazyList<>(() -> bookingsOfItem(row.getId())
+                .map(booking -> toBooking(booking, item))
+                .collect(Collectors.toList())));
+        item.setComments(new LazyList<>(() -> commentsOfItem(row.getId())
+                .sorted(Comparator.comparing(CommentRow::getCreated))
+                .map(comment -> toComment(comment, item))
+                .collect(Collectors.toList())));
+        return item;
+    }
+
+    public Item toItemWithoutRelations(ItemRow row) {
+        return Item.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .description(row.getDescription())
+                .ownerId(row.getOwnerId())
+                .available(row.getAvailable())
+                .request(row.getRequest())
+                .build();
+    }
+
+    public Booking toBooking(BookingRow row) {
+        return toBooking(row, toItemWithoutRelations(items.get(row.getItemId())));
+    }
+
+    public Comment toComment(CommentRow row) {
+        return toComment(row, toItemWithoutRelations(items.get(row.getItemId())));
+    }
+
+    public Request toRequest(RequestRow row) {
+        return Request.builder()
+                .id(row.getId())
+                .description(row.getDescription())
+                .requestor(toUser(users.get(row.getRequestorId())))
+                .created(row.getCreated())
+                .items(rowsOf(items, itemsByRequest.get(row.getId()))
+                        .map(this::toItemWithoutRelations)
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build();
+    }
+
+    private Booking toBooking(BookingRow row, Item item) {
+        return Booking.builder()
+                .id(row.getId())
+                .start(row.getStart())
+                .end(row.getEnd())
+                .status(row.getStatus())
+                .item(item)
+                .booker(toUser(users.get(row.getBookerId())))
+                .build();
+    }
+
+    private Comment toComment(CommentRow row, Item item) {
+        return Comment.builder()
+                .id(row.getId())
+                .text(row.getText())
+                .item(item)
+                .author(toUser(users.get(row.getAuthorId())))
+                .created(row.getCreated())
+                .build();
+    }
+
+    // ---------------------------------------------------------------- снимки
+
+    /**
+     * Пишет снимок, если с прошлого снимка в журнале появились записи. Записи на время снимка блокируются.
+     */
+    public synchronized void snapshot() {
+        if (wal.pendingRecords() == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        wal.snapshot(Stream.of(
+                        users.values().stream().map(row -> putRecord(MemoryTable.USERS, row.getId(), row)),
+                        requests.values().stream().map(row -> putRecord(MemoryTable.REQUESTS, row.getId(), row)),
+                        items.values().stream().map(row -> putRecord(MemoryTable.ITEMS, row.getId(), row)),
+                        bookings.values().stream().map(row -> putRecord(MemoryTable.BOOKINGS, row.getId(), row)),
+                        comments.values().stream().map(row -> putRecord(MemoryTable.COMMENTS, row.getId(), row)))
+                .flatMap(stream -> stream)
+                .iterator());
+        log.info("Снимок хранилища в памяти записан за {} мс", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        snapshotScheduler.shutdownNow();
+        synchronized (this) {
+            snapshot();
+            wal.close();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Не удалось записать снимок хранилища в памяти", e);
+        }
+    }
+
+    // ---------------------------------------------------------------- применение изменений
+
+    private void write(MemoryTable table, Long id, Object row) {
+        wal.append(putRecord(table, id, row));
+    }
+
+    private WalRecord putRecord(MemoryTable table, Long id, Object row) {
+        return WalRecord.builder()
+                .op(WalRecord.Op.PUT)
+                .table(table)
+                .id(id)
+                .row(objectMapper.valueToTree(row))
+                .build();
+    }
+
+    private void replay(WalRecord record) {
+        if (record.getOp() == WalRecord.Op.DELETE) {
+            applyDelete(record.getTable(), record.getId());
+            return;
+        }
+        Object row;
+        try {
+            row = objectMapper.treeToValue(record.getRow(), record.getTable().getRowType());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Повреждена запись журнала: " + record, e);
+        }
+        switch (record.getTable()) {
+            case USERS:
+                applyUser((UserRow) row);
+                break;
+            case REQUESTS:
+                applyRequest((RequestRow) row);
+                break;
+            case ITEMS:
+                applyItem((ItemRow) row);
+                break;
+            case BOOKINGS:
+                applyBooking((BookingRow) row);
+                break;
+            case COMMENTS:
+                applyComment((CommentRow) row);
+                break;
+            default:
+                throw new IllegalStateException("Неизвестная таблица " + record.getTable());
+        }
+    }
+
+    private void applyUser(UserRow row) {
+        UserRow previous = users.put(row.getId(), row);
+        if (previous != null) {
+            userIdsByEmail.remove(previous.getEmail(), previous.getId());
+            usersByEmailIgnoreCase.remove(previous.getEmail().toLowerCase(Locale.ROOT), previous.getId());
+        }
+        userIdsByEmail.put(row.getEmail(), row.getId());
+        usersByEmailIgnoreCase.add(row.getEmail().toLowerCase(Locale.ROOT), row.getId());
+        advanceSequence(MemoryTable.USERS, row.getId());
+    }
+
+    private void applyRequest(RequestRow row) {
+        RequestRow previous = requests.put(row.getId(), row);
+        if (previous != null) {
+            requestsByRequestor.remove(previous.getRequestorId(), previous.getId());
+            requestsByCreated.remove(previous);
+        }
+        requestsByRequestor.add(row.getRequestorId(), row.getId());
+        requestsByCreated.add(row);
+        advanceSequence(MemoryTable.REQUESTS, row.getId());
+    }
+
+    private void applyItem(ItemRow row) {
+        ItemRow previous = items.put(row.getId(), row);
+        if (previous != null) {
+            itemsByOwner.remove(previous.getOwnerId(), previous.getId());
+            itemsByRequest.remove(previous.getRequest(), previous.getId());
+            unindexText(previous);
+            if (!Objects.equals(previous.getOwnerId(), row.getOwnerId())) {
+                for (BookingRow booking : rowsOf(bookings, bookingsByItem.get(row.getId()))
+                        .collect(Collectors.toList())) {
+                    bookingsByOwner.remove(previous.getOwnerId(), booking);
+                    bookingsByOwner.add(row.getOwnerId(), booking);
+                }
+            }
+        }
+        itemsByOwner.add(row.getOwnerId(), row.getId());
+        itemsByRequest.add(row.getRequest(), row.getId());
+        indexText(row);
+        advanceSequence(MemoryTable.ITEMS, row.getId());
+    }
+
+    private void indexText(ItemRow row) {
+        if (Boolean.TRUE.equals(row.getAvailable())) {
+            for (long trigram : trigramsOf(row)) {
+                availableItemsByTrigram.add(trigram, row.getId());
+            }
+        }
+    }
+
+    private void unindexText(ItemRow row) {
+        if (Boolean.TRUE.equals(row.getAvailable())) {
+            for (long trigram : trigramsOf(row)) {
+                availableItemsByTrigram.remove(trigram, row.getId());
+            }
+        }
+    }
+
+    private void applyBooking(BookingRow row) {
+        BookingRow previous = bookings.put(row.getId(), row);
+        if (previous != null) {
+            bookingsByItem.remove(previous.getItemId(), previous.getId());
+            bookingsByBooker.remove(previous.getBookerId(), previous);
+            bookingsByOwner.remove(ownerOf(previous), previous);
+        }
+        bookingsByItem.add(row.getItemId(), row.getId());
+        bookingsByBooker.add(row.getBookerId(), row);
+        bookingsByOwner.add(ownerOf(row), row);
+        advanceSequence(MemoryTable.BOOKINGS, row.getId());
+    }
+
+    private void applyComment(CommentRow row) {
+        CommentRow previous = comments.put(row.getId(), row);
+        if (previous != null) {
+            commentsByItem.remove(previous.getItemId(), previous.getId());
+            commentsByAuthor.remove(previous.getAuthorId(), previous.getId());
+        }
+        commentsByItem.add(row.getItemId(), row.getId());
+        commentsByAuthor.add(row.getAuthorId(), row.getId());
+        advanceSequence(MemoryTable.COMMENTS, row.getId());
+    }
+
+    private void applyDelete(MemoryTable table, Long id) {
+        switch (table) {
+            case USERS:
+                UserRow user = users.get(id);
+                if (user != null) {
+                    List.copyOf(itemsByOwner.get(id)).forEach(itemId -> applyDelete(MemoryTable.ITEMS, itemId));
+                    List.copyOf(bookingsByBooker.get(id)).forEach(booking ->
+                            applyDelete(MemoryTable.BOOKINGS, booking.getId()));
+                    List.copyOf(commentsByAuthor.get(id)).forEach(commentId ->
+                            applyDelete(MemoryTable.COMMENTS, commentId));
+                    List.copyOf(requestsByRequestor.get(id)).forEach(requestId ->
+                            applyDelete(MemoryTable.REQUESTS, requestId));
+                    users.remove(id);
+                    userIdsByEmail.remove(user.getEmail(), id);
+                    usersByEmailIgnoreCase.remove(user.getEmail().toLowerCase(Locale.ROOT), id);
+                }
+                break;
+            case REQUESTS:
+                RequestRow request = requests.remove(id);
+                if (request != null) {
+                    requestsByRequestor.remove(request.getRequestorId(), id);
+                    requestsByCreated.remove(request);
+                }
+                break;
+            case ITEMS:
+                ItemRow item = items.get(id);
+                if (item != null) {
+                    List.copyOf(bookingsByItem.get(id)).forEach(bookingId ->
+                            applyDelete(MemoryTable.BOOKINGS, bookingId));
+                    List.copyOf(commentsByItem.get(id)).forEach(commentId ->
+                            applyDelete(MemoryTable.COMMENTS, commentId));
+                    items.remove(id);
+                    itemsByOwner.remove(item.getOwnerId(), id);
+                    itemsByRequest.remove(item.getRequest(), id);
+                    unindexText(item);
+                }
+                break;
+            case BOOKINGS:
+                BookingRow booking = bookings.remove(id);
+                if (booking != null) {
+                    bookingsByItem.remove(booking.getItemId(), id);
+                    bookingsByBooker.remove(booking.getBookerId(), booking);
+                    bookingsByOwner.remove(ownerOf(booking), booking);
+                }
+                break;
+            case COMMENTS:
+                CommentRow comment = comments.remove(id);
+                if (comment != null) {
+                    commentsByItem.remove(comment.getItemId(), id);
+                    commentsByAuthor.remove(comment.getAuthorId(), id);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Неизвестная таблица " + table);
+        }
+    }
+
+    /**
+     * Владелец предмета брони. Каскад удаляет бронирования раньше предмета, поэтому при удалении брони
+     * её предмет ещё на месте.
+     */
+    private Long ownerOf(BookingRow booking) {
+        ItemRow item = items.get(booking.getItemId());
+        return item == null ? null : item.getOwnerId();
+    }
+
+    private static long[] trigramsOf(ItemRow row) {
+        return Trigrams.of(normalize(row.getName()), normalize(row.getDescription()));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean contains(String value, String pattern) {
+        return value != null && value.toUpperCase(Locale.ROOT).contains(pattern);
+    }
+
+    private void advanceSequence(MemoryTable table, Long id) {
+        sequences.get(table).accumulateAndGet(id, Math::max);
+    }
+
+    private void checkEmail(UserRow row, Set<String> batchEmails) {
+        Long owner = userIdsByEmail.get(row.getEmail());
+        if (owner != null && !owner.equals(row.getId()) || batchEmails.contains(row.getEmail())) {
+            throw new DataIntegrityViolationException("Пользователь с таким email уже существует " + row.getEmail());
+        }
+    }
+
+    private static void requireRow(Map<Long, ?> rows, Long id, String entity) {
+        if (id == null || !rows.containsKey(id)) {
+            throw new DataIntegrityViolationException(entity + " с id " + id + " не найден");
+        }
+    }
+
+    private static <R> Stream<R> rowsOf(Map<Long, R> rows, NavigableSet<Long> ids) {
+        return ids.stream().map(rows::get).filter(Objects::nonNull);
+    }
+
+    private NavigableMap<Long, ?> rows(MemoryTable table) {
+        switch (table) {
+            case USERS:
+                return users;
+            case REQUESTS:
+                return requests;
+            case ITEMS:
+                return items;
+            case BOOKINGS:
+                return bookings;
+            case COMMENTS:
+                return comments;
+            default:
+                throw new IllegalStateException("Неизвестная таблица " + table);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.memory;
+
+public enum MemoryTable {
+    USERS(UserRow.class),
+    REQUESTS(RequestRow.class),
+    ITEMS(ItemRow.class),
+    BOOKINGS(BookingRow.class),
+    COMMENTS(CommentRow.class);
+
+    private final Class<?> rowType;
+
+    MemoryTable(Class<?> rowType) {
+        this.rowType = rowType;
+    }
+
+    public Class<?> getRowType() {
+        return rowType;
+    }
+}
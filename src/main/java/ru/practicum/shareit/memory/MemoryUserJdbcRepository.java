@@ -0,0 +1,30 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJdbcRepository;
+
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение пользователей из {@link MemoryStore} вместо JDBC-курсора.
+ */
+@Repository
+@Primary
+@Profile("memory")
+public class MemoryUserJdbcRepository extends UserJdbcRepository {
+    private final MemoryStore store;
+
+    public MemoryUserJdbcRepository(JdbcTemplate jdbcTemplate, MemoryStore store) {
+        super(jdbcTemplate);
+        this.store = store;
+    }
+
+    @Override
+    public void streamAll(Consumer<User> consumer) {
+        store.users().map(store::toUser).forEach(consumer);
+    }
+}
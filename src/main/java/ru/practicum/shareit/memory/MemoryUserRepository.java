@@ -0,0 +1,62 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class MemoryUserRepository extends AbstractMemoryRepository<User> implements UserRepository {
+
+    public MemoryUserRepository(MemoryStore store) {
+        super(store, MemoryTable.USERS);
+    }
+
+    @Override
+    public List<User> findAllByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable) {
+        return page(store.usersAfter(afterId), pageable).stream()
+                .map(store::toUser)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean existsByEmailIgnoreCase(String email) {
+        return store.emailExistsIgnoreCase(email);
+    }
+
+    @Override
+    public Stream<String> streamAllEmails() {
+        return store.users().map(UserRow::getEmail);
+    }
+
+    @Override
+    protected Optional<User> load(Long id) {
+        return store.user(id).map(store::toUser);
+    }
+
+    @Override
+    protected void store(User user) {
+        store.putUser(UserRow.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build());
+    }
+
+    @Override
+    protected Long idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void assignId(User user, Long id) {
+        user.setId(id);
+    }
+}
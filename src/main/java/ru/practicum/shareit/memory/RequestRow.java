@@ -0,0 +1,17 @@
+package ru.practicum.shareit.memory;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+@Jacksonized
+public class RequestRow {
+    Long id;
+    String description;
+    Long requestorId;
+    LocalDateTime created;
+}
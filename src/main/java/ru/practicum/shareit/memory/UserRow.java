@@ -0,0 +1,14 @@
+package ru.practicum.shareit.memory;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+public class UserRow {
+    Long id;
+    String name;
+    String email;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Запись журнала: строка таблицы целиком (PUT) или id удалённой строки (DELETE).
+ * Записи идемпотентны, поэтому повторное применение журнала поверх снимка безопасно.
+ */
+@Value
+@Builder
+@Jacksonized
+public class WalRecord {
+    Op op;
+    MemoryTable table;
+    Long id;
+    JsonNode row;
+
+    public enum Op {
+        PUT,
+        DELETE
+    }
+}
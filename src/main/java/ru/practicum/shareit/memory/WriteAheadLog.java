@@ -0,0 +1,153 @@
+package ru.practicum.shareit.memory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Журнал упреждающей записи и снимок в формате NDJSON.
+ * Каждая запись дописывается в wal.ndjson до изменения данных в памяти; снимок пишется во временный файл,
+ * атомарно заменяет snapshot.ndjson, после чего журнал обнуляется.
+ * Оборванная при падении последняя строка журнала при восстановлении отбрасывается.
+ */
+@Slf4j
+class WriteAheadLog implements Closeable {
+    static final String WAL_FILE = "wal.ndjson";
+    static final String SNAPSHOT_FILE = "snapshot.ndjson";
+
+    private final Path walPath;
+    private final Path snapshotPath;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long pendingRecords;
+
+    WriteAheadLog(Path directory, ObjectMapper objectMapper, boolean fsync) {
+        this.walPath = directory.resolve(WAL_FILE);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Применяет снимок, затем журнал, и открывает журнал на дозапись.
+     */
+    synchronized void recover(Consumer<WalRecord> apply) {
+        try {
+            if (Files.exists(snapshotPath)) {
+                readAll(snapshotPath, apply, false);
+            }
+            long validLength = Files.exists(walPath) ? readAll(walPath, apply, true) : 0;
+            channel = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size > validLength) {
+                log.warn("Журнал {} обрезан до {} байт: последняя запись неполная", walPath, validLength);
+                channel.truncate(validLength);
+            }
+            channel.position(Math.min(size, validLength));
+            if (validLength > size) {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void append(WalRecord record) {
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            pendingRecords++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized long pendingRecords() {
+        return pendingRecords;
+    }
+
+    /**
+     * Вызывающий должен не допускать записей в журнал, пока снимок не завершён.
+     */
+    synchronized void snapshot(Iterator<WalRecord> state) {
+        Path temp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                while (state.hasNext()) {
+                    writer.write(objectMapper.writeValueAsString(state.next()));
+                    writer.newLine();
+                }
+            }
+            try (FileChannel snapshotChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                snapshotChannel.force(true);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            pendingRecords = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Возвращает длину корректного префикса файла; если в конце нет перевода строки, длина на 1 больше размера файла.
+     */
+    private long readAll(Path path, Consumer<WalRecord> apply, boolean tolerateTornTail) throws IOException {
+        long validLength = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    WalRecord record;
+                    try {
+                        record = objectMapper.readValue(line, WalRecord.class);
+                    } catch (JsonProcessingException e) {
+                        if (tolerateTornTail && reader.readLine() == null) {
+                            return validLength;
+                        }
+                        throw e;
+                    }
+                    apply.accept(record);
+                }
+                validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+        return validLength;
+    }
+}
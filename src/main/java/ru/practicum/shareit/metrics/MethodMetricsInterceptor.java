@@ -0,0 +1,196 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.aop.CallSite;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Таймер с гистограммой перцентилей на каждый вызов метода. Теги: endpoint (метод и шаблон пути
+ * текущего HTTP-запроса, "none" вне запроса), class, method, state и role из параметров с {@link MetricTag},
+ * exception (простое имя класса исключения или "none").
+ */
+class MethodMetricsInterceptor implements MethodInterceptor {
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    private final String metricName;
+    private final String description;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<CallSite, MethodTags> methods = new ConcurrentHashMap<>();
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    MethodMetricsInterceptor(String metricName, String description, ObjectProvider<MeterRegistry> registry) {
+        this.metricName = metricName;
+        this.description = description;
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        if (meterRegistry == null) {
+            return invocation.proceed();
+        }
+        long started = System.nanoTime();
+        String exception = NONE;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - started;
+            CallSite site = CallSite.of(invocation);
+            MethodTags method = methods.computeIfAbsent(site, MethodTags::of);
+            Object[] arguments = invocation.getArguments();
+            TimerKey key = new TimerKey(site, method.state(arguments), method.role(arguments), endpoint(), exception);
+            timers.computeIfAbsent(key, k -> register(meterRegistry, method, k))
+                    .record(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer register(MeterRegistry meterRegistry, MethodTags method, TimerKey key) {
+        return Timer.builder(metricName)
+                .description(description)
+                .tags(method.fixed)
+                .tag(MetricTag.STATE, key.getState())
+                .tag(MetricTag.ROLE, key.getRole())
+                .tag("endpoint", key.getEndpoint())
+                .tag("exception", key.getException())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return ((ServletRequestAttributes) attributes).getRequest().getMethod() + " "
+                + (pattern == null ? "unknown" : pattern);
+    }
+
+    /**
+     * Постоянные теги метода и номера параметров для state и role, вычисленные при первом вызове.
+     */
+    private static class MethodTags {
+        private final Tags fixed;
+        private final int stateIndex;
+        private final MetricTag state;
+        private final Set<String> allowedStates;
+        private final int roleIndex;
+        private final MetricTag role;
+
+        private MethodTags(Tags fixed, int stateIndex, MetricTag state, int roleIndex, MetricTag role) {
+            this.fixed = fixed;
+            this.stateIndex = stateIndex;
+            this.state = state;
+            this.allowedStates = state == null ? Set.of() : Arrays.stream(state.values()).collect(Collectors.toSet());
+            this.roleIndex = roleIndex;
+            this.role = role;
+        }
+
+        static MethodTags of(CallSite site) {
+            Method specific = AopUtils.getMostSpecificMethod(site.getMethod(), site.getTargetClass());
+            int stateIndex = -1;
+            int roleIndex = -1;
+            MetricTag state = null;
+            MetricTag role = null;
+            Annotation[][] annotations = annotated(specific).getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (Annotation annotation : annotations[i]) {
+                    if (!(annotation instanceof MetricTag)) {
+                        continue;
+                    }
+                    MetricTag tag = (MetricTag) annotation;
+                    if (MetricTag.STATE.equals(tag.value())) {
+                        stateIndex = i;
+                        state = tag;
+                    } else if (MetricTag.ROLE.equals(tag.value())) {
+                        roleIndex = i;
+                        role = tag;
+                    } else {
+                        throw new IllegalStateException("неподдерживаемый тег " + tag.value() + " у " + specific);
+                    }
+                }
+            }
+            return new MethodTags(Tags.of("class", site.getClassName(), "method", site.getMethod().getName()),
+                    stateIndex, state, roleIndex, role);
+        }
+
+        /**
+         * Переопределение в подклассе (например, в профиле memory) аннотации параметров не наследует.
+         */
+        private static Method annotated(Method specific) {
+            for (Class<?> type = specific.getDeclaringClass(); type != null; type = type.getSuperclass()) {
+                Method candidate = ReflectionUtils.findMethod(type, specific.getName(), specific.getParameterTypes());
+                if (candidate != null && Arrays.stream(candidate.getParameterAnnotations())
+                        .flatMap(Arrays::stream)
+                        .anyMatch(MetricTag.class::isInstance)) {
+                    return candidate;
+                }
+            }
+            return specific;
+        }
+
+        String state(Object[] arguments) {
+            return value(arguments, stateIndex, state, allowedStates);
+        }
+
+        String role(Object[] arguments) {
+            return value(arguments, roleIndex, role, Set.of());
+        }
+
+        private static String value(Object[] arguments, int index, MetricTag tag, Set<String> allowed) {
+            if (index < 0 || arguments[index] == null) {
+                return NONE;
+            }
+            Object argument = arguments[index];
+            if (argument instanceof Boolean) {
+                return (Boolean) argument ? tag.ifTrue() : tag.ifFalse();
+            }
+            if (argument instanceof Enum) {
+                return ((Enum<?>) argument).name();
+            }
+            String value = argument.toString();
+            return allowed.isEmpty() || allowed.contains(value) ? value : OTHER;
+        }
+    }
+
+    /**
+     * Набор тегов одного таймера: регистрация в MeterRegistry идёт только при первом появлении набора.
+     */
+    @Value
+    private static class TimerKey {
+        CallSite site;
+        String state;
+        String role;
+        String endpoint;
+        String exception;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Значение параметра становится тегом таймера метода. У всех таймеров одного имени должен быть одинаковый
+ * набор тегов, поэтому поддерживаются только {@link #STATE} и {@link #ROLE}; без аннотации тег равен "none".
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MetricTag {
+    String STATE = "state";
+    String ROLE = "role";
+
+    String value();
+
+    /**
+     * Допустимые значения строкового параметра; прочие записываются как "other", чтобы ввод клиента
+     * не плодил временные ряды. Пустой список — без ограничения (для перечислений).
+     */
+    String[] values() default {};
+
+    /**
+     * Значения логического параметра; по умолчанию это признак владельца из списков бронирований.
+     */
+    String ifTrue() default "owner";
+
+    String ifFalse() default "booker";
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.aop.LayerAdvisors;
+
+/**
+ * Таймеры shareit.service (все бины {@code @Service}) и shareit.repository (все {@code @Repository}, включая
+ * интерфейсы Spring Data и JDBC-репозитории). Советники стоят перед транзакционным, поэтому время сервиса
+ * включает открытие и фиксацию транзакции. Метрики отдаются в формате Prometheus на /actuator/prometheus.
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class MetricsConfiguration {
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> registry) {
+        return LayerAdvisors.advisor(Service.class, new MethodMetricsInterceptor("shareit.service",
+                "Время выполнения методов сервисов", registry), ORDER);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor repositoryMetricsAdvisor(ObjectProvider<MeterRegistry> registry) {
+        return LayerAdvisors.advisor(Repository.class, new MethodMetricsInterceptor("shareit.repository",
+                "Время выполнения запросов репозиториев", registry), ORDER);
+    }
+
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает события в локальный файл по одному JSON на строку и сбрасывает файл на диск после каждой пачки.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.outbox.sink.file", name = "enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          @Value("${shareit.outbox.sink.file.path:./db/outbox/events.jsonl}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return "file:" + path;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxMessage message : messages) {
+            ObjectNode line = objectMapper.createObjectNode()
+                    .put("id", message.getId())
+                    .put("aggregateType", message.getAggregateType())
+                    .put("aggregateId", message.getAggregateId())
+                    .put("eventType", message.getEventType())
+                    .put("createdAt", message.getCreatedAt().toString());
+            line.set("payload", objectMapper.readTree(message.getPayload()));
+            lines.append(objectMapper.writeValueAsString(line)).append('\n');
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
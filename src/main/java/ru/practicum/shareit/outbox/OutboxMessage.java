@@ -0,0 +1,20 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись исходящего события: агрегат, к которому оно относится, тип и JSON с данными события.
+ */
+@Value
+@Builder
+public class OutboxMessage {
+    Long id;
+    String aggregateType;
+    Long aggregateId;
+    String eventType;
+    String payload;
+    LocalDateTime createdAt;
+}
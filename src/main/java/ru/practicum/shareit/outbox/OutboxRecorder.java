@@ -0,0 +1,101 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.events.BookingStatusChangedEvent;
+import ru.practicum.shareit.events.CommentPostedEvent;
+import ru.practicum.shareit.events.EntityType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Записывает события для внешних систем в OUTBOX в транзакции изменения данных: событие уходит наружу
+ * тогда и только тогда, когда изменение зафиксировано. События транзакции копятся и записываются одной пачкой
+ * перед коммитом, где получают номера в порядке фиксации (см. {@link OutboxRepository}). Отправкой занимается
+ * {@link OutboxRelay}, который будится после коммита, так что сам запрос не ждёт получателей.
+ * Отзыв публикуется как событие предмета: получателю важен порядок событий агрегата, а агрегат отзыва — предмет.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRecorder {
+    public static final String BOOKING_STATUS_CHANGED = "BookingStatusChanged";
+    public static final String COMMENT_POSTED = "CommentPosted";
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        record(EntityType.BOOKING, event.getBookingId(), BOOKING_STATUS_CHANGED, event);
+    }
+
+    @EventListener
+    public void onCommentPosted(CommentPostedEvent event) {
+        record(EntityType.ITEM, event.getItemId(), COMMENT_POSTED, event);
+    }
+
+    private void record(EntityType aggregateType, Long aggregateId, String eventType, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + event, e);
+        }
+        OutboxMessage message = OutboxMessage.builder()
+                .aggregateType(aggregateType.name())
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.insertAll(List.of(message)));
+            outboxRelay.wakeUp();
+            return;
+        }
+        PendingMessages pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingMessages.class::isInstance)
+                .map(PendingMessages.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingMessages registered = new PendingMessages();
+                    TransactionSynchronizationManager.registerSynchronization(registered);
+                    return registered;
+                });
+        pending.messages.add(message);
+    }
+
+    private final class PendingMessages implements TransactionSynchronization {
+        private final List<OutboxMessage> messages = new ArrayList<>();
+
+        /**
+         * Счётчик OUTBOX блокируется раньше счётчика журнала изменений в любой транзакции:
+         * при одинаковом порядке две транзакции не могут ждать блокировок друг друга.
+         */
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            outboxRepository.insertAll(messages);
+        }
+
+        @Override
+        public void afterCommit() {
+            outboxRelay.wakeUp();
+        }
+    }
+}
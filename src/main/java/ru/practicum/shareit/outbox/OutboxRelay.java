@@ -0,0 +1,179 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.admin.dto.OutboxStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Фоновая доставка событий из OUTBOX всем {@link OutboxSink} пачками в порядке фиксации транзакций.
+ * Запись удаляется только после того, как пачку приняли все получатели, поэтому доставка — хотя бы один раз.
+ * При ошибке пачка остаётся первой в очереди и повторяется на следующем проходе: события одного агрегата
+ * никогда не обгоняют друг друга, ценой того, что сбойный получатель задерживает всю очередь.
+ * Размер очереди, возраст самого старого события и задержка последней доставки отдаются метриками
+ * shareit.outbox.*, чтобы на отставание ретранслятора можно было настроить оповещение.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements InitializingBean, DisposableBean, MeterBinder {
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private volatile long lastDeliveryLagMillis;
+    private volatile LocalDateTime lastPublishedAt;
+    private ScheduledExecutorService scheduler;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ObjectProvider<OutboxSink> sinks,
+                       @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                       @Value("${shareit.outbox.poll-interval:1s}") Duration pollInterval) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks.orderedStream().collect(Collectors.toList());
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (sinks.isEmpty()) {
+            log.warn("Не настроено ни одного получателя событий, OUTBOX будет только накапливаться");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = pollInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::drainQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Запускает внеочередной проход; повторные вызовы до его начала схлопываются в один.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                wakeUpPending.set(false);
+                drainQuietly();
+            });
+        }
+    }
+
+    /**
+     * Доставляет накопленные события и возвращает их число. Проходы не пересекаются, так что событие
+     * не уходит двум получателям параллельно из разных потоков.
+     */
+    public int drain() {
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+        drainLock.lock();
+        try {
+            int delivered = 0;
+            while (true) {
+                List<OutboxMessage> batch = outboxRepository.findBatch(batchSize);
+                if (batch.isEmpty()) {
+                    return delivered;
+                }
+                List<Long> ids = batch.stream().map(OutboxMessage::getId).collect(Collectors.toList());
+                for (OutboxSink sink : sinks) {
+                    try {
+                        sink.publish(batch);
+                    } catch (Exception e) {
+                        outboxRepository.markFailed(ids);
+                        failedAttempts.incrementAndGet();
+                        log.warn("Получатель {} не принял {} событий начиная с {}, повтор на следующем проходе",
+                                sink.name(), batch.size(), ids.get(0), e);
+                        return delivered;
+                    }
+                }
+                outboxRepository.delete(ids);
+                LocalDateTime now = LocalDateTime.now();
+                lastDeliveryLagMillis = Duration.between(batch.get(0).getCreatedAt(), now).toMillis();
+                lastPublishedAt = now;
+                published.addAndGet(batch.size());
+                delivered += batch.size();
+                if (batch.size() < batchSize) {
+                    return delivered;
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public OutboxStatsDto stats() {
+        return OutboxStatsDto.builder()
+                .pending(outboxRepository.countPending())
+                .oldestPendingAgeMillis(oldestPendingAgeMillis())
+                .lastDeliveryLagMillis(lastDeliveryLagMillis)
+                .lastPublishedAt(lastPublishedAt)
+                .published(published.get())
+                .failedAttempts(failedAttempts.get())
+                .sinks(sinks.stream().map(OutboxSink::name).collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.outbox.pending", outboxRepository, OutboxRepository::countPending)
+                .description("Неотправленные события в OUTBOX")
+                .register(registry);
+        TimeGauge.builder("shareit.outbox.oldest.pending.age", this, TimeUnit.MILLISECONDS,
+                        OutboxRelay::oldestPendingAgeMillis)
+                .description("Возраст самого старого неотправленного события")
+                .register(registry);
+        TimeGauge.builder("shareit.outbox.delivery.lag", this, TimeUnit.MILLISECONDS,
+                        relay -> relay.lastDeliveryLagMillis)
+                .description("Время от записи до доставки первого события последней пачки")
+                .register(registry);
+        FunctionCounter.builder("shareit.outbox.published", published, AtomicLong::get)
+                .description("Доставленные события")
+                .register(registry);
+        FunctionCounter.builder("shareit.outbox.failed.attempts", failedAttempts, AtomicLong::get)
+                .description("Пачки, которые не принял получатель")
+                .register(registry);
+    }
+
+    private long oldestPendingAgeMillis() {
+        LocalDateTime oldest = outboxRepository.oldestPendingCreatedAt();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Не удалось доставить события из OUTBOX", e);
+        }
+    }
+}
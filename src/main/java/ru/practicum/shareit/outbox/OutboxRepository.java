@@ -0,0 +1,93 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Таблица OUTBOX: события пишутся в транзакции изменения данных и удаляются после доставки.
+ * Номера событий выдаются из единственной строки OUTBOX_COUNTER, как в журнале изменений: блокировка строки
+ * держится до коммита, поэтому порядок номеров совпадает с порядком фиксации транзакций и ретранслятор
+ * не увидит событие с меньшим номером позже события с большим.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+    private static final String INSERT_MESSAGE = "INSERT INTO OUTBOX (OUTBOX_ID, AGGREGATE_TYPE, AGGREGATE_ID, " +
+            "EVENT_TYPE, PAYLOAD, CREATED_AT) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BATCH = "SELECT OUTBOX_ID, AGGREGATE_TYPE, AGGREGATE_ID, EVENT_TYPE, PAYLOAD, " +
+            "CREATED_AT FROM OUTBOX ORDER BY OUTBOX_ID LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Записывает события в текущей транзакции и возвращает их с присвоенными номерами в порядке списка.
+     * Вызывается непосредственно перед коммитом, чтобы блокировка счётчика держалась как можно меньше.
+     */
+    public List<OutboxMessage> insertAll(List<OutboxMessage> messages) {
+        jdbcTemplate.update("UPDATE OUTBOX_COUNTER SET SEQ = SEQ + ? WHERE COUNTER_ID = 1", messages.size());
+        long last = jdbcTemplate.queryForObject("SELECT SEQ FROM OUTBOX_COUNTER WHERE COUNTER_ID = 1", Long.class);
+        List<OutboxMessage> numbered = new ArrayList<>(messages.size());
+        long id = last - messages.size();
+        for (OutboxMessage message : messages) {
+            numbered.add(OutboxMessage.builder()
+                    .id(++id)
+                    .aggregateType(message.getAggregateType())
+                    .aggregateId(message.getAggregateId())
+                    .eventType(message.getEventType())
+                    .payload(message.getPayload())
+                    .createdAt(message.getCreatedAt())
+                    .build());
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, numbered, numbered.size(), (statement, message) -> {
+            statement.setLong(1, message.getId());
+            statement.setString(2, message.getAggregateType());
+            statement.setLong(3, message.getAggregateId());
+            statement.setString(4, message.getEventType());
+            statement.setString(5, message.getPayload());
+            statement.setTimestamp(6, Timestamp.valueOf(message.getCreatedAt()));
+        });
+        return numbered;
+    }
+
+    /**
+     * Самые старые неотправленные события в порядке фиксации.
+     */
+    public List<OutboxMessage> findBatch(int limit) {
+        return jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> OutboxMessage.builder()
+                .id(rs.getLong("OUTBOX_ID"))
+                .aggregateType(rs.getString("AGGREGATE_TYPE"))
+                .aggregateId(rs.getLong("AGGREGATE_ID"))
+                .eventType(rs.getString("EVENT_TYPE"))
+                .payload(rs.getString("PAYLOAD"))
+                .createdAt(rs.getTimestamp("CREATED_AT").toLocalDateTime())
+                .build(), limit);
+    }
+
+    public void delete(List<Long> ids) {
+        namedParameterJdbcTemplate.update("DELETE FROM OUTBOX WHERE OUTBOX_ID IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    public void markFailed(List<Long> ids) {
+        namedParameterJdbcTemplate.update("UPDATE OUTBOX SET ATTEMPTS = ATTEMPTS + 1 WHERE OUTBOX_ID IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    public long countPending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OUTBOX", Long.class);
+    }
+
+    public LocalDateTime oldestPendingCreatedAt() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(CREATED_AT) FROM OUTBOX", Timestamp.class);
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+}
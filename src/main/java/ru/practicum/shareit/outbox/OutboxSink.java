@@ -0,0 +1,13 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель исходящих событий. Пачка передаётся в порядке фиксации; если метод бросил исключение,
+ * вся пачка будет отправлена повторно, поэтому получатель должен переносить дубликаты.
+ */
+public interface OutboxSink {
+    String name();
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Очередь внутри процесса — для тестов и для потребителей в том же приложении. Если в очереди нет места
+ * на всю пачку, пачка отклоняется целиком и будет повторена: так переполнение не теряет события.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.outbox.sink.queue", name = "enabled", havingValue = "true")
+public class QueueOutboxSink implements OutboxSink {
+    private final BlockingQueue<OutboxMessage> queue;
+
+    public QueueOutboxSink(@Value("${shareit.outbox.sink.queue.capacity:10000}") int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public String name() {
+        return "queue";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        if (queue.remainingCapacity() < messages.size()) {
+            throw new IllegalStateException("Очередь событий заполнена");
+        }
+        queue.addAll(messages);
+    }
+
+    /**
+     * Следующее событие или null, если за {@code timeout} ничего не пришло.
+     */
+    public OutboxMessage poll(Duration timeout) throws InterruptedException {
+        return queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shareit.ControllerCall")
+@Label("Controller Call")
+@Description("Запрос к API от прихода до ответа")
+@Category({"ShareIt", "Requests"})
+@StackTrace(false)
+class ControllerCallEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Booking State")
+    String state;
+
+    @Label("Status")
+    int status;
+}
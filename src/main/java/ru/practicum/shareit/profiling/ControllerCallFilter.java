@@ -0,0 +1,54 @@
+package ru.practicum.shareit.profiling;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Пишет {@link ControllerCallEvent} на каждый запрос: шаблон пути, X-Sharer-User-Id, параметр state и статус.
+ */
+@Component
+public class ControllerCallFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ControllerCallEvent event = new ControllerCallEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.endpoint = request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern);
+                event.userId = parseUserId(request.getHeader(USER_ID_HEADER));
+                event.state = request.getParameter("state");
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+
+    private static long parseUserId(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.admin.dto.FlightRecordingDto;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Единственная запись JFR приложения: настройки JDK (default или profile) плюс события shareit.*.
+ * Запись хранится на диске не дольше max-age; остановленные записи сохраняются в shareit.jfr.dir, а снимки
+ * идущей записи — во временные файлы, которые удаляет тот, кто их забрал.
+ */
+@Component
+@Slf4j
+public class FlightRecorderControl {
+    private final Path dir;
+    private Recording recording;
+    private String settings;
+
+    public FlightRecorderControl(@Value("${shareit.jfr.dir:./db/jfr}") Path dir) {
+        this.dir = dir;
+    }
+
+    public synchronized FlightRecordingDto start(String settings, Duration maxAge) {
+        if (recording != null) {
+            throw new ConflictException("Запись JFR уже идёт: " + recording.getId());
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new BadRequestException(HttpStatus.BAD_REQUEST, "Неизвестные настройки JFR: " + settings);
+        }
+        Recording started = new Recording(configuration);
+        started.setName("shareit");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.enable(ControllerCallEvent.class);
+        started.enable(ServiceCallEvent.class);
+        started.enable(RepositoryCallEvent.class);
+        started.start();
+        recording = started;
+        this.settings = settings;
+        log.info("Запущена запись JFR {} с настройками {}", started.getId(), settings);
+        return toDto(null);
+    }
+
+    public synchronized FlightRecordingDto status() {
+        return toDto(null);
+    }
+
+    /**
+     * Сохраняет всё записанное к этому моменту во временный файл в shareit.jfr.dir, не останавливая запись.
+     * Файл принадлежит вызывающему: он должен удалить его, когда выгрузит.
+     */
+    public synchronized Path dumpToTempFile() {
+        requireRecording();
+        try {
+            Files.createDirectories(dir);
+            Path file = Files.createTempFile(dir, "shareit-" + recording.getId() + "-dump-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized FlightRecordingDto stop() {
+        requireRecording();
+        recording.stop();
+        Path file = dumpTo(recording);
+        FlightRecordingDto stopped = toDto(file);
+        recording.close();
+        recording = null;
+        log.info("Запись JFR {} остановлена и сохранена в {}", stopped.getId(), file);
+        return stopped;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void requireRecording() {
+        if (recording == null) {
+            throw new ConflictException("Запись JFR не запущена");
+        }
+    }
+
+    private Path dumpTo(Recording source) {
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve("shareit-" + source.getId() + "-" + System.currentTimeMillis() + ".jfr");
+            source.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FlightRecordingDto toDto(Path file) {
+        if (recording == null) {
+            return FlightRecordingDto.builder().state("NONE").build();
+        }
+        try {
+            return FlightRecordingDto.builder()
+                    .id(recording.getId())
+                    .state(recording.getState().name())
+                    .settings(settings)
+                    .startedAt(recording.getStartTime())
+                    .file(file == null ? null : file.toAbsolutePath().toString())
+                    .bytes(file == null ? recording.getSize() : Files.size(file))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
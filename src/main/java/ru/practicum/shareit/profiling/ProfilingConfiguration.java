@@ -0,0 +1,34 @@
+package ru.practicum.shareit.profiling;
+
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.aop.LayerAdvisors;
+
+/**
+ * События JFR для вызовов сервисов и репозиториев. Советники стоят перед транзакционным, поэтому
+ * длительность вызова сервиса включает открытие и фиксацию транзакции.
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class ProfilingConfiguration {
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 20;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor serviceCallEventAdvisor() {
+        return LayerAdvisors.advisor(Service.class, new ServiceCallInterceptor(), ORDER);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor repositoryCallEventAdvisor() {
+        return LayerAdvisors.advisor(Repository.class, new RepositoryCallInterceptor(), ORDER);
+    }
+
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shareit.RepositoryCall")
+@Label("Repository Call")
+@Description("Вызов метода репозитория")
+@Category({"ShareIt", "Repositories"})
+@StackTrace(false)
+class RepositoryCallEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Exception")
+    String exception;
+}
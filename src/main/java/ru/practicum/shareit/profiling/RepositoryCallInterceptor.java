@@ -0,0 +1,32 @@
+package ru.practicum.shareit.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import ru.practicum.shareit.aop.CallSite;
+
+/**
+ * Пишет {@link RepositoryCallEvent}; пока событие не включено ни в одной записи, вызов идёт без замеров.
+ */
+class RepositoryCallInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            event.exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = CallSite.of(invocation).getName();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shareit.ServiceCall")
+@Label("Service Call")
+@Description("Вызов метода сервиса, включая открытие и фиксацию его транзакции")
+@Category({"ShareIt", "Services"})
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Transactional")
+    boolean transactional;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import ru.practicum.shareit.aop.CallSite;
+
+/**
+ * Пишет {@link ServiceCallEvent}; пока событие не включено ни в одной записи, вызов идёт без замеров.
+ */
+class ServiceCallInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            event.exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                CallSite site = CallSite.of(invocation);
+                event.method = site.getName();
+                event.transactional = site.isTransactional();
+                event.readOnly = site.isReadOnly();
+                event.commit();
+            }
+        }
+    }
+}
@@ -25,7 +25,8 @@ import java.util.List;
 public class Request {
     @Id
     @Column(name = "request_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "REQUESTS_SEQ", allocationSize = 50)
      Long id;
     @Column(name = "description", nullable = false)
      String description;
@@ -1,25 +1,34 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoReq;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.mappers.ItemMapper;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.shard.ShardRouter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -32,7 +41,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
-    private final ModelMapper mapper = new ModelMapper();
+    private final ItemRepository itemRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,7 +56,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             request.setRequestor(user);
             request.setCreated(LocalDateTime.now());
 
-            return toItemRequestDto(itemRequestRepository.save(request));
+            Request savedRequest = itemRequestRepository.save(request);
+            eventPublisher.publishEvent(EntityChangedEvent.created(EntityType.REQUEST, savedRequest.getId()));
+            return toItemRequestDto(savedRequest);
         } else {
             throw new UserNotFoundException("Пользователь с id " + "userId" + "не найден");
         }
@@ -56,16 +69,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<RequestDtoWithRequest> getItemRequest(Long userId) {
         User requestor = userRepository.findById(userId).orElseThrow(() ->
                 new UserNotFoundException("Пользователь не найден " + userId));
-        List<RequestDtoWithRequest> requestDtoWithRequests =
-                itemRequestRepository.findAllByRequestorId(userId).stream()
-                        .map(request -> toRequestDtoWithRequest(request))
-                        .collect(Collectors.toList());
-        for (RequestDtoWithRequest withRequest : requestDtoWithRequests) {
-            for (ItemDtoReq item : withRequest.getItems()) {
-                item.setRequestId(withRequest.getId());
-            }
-        }
-        return requestDtoWithRequests;
+        return withItems(itemRequestRepository.findAllByRequestorId(userId));
     }
 
     @Override
@@ -76,19 +80,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         Pageable pageable = PageRequest.of(from / size, size);
         User requestor = userRepository.findById(userId).orElseThrow(() ->
                 new UserNotFoundException("Пользователь не найден " + userId));
-        List<Request> byOwnerId = itemRequestRepository.findByOwnerId(userId, pageable);
-        List<RequestDtoWithRequest> requestDtoWithRequests =
-                byOwnerId.stream()
-                        .map(request -> {
-                            return toRequestDtoWithRequest(request); //mapper.map(request, RequestDtoWithRequest.class);
-                        })
-                        .collect(Collectors.toList());
-        for (RequestDtoWithRequest withRequest : requestDtoWithRequests) {
-            for (ItemDtoReq item : withRequest.getItems()) {
-                item.setRequestId(withRequest.getId());
-            }
-        }
-        return requestDtoWithRequests;
+        return withItems(itemRequestRepository.findByOwnerId(userId, pageable));
     }
 
     @Override
@@ -97,10 +89,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 new UserNotFoundException("Пользователь не найден " + userId));
         Request request = itemRequestRepository.findById(requestId).orElseThrow(() ->
                 new RequestNotFoundException(HttpStatus.NOT_FOUND, "Запрос предмета по id не найден"));
-        RequestDtoWithRequest requestDtoWithRequest = toRequestDtoWithRequest(request);
-        for (ItemDtoReq item : requestDtoWithRequest.getItems()) {
-            item.setRequestId(requestId);
+        return withItems(List.of(request)).get(0);
+    }
+
+    /**
+     * Запросы хранятся на домашнем шарде, а предметы-ответы — на шардах их владельцев,
+     * поэтому предметы всех запросов страницы читаются одним запросом с каждого шарда.
+     */
+    private List<RequestDtoWithRequest> withItems(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
         }
-        return requestDtoWithRequest;
+        List<Long> requestIds = requests.stream()
+                .map(Request::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDtoReq>> itemsByRequest = shardRouter.gatherAll(() ->
+                        itemRepository.findAllByRequestIn(requestIds)).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.groupingBy(Item::getRequest,
+                        Collectors.mapping(ItemMapper::toItemDtoReq, Collectors.toList())));
+        return requests.stream()
+                .map(request -> {
+                    RequestDtoWithRequest dto = toRequestDtoWithRequest(request);
+                    dto.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,255 @@
+package ru.practicum.shareit.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемый сегмент индекса, отображённый в память только для чтения.
+ * <pre>
+ * заголовок:  int MAGIC, int VERSION, int docCount, int termCount
+ * документы:  docCount × (long id, int textOffset, int nameLength, int descriptionLength, byte flags), по id
+ * словарь:    termCount × (long trigram, int postingsOffset, int postingsCount), по триграмме
+ * постинги:   int — номера документов по возрастанию
+ * текст:      UTF-8 названия и описания в верхнем регистре
+ * </pre>
+ * Поиск читает словарь, постинги и текст прямо из отображения без копирования в кучу.
+ * Смещения 32-битные, поэтому сегмент ограничен 2 ГБ.
+ */
+final class IndexSegment {
+    static final int MAGIC = 0x53495831;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int DOC_SIZE = 21;
+    private static final int TERM_SIZE = 16;
+    private static final byte AVAILABLE = 1;
+    private static final byte DELETED = 2;
+    private static final IntBuffer EMPTY = IntBuffer.allocate(0);
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final int termsStart;
+    private final int postingsStart;
+    private final int textStart;
+
+    private IndexSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Файл " + path + " не является сегментом индекса версии " + VERSION);
+        }
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.termsStart = HEADER_SIZE + docCount * DOC_SIZE;
+        this.postingsStart = termsStart + termCount * TERM_SIZE;
+        int postingsCount = termCount == 0 ? 0 : buffer.getInt(termsStart + (termCount - 1) * TERM_SIZE + 8)
+                + buffer.getInt(termsStart + (termCount - 1) * TERM_SIZE + 12);
+        this.textStart = postingsStart + postingsCount * Integer.BYTES;
+    }
+
+    static IndexSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new IndexSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Пишет сегмент во временный файл и атомарно переименовывает его в {@code path}.
+     *
+     * @param docs документы по возрастанию id
+     */
+    static IndexSegment write(Path path, List<IndexedDoc> docs) throws IOException {
+        Map<Long, PostingList> postings = new TreeMap<>();
+        byte[][] names = new byte[docs.size()][];
+        byte[][] descriptions = new byte[docs.size()][];
+        int postingsCount = 0;
+        for (int doc = 0; doc < docs.size(); doc++) {
+            IndexedDoc indexed = docs.get(doc);
+            names[doc] = indexed.getName().getBytes(StandardCharsets.UTF_8);
+            descriptions[doc] = indexed.getDescription().getBytes(StandardCharsets.UTF_8);
+            if (!indexed.isDeleted()) {
+                for (long trigram : Trigrams.of(indexed.getName(), indexed.getDescription())) {
+                    postings.computeIfAbsent(trigram, key -> new PostingList()).add(doc);
+                    postingsCount++;
+                }
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(docs.size());
+            out.writeInt(postings.size());
+            int textOffset = 0;
+            for (int doc = 0; doc < docs.size(); doc++) {
+                IndexedDoc indexed = docs.get(doc);
+                out.writeLong(indexed.getId());
+                out.writeInt(textOffset);
+                out.writeInt(names[doc].length);
+                out.writeInt(descriptions[doc].length);
+                out.writeByte((indexed.isAvailable() ? AVAILABLE : 0) | (indexed.isDeleted() ? DELETED : 0));
+                textOffset += names[doc].length + descriptions[doc].length;
+            }
+            int postingsOffset = 0;
+            for (Map.Entry<Long, PostingList> term : postings.entrySet()) {
+                out.writeLong(term.getKey());
+                out.writeInt(postingsOffset);
+                out.writeInt(term.getValue().size);
+                postingsOffset += term.getValue().size;
+            }
+            for (PostingList list : postings.values()) {
+                for (int i = 0; i < list.size; i++) {
+                    out.writeInt(list.docs[i]);
+                }
+            }
+            for (int doc = 0; doc < docs.size(); doc++) {
+                out.write(names[doc]);
+                out.write(descriptions[doc]);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        IndexSegment segment = open(path);
+        if (segment.textStart - segment.postingsStart != postingsCount * Integer.BYTES) {
+            throw new IllegalStateException("Сегмент " + path + " записан с ошибкой");
+        }
+        return segment;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    long docId(int doc) {
+        return buffer.getLong(HEADER_SIZE + doc * DOC_SIZE);
+    }
+
+    /**
+     * Номер документа с данным id или -1.
+     */
+    int findDoc(long id) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = docId(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    boolean contains(long id) {
+        return findDoc(id) >= 0;
+    }
+
+    /**
+     * Номера документов, содержащих триграмму, — представление отображённого буфера без копирования.
+     */
+    IntBuffer postings(long trigram) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midTrigram = buffer.getLong(termsStart + mid * TERM_SIZE);
+            if (midTrigram < trigram) {
+                low = mid + 1;
+            } else if (midTrigram > trigram) {
+                high = mid - 1;
+            } else {
+                int offset = buffer.getInt(termsStart + mid * TERM_SIZE + 8);
+                int count = buffer.getInt(termsStart + mid * TERM_SIZE + 12);
+                ByteBuffer view = buffer.duplicate();
+                view.position(postingsStart + offset * Integer.BYTES);
+                view.limit(postingsStart + (offset + count) * Integer.BYTES);
+                return view.slice().asIntBuffer();
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Документ доступен и его название или описание содержит {@code pattern} (UTF-8 в верхнем регистре).
+     */
+    boolean matches(int doc, byte[] pattern) {
+        int entry = HEADER_SIZE + doc * DOC_SIZE;
+        if (buffer.get(entry + 20) != AVAILABLE) {
+            return false;
+        }
+        int offset = textStart + buffer.getInt(entry + 8);
+        int nameLength = buffer.getInt(entry + 12);
+        int descriptionLength = buffer.getInt(entry + 16);
+        return containsBytes(offset, nameLength, pattern)
+                || containsBytes(offset + nameLength, descriptionLength, pattern);
+    }
+
+    IndexedDoc readDoc(int doc) {
+        int entry = HEADER_SIZE + doc * DOC_SIZE;
+        byte flags = buffer.get(entry + 20);
+        int offset = textStart + buffer.getInt(entry + 8);
+        int nameLength = buffer.getInt(entry + 12);
+        int descriptionLength = buffer.getInt(entry + 16);
+        return new IndexedDoc(docId(doc), (flags & AVAILABLE) != 0, (flags & DELETED) != 0,
+                readString(offset, nameLength), readString(offset + nameLength, descriptionLength));
+    }
+
+    private boolean containsBytes(int offset, int length, byte[] pattern) {
+        int last = offset + length - pattern.length;
+        for (int start = offset; start <= last; start++) {
+            int i = 0;
+            while (i < pattern.length && buffer.get(start + i) == pattern[i]) {
+                i++;
+            }
+            if (i == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String readString(int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return StandardCharsets.UTF_8.decode(view).toString();
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
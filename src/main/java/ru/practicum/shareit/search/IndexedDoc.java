@@ -0,0 +1,36 @@
+package ru.practicum.shareit.search;
+
+import lombok.Value;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Locale;
+
+/**
+ * Версия предмета в индексе: название и описание в верхнем регистре, признак доступности.
+ * Удалённый предмет хранится как надгробие, перекрывающее его версии в старых сегментах.
+ */
+@Value
+class IndexedDoc {
+    long id;
+    boolean available;
+    boolean deleted;
+    String name;
+    String description;
+
+    static IndexedDoc of(Item item) {
+        return new IndexedDoc(item.getId(), Boolean.TRUE.equals(item.getAvailable()), false,
+                normalize(item.getName()), normalize(item.getDescription()));
+    }
+
+    static IndexedDoc tombstone(long id) {
+        return new IndexedDoc(id, false, true, "", "");
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    boolean matches(String pattern) {
+        return !deleted && available && (name.contains(pattern) || description.contains(pattern));
+    }
+}
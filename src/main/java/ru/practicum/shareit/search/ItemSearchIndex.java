@@ -0,0 +1,519 @@
+package ru.practicum.shareit.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.jdbc.CursorStatementCreator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Персистентный триграммный индекс для поиска предметов по подстроке названия или описания.
+ * <p>
+ * Индекс состоит из неизменяемых сегментов, отображённых в память ({@link IndexSegment}), и небольшого
+ * изменяемого хвоста, который пополняется после коммита сохранения, обновления и удаления предмета
+ * и дублируется в {@link TailLog}. Когда хвост набирает shareit.search.index.tail-max-docs документов,
+ * фоновый поток сбрасывает его в новый сегмент; когда сегментов больше shareit.search.index.max-segments,
+ * они сливаются в один. Список сегментов хранится в файле manifest.
+ * <p>
+ * При старте сегменты только отображаются и проигрывается журнал хвоста; полное построение из ITEMS
+ * выполняется один раз, если каталога индекса ещё нет. Изменения предметов в обход сервисов индекс не видит —
+ * для перестроения достаточно удалить каталог. Индекс принадлежит одному экземпляру приложения.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+public class ItemSearchIndex implements InitializingBean, DisposableBean {
+    public static final int MIN_QUERY_LENGTH = Trigrams.LENGTH;
+    static final String MANIFEST_FILE = "manifest";
+    static final String TAIL_FILE = "tail.log";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String SELECT_ITEMS = "SELECT ITEM_ID, ITEM_NAME, DESCRIPTION, IS_AVAILABLE " +
+            "FROM ITEMS ORDER BY ITEM_ID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final boolean fsync;
+    private final int tailMaxDocs;
+    private final int maxSegments;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean maintenanceScheduled = new AtomicBoolean();
+    private ExecutorService maintenance;
+    private TailLog tailLog;
+    private long generation;
+    private volatile State state = new State(List.of(), new ConcurrentSkipListMap<>());
+    private volatile boolean open;
+
+    public ItemSearchIndex(JdbcTemplate jdbcTemplate,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled,
+                           @Value("${shareit.search.index.dir:./db/search}") String directory,
+                           @Value("${shareit.search.index.fsync:true}") boolean fsync,
+                           @Value("${shareit.search.index.tail-max-docs:1000}") int tailMaxDocs,
+                           @Value("${shareit.search.index.max-segments:8}") int maxSegments) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.fsync = fsync;
+        this.tailMaxDocs = Math.max(1, tailMaxDocs);
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    public static boolean matches(Item item, String text) {
+        return IndexedDoc.of(item).matches(IndexedDoc.normalize(text));
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        List<IndexSegment> segments = new ArrayList<>();
+        if (Files.exists(manifest)) {
+            for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (!name.isBlank()) {
+                    segments.add(IndexSegment.open(directory.resolve(name)));
+                }
+            }
+        } else {
+            bootstrap(segments);
+            writeManifest(segments);
+        }
+        generation = segments.stream()
+                .mapToLong(segment -> generationOf(segment.path()))
+                .max()
+                .orElse(0);
+        deleteUnreferencedSegments(segments);
+
+        NavigableMap<Long, IndexedDoc> tail = new ConcurrentSkipListMap<>();
+        tailLog = new TailLog(directory.resolve(TAIL_FILE), fsync);
+        tailLog.replay(doc -> tail.put(doc.getId(), doc));
+        state = new State(List.copyOf(segments), tail);
+        maintenance = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        open = true;
+        log.info("Индекс поиска открыт за {} мс: сегментов {}, документов в хвосте {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), segments.size(), tail.size());
+        scheduleMaintenance();
+    }
+
+    /**
+     * Индекс открыт и подходит для запроса такой длины; иначе поиск нужно выполнять запросом к базе.
+     */
+    public boolean canSearch(String text) {
+        return open && text != null && text.length() >= MIN_QUERY_LENGTH;
+    }
+
+    /**
+     * Id доступных предметов, название или описание которых содержит {@code text} без учёта регистра,
+     * по возрастанию. Хвост и постинги сегментов уже упорядочены по id, поэтому совпадения сливаются
+     * лениво: каждый следующий id читает источники ровно настолько, насколько нужно, и страница
+     * стоит столько, сколько id до её конца, а не сколько всего совпадений.
+     */
+    public PrimitiveIterator.OfLong search(String text) {
+        String pattern = IndexedDoc.normalize(text);
+        byte[] patternBytes = pattern.getBytes(StandardCharsets.UTF_8);
+        long[] trigrams = Trigrams.of(pattern);
+        State current = state;
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(current.segments.size() + 1,
+                Comparator.comparingLong(Cursor::head));
+        offer(cursors, new TailCursor(current.tail.values().iterator(), pattern));
+        for (int s = 0; s < current.segments.size(); s++) {
+            offer(cursors, new SegmentCursor(current, s, trigrams, patternBytes));
+        }
+        return new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+
+            @Override
+            public long nextLong() {
+                Cursor cursor = cursors.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                long id = cursor.head();
+                offer(cursors, cursor);
+                // Версия, записанная в хвост уже во время обхода, может прийти и из сегмента
+                while (!cursors.isEmpty() && cursors.peek().head() == id) {
+                    offer(cursors, cursors.poll());
+                }
+                return id;
+            }
+        };
+    }
+
+    public void index(Item item) {
+        index(List.of(item));
+    }
+
+    public void index(List<Item> items) {
+        if (open && !items.isEmpty()) {
+            List<IndexedDoc> docs = items.stream().map(IndexedDoc::of).collect(Collectors.toList());
+            afterCommit(() -> write(docs));
+        }
+    }
+
+    public void remove(Long itemId) {
+        if (open) {
+            afterCommit(() -> write(List.of(IndexedDoc.tombstone(itemId))));
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (writeLock) {
+            tailLog.close();
+        }
+    }
+
+    /**
+     * Сбрасывает хвост в новый сегмент.
+     */
+    void flush() throws IOException {
+        synchronized (writeLock) {
+            State current = state;
+            if (current.tail.isEmpty()) {
+                return;
+            }
+            IndexSegment segment = IndexSegment.write(nextSegmentPath(), new ArrayList<>(current.tail.values()));
+            List<IndexSegment> segments = new ArrayList<>(current.segments);
+            segments.add(segment);
+            writeManifest(segments);
+            state = new State(List.copyOf(segments), new ConcurrentSkipListMap<>());
+            tailLog.truncate();
+            log.debug("Хвост индекса из {} документов сброшен в {}", segment.docCount(), segment.path());
+        }
+    }
+
+    /**
+     * Сливает все сегменты в один, отбрасывая перекрытые версии и надгробия.
+     * Сброс хвоста во время слияния не блокируется: новые сегменты остаются после слитого.
+     */
+    void merge() throws IOException {
+        List<IndexSegment> merging = state.segments;
+        if (merging.size() <= 1) {
+            return;
+        }
+        TreeMap<Long, IndexedDoc> latest = new TreeMap<>();
+        for (int s = merging.size() - 1; s >= 0; s--) {
+            IndexSegment segment = merging.get(s);
+            for (int doc = 0; doc < segment.docCount(); doc++) {
+                latest.putIfAbsent(segment.docId(doc), segment.readDoc(doc));
+            }
+        }
+        List<IndexedDoc> live = latest.values().stream()
+                .filter(doc -> !doc.isDeleted())
+                .collect(Collectors.toList());
+        Path mergedPath;
+        synchronized (writeLock) {
+            mergedPath = nextSegmentPath();
+        }
+        IndexSegment merged = IndexSegment.write(mergedPath, live);
+        synchronized (writeLock) {
+            State current = state;
+            List<IndexSegment> segments = new ArrayList<>();
+            segments.add(merged);
+            segments.addAll(current.segments.subList(merging.size(), current.segments.size()));
+            writeManifest(segments);
+            state = new State(List.copyOf(segments), current.tail);
+        }
+        for (IndexSegment segment : merging) {
+            deleteQuietly(segment.path());
+        }
+        log.info("Слито сегментов индекса: {}, документов: {}", merging.size(), merged.docCount());
+    }
+
+    int segmentCount() {
+        return state.segments.size();
+    }
+
+    private void write(List<IndexedDoc> docs) {
+        synchronized (writeLock) {
+            if (!open) {
+                return;
+            }
+            try {
+                tailLog.append(docs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            NavigableMap<Long, IndexedDoc> tail = state.tail;
+            docs.forEach(doc -> tail.put(doc.getId(), doc));
+            if (tail.size() >= tailMaxDocs) {
+                scheduleMaintenance();
+            }
+        }
+    }
+
+    private void scheduleMaintenance() {
+        if (maintenanceScheduled.compareAndSet(false, true)) {
+            maintenance.execute(() -> {
+                maintenanceScheduled.set(false);
+                try {
+                    if (state.tail.size() >= tailMaxDocs) {
+                        flush();
+                    }
+                    if (state.segments.size() > maxSegments) {
+                        merge();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.error("Ошибка обслуживания индекса поиска", e);
+                }
+            });
+        }
+    }
+
+    private void bootstrap(List<IndexSegment> segments) throws IOException {
+        List<IndexedDoc> docs = new ArrayList<>();
+        jdbcTemplate.query(new CursorStatementCreator(SELECT_ITEMS), (RowCallbackHandler) rs ->
+                docs.add(new IndexedDoc(rs.getLong("ITEM_ID"),
+                        Boolean.TRUE.equals(rs.getObject("IS_AVAILABLE", Boolean.class)), false,
+                        IndexedDoc.normalize(rs.getString("ITEM_NAME")),
+                        IndexedDoc.normalize(rs.getString("DESCRIPTION")))));
+        log.info("Индекс поиска построен из базы: {} предметов", docs.size());
+        if (!docs.isEmpty()) {
+            segments.add(IndexSegment.write(nextSegmentPath(), docs));
+        }
+    }
+
+    private static void offer(PriorityQueue<Cursor> cursors, Cursor cursor) {
+        if (cursor.advance()) {
+            cursors.add(cursor);
+        }
+    }
+
+    /**
+     * Есть ли у документа более новая версия в хвосте или в сегментах новее {@code segmentIndex}.
+     */
+    private static boolean shadowed(State state, int segmentIndex, long id) {
+        if (state.tail.containsKey(id)) {
+            return true;
+        }
+        for (int s = segmentIndex + 1; s < state.segments.size(); s++) {
+            if (state.segments.get(s).contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path nextSegmentPath() {
+        return directory.resolve(String.format("%010d%s", ++generation, SEGMENT_SUFFIX));
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void writeManifest(List<IndexSegment> segments) throws IOException {
+        Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+        Files.write(temp, segments.stream()
+                .map(segment -> segment.path().getFileName().toString())
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(MANIFEST_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteUnreferencedSegments(List<IndexSegment> segments) throws IOException {
+        Set<Path> referenced = segments.stream().map(IndexSegment::path).collect(Collectors.toCollection(HashSet::new));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX + "*")) {
+            for (Path file : files) {
+                if (!referenced.contains(file)) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Не удалось удалить файл индекса {}", file, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Источник совпадений по возрастанию id; {@link #head()} действителен после {@code advance() == true}.
+     */
+    private interface Cursor {
+        boolean advance();
+
+        long head();
+    }
+
+    private static final class TailCursor implements Cursor {
+        private final Iterator<IndexedDoc> docs;
+        private final String pattern;
+        private long head;
+
+        private TailCursor(Iterator<IndexedDoc> docs, String pattern) {
+            this.docs = docs;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean advance() {
+            while (docs.hasNext()) {
+                IndexedDoc doc = docs.next();
+                if (doc.matches(pattern)) {
+                    head = doc.getId();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long head() {
+            return head;
+        }
+    }
+
+    /**
+     * Обходит самый короткий список постингов сегмента; остальные проверяются двоичным поиском от позиции
+     * предыдущего совпадения — номера документов растут, поэтому назад возвращаться не нужно.
+     */
+    private static final class SegmentCursor implements Cursor {
+        private final State state;
+        private final int segmentIndex;
+        private final IndexSegment segment;
+        private final byte[] pattern;
+        private final IntBuffer[] postings;
+        private final int[] positions;
+        private long head;
+
+        private SegmentCursor(State state, int segmentIndex, long[] trigrams, byte[] pattern) {
+            this.state = state;
+            this.segmentIndex = segmentIndex;
+            this.segment = state.segments.get(segmentIndex);
+            this.pattern = pattern;
+            this.postings = new IntBuffer[trigrams.length];
+            for (int t = 0; t < trigrams.length; t++) {
+                postings[t] = segment.postings(trigrams[t]);
+            }
+            Arrays.sort(postings, Comparator.comparingInt(IntBuffer::limit));
+            this.positions = new int[postings.length];
+        }
+
+        @Override
+        public boolean advance() {
+            IntBuffer smallest = postings[0];
+            while (positions[0] < smallest.limit()) {
+                int doc = smallest.get(positions[0]++);
+                if (inAll(doc) && segment.matches(doc, pattern)) {
+                    long id = segment.docId(doc);
+                    if (!shadowed(state, segmentIndex, id)) {
+                        head = id;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long head() {
+            return head;
+        }
+
+        private boolean inAll(int doc) {
+            for (int t = 1; t < postings.length; t++) {
+                IntBuffer list = postings[t];
+                int low = positions[t];
+                int high = list.limit() - 1;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    if (list.get(mid) < doc) {
+                        low = mid + 1;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                positions[t] = low;
+                if (low == list.limit() || list.get(low) != doc) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Согласованный для читателей снимок: сегменты от старых к новым и хвост.
+     */
+    private static final class State {
+        private final List<IndexSegment> segments;
+        private final NavigableMap<Long, IndexedDoc> tail;
+
+        private State(List<IndexSegment> segments, NavigableMap<Long, IndexedDoc> tail) {
+            this.segments = segments;
+            this.tail = tail;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Журнал изменяемого хвоста индекса: записи (int длина, long id, byte флаги, int длина + UTF-8 названия,
+ * int длина + UTF-8 описания). После сброса хвоста в сегмент журнал обнуляется,
+ * оборванная последняя запись при чтении отбрасывается.
+ */
+@Slf4j
+class TailLog implements Closeable {
+    private static final byte AVAILABLE = 1;
+    private static final byte DELETED = 2;
+
+    private final Path path;
+    private final boolean fsync;
+    private final FileChannel channel;
+
+    TailLog(Path path, boolean fsync) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    void replay(Consumer<IndexedDoc> apply) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        long position = 0;
+        while (position + Integer.BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || position + Integer.BYTES + length > size) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.allocate(length);
+            channel.read(record, position + Integer.BYTES);
+            record.flip();
+            apply.accept(decode(record));
+            position += Integer.BYTES + length;
+        }
+        if (position < size) {
+            log.warn("Журнал {} обрезан до {} байт: последняя запись неполная", path, position);
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    void append(List<IndexedDoc> docs) throws IOException {
+        for (IndexedDoc doc : docs) {
+            ByteBuffer record = encode(doc);
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static ByteBuffer encode(IndexedDoc doc) {
+        byte[] name = doc.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] description = doc.getDescription().getBytes(StandardCharsets.UTF_8);
+        int length = Long.BYTES + 1 + Integer.BYTES + name.length + Integer.BYTES + description.length;
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+        record.putInt(length)
+                .putLong(doc.getId())
+                .put((byte) ((doc.isAvailable() ? AVAILABLE : 0) | (doc.isDeleted() ? DELETED : 0)))
+                .putInt(name.length)
+                .put(name)
+                .putInt(description.length)
+                .put(description);
+        return record.flip();
+    }
+
+    private static IndexedDoc decode(ByteBuffer record) {
+        long id = record.getLong();
+        byte flags = record.get();
+        byte[] name = new byte[record.getInt()];
+        record.get(name);
+        byte[] description = new byte[record.getInt()];
+        record.get(description);
+        return new IndexedDoc(id, (flags & AVAILABLE) != 0, (flags & DELETED) != 0,
+                new String(name, StandardCharsets.UTF_8), new String(description, StandardCharsets.UTF_8));
+    }
+}
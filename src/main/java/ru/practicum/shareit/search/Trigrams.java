@@ -0,0 +1,52 @@
+package ru.practicum.shareit.search;
+
+import java.util.Arrays;
+
+/**
+ * Триграммы текста в верхнем регистре: три UTF-16 символа, упакованные в long.
+ * Подстрока длиной от трёх символов содержит все свои триграммы, поэтому пересечение
+ * списков документов по триграммам запроса даёт всех кандидатов без пропусков.
+ */
+public final class Trigrams {
+    public static final int LENGTH = 3;
+
+    private Trigrams() {
+    }
+
+    /**
+     * Различные триграммы строки по возрастанию.
+     */
+    public static long[] of(String text) {
+        if (text.length() < LENGTH) {
+            return new long[0];
+        }
+        long[] keys = new long[text.length() - LENGTH + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        }
+        return distinct(keys);
+    }
+
+    public static long[] of(String first, String second) {
+        long[] a = of(first);
+        long[] b = of(second);
+        long[] keys = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, keys, a.length, b.length);
+        return distinct(keys);
+    }
+
+    private static long key(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static long[] distinct(long[] keys) {
+        Arrays.sort(keys);
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (size == 0 || keys[size - 1] != keys[i]) {
+                keys[size++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, size);
+    }
+}
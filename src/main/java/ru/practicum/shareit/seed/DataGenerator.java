@@ -0,0 +1,396 @@
+package ru.practicum.shareit.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingListCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор синтетических данных для нагрузочных тестов: пользователи, запросы, предметы, бронирования
+ * с моделями списков и отзывы вставляются через JDBC batchUpdate пачками по batchSize строк,
+ * каждая пачка — в своей транзакции, пачки одной таблицы пишутся параллельно в threads потоков.
+ * <p>
+ * Диапазоны id резервируются в последовательностях заранее, а каждая строка строится из собственного
+ * генератора, засеянного (seed, таблица, номер строки), поэтому результат не зависит от порядка потоков.
+ * Популярность предметов и активность арендаторов распределены по Ципфу; даты бронирований тяготеют
+ * к выходным и дневным часам, длительность логнормальная, статус зависит от положения относительно now.
+ * <p>
+ * События изменений, журнал бронирований и outbox не заполняются: это загрузка в обход сервисов.
+ * Пишет в шард по умолчанию; рассчитан на базу без параллельной записи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataGenerator {
+    private static final String INSERT_USER = "INSERT INTO USERS (USER_ID, USER_NAME, EMAIL) VALUES (?, ?, ?)";
+    private static final String INSERT_REQUEST = "INSERT INTO REQUESTS (REQUEST_ID, DESCRIPTION, REQUESTOR_ID, " +
+            "CREATED) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ITEM = "INSERT INTO ITEMS (ITEM_ID, ITEM_NAME, DESCRIPTION, IS_AVAILABLE, " +
+            "OWNER_ID, REQUEST) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOKING = "INSERT INTO BOOKINGS (BOOKING_ID, START_DATE, END_DATE, ITEM_ID, " +
+            "BOOKER_ID, STATUS) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String VIEW_COLUMNS = " (BOOKING_ID, START_DATE, END_DATE, STATUS, ITEM_ID, ITEM_NAME, " +
+            "DESCRIPTION, IS_AVAILABLE, OWNER_ID, REQUEST, BOOKER_ID, USER_NAME, EMAIL) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final List<String> VIEWS = List.of("OWNER_BOOKINGS_VIEW", "BOOKER_BOOKINGS_VIEW");
+    private static final String INSERT_COMMENT = "INSERT INTO COMMENTS (COMMENT_ID, TEXT, ITEM_ID, AUTHOR_ID, " +
+            "CREATED) VALUES (?, ?, ?, ?, ?)";
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private static final long USER_STREAM = 1;
+    private static final long REQUEST_STREAM = 2;
+    private static final long ITEM_STREAM = 3;
+    private static final long BOOKING_STREAM = 4;
+
+    private static final String[] FIRST_NAMES = {"Анна", "Борис", "Вера", "Глеб", "Дарья", "Егор", "Жанна",
+            "Иван", "Ксения", "Лев", "Мария", "Никита", "Ольга", "Пётр", "Роман", "София", "Тимур", "Юлия"};
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров",
+            "Соколов", "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев"};
+    private static final String[] THINGS = {"Дрель", "Перфоратор", "Шуруповёрт", "Лобзик", "Болгарка", "Стремянка",
+            "Палатка", "Спальник", "Велосипед", "Самокат", "Сноуборд", "Лыжи", "Проектор", "Колонка", "Фотоаппарат",
+            "Штатив", "Газонокосилка", "Мойка", "Пылесос", "Отпариватель", "Мангал", "Лодка", "Байдарка", "Рюкзак"};
+    private static final String[] QUALITIES = {"аккумуляторный", "профессиональный", "компактный", "складной",
+            "лёгкий", "мощный", "детский", "туристический", "новый", "почти новый", "с кейсом", "с насадками"};
+    private static final String[] REVIEWS = {"Всё отлично, рекомендую", "Вещь в хорошем состоянии",
+            "Владелец на связи, передал вовремя", "Немного потёрто, но работает", "Пригодилось, спасибо",
+            "Инструкция бы не помешала", "Возьму ещё раз"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailBloomFilter emailFilter;
+    private final ItemSearchIndex searchIndex;
+    private final BookingListCache bookingListCache;
+
+    public SeedReport generate(SeedVolumes volumes) {
+        if (volumes.getBookings() > 0 && (volumes.getItems() == 0 || volumes.getUsers() < 2)) {
+            throw new IllegalArgumentException("для бронирований нужны предметы и хотя бы два пользователя");
+        }
+        long started = System.nanoTime();
+        Plan plan = new Plan(volumes,
+                reserve("USERS_SEQ", volumes.getUsers()),
+                reserve("REQUESTS_SEQ", volumes.getRequests()),
+                reserve("ITEMS_SEQ", volumes.getItems()),
+                reserve("BOOKINGS_SEQ", volumes.getBookings()),
+                reserve("COMMENTS_SEQ", volumes.getBookings()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, volumes.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "seed-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long comments;
+        try {
+            runChunks(executor, "пользователей", volumes.getUsers(), volumes,
+                    (from, to) -> insertUsers(plan, from, to));
+            runChunks(executor, "запросов", volumes.getRequests(), volumes,
+                    (from, to) -> insertRequests(plan, from, to));
+            runChunks(executor, "предметов", volumes.getItems(), volumes, (from, to) -> insertItems(plan, from, to));
+            comments = runChunks(executor, "бронирований", volumes.getBookings(), volumes,
+                    (from, to) -> insertBookings(plan, from, to));
+        } finally {
+            executor.shutdownNow();
+        }
+        bookingListCache.invalidateAll();
+        SeedReport report = new SeedReport(volumes.getUsers(), volumes.getRequests(), volumes.getItems(),
+                volumes.getBookings(), comments, plan.userBase, plan.itemBase, plan.bookingBase,
+                (System.nanoTime() - started) / 1_000_000);
+        log.info("Генерация завершена за {} мс: пользователей {}, запросов {}, предметов {}, бронирований {}, " +
+                        "отзывов {}", report.getMillis(), report.getUsers(), report.getRequests(), report.getItems(),
+                report.getBookings(), report.getComments());
+        return report;
+    }
+
+    /**
+     * Резервирует count id подряд: nextval отдаёт начало блока из {@value SEQUENCE_BLOCK}, а сдвиг
+     * последовательности за конец диапазона не даёт Hibernate и {@code SequenceIdAllocator} выдать те же id.
+     */
+    private long reserve(String sequence, long count) {
+        Long first = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+        long blocks = (count + SEQUENCE_BLOCK - 1) / SEQUENCE_BLOCK;
+        if (blocks > 1) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (first + blocks * SEQUENCE_BLOCK));
+        }
+        return first;
+    }
+
+    private long runChunks(ExecutorService executor, String what, long count, SeedVolumes volumes, Chunk chunk) {
+        long started = System.nanoTime();
+        int batchSize = Math.max(1, volumes.getBatchSize());
+        List<Future<Long>> futures = new ArrayList<>();
+        for (long from = 0; from < count; from += batchSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(count, from + batchSize);
+            futures.add(executor.submit(() -> transactionTemplate.execute(status -> chunk.write(chunkFrom, chunkTo))));
+        }
+        long extra = 0;
+        try {
+            for (Future<Long> future : futures) {
+                extra += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("генерация прервана", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("не удалось вставить пачку " + what, e.getCause());
+        }
+        log.info("Вставлено {}: {} за {} мс", what, count, (System.nanoTime() - started) / 1_000_000);
+        return extra;
+    }
+
+    private long insertUsers(Plan plan, long from, long to) {
+        List<User> users = new ArrayList<>();
+        for (long index = from; index < to; index++) {
+            users.add(plan.user(index));
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (statement, user) -> {
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getName());
+            statement.setString(3, user.getEmail());
+        });
+        users.forEach(user -> emailFilter.put(user.getEmail()));
+        return 0;
+    }
+
+    private long insertRequests(Plan plan, long from, long to) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long index = from; index < to; index++) {
+            SplittableRandom random = plan.random(REQUEST_STREAM, index);
+            rows.add(new Object[]{plan.requestBase + index,
+                    "Нужен " + pick(random, THINGS).toLowerCase() + " на " + (1 + random.nextInt(14)) + " дн.",
+                    plan.userBase + random.nextInt(plan.volumes.getUsers()),
+                    Timestamp.valueOf(plan.pastMoment(random))});
+        }
+        jdbcTemplate.batchUpdate(INSERT_REQUEST, rows);
+        return 0;
+    }
+
+    private long insertItems(Plan plan, long from, long to) {
+        List<Item> items = new ArrayList<>();
+        for (long index = from; index < to; index++) {
+            items.add(plan.item(index));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, items.size(), (statement, item) -> {
+            statement.setLong(1, item.getId());
+            statement.setString(2, item.getName());
+            statement.setString(3, item.getDescription());
+            statement.setObject(4, item.getAvailable(), Types.BOOLEAN);
+            statement.setLong(5, item.getOwnerId());
+            statement.setObject(6, item.getRequest(), Types.BIGINT);
+        });
+        searchIndex.index(items);
+        return 0;
+    }
+
+    /**
+     * Бронирования вместе со строками обеих моделей списков и отзывами к части завершённых подтверждённых.
+     * Id отзыва — номер бронирования от начала зарезервированного диапазона, поэтому он тоже детерминирован.
+     */
+    private long insertBookings(Plan plan, long from, long to) {
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> views = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (long index = from; index < to; index++) {
+            SplittableRandom random = plan.random(BOOKING_STREAM, index);
+            long itemIndex = plan.popularItem(random);
+            Item item = plan.item(itemIndex);
+            User booker = plan.user(plan.activeBooker(random, item.getOwnerId() - plan.userBase));
+            LocalDateTime start = plan.bookingStart(random);
+            LocalDateTime end = start.plusHours(plan.bookingHours(random));
+            Status status = plan.status(random, start, end);
+            long bookingId = plan.bookingBase + index;
+            Timestamp startTime = Timestamp.valueOf(start);
+            Timestamp endTime = Timestamp.valueOf(end);
+            bookings.add(new Object[]{bookingId, startTime, endTime, item.getId(), booker.getId(), status.name()});
+            views.add(new Object[]{bookingId, startTime, endTime, status.name(), item.getId(), item.getName(),
+                    item.getDescription(), item.getAvailable(), item.getOwnerId(), item.getRequest(), booker.getId(),
+                    booker.getName(), booker.getEmail()});
+            if (status == Status.APPROVED && end.isBefore(plan.now)
+                    && random.nextDouble() < plan.volumes.getCommentRate()) {
+                LocalDateTime created = end.plusHours(1 + random.nextInt(72));
+                comments.add(new Object[]{plan.commentBase + index, pick(random, REVIEWS), item.getId(),
+                        booker.getId(), Timestamp.valueOf(created.isAfter(plan.now) ? plan.now : created)});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOKING, bookings);
+        for (String view : VIEWS) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + view + VIEW_COLUMNS, views);
+        }
+        if (!comments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COMMENT, comments);
+        }
+        return comments.size();
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        /**
+         * Вставляет строки [from, to) и возвращает число попутно вставленных строк других таблиц.
+         */
+        long write(long from, long to);
+    }
+
+    /**
+     * Всё, что нужно для построения строки по её номеру: базы id, распределения популярности и перестановки
+     * рангов в номера строк (иначе самыми популярными были бы первые владельцы и их первые предметы).
+     */
+    private static class Plan {
+        private final SeedVolumes volumes;
+        private final long userBase;
+        private final long requestBase;
+        private final long itemBase;
+        private final long bookingBase;
+        private final long commentBase;
+        private final LocalDateTime now;
+        private final ZipfSampler itemPopularity;
+        private final ZipfSampler bookerActivity;
+        private final long itemStride;
+        private final long userStride;
+
+        Plan(SeedVolumes volumes, long userBase, long requestBase, long itemBase, long bookingBase,
+             long commentBase) {
+            this.volumes = volumes;
+            this.userBase = userBase;
+            this.requestBase = requestBase;
+            this.itemBase = itemBase;
+            this.bookingBase = bookingBase;
+            this.commentBase = commentBase;
+            this.now = volumes.getNow();
+            this.itemPopularity = volumes.getItems() > 0
+                    ? new ZipfSampler(volumes.getItems(), volumes.getZipfExponent()) : null;
+            this.bookerActivity = volumes.getUsers() > 0
+                    ? new ZipfSampler(volumes.getUsers(), volumes.getZipfExponent()) : null;
+            this.itemStride = stride(volumes.getItems());
+            this.userStride = stride(volumes.getUsers());
+        }
+
+        SplittableRandom random(long stream, long index) {
+            return new SplittableRandom(volumes.getSeed() * 0x9E3779B97F4A7C15L
+                    + stream * 0xBF58476D1CE4E5B9L + index * 0x94D049BB133111EBL);
+        }
+
+        User user(long index) {
+            SplittableRandom random = random(USER_STREAM, index);
+            long id = userBase + index;
+            return User.builder()
+                    .id(id)
+                    .name(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES))
+                    .email("user" + id + "@seed.shareit.ru")
+                    .build();
+        }
+
+        Item item(long index) {
+            SplittableRandom random = random(ITEM_STREAM, index);
+            String thing = pick(random, THINGS);
+            String quality = pick(random, QUALITIES);
+            Long request = volumes.getRequests() > 0 && random.nextDouble() < volumes.getRequestAnswerRate()
+                    ? requestBase + random.nextInt(volumes.getRequests()) : null;
+            return Item.builder()
+                    .id(itemBase + index)
+                    .name(thing + " " + quality)
+                    .description(thing + ", " + quality + ", в аренду от " + (100 + random.nextInt(20) * 50)
+                            + " руб. в сутки")
+                    .available(random.nextDouble() < 0.9)
+                    .ownerId(userBase + index / volumes.getItemsPerOwner())
+                    .request(request)
+                    .build();
+        }
+
+        long popularItem(SplittableRandom random) {
+            return (itemPopularity.sample(random) - 1) * itemStride % volumes.getItems();
+        }
+
+        /**
+         * Активный по Ципфу пользователь, но не владелец предмета.
+         */
+        long activeBooker(SplittableRandom random, long ownerIndex) {
+            long index = (bookerActivity.sample(random) - 1) * userStride % volumes.getUsers();
+            return index == ownerIndex ? (index + 1) % volumes.getUsers() : index;
+        }
+
+        LocalDateTime pastMoment(SplittableRandom random) {
+            return now.minusMinutes(random.nextLong((long) Math.max(1, volumes.getHistoryDays()) * 24 * 60));
+        }
+
+        /**
+         * День в окне [now - historyDays, now + horizonDays), будни принимаются с вероятностью 0.6
+         * против выходных; начало — с 8 до 20 часов с шагом полчаса.
+         */
+        LocalDateTime bookingStart(SplittableRandom random) {
+            int window = Math.max(1, volumes.getHistoryDays() + volumes.getHorizonDays());
+            LocalDateTime day;
+            do {
+                day = now.toLocalDate().atStartOfDay().plusDays(random.nextInt(window) - volumes.getHistoryDays());
+            } while (day.getDayOfWeek().compareTo(DayOfWeek.FRIDAY) < 0 && random.nextDouble() >= 0.6);
+            return day.plusHours(8 + random.nextInt(12)).plusMinutes(30L * random.nextInt(2));
+        }
+
+        /**
+         * Логнормальная длительность с медианой двое суток, от часа до 30 суток.
+         */
+        long bookingHours(SplittableRandom random) {
+            double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                    * Math.cos(2 * Math.PI * random.nextDouble());
+            return Math.max(1, Math.min(30 * 24, Math.round(48 * Math.exp(gaussian))));
+        }
+
+        /**
+         * Завершённые в основном подтверждены, часть отклонена, отменена или просрочена;
+         * будущие ещё наполовину ждут ответа, текущие почти все подтверждены.
+         */
+        Status status(SplittableRandom random, LocalDateTime start, LocalDateTime end) {
+            double roll = random.nextDouble();
+            if (end.isBefore(now)) {
+                return roll < 0.75 ? Status.APPROVED : roll < 0.87 ? Status.REJECTED
+                        : roll < 0.95 ? Status.CANCELED : Status.EXPIRED;
+            }
+            if (start.isAfter(now)) {
+                return roll < 0.35 ? Status.WAITING : roll < 0.9 ? Status.APPROVED
+                        : roll < 0.96 ? Status.REJECTED : Status.CANCELED;
+            }
+            return roll < 0.9 ? Status.APPROVED : Status.WAITING;
+        }
+
+        /**
+         * Шаг, взаимно простой с n: rank * stride mod n — перестановка 0..n-1.
+         */
+        private static long stride(long n) {
+            if (n <= 2) {
+                return 1;
+            }
+            long stride = Math.max(1, (long) (n * 0.6180339887));
+            while (gcd(stride, n) != 1) {
+                stride++;
+            }
+            return stride;
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+}
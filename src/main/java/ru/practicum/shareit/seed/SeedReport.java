@@ -0,0 +1,19 @@
+package ru.practicum.shareit.seed;
+
+import lombok.Value;
+
+/**
+ * Итог генерации: сколько строк вставлено и с каких id начинаются диапазоны.
+ */
+@Value
+public class SeedReport {
+    long users;
+    long requests;
+    long items;
+    long bookings;
+    long comments;
+    long firstUserId;
+    long firstItemId;
+    long firstBookingId;
+    long millis;
+}
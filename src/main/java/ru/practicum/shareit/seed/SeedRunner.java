@@ -0,0 +1,63 @@
+package ru.practicum.shareit.seed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Заполняет базу при старте с shareit.seed.enabled=true, например:
+ * {@code java -jar shareit.jar --shareit.seed.enabled=true --shareit.seed.bookings=10000000
+ * --spring.main.web-application-type=none}. Без shareit.seed.now даты отсчитываются от текущего часа.
+ */
+@Component
+@Profile("!memory")
+@ConditionalOnProperty(prefix = "shareit.seed", name = "enabled", havingValue = "true")
+public class SeedRunner implements ApplicationRunner {
+    private final DataGenerator dataGenerator;
+    private final SeedVolumes volumes;
+
+    public SeedRunner(DataGenerator dataGenerator,
+                      @Value("${shareit.seed.users:100000}") int users,
+                      @Value("${shareit.seed.owners:20000}") int owners,
+                      @Value("${shareit.seed.items-per-owner:5}") int itemsPerOwner,
+                      @Value("${shareit.seed.requests:10000}") int requests,
+                      @Value("${shareit.seed.bookings:1000000}") long bookings,
+                      @Value("${shareit.seed.comment-rate:0.2}") double commentRate,
+                      @Value("${shareit.seed.request-answer-rate:0.1}") double requestAnswerRate,
+                      @Value("${shareit.seed.zipf-exponent:1.1}") double zipfExponent,
+                      @Value("${shareit.seed.history-days:365}") int historyDays,
+                      @Value("${shareit.seed.horizon-days:60}") int horizonDays,
+                      @Value("${shareit.seed.now:}") String now,
+                      @Value("${shareit.seed.seed:42}") long seed,
+                      @Value("${shareit.seed.threads:4}") int threads,
+                      @Value("${shareit.seed.batch-size:5000}") int batchSize) {
+        this.dataGenerator = dataGenerator;
+        this.volumes = SeedVolumes.builder()
+                .users(users)
+                .owners(owners)
+                .itemsPerOwner(itemsPerOwner)
+                .requests(requests)
+                .bookings(bookings)
+                .commentRate(commentRate)
+                .requestAnswerRate(requestAnswerRate)
+                .zipfExponent(zipfExponent)
+                .historyDays(historyDays)
+                .horizonDays(horizonDays)
+                .now(now.isBlank() ? LocalDateTime.now().truncatedTo(ChronoUnit.HOURS) : LocalDateTime.parse(now))
+                .seed(seed)
+                .threads(threads)
+                .batchSize(batchSize)
+                .build();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        dataGenerator.generate(volumes);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.seed;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Объёмы и параметры одной генерации. Содержимое строк зависит только от {@code seed}, {@code now}
+ * и объёмов — не от числа потоков и размера пачки.
+ */
+@Value
+@Builder
+public class SeedVolumes {
+    int users;
+    int owners;
+    int itemsPerOwner;
+    int requests;
+    long bookings;
+    double commentRate;
+    double requestAnswerRate;
+    double zipfExponent;
+    int historyDays;
+    int horizonDays;
+    LocalDateTime now;
+    long seed;
+    int threads;
+    int batchSize;
+
+    public long getItems() {
+        return (long) Math.min(owners, users) * itemsPerOwner;
+    }
+}
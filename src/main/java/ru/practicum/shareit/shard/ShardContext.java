@@ -0,0 +1,26 @@
+package ru.practicum.shareit.shard;
+
+/**
+ * Шард, с которым работает текущий поток. Без привязки используется {@link ShardRouter#HOME_SHARD}.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? ShardRouter.HOME_SHARD : shard;
+    }
+
+    static Integer bind(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.shard;
+
+public enum ShardKey {
+    /**
+     * Id владельца предметов: шард выбирается по нему.
+     */
+    OWNER,
+    /**
+     * Id предмета, бронирования или комментария: номер шарда записан в старших битах.
+     */
+    ENTITY_ID
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.tracing.Tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Распределение данных по шардам: предметы, их бронирования и комментарии хранятся на шарде владельца,
+ * пользователи и запросы — на домашнем шарде, пользователи дополнительно копируются на все шарды.
+ * Id предметов, бронирований и комментариев выдаются из последовательностей своего шарда,
+ * которые начинаются с {@code shard << SHARD_SHIFT}, поэтому шард определяется по самому id.
+ */
+public class ShardRouter implements DisposableBean {
+    public static final int HOME_SHARD = 0;
+    public static final int SHARD_SHIFT = 40;
+
+    private final int shardCount;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final ExecutorService executor;
+
+    public ShardRouter(int shardCount, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.shardCount = Math.max(1, shardCount);
+        this.transactionManager = transactionManager;
+        this.executor = this.shardCount == 1 ? null
+                : Tracing.propagating(Executors.newFixedThreadPool(this.shardCount, new ShardThreadFactory()));
+    }
+
+    public static ShardRouter single() {
+        return new ShardRouter(1, null);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardForOwner(long ownerId) {
+        return (int) Math.floorMod(ownerId, (long) shardCount);
+    }
+
+    /**
+     * Шард, выдавший id. Id с номером несуществующего шарда не мог быть выдан ни одной последовательностью,
+     * поэтому такой объект не существует.
+     */
+    public int shardOfId(long id) {
+        long shard = id >>> SHARD_SHIFT;
+        if (shard >= shardCount) {
+            throw new NotFoundException(HttpStatus.NOT_FOUND, "Объект не найден: id " + id
+                    + " не относится ни к одному шарду");
+        }
+        return (int) shard;
+    }
+
+    public static long firstId(int shard) {
+        return ((long) shard << SHARD_SHIFT) + 1;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.bind(previous);
+        }
+    }
+
+    public void onShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Выполняет действие на каждом шарде по очереди, каждый раз в отдельной readOnly-транзакции.
+     */
+    public void forEachShard(Runnable action) {
+        if (!isSharded()) {
+            action.run();
+            return;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            onShard(shard, () -> readTemplate().executeWithoutResult(status -> action.run()));
+        }
+    }
+
+    /**
+     * Scatter-gather постраничного запроса: на одном шарде запрос выполняется как есть,
+     * иначе каждый шард параллельно отдаёт первые offset + size строк в порядке {@code order},
+     * а результаты сливаются и обрезаются до запрошенной страницы.
+     */
+    public <T> List<T> gather(Pageable pageable, Comparator<? super T> order, Function<Pageable, List<T>> query) {
+        if (!isSharded()) {
+            return query.apply(pageable);
+        }
+        long offset = pageable.getOffset();
+        Pageable head = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, offset + pageable.getPageSize()),
+                pageable.getSort());
+        List<T> merged = onEveryShard(() -> query.apply(head));
+        return merged.stream()
+                .sorted(order)
+                .skip(offset)
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Scatter-gather непостраничного запроса: строки со всех шардов в порядке номеров шардов.
+     */
+    public <T> List<T> gatherAll(Supplier<List<T>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return onEveryShard(query);
+    }
+
+    private <T> List<T> onEveryShard(Supplier<List<T>> query) {
+        TransactionTemplate template = readTemplate();
+        List<CompletableFuture<List<T>>> futures = IntStream.range(0, shardCount)
+                .mapToObj(shard -> CompletableFuture.supplyAsync(() ->
+                        onShard(shard, () -> template.execute(status -> query.get())), executor))
+                .collect(Collectors.toList());
+        List<T> merged = new ArrayList<>();
+        try {
+            futures.forEach(future -> merged.addAll(future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private TransactionTemplate readTemplate() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager.getObject());
+        template.setReadOnly(true);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static class ShardThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "shard-gather-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
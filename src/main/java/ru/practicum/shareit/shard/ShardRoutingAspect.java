@@ -0,0 +1,55 @@
+package ru.practicum.shareit.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Привязывает поток к шарду для методов с {@link Sharded}.
+ * Выполняется раньше транзакционного перехватчика, чтобы транзакция сразу открылась на нужном шарде.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+    private final ShardRouter shardRouter;
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(sharded)")
+    public Object route(ProceedingJoinPoint joinPoint, Sharded sharded) throws Throwable {
+        if (!shardRouter.isSharded()) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                null, signature.getMethod(), joinPoint.getArgs(), parameterNames);
+        Object key = expressions.computeIfAbsent(sharded.value(), parser::parseExpression).getValue(context);
+        if (!(key instanceof Number)) {
+            return joinPoint.proceed();
+        }
+        long id = ((Number) key).longValue();
+        int shard = sharded.by() == ShardKey.OWNER ? shardRouter.shardForOwner(id) : shardRouter.shardOfId(id);
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.bind(previous);
+        }
+    }
+}
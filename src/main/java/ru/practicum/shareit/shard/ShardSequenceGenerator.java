@@ -0,0 +1,75 @@
+package ru.practicum.shareit.shard;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+import ru.practicum.shareit.jdbc.SequenceIdAllocator;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Последовательность с оптимизацией pooled-lo, у которой блоки id хранятся отдельно для каждого шарда.
+ * Стандартный оптимизатор Hibernate держит один блок на генератор и выдал бы id одного шарда
+ * для вставки в другой. nextval выполняется на соединении сессии, то есть на текущем шарде.
+ */
+public class ShardSequenceGenerator implements IdentifierGenerator {
+    public static final String SEQUENCE_PARAM = "sequence_name";
+
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+    private String sequenceName;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        sequenceName = params.getProperty(SEQUENCE_PARAM);
+        if (sequenceName == null) {
+            throw new MappingException("Не задан параметр " + SEQUENCE_PARAM);
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Block block = blocks.computeIfAbsent(ShardContext.current(), shard -> new Block());
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                long value = nextValue(session);
+                block.next = value;
+                block.limit = value + SequenceIdAllocator.ALLOCATION_SIZE;
+            }
+            return block.next++;
+        }
+    }
+
+    private long nextValue(SharedSessionContractImplementor session) {
+        String sql = session.getJdbcServices().getDialect().getSequenceNextValString(sequenceName);
+        JdbcCoordinator coordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = coordinator.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet resultSet = coordinator.getResultSetReturn().extract(statement);
+            try {
+                resultSet.next();
+                return resultSet.getLong(1);
+            } finally {
+                coordinator.getLogicalConnection().getResourceRegistry().release(resultSet, statement);
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Не удалось получить nextval", sql);
+        } finally {
+            coordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            coordinator.afterStatementExecution();
+        }
+    }
+
+    private static class Block {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Выполняет метод сервиса на шарде, определённом по ключу.
+ * {@link #value()} — SpEL-выражение над параметрами метода, например {@code "#itemId"} или {@code "#bookingDto.itemId"}.
+ * Если выражение вернуло null, метод выполняется на домашнем шарде.
+ * Шард выбирается до начала транзакции, поэтому все запросы метода идут в одну базу.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sharded {
+    String value();
+
+    ShardKey by() default ShardKey.ENTITY_ID;
+}
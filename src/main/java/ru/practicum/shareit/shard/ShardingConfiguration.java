@@ -0,0 +1,90 @@
+package ru.practicum.shareit.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Шардирование включается списком баз в shareit.sharding.urls (через запятую, первая — домашний шард).
+ * Логин, пароль и драйвер берутся из spring.datasource.*. Без списка работает одна база spring.datasource.url.
+ */
+@Configuration
+public class ShardingConfiguration {
+    private static final String[] SHARDED_SEQUENCES = {"ITEMS_SEQ", "BOOKINGS_SEQ", "COMMENTS_SEQ"};
+
+    @Bean
+    public ShardRouter shardRouter(@Value("${shareit.sharding.urls:}") List<String> urls,
+                                   ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new ShardRouter(urls.size(), transactionManager);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "shareit.sharding", name = "urls")
+    @Slf4j
+    static class ShardDataSourceConfiguration {
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                             Environment environment,
+                                                             @Value("${shareit.sharding.urls}") List<String> urls,
+                                                             @Value("${spring.sql.init.mode:embedded}") String initMode) {
+            if (environment.containsProperty("shareit.datasource.replica.url")) {
+                throw new IllegalStateException("Шардирование вместе с репликой не поддерживается");
+            }
+            List<DataSource> shards = urls.stream()
+                    .map(url -> properties.initializeDataSourceBuilder().url(url.trim()).build())
+                    .collect(Collectors.toList());
+            for (int shard = 0; shard < shards.size(); shard++) {
+                if ("always".equals(initMode)) {
+                    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(shards.get(shard));
+                }
+                if (shard != ShardRouter.HOME_SHARD) {
+                    moveSequences(new JdbcTemplate(shards.get(shard)), shard);
+                }
+            }
+            log.info("Подключено шардов: {}", shards.size());
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        /**
+         * Соединение не должно переживать транзакцию: следующая транзакция того же запроса может идти на другой шард.
+         */
+        @Bean
+        public HibernatePropertiesCustomizer releaseShardConnectionAfterTransaction() {
+            return properties -> properties.put("hibernate.connection.handling_mode",
+                    "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        }
+
+        private static void moveSequences(JdbcTemplate jdbcTemplate, int shard) {
+            long firstId = ShardRouter.firstId(shard);
+            for (String sequence : SHARDED_SEQUENCES) {
+                Long next = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+                if (next < firstId) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + firstId);
+                }
+            }
+        }
+    }
+}
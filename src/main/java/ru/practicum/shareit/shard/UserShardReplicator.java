@@ -0,0 +1,102 @@
+package ru.practicum.shareit.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Копирует пользователей с домашнего шарда на остальные: на них ссылаются внешние ключи
+ * предметов, бронирований и комментариев. Изменения применяются после коммита на домашнем шарде,
+ * при старте выполняется полная досинхронизация. Пользователи, удалённые мимо сервиса, не вычищаются.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class UserShardReplicator implements InitializingBean {
+    private static final int SYNC_BATCH_SIZE = 500;
+    private static final String MERGE_USER = "MERGE INTO users u " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(512)))) " +
+            "AS s (user_id, user_name, email) ON u.user_id = s.user_id " +
+            "WHEN MATCHED THEN UPDATE SET user_name = s.user_name, email = s.email " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, user_name, email) VALUES (s.user_id, s.user_name, s.email)";
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!shardRouter.isSharded()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(SYNC_BATCH_SIZE);
+        shardRouter.onShard(ShardRouter.HOME_SHARD, () -> jdbcTemplate.query(
+                "SELECT user_id, user_name, email FROM users ORDER BY user_id", rs -> {
+                    batch.add(new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)});
+                    if (batch.size() >= SYNC_BATCH_SIZE) {
+                        mergeOnOtherShards(batch);
+                        batch.clear();
+                    }
+                }));
+        if (!batch.isEmpty()) {
+            mergeOnOtherShards(batch);
+        }
+        log.info("Пользователи синхронизированы на {} шардов", shardRouter.shardCount());
+    }
+
+    public void replicate(User user) {
+        replicate(List.of(user));
+    }
+
+    public void replicate(List<User> users) {
+        if (!shardRouter.isSharded() || users.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = users.stream()
+                .map(user -> new Object[]{user.getId(), user.getName(), user.getEmail()})
+                .collect(Collectors.toList());
+        afterCommit(() -> mergeOnOtherShards(rows));
+    }
+
+    public void delete(Long userId) {
+        if (!shardRouter.isSharded()) {
+            return;
+        }
+        afterCommit(() -> forEachOtherShard(() -> jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId)));
+    }
+
+    private void mergeOnOtherShards(List<Object[]> rows) {
+        forEachOtherShard(() -> jdbcTemplate.batchUpdate(MERGE_USER, rows));
+    }
+
+    private void forEachOtherShard(Runnable action) {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (shard != ShardRouter.HOME_SHARD) {
+                shardRouter.onShard(shard, action);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Дописывает span в локальный файл по одному JSON на строку из фонового потока. Очередь ограничена
+ * shareit.tracing.exporter.file.queue-size: при переполнении span отбрасывается и учитывается.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.tracing.exporter.file", name = "enabled", havingValue = "true")
+public class FileSpanExporter implements SpanExporter, DisposableBean {
+    private static final int BATCH_SIZE = 512;
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final BlockingQueue<SpanData> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Writer out;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FileSpanExporter(ObjectMapper objectMapper,
+                            @Value("${shareit.tracing.exporter.file.path:./db/traces/spans.jsonl}") Path path,
+                            @Value("${shareit.tracing.exporter.file.queue-size:100000}") int queueSize)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        this.path = path;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::drain, "span-exporter");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Запись трасс в {}", path);
+    }
+
+    @Override
+    public void export(SpanData span) {
+        if (!queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        List<SpanData> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                SpanData first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (SpanData span : batch) {
+                    out.write(objectMapper.writeValueAsString(span));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                dropped.addAndGet(batch.size());
+                log.warn("Не удалось записать {} span в {}: {}", batch.size(), path, e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        out.close();
+        if (dropped.get() > 0) {
+            log.warn("Запись трасс остановлена, отброшено span: {}", dropped.get());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Последние shareit.tracing.exporter.memory.capacity span в памяти — для тестов и разбора на месте.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.tracing.exporter.memory", name = "enabled", havingValue = "true")
+public class InMemorySpanExporter implements SpanExporter {
+    private final int capacity;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    public InMemorySpanExporter(@Value("${shareit.tracing.exporter.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void export(SpanData span) {
+        if (spans.size() == capacity) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    /**
+     * Span трассы в порядке завершения: дочерние раньше родительских.
+     */
+    public synchronized List<SpanData> getTrace(String traceId) {
+        return spans.stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .collect(Collectors.toList());
+    }
+
+    public synchronized List<SpanData> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public synchronized void clear() {
+        spans.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Открытый span. Пока он не завершён, он текущий в потоке, который его начал; {@link #end()} возвращает
+ * текущим span, который был до него, и передаёт данные экспортёрам.
+ */
+public final class Span {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Span previous;
+    private String name;
+    private String error;
+    private Map<String, String> attributes;
+    private boolean ended;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, SpanKind kind, long startEpochMicros,
+         long startNanos, Span previous) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochMicros = startEpochMicros;
+        this.startNanos = startNanos;
+        this.previous = previous;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public Span setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    public Span recordError(Throwable e) {
+        this.error = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        return this;
+    }
+
+    public void end() {
+        end(System.nanoTime());
+    }
+
+    void end(long endNanos) {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        Tracing.ended(this, previous);
+        Tracing.export(SpanData.builder()
+                .traceId(traceId)
+                .spanId(spanId)
+                .parentSpanId(parentSpanId)
+                .name(name)
+                .kind(kind)
+                .startEpochMicros(startEpochMicros)
+                .durationMicros((endNanos - startNanos) / 1000)
+                .thread(Thread.currentThread().getName())
+                .error(error)
+                .attributes(attributes == null ? Map.of() : Map.copyOf(attributes))
+                .build());
+    }
+
+    /**
+     * Значение заголовка traceparent, которое передаёт этот span как родителя.
+     */
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + "-01";
+    }
+}
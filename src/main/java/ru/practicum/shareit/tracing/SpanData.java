@@ -0,0 +1,25 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Завершённый span. Идентификаторы — шестнадцатеричные строки в формате W3C Trace Context
+ * (32 символа у трассы, 16 у span), {@code parentSpanId} у корня трассы null или id span вызывающей стороны.
+ */
+@Value
+@Builder
+public class SpanData {
+    String traceId;
+    String spanId;
+    String parentSpanId;
+    String name;
+    SpanKind kind;
+    long startEpochMicros;
+    long durationMicros;
+    String thread;
+    String error;
+    Map<String, String> attributes;
+}
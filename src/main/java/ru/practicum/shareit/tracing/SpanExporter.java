@@ -0,0 +1,9 @@
+package ru.practicum.shareit.tracing;
+
+/**
+ * Получатель завершённых span. Вызывается в потоке, который завершил span, поэтому не должен блокироваться.
+ */
+public interface SpanExporter {
+
+    void export(SpanData span);
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.tracing;
+
+public enum SpanKind {
+    SERVER,
+    INTERNAL,
+    CLIENT
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Трассировка внутри процесса. Корневой span открывает {@link TracingFilter} для выбранных запросов; дочерние span
+ * создаются только внутри открытой трассы, так что без трассы инструментированный код платит одним чтением
+ * ThreadLocal. Статический доступ нужен для мапперов, которые не являются бинами.
+ */
+public final class Tracing {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+    private static volatile List<SpanExporter> exporters = List.of();
+
+    private Tracing() {
+    }
+
+    static void setExporters(List<SpanExporter> configured) {
+        exporters = List.copyOf(configured);
+    }
+
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Начинает трассу; при корректном заголовке traceparent продолжает трассу вызывающей стороны.
+     */
+    public static Span startTrace(String name, SpanKind kind, String traceparent) {
+        String traceId = null;
+        String parentSpanId = null;
+        if (traceparent != null) {
+            Matcher matcher = TRACEPARENT.matcher(traceparent.trim());
+            if (matcher.matches()) {
+                traceId = matcher.group(1);
+                parentSpanId = matcher.group(2);
+            }
+        }
+        return start(traceId == null ? randomHex(2) : traceId, parentSpanId, name, kind, System.nanoTime());
+    }
+
+    /**
+     * Дочерний span текущего или null, если трасса не открыта.
+     */
+    public static Span startSpan(String name, SpanKind kind) {
+        Span parent = CURRENT.get();
+        return parent == null ? null : start(parent.getTraceId(), parent.getSpanId(), name, kind, System.nanoTime());
+    }
+
+    /**
+     * Записывает уже завершившуюся операцию длительностью {@code nanos} дочерним span текущего.
+     */
+    public static void recordSpan(String name, SpanKind kind, long nanos, String... attributes) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        Span span = start(parent.getTraceId(), parent.getSpanId(), name, kind, now - nanos);
+        for (int i = 0; i + 1 < attributes.length; i += 2) {
+            span.setAttribute(attributes[i], attributes[i + 1]);
+        }
+        span.end(now);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Исполнитель, задачи которого выполняются в контексте span, текущего на момент их отправки.
+     */
+    public static ExecutorService propagating(ExecutorService delegate) {
+        return new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+                delegate.execute(wrap(command));
+            }
+
+            @Override
+            public void shutdown() {
+                delegate.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return delegate.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return delegate.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return delegate.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+                return delegate.awaitTermination(timeout, unit);
+            }
+        };
+    }
+
+    /**
+     * Оборачивает реализацию интерфейса (в том числе package-private, как у мапперов MapStruct) так,
+     * что каждый вызов внутри трассы становится span "Интерфейс.метод".
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T traced(Class<T> type, T target) {
+        String prefix = type.getSimpleName() + ".";
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Span span = method.getDeclaringClass() == Object.class ? null
+                    : startSpan(prefix + method.getName(), SpanKind.INTERNAL);
+            try {
+                ReflectionUtils.makeAccessible(method);
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (span != null) {
+                    span.recordError(e.getTargetException());
+                }
+                throw e.getTargetException();
+            } finally {
+                if (span != null) {
+                    span.end();
+                }
+            }
+        });
+    }
+
+    static void ended(Span span, Span previous) {
+        if (CURRENT.get() == span) {
+            restore(previous);
+        }
+    }
+
+    static void export(SpanData span) {
+        for (SpanExporter exporter : exporters) {
+            exporter.export(span);
+        }
+    }
+
+    private static Span start(String traceId, String parentSpanId, String name, SpanKind kind, long startNanos) {
+        Instant now = Instant.now().minusNanos(System.nanoTime() - startNanos);
+        Span span = new Span(traceId, randomHex(1), parentSpanId, name, kind,
+                ChronoUnit.MICROS.between(Instant.EPOCH, now), startNanos, CURRENT.get());
+        CURRENT.set(span);
+        return span;
+    }
+
+    private static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static String randomHex(int longs) {
+        StringBuilder hex = new StringBuilder(longs * 16);
+        for (int i = 0; i < longs; i++) {
+            String part = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            hex.append("0".repeat(16 - part.length())).append(part);
+        }
+        return hex.toString();
+    }
+}
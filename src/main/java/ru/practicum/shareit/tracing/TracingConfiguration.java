@@ -0,0 +1,92 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.aop.LayerAdvisors;
+import ru.practicum.shareit.jdbc.StatementListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Span вокруг методов контроллеров, сервисов и репозиториев и по одному span на оператор SQL. Советники стоят
+ * снаружи метрик и транзакций, поэтому span сервиса включает открытие и фиксацию транзакции.
+ * Все бины {@link SpanExporter} получают завершённые span.
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class TracingConfiguration {
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 5;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor controllerTracingAdvisor() {
+        return LayerAdvisors.advisor(RestController.class, new TracingInterceptor("controller"), ORDER);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor serviceTracingAdvisor() {
+        return LayerAdvisors.advisor(Service.class, new TracingInterceptor("service"), ORDER);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor repositoryTracingAdvisor() {
+        return LayerAdvisors.advisor(Repository.class, new TracingInterceptor("repository"), ORDER);
+    }
+
+    @Bean
+    public StatementListener sqlSpanListener() {
+        return execution -> Tracing.recordSpan("SQL", SpanKind.CLIENT, execution.getNanos(),
+                "db.statement", execution.getSql(),
+                "db.rows", String.valueOf(execution.getRows()),
+                "db.batch_size", String.valueOf(execution.getBatchSize()));
+    }
+
+    /**
+     * Переносит текущий span в задачи applicationTaskExecutor.
+     */
+    @Bean
+    public TaskDecorator tracingTaskDecorator() {
+        return Tracing::wrap;
+    }
+
+    @Bean
+    public SpanExporters spanExporters(ObjectProvider<SpanExporter> exporters) {
+        return new SpanExporters(exporters);
+    }
+
+    /**
+     * Подключает экспортёры к статическому {@link Tracing} на время жизни контекста.
+     */
+    static class SpanExporters implements InitializingBean, DisposableBean {
+        private final ObjectProvider<SpanExporter> exporters;
+
+        SpanExporters(ObjectProvider<SpanExporter> exporters) {
+            this.exporters = exporters;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            List<SpanExporter> configured = exporters.orderedStream().collect(Collectors.toList());
+            Tracing.setExporters(configured);
+        }
+
+        @Override
+        public void destroy() {
+            Tracing.setExporters(List.of());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Открывает трассу для доли shareit.tracing.sample-rate запросов к API и для каждого запроса с заголовком
+ * traceparent. Span запроса называется по шаблону пути; его traceparent возвращается в ответе.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.tracing", name = "enabled", havingValue = "true")
+public class TracingFilter extends OncePerRequestFilter {
+    private static final String TRACEPARENT = "traceparent";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final double sampleRate;
+
+    public TracingFilter(@Value("${shareit.tracing.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/admin") || uri.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceparent = request.getHeader(TRACEPARENT);
+        if (traceparent == null && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Span span = Tracing.startTrace(request.getMethod() + " " + request.getRequestURI(), SpanKind.SERVER,
+                        traceparent)
+                .setAttribute("http.method", request.getMethod())
+                .setAttribute("http.target", request.getQueryString() == null ? request.getRequestURI()
+                        : request.getRequestURI() + "?" + request.getQueryString())
+                .setAttribute("user.id", request.getHeader(USER_ID_HEADER));
+        response.setHeader(TRACEPARENT, span.traceparent());
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.setName(request.getMethod() + " " + pattern)
+                        .setAttribute("http.route", pattern);
+            }
+            span.setAttribute("http.status_code", response.getStatus())
+                    .end();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import ru.practicum.shareit.aop.CallSite;
+
+/**
+ * Span "Класс.метод" вокруг вызова бина; вне трассы вызов проходит без изменений.
+ */
+class TracingInterceptor implements MethodInterceptor {
+    private final String layer;
+
+    TracingInterceptor(String layer) {
+        this.layer = layer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (Tracing.current() == null) {
+            return invocation.proceed();
+        }
+        CallSite site = CallSite.of(invocation);
+        Span span = Tracing.startSpan(site.getName(), SpanKind.INTERNAL)
+                .setAttribute("layer", layer);
+        if (site.isTransactional()) {
+            span.setAttribute("transaction.readOnly", site.isReadOnly());
+        }
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.traffic;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Файл записанного трафика: заголовок (int MAGIC, int VERSION) и записи (int длина, long начало в мкс
+ * от эпохи, long длительность в мкс, short статус, byte флаги, [long пользователь], строки метода и пути,
+ * [строка типа содержимого], int длина + тело). Строки — int длина + UTF-8. Файл только дописывается;
+ * оборванная последняя запись при чтении отбрасывается, а при открытии на запись обрезается.
+ */
+@Slf4j
+public class TrafficLog implements Closeable {
+    public static final int MAGIC = 0x53485452;
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final byte HAS_USER = 1;
+    private static final byte HAS_CONTENT_TYPE = 2;
+    private static final byte BODY_TRUNCATED = 4;
+
+    private final FileChannel channel;
+
+    private TrafficLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static TrafficLog openForAppend(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            } else {
+                long valid = scan(channel, path, record -> {
+                });
+                if (valid < channel.size()) {
+                    log.warn("Файл трафика {} обрезан до {} байт: последняя запись неполная", path, valid);
+                    channel.truncate(valid);
+                }
+            }
+            channel.position(channel.size());
+            return new TrafficLog(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Передаёт записи файла по порядку.
+     */
+    public static void read(Path path, Consumer<TrafficRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            scan(channel, path, consumer);
+        }
+    }
+
+    public void append(List<TrafficRecord> records) throws IOException {
+        for (TrafficRecord record : records) {
+            ByteBuffer buffer = encode(record);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Возвращает длину части файла, состоящей из целых записей.
+     */
+    private static long scan(FileChannel channel, Path path, Consumer<TrafficRecord> consumer) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.read(header, 0) < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("не файл трафика: " + path);
+        }
+        if (header.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("неподдерживаемая версия файла трафика " + header.getInt(Integer.BYTES) + ": " + path);
+        }
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        long position = HEADER_BYTES;
+        while (position + Integer.BYTES <= size) {
+            length.clear();
+            channel.read(length, position);
+            int recordLength = length.getInt(0);
+            if (recordLength <= 0 || position + Integer.BYTES + recordLength > size) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.allocate(recordLength);
+            channel.read(record, position + Integer.BYTES);
+            record.flip();
+            try {
+                consumer.accept(decode(record));
+            } catch (BufferUnderflowException e) {
+                break;
+            }
+            position += Integer.BYTES + recordLength;
+        }
+        return position;
+    }
+
+    private static ByteBuffer encode(TrafficRecord record) {
+        byte[] method = record.getMethod().getBytes(StandardCharsets.UTF_8);
+        byte[] uri = record.getUri().getBytes(StandardCharsets.UTF_8);
+        byte[] contentType = record.getContentType() == null ? null
+                : record.getContentType().getBytes(StandardCharsets.UTF_8);
+        byte[] body = record.getBody() == null ? new byte[0] : record.getBody();
+        byte flags = (byte) ((record.getUserId() != null ? HAS_USER : 0)
+                | (contentType != null ? HAS_CONTENT_TYPE : 0)
+                | (record.isBodyTruncated() ? BODY_TRUNCATED : 0));
+        int length = 2 * Long.BYTES + Short.BYTES + 1
+                + (record.getUserId() != null ? Long.BYTES : 0)
+                + Integer.BYTES + method.length
+                + Integer.BYTES + uri.length
+                + (contentType != null ? Integer.BYTES + contentType.length : 0)
+                + Integer.BYTES + body.length;
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+        buffer.putInt(length)
+                .putLong(record.getStartedAtMicros())
+                .putLong(record.getDurationMicros())
+                .putShort((short) record.getStatus())
+                .put(flags);
+        if (record.getUserId() != null) {
+            buffer.putLong(record.getUserId());
+        }
+        buffer.putInt(method.length).put(method)
+                .putInt(uri.length).put(uri);
+        if (contentType != null) {
+            buffer.putInt(contentType.length).put(contentType);
+        }
+        buffer.putInt(body.length).put(body);
+        return buffer.flip();
+    }
+
+    private static TrafficRecord decode(ByteBuffer buffer) {
+        TrafficRecord.TrafficRecordBuilder record = TrafficRecord.builder()
+                .startedAtMicros(buffer.getLong())
+                .durationMicros(buffer.getLong())
+                .status(buffer.getShort());
+        byte flags = buffer.get();
+        if ((flags & HAS_USER) != 0) {
+            record.userId(buffer.getLong());
+        }
+        record.method(new String(bytes(buffer), StandardCharsets.UTF_8))
+                .uri(new String(bytes(buffer), StandardCharsets.UTF_8));
+        if ((flags & HAS_CONTENT_TYPE) != 0) {
+            record.contentType(new String(bytes(buffer), StandardCharsets.UTF_8));
+        }
+        return record.body(bytes(buffer))
+                .bodyTruncated((flags & BODY_TRUNCATED) != 0)
+                .build();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
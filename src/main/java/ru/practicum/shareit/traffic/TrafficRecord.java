@@ -0,0 +1,23 @@
+package ru.practicum.shareit.traffic;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Один записанный запрос: когда пришёл, сколько обрабатывался и с каким статусом ответа, а также всё,
+ * что нужно для повтора, — метод, путь с параметрами, пользователь из X-Sharer-User-Id, тип и тело.
+ * Тело длиннее shareit.traffic.record.max-body записывается обрезанным, такой запрос не повторяется.
+ */
+@Value
+@Builder
+public class TrafficRecord {
+    long startedAtMicros;
+    long durationMicros;
+    int status;
+    String method;
+    String uri;
+    Long userId;
+    String contentType;
+    byte[] body;
+    boolean bodyTruncated;
+}
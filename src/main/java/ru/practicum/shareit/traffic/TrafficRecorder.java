@@ -0,0 +1,89 @@
+package ru.practicum.shareit.traffic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пишет записи трафика в {@link TrafficLog} из фонового потока, чтобы запросы не ждали диска.
+ * Очередь ограничена shareit.traffic.record.queue-size: при переполнении запись отбрасывается и учитывается,
+ * а не тормозит обработку запросов.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.traffic.record", name = "enabled", havingValue = "true")
+public class TrafficRecorder implements DisposableBean {
+    private static final int BATCH_SIZE = 512;
+
+    private final Path path;
+    private final BlockingQueue<TrafficRecord> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final TrafficLog trafficLog;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public TrafficRecorder(@Value("${shareit.traffic.record.file:./db/traffic/traffic.bin}") Path path,
+                           @Value("${shareit.traffic.record.queue-size:100000}") int queueSize) throws IOException {
+        this.path = path;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.trafficLog = TrafficLog.openForAppend(path);
+        this.writer = new Thread(this::drain, "traffic-recorder");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Запись трафика в {}", path);
+    }
+
+    public void record(TrafficRecord record) {
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        List<TrafficRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                TrafficRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                trafficLog.append(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                dropped.addAndGet(batch.size());
+                log.warn("Не удалось записать {} запросов в {}: {}", batch.size(), path, e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        trafficLog.force();
+        trafficLog.close();
+        if (dropped.get() > 0) {
+            log.warn("Запись трафика остановлена, отброшено запросов: {}", dropped.get());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.traffic;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Записывает запросы к API для последующего повтора: метод, путь с параметрами, X-Sharer-User-Id,
+ * тип и тело (не больше shareit.traffic.record.max-body байт), время прихода, длительность и статус.
+ * Тело копируется по мере чтения контроллером; тело, которое контроллер не дочитал, считается обрезанным.
+ * Служебные пути /admin и /actuator не записываются.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.traffic.record", name = "enabled", havingValue = "true")
+public class TrafficRecordingFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final TrafficRecorder recorder;
+    private final int maxBody;
+    private final Clock clock = Clock.systemUTC();
+
+    public TrafficRecordingFilter(TrafficRecorder recorder,
+                                  @Value("${shareit.traffic.record.max-body:65536}") int maxBody) {
+        this.recorder = recorder;
+        this.maxBody = maxBody;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/admin") || uri.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingRequestWrapper wrapper = new ContentCachingRequestWrapper(request, maxBody);
+        Instant startedAt = clock.instant();
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(wrapper, response);
+        } finally {
+            long duration = System.nanoTime() - started;
+            byte[] body = wrapper.getContentAsByteArray();
+            recorder.record(TrafficRecord.builder()
+                    .startedAtMicros(ChronoUnit.MICROS.between(Instant.EPOCH, startedAt))
+                    .durationMicros(TimeUnit.NANOSECONDS.toMicros(duration))
+                    .status(response.getStatus())
+                    .method(request.getMethod())
+                    .uri(request.getQueryString() == null ? request.getRequestURI()
+                            : request.getRequestURI() + "?" + request.getQueryString())
+                    .userId(parseUserId(request.getHeader(USER_ID_HEADER)))
+                    .contentType(request.getContentType())
+                    .body(body)
+                    .bodyTruncated(request.getContentLengthLong() > body.length
+                            || request.getContentLengthLong() < 0 && body.length >= maxBody)
+                    .build());
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
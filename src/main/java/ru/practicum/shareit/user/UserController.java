@@ -1,17 +1,30 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.ExportColumns;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportWriter;
 import ru.practicum.shareit.mappers.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
-import java.util.Collection;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.mappers.UserMapper.*;
@@ -25,17 +38,77 @@ import static ru.practicum.shareit.mappers.UserMapper.*;
 @RequiredArgsConstructor
 @Validated
 public class UserController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    @GetMapping
-    public Collection<UserDto> getAllUsers() {
+    /**
+     * Все пользователи JSON-массивом, который пишется по мере чтения того же курсора, что и /users/stream, —
+     * память не зависит от размера таблицы.
+     */
+    @GetMapping(params = {"!after", "!size"})
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
         log.info("Получен GET-апрос /users");
-        return userService.getAllUsers().stream()
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            userService.streamAllUsers(user -> writeUser(json, user));
+            json.writeEndArray();
+            json.close();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Страница пользователей по курсору: следующая запрашивается с after = значению заголовка X-Next-Cursor,
+     * на последней странице заголовок отсутствует.
+     */
+    @GetMapping
+    public List<UserDto> getUsers(@RequestParam(name = "after", required = false) @Min(0) Long after,
+                                  @RequestParam(name = "size", required = false) @Min(1) @Max(1000) Integer size,
+                                  HttpServletResponse response) {
+        log.info("Получен GET-апрос /users after = {}, size = {}", after, size);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        List<User> users = userService.getUsers(after == null ? 0 : after, pageSize);
+        if (users.size() == pageSize) {
+            response.setHeader(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        return users.stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Все пользователи в формате NDJSON, по одной строке на пользователя.
+     * Строки пишутся по мере чтения курсора, поэтому память не зависит от размера таблицы.
+     */
+    @GetMapping(path = "/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("Получен GET-апрос /users/stream");
+        StreamingResponseBody body = outputStream -> {
+            ExportWriter<UserDto> writer = new ExportWriter<>(ExportFormat.NDJSON, objectMapper, UserDto.class,
+                    ExportColumns.USER, outputStream);
+            userService.streamAllUsers(user -> writer.accept(toUserDto(user)));
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(ExportFormat.NDJSON.getMediaType())
+                .body(body);
+    }
+
+    private static void writeUser(JsonGenerator json, User user) {
+        try {
+            json.writeObject(toUserDto(user));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("{userId}")
     public User getUserById(@PathVariable @Valid Long userId) {
         log.info("Получен GET-запрос /userId {} ", userId);
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.jdbc.CursorStatementCreator;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.function.Consumer;
+
+/**
+ * Чтение пользователей через однонаправленный JDBC-курсор, минуя контекст персистентности.
+ * Должен вызываться внутри транзакции.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserJdbcRepository {
+    private static final String SELECT_ALL = "SELECT USER_ID, USER_NAME, EMAIL FROM USERS ORDER BY USER_ID";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamAll(Consumer<User> consumer) {
+        jdbcTemplate.query(new CursorStatementCreator(SELECT_ALL), (RowCallbackHandler) rs ->
+                consumer.accept(User.builder()
+                        .id(rs.getLong("USER_ID"))
+                        .name(rs.getString("USER_NAME"))
+                        .email(rs.getString("EMAIL"))
+                        .build()));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по нормализованным email пользователей.
+ * Отрицательный ответ {@link #mightContain(String)} точен — такого email в базе нет,
+ * положительный нужно подтверждать запросом к базе.
+ * Удаление не поддерживается: email удалённых пользователей остаются ложноположительными.
+ * Выключенный фильтр ({@code shareit.users.email-filter.enabled=false}) на всё отвечает «возможно есть»,
+ * и каждая проверка идёт в базу — так сравнивается выигрыш фильтра.
+ */
+@Component
+public class EmailBloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final boolean enabled;
+
+    public EmailBloomFilter(long expectedInsertions, double fpp) {
+        this(expectedInsertions, fpp, true);
+    }
+
+    @Autowired
+    public EmailBloomFilter(@Value("${shareit.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${shareit.users.email-filter.fpp:0.01}") double fpp,
+                            @Value("${shareit.users.email-filter.enabled:true}") boolean enabled) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? (int) ((bitCount + 63) / 64) : 0);
+        this.enabled = enabled;
+    }
+
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public void put(String email) {
+        if (!enabled) {
+            return;
+        }
+        long hash = hash(normalize(email));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = bits.get(index);
+            while ((word & mask) == 0 && !bits.compareAndSet(index, word, word | mask)) {
+                word = bits.get(index);
+            }
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled) {
+            return true;
+        }
+        long hash = hash(normalize(email));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
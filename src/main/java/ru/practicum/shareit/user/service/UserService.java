@@ -2,10 +2,13 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
-    Collection<User> getAllUsers();
+    List<User> getUsers(long afterId, int size);
+
+    void streamAllUsers(Consumer<User> consumer);
 
     User saveUser(User user);
 
@@ -1,35 +1,77 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.booking.service.BookingListCache;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.shard.UserShardReplicator;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJdbcRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserJdbcRepository userJdbcRepository;
+    private final EmailBloomFilter emailFilter;
+    private final UserShardReplicator shardReplicator;
+    private final BookingViewRepository bookingViewRepository;
+    private final BookingListCache bookingListCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedEmailFilter() {
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(emailFilter::put);
+        }
+        log.info("Фильтр email пользователей заполнен");
+    }
 
     @Override
     @Transactional(readOnly = true)
-    public Collection<User> getAllUsers() {
-        log.info("Получен список всех пользователей");
-        return userRepository.findAll();
+    public List<User> getUsers(long afterId, int size) {
+        log.info("Получена страница пользователей после id = {}, размер {}", afterId, size);
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
     }
 
     @Override
-    @Transactional
-    @SneakyThrows
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<User> consumer) {
+        log.info("Выгрузка всех пользователей потоком");
+        userJdbcRepository.streamAll(consumer);
+    }
+
+    /**
+     * Не транзакционный: проверка email выполняется до открытия транзакции вставки,
+     * а save() репозитория открывает свою.
+     */
+    @Override
     public User saveUser(User user) {
-        log.info("Создан пользователь, id = {} ", user);
-        return userRepository.save(user);
+        checkEmailIsFree(user.getEmail());
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Пользователь с таким email уже существует " + user.getEmail());
+        }
+        emailFilter.put(savedUser.getEmail());
+        shardReplicator.replicate(savedUser);
+        log.info("Создан пользователь, id = {} ", savedUser.getId());
+        return savedUser;
     }
 
     @Override
@@ -37,8 +79,14 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         log.info("Удалён пользователь, id = {} ", id);
         userRepository.deleteById(id);
+        shardReplicator.delete(id);
+        bookingListCache.invalidateAll();
     }
 
+    /**
+     * Изменение сбрасывается в базу сразу, чтобы нарушение уникальности email от параллельного запроса
+     * стало {@link ConflictException} здесь, а не ошибкой при фиксации транзакции.
+     */
     @Override
     @Transactional
     public User updateUser(User user) {
@@ -48,10 +96,23 @@ public class UserServiceImpl implements UserService {
             oldUser.setName(user.getName());
         }
         if (user.getEmail() != null) {
+            if (!user.getEmail().equalsIgnoreCase(oldUser.getEmail())) {
+                checkEmailIsFree(user.getEmail());
+            }
             oldUser.setEmail(user.getEmail());
         }
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(oldUser);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Пользователь с таким email уже существует " + user.getEmail());
+        }
         log.info("Данные пользователя {} обновлены ", user);
-        return userRepository.save(oldUser);
+        bookingViewRepository.updateBooker(savedUser);
+        bookingListCache.invalidateAll();
+        emailFilter.put(savedUser.getEmail());
+        shardReplicator.replicate(savedUser);
+        return savedUser;
     }
 
     @Override
@@ -62,4 +123,14 @@ public class UserServiceImpl implements UserService {
         log.info("Получен пользователь, id = {} ", id);
         return user;
     }
+
+    private void checkEmailIsFree(String email) {
+        if (email == null || !emailFilter.mightContain(email)) {
+            return;
+        }
+        if (userRepository.existsByEmailIgnoreCase(EmailBloomFilter.normalize(email))) {
+            log.debug("Пользователь с email {} уже существует", email);
+            throw new ConflictException("Пользователь с таким email уже существует " + email);
+        }
+    }
 }
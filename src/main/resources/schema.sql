@@ -1,6 +1,13 @@
+create sequence IF NOT EXISTS USERS_SEQ start with 1 increment by 50;
+create sequence IF NOT EXISTS REQUESTS_SEQ start with 1 increment by 50;
+create sequence IF NOT EXISTS ITEMS_SEQ start with 1 increment by 50;
+create sequence IF NOT EXISTS BOOKINGS_SEQ start with 1 increment by 50;
+create sequence IF NOT EXISTS COMMENTS_SEQ start with 1 increment by 50;
+create sequence IF NOT EXISTS BOOKING_EVENTS_SEQ;
+
 create table IF NOT EXISTS USERS
 (
-    USER_ID   BIGINT auto_increment,
+    USER_ID   BIGINT default nextval('USERS_SEQ'),
     USER_NAME CHARACTER VARYING(255) not null,
     EMAIL     CHARACTER VARYING(512) not null
         constraint "USERS_pk2"
@@ -11,7 +18,7 @@ create table IF NOT EXISTS USERS
 
 create table IF NOT EXISTS REQUESTS
 (
-    REQUEST_ID   BIGINT auto_increment,
+    REQUEST_ID   BIGINT default nextval('REQUESTS_SEQ'),
     DESCRIPTION  VARCHAR(1000)               not null,
     REQUESTOR_ID BIGINT                      not null,
     CREATED      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -23,7 +30,7 @@ create table IF NOT EXISTS REQUESTS
 
 create table IF NOT EXISTS ITEMS
 (
-    ITEM_ID         BIGINT auto_increment,
+    ITEM_ID         BIGINT default nextval('ITEMS_SEQ'),
     ITEM_NAME       VARCHAR(255)  not null,
     DESCRIPTION     VARCHAR(1012) not null,
     IS_AVAILABLE    BOOLEAN,
@@ -40,7 +47,7 @@ create table IF NOT EXISTS ITEMS
 
 create table IF NOT EXISTS BOOKINGS
 (
-    BOOKING_ID BIGINT auto_increment,
+    BOOKING_ID BIGINT default nextval('BOOKINGS_SEQ'),
     START_DATE TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     END_DATE   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     ITEM_ID    BIGINT                      not null,
@@ -57,7 +64,7 @@ create table IF NOT EXISTS BOOKINGS
 
 create table IF NOT EXISTS COMMENTS
 (
-    COMMENT_ID BIGINT auto_increment,
+    COMMENT_ID BIGINT default nextval('COMMENTS_SEQ'),
     TEXT       CHARACTER VARYING(1000)     not null,
     ITEM_ID    BIGINT                      not null,
     AUTHOR_ID  BIGINT                      not null,
@@ -69,4 +76,147 @@ create table IF NOT EXISTS COMMENTS
     constraint "COMMENTS_USERS_ID_fk"
         foreign key (AUTHOR_ID) references USERS (USER_ID) ON DELETE CASCADE
 );
+create table IF NOT EXISTS CHANGES
+(
+    SEQ         BIGINT                      not null,
+    ENTITY_TYPE VARCHAR(16)                 not null,
+    ENTITY_ID   BIGINT                      not null,
+    CHANGE_TYPE VARCHAR(8)                  not null,
+    CHANGED_AT  TIMESTAMP WITHOUT TIME ZONE not null,
+    constraint "CHANGES_pk"
+        primary key (SEQ)
+);
+
+create index IF NOT EXISTS CHANGES_ENTITY_IDX on CHANGES (ENTITY_TYPE, ENTITY_ID, SEQ);
+
+create table IF NOT EXISTS CHANGE_COUNTER
+(
+    COUNTER_ID INT    not null,
+    SEQ        BIGINT not null,
+    PURGED_SEQ BIGINT not null,
+    constraint "CHANGE_COUNTER_pk"
+        primary key (COUNTER_ID)
+);
+
+MERGE INTO CHANGE_COUNTER c USING (VALUES (1)) AS s (COUNTER_ID) ON c.COUNTER_ID = s.COUNTER_ID
+    WHEN NOT MATCHED THEN INSERT (COUNTER_ID, SEQ, PURGED_SEQ) VALUES (1, 0, 0);
+
+create table IF NOT EXISTS OUTBOX
+(
+    OUTBOX_ID      BIGINT                      not null,
+    AGGREGATE_TYPE VARCHAR(16)                 not null,
+    AGGREGATE_ID   BIGINT                      not null,
+    EVENT_TYPE     VARCHAR(32)                 not null,
+    PAYLOAD        TEXT                        not null,
+    CREATED_AT     TIMESTAMP WITHOUT TIME ZONE not null,
+    ATTEMPTS       INT default 0               not null,
+    constraint "OUTBOX_pk"
+        primary key (OUTBOX_ID)
+);
+
+create table IF NOT EXISTS OUTBOX_COUNTER
+(
+    COUNTER_ID INT    not null,
+    SEQ        BIGINT not null,
+    constraint "OUTBOX_COUNTER_pk"
+        primary key (COUNTER_ID)
+);
+
+MERGE INTO OUTBOX_COUNTER c USING (VALUES (1)) AS s (COUNTER_ID) ON c.COUNTER_ID = s.COUNTER_ID
+    WHEN NOT MATCHED THEN INSERT (COUNTER_ID, SEQ) VALUES (1, 0);
+
+create table IF NOT EXISTS BOOKING_EVENTS
+(
+    EVENT_ID    BIGINT default nextval('BOOKING_EVENTS_SEQ'),
+    BOOKING_ID  BIGINT                      not null,
+    ITEM_ID     BIGINT                      not null,
+    BOOKER_ID   BIGINT                      not null,
+    EVENT_TYPE  VARCHAR(8)                  not null,
+    START_DATE  TIMESTAMP WITHOUT TIME ZONE not null,
+    END_DATE    TIMESTAMP WITHOUT TIME ZONE not null,
+    OCCURRED_AT TIMESTAMP WITHOUT TIME ZONE not null,
+    constraint "BOOKING_EVENTS_pk"
+        primary key (EVENT_ID)
+);
+create index IF NOT EXISTS BOOKING_EVENTS_BOOKING_IDX on BOOKING_EVENTS (BOOKING_ID, EVENT_ID);
+create index IF NOT EXISTS BOOKING_EVENTS_ITEM_IDX on BOOKING_EVENTS (ITEM_ID, EVENT_ID);
+create table IF NOT EXISTS BOOKING_SNAPSHOTS
+(
+    BOOKING_ID    BIGINT                      not null,
+    ITEM_ID       BIGINT                      not null,
+    BOOKER_ID     BIGINT                      not null,
+    START_DATE    TIMESTAMP WITHOUT TIME ZONE not null,
+    END_DATE      TIMESTAMP WITHOUT TIME ZONE not null,
+    STATUS        VARCHAR(8)                  not null,
+    CREATED_AT    TIMESTAMP WITHOUT TIME ZONE,
+    DECIDED_AT    TIMESTAMP WITHOUT TIME ZONE,
+    LAST_EVENT_ID BIGINT                      not null,
+    constraint "BOOKING_SNAPSHOTS_pk"
+        primary key (BOOKING_ID)
+);
+create index IF NOT EXISTS BOOKING_SNAPSHOTS_ITEM_IDX on BOOKING_SNAPSHOTS (ITEM_ID);
+create table IF NOT EXISTS OWNER_BOOKINGS_VIEW
+(
+    BOOKING_ID   BIGINT                      not null,
+    START_DATE   TIMESTAMP WITHOUT TIME ZONE not null,
+    END_DATE     TIMESTAMP WITHOUT TIME ZONE not null,
+    STATUS       VARCHAR(8)                  not null,
+    ITEM_ID      BIGINT                      not null,
+    ITEM_NAME    VARCHAR(255)                not null,
+    DESCRIPTION  VARCHAR(1012)               not null,
+    IS_AVAILABLE BOOLEAN,
+    OWNER_ID     BIGINT                      not null,
+    REQUEST      BIGINT,
+    BOOKER_ID    BIGINT                      not null,
+    USER_NAME    CHARACTER VARYING(255)      not null,
+    EMAIL        CHARACTER VARYING(512)      not null,
+    constraint "OWNER_BOOKINGS_VIEW_pk"
+        primary key (BOOKING_ID),
+    constraint "OWNER_BOOKINGS_VIEW_ITEMS_ID_fk"
+        foreign key (ITEM_ID) references ITEMS (ITEM_ID) ON DELETE CASCADE,
+    constraint "OWNER_BOOKINGS_VIEW_USERS_ID_fk"
+        foreign key (BOOKER_ID) references USERS (USER_ID) ON DELETE CASCADE
+);
+create index IF NOT EXISTS OWNER_BOOKINGS_VIEW_OWNER_ID_IDX on OWNER_BOOKINGS_VIEW (OWNER_ID, START_DATE DESC, BOOKING_ID DESC);
+create index IF NOT EXISTS OWNER_BOOKINGS_VIEW_OWNER_ID_STATUS_IDX on OWNER_BOOKINGS_VIEW (OWNER_ID, STATUS, START_DATE DESC, BOOKING_ID DESC);
+INSERT INTO OWNER_BOOKINGS_VIEW (BOOKING_ID, START_DATE, END_DATE, STATUS, ITEM_ID, ITEM_NAME, DESCRIPTION,
+                    IS_AVAILABLE, OWNER_ID, REQUEST, BOOKER_ID, USER_NAME, EMAIL)
+SELECT b.BOOKING_ID, b.START_DATE, b.END_DATE, b.STATUS, i.ITEM_ID, i.ITEM_NAME, i.DESCRIPTION,
+       i.IS_AVAILABLE, i.OWNER_ID, i.REQUEST, u.USER_ID, u.USER_NAME, u.EMAIL
+FROM BOOKINGS b
+         JOIN ITEMS i ON i.ITEM_ID = b.ITEM_ID
+         JOIN USERS u ON u.USER_ID = b.BOOKER_ID
+WHERE NOT EXISTS (SELECT 1 FROM OWNER_BOOKINGS_VIEW v WHERE v.BOOKING_ID = b.BOOKING_ID);
+create table IF NOT EXISTS BOOKER_BOOKINGS_VIEW
+(
+    BOOKING_ID   BIGINT                      not null,
+    START_DATE   TIMESTAMP WITHOUT TIME ZONE not null,
+    END_DATE     TIMESTAMP WITHOUT TIME ZONE not null,
+    STATUS       VARCHAR(8)                  not null,
+    ITEM_ID      BIGINT                      not null,
+    ITEM_NAME    VARCHAR(255)                not null,
+    DESCRIPTION  VARCHAR(1012)               not null,
+    IS_AVAILABLE BOOLEAN,
+    OWNER_ID     BIGINT                      not null,
+    REQUEST      BIGINT,
+    BOOKER_ID    BIGINT                      not null,
+    USER_NAME    CHARACTER VARYING(255)      not null,
+    EMAIL        CHARACTER VARYING(512)      not null,
+    constraint "BOOKER_BOOKINGS_VIEW_pk"
+        primary key (BOOKING_ID),
+    constraint "BOOKER_BOOKINGS_VIEW_ITEMS_ID_fk"
+        foreign key (ITEM_ID) references ITEMS (ITEM_ID) ON DELETE CASCADE,
+    constraint "BOOKER_BOOKINGS_VIEW_USERS_ID_fk"
+        foreign key (BOOKER_ID) references USERS (USER_ID) ON DELETE CASCADE
+);
+create index IF NOT EXISTS BOOKER_BOOKINGS_VIEW_BOOKER_ID_IDX on BOOKER_BOOKINGS_VIEW (BOOKER_ID, START_DATE DESC, BOOKING_ID DESC);
+create index IF NOT EXISTS BOOKER_BOOKINGS_VIEW_BOOKER_ID_STATUS_IDX on BOOKER_BOOKINGS_VIEW (BOOKER_ID, STATUS, START_DATE DESC, BOOKING_ID DESC);
+INSERT INTO BOOKER_BOOKINGS_VIEW (BOOKING_ID, START_DATE, END_DATE, STATUS, ITEM_ID, ITEM_NAME, DESCRIPTION,
+                    IS_AVAILABLE, OWNER_ID, REQUEST, BOOKER_ID, USER_NAME, EMAIL)
+SELECT b.BOOKING_ID, b.START_DATE, b.END_DATE, b.STATUS, i.ITEM_ID, i.ITEM_NAME, i.DESCRIPTION,
+       i.IS_AVAILABLE, i.OWNER_ID, i.REQUEST, u.USER_ID, u.USER_NAME, u.EMAIL
+FROM BOOKINGS b
+         JOIN ITEMS i ON i.ITEM_ID = b.ITEM_ID
+         JOIN USERS u ON u.USER_ID = b.BOOKER_ID
+WHERE NOT EXISTS (SELECT 1 FROM BOOKER_BOOKINGS_VIEW v WHERE v.BOOKING_ID = b.BOOKING_ID);
 --DROP TABLE IF EXISTS users, items, bookings, requests, comments;
\ No newline at end of file
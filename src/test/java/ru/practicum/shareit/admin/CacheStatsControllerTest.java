@@ -0,0 +1,72 @@
+package ru.practicum.shareit.admin;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CacheStatsControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SneakyThrows
+    @Test
+    void cachedItemCommentsStayCurrent() {
+        User owner = userRepository.save(User.builder().name("Owner").email("cache-owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("cache-booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item.getId(), booker.getId(), Status.APPROVED.name());
+
+        itemService.postComment(booker.getId(), item.getId(), CommentDto.builder().text("Отлично").build());
+        assertEquals(1, itemService.getItemById(booker.getId(), item.getId()).getComments().size());
+
+        itemService.postComment(booker.getId(), item.getId(), CommentDto.builder().text("Снова").build());
+        ItemDto itemDto = itemService.getItemById(booker.getId(), item.getId());
+        assertEquals(2, itemDto.getComments().size());
+        assertEquals("Booker", itemDto.getComments().get(1).getAuthorName());
+        assertEquals("Отлично", itemDto.getComments().get(0).getText());
+        assertEquals("Снова", itemDto.getComments().get(1).getText());
+
+        mockMvc.perform(get("/admin/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].region", hasItem(Item.class.getName())))
+                .andExpect(jsonPath("$[*].region", hasItem(Item.class.getName() + ".comments")))
+                .andExpect(jsonPath("$[*].region", hasItem(User.class.getName())));
+    }
+}
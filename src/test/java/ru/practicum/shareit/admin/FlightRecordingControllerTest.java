@@ -0,0 +1,109 @@
+package ru.practicum.shareit.admin;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.profiling.FlightRecorderControl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-jfr",
+        "shareit.jfr.dir=target/jfr-test"
+})
+@AutoConfigureMockMvc
+public class FlightRecordingControllerTest {
+    private static final Path DIR = Path.of("target/jfr-test");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FlightRecorderControl flightRecorder;
+
+    @AfterEach
+    void tearDown() {
+        flightRecorder.close();
+    }
+
+    @SneakyThrows
+    @Test
+    void recordsRequestServiceAndRepositoryEvents() {
+        mockMvc.perform(post("/admin/jfr/start?settings=default&maxAge=10m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        mockMvc.perform(get("/bookings?state={state}", "PAST").header("X-Sharer-User-Id", 42));
+
+        MvcResult started = mockMvc.perform(post("/admin/jfr/dump"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] dump = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        try (Stream<Path> kept = Files.list(DIR)) {
+            assertTrue(kept.noneMatch(path -> path.getFileName().toString().contains("-dump-")));
+        }
+        Path file = Files.createTempFile("shareit", ".jfr");
+        Files.write(file, dump);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        RecordedEvent request = events.stream()
+                .filter(event -> event.getEventType().getName().equals("shareit.ControllerCall"))
+                .filter(event -> "GET /bookings".equals(event.getString("endpoint")))
+                .findFirst().orElseThrow();
+        assertEquals(42, request.getLong("userId"));
+        assertEquals("PAST", request.getString("state"));
+        assertEquals(404, request.getInt("status"));
+
+        RecordedEvent service = events.stream()
+                .filter(event -> event.getEventType().getName().equals("shareit.ServiceCall"))
+                .filter(event -> "BookingServiceImpl.getAllBookingsForUser".equals(event.getString("method")))
+                .findFirst().orElseThrow();
+        assertTrue(service.getBoolean("transactional"));
+        assertTrue(service.getBoolean("readOnly"));
+        assertEquals("UserNotFoundException", service.getString("exception"));
+
+        assertTrue(events.stream()
+                .filter(event -> event.getEventType().getName().equals("shareit.RepositoryCall"))
+                .anyMatch(event -> "UserRepository.existsById".equals(event.getString("method"))));
+
+        mockMvc.perform(post("/admin/jfr/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("STOPPED"));
+    }
+
+    @SneakyThrows
+    @Test
+    void rejectsInvalidStartsAndStopWithoutRecording() {
+        mockMvc.perform(post("/admin/jfr/stop"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/admin/jfr/start?settings=unknown"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/jfr/start?maxAge=soon"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/jfr/start"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/admin/jfr/start"))
+                .andExpect(status().isConflict());
+    }
+}
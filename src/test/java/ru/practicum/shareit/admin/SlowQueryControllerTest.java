@@ -0,0 +1,89 @@
+package ru.practicum.shareit.admin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-slow",
+        "shareit.sql.slow-log.enabled=true",
+        "shareit.sql.slow-log.threshold=0ms",
+        "shareit.sql.slow-log.capacity=20",
+        "shareit.sql.slow-log.explain=true"
+})
+@AutoConfigureMockMvc
+public class SlowQueryControllerTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SneakyThrows
+    @Test
+    void recordsBindsRowsCallerAndPlan() {
+        String body = "{\"name\":\"Slow\",\"email\":\"" + UUID.randomUUID() + "@slow.ru\"}";
+        String user = mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getContentAsString();
+        long userId = objectMapper.readTree(user).get("id").asLong();
+        mockMvc.perform(delete("/admin/slow-queries"));
+
+        mockMvc.perform(get("/bookings?state={state}", "WAITING").header(USER_ID_HEADER, userId))
+                .andExpect(status().isOk());
+
+        JsonNode query = awaitPlan();
+        assertTrue(query.get("sql").asText().contains("BOOKER_BOOKINGS_VIEW"));
+        assertEquals(String.valueOf(userId), query.get("binds").get(0).asText());
+        assertEquals("WAITING", query.get("binds").get(1).asText());
+        assertEquals(0, query.get("rows").asLong());
+        assertEquals("BookingServiceImpl.getBookings", query.get("caller").asText());
+        assertFalse(query.get("failed").asBoolean());
+        assertTrue(query.get("plan").asText().contains("BOOKER_BOOKINGS_VIEW"), query.get("plan").asText());
+    }
+
+    @SneakyThrows
+    @Test
+    void keepsOnlyTheNewestEntries() {
+        for (int i = 0; i < 30; i++) {
+            mockMvc.perform(get("/items/search?text={text}", "дрель" + i).header(USER_ID_HEADER, 1));
+        }
+
+        mockMvc.perform(get("/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20));
+    }
+
+    @SneakyThrows
+    private JsonNode awaitPlan() {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String response = mockMvc.perform(get("/admin/slow-queries"))
+                    .andReturn().getResponse().getContentAsString();
+            for (JsonNode query : objectMapper.readTree(response)) {
+                if (query.get("sql").asText().contains("BOOKER_BOOKINGS_VIEW") && !query.get("plan").isNull()) {
+                    return query;
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("План запроса к BOOKER_BOOKINGS_VIEW не построен");
+    }
+}
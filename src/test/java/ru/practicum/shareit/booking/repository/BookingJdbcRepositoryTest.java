@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(BookingJdbcRepository.class)
+public class BookingJdbcRepositoryTest {
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingJdbcRepository bookingJdbcRepository;
+    private User owner;
+    private User booker;
+    private Booking first;
+    private Booking second;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Ivan").email("ivan@mail.ru").build());
+        booker = userRepository.save(User.builder().name("Petr").email("petr@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Щётка для обуви")
+                .description("Стандартная щётка для обуви")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        first = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        second = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        itemRepository.flush();
+    }
+
+    @Test
+    void streamByOwnerTest() {
+        List<Booking> bookings = new ArrayList<>();
+        bookingJdbcRepository.streamByOwner(owner.getId(), bookings::add);
+
+        assertEquals(2, bookings.size());
+        assertEquals(second.getId(), bookings.get(0).getId());
+        assertEquals(first.getId(), bookings.get(1).getId());
+        assertEquals(booker.getEmail(), bookings.get(0).getBooker().getEmail());
+        assertEquals("Щётка для обуви", bookings.get(0).getItem().getName());
+        assertEquals(Status.APPROVED, bookings.get(0).getStatus());
+    }
+
+    @Test
+    void streamByBookerTest() {
+        List<Booking> bookings = new ArrayList<>();
+        bookingJdbcRepository.streamByBooker(owner.getId(), bookings::add);
+        assertEquals(0, bookings.size());
+
+        bookingJdbcRepository.streamByBooker(booker.getId(), bookings::add);
+        assertEquals(2, bookings.size());
+    }
+}
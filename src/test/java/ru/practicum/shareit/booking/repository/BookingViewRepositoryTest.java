@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(BookingViewRepository.class)
+public class BookingViewRepositoryTest {
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+    private final LocalDateTime now = LocalDateTime.now();
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.saveAndFlush(User.builder().name("Ivan").email("ivan@mail.ru").build());
+        booker = userRepository.saveAndFlush(User.builder().name("Petr").email("petr@mail.ru").build());
+        item = itemRepository.saveAndFlush(Item.builder()
+                .name("Щётка для обуви")
+                .description("Стандартная щётка для обуви")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        past = save(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        current = save(now.minusDays(1), now.plusDays(1), Status.REJECTED);
+        future = save(now.plusDays(2), now.plusDays(3), Status.WAITING);
+    }
+
+    @Test
+    void stateFiltersReadOwnerAndBookerViewsByStartDescending() {
+        PageRequest page = PageRequest.of(0, 10);
+        assertEquals(List.of(future.getId(), current.getId(), past.getId()),
+                ids(bookingViewRepository.findAll(owner.getId(), true, page)));
+        assertEquals(List.of(future.getId(), current.getId()),
+                ids(bookingViewRepository.findFuture(booker.getId(), false, now, page)));
+        assertEquals(List.of(current.getId()), ids(bookingViewRepository.findCurrent(owner.getId(), true, now, page)));
+        assertEquals(List.of(past.getId()), ids(bookingViewRepository.findPast(booker.getId(), false, now, page)));
+        assertEquals(List.of(future.getId()),
+                ids(bookingViewRepository.findByStatus(owner.getId(), true, Status.WAITING, page)));
+        assertEquals(List.of(current.getId()),
+                ids(bookingViewRepository.findAll(booker.getId(), false, PageRequest.of(1, 1))));
+        assertEquals(List.of(), bookingViewRepository.findAll(booker.getId(), true, page));
+    }
+
+    @Test
+    void writesKeepDenormalizedFieldsCurrent() {
+        bookingViewRepository.updateStatus(future.getId(), Status.APPROVED);
+        item.setName("Щётка");
+        bookingViewRepository.updateItem(item);
+        booker.setName("Пётр");
+        bookingViewRepository.updateBooker(booker);
+
+        Booking booking = bookingViewRepository.findAll(booker.getId(), false, PageRequest.of(0, 1)).get(0);
+        assertEquals(future.getId(), booking.getId());
+        assertEquals(Status.APPROVED, booking.getStatus());
+        assertEquals("Щётка", booking.getItem().getName());
+        assertEquals(owner.getId(), booking.getItem().getOwnerId());
+        assertEquals("Пётр", booking.getBooker().getName());
+        assertEquals("petr@mail.ru", booking.getBooker().getEmail());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+        bookingViewRepository.insert(booking);
+        return booking;
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
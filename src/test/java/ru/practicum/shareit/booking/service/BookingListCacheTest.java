@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.events.BookingStatusChangedEvent;
+import ru.practicum.shareit.events.EntityChangedEvent;
+import ru.practicum.shareit.events.EntityType;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingListCacheTest {
+    private static final LocalDateTime BUCKET_START = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private ItemRepository itemRepository;
+    private final MutableClock clock = new MutableClock(BUCKET_START.plusSeconds(10));
+    private final List<LocalDateTime> loads = new ArrayList<>();
+    private BookingListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookingListCache(itemRepository, clock, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void timeDependentStatesAreEvaluatedAtBucketStart() {
+        get(1L, true, "PAST");
+        clock.set(BUCKET_START.plusSeconds(50));
+        get(1L, true, "PAST");
+        assertEquals(List.of(BUCKET_START), loads);
+
+        clock.set(BUCKET_START.plusMinutes(1));
+        get(1L, true, "PAST");
+        assertEquals(List.of(BUCKET_START, BUCKET_START.plusMinutes(1)), loads);
+    }
+
+    @Test
+    void keyIncludesRoleStateAndPage() {
+        get(1L, true, "ALL");
+        get(1L, false, "ALL");
+        get(1L, true, "WAITING");
+        cache.get(1L, true, "ALL", 10, 10, this::load);
+        cache.get(1L, true, "ALL", 10, 10, this::load);
+        get(1L, false, "ALL");
+        assertEquals(4, loads.size());
+    }
+
+    @Test
+    void bookingWriteInvalidatesBookerAndOwnerOnly() {
+        when(itemRepository.findById(5L)).thenReturn(Optional.of(Item.builder().id(5L).ownerId(1L).build()));
+        get(1L, true, "ALL");
+        get(2L, false, "ALL");
+        get(3L, false, "ALL");
+
+        cache.onBookingStatusChanged(new BookingStatusChangedEvent(7L, 5L, 2L, BUCKET_START,
+                BUCKET_START.plusDays(1), Status.APPROVED));
+        get(1L, true, "ALL");
+        get(2L, false, "ALL");
+        get(3L, false, "ALL");
+        assertEquals(5, loads.size());
+    }
+
+    @Test
+    void itemUpdateInvalidatesEveryone() {
+        get(1L, true, "ALL");
+        get(2L, false, "ALL");
+        cache.onEntityChanged(EntityChangedEvent.created(EntityType.ITEM, 5L));
+        get(1L, true, "ALL");
+        cache.onEntityChanged(EntityChangedEvent.updated(EntityType.ITEM, 5L));
+        get(1L, true, "ALL");
+        get(2L, false, "ALL");
+        assertEquals(4, loads.size());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, true, "ALL", 0, 10, time -> {
+            throw new IllegalStateException();
+        }));
+        get(1L, true, "ALL");
+        assertEquals(1, loads.size());
+    }
+
+    private void get(Long userId, boolean isOwner, String state) {
+        cache.get(userId, isOwner, state, 0, 10, this::load);
+    }
+
+    private List<Booking> load(LocalDateTime time) {
+        loads.add(time);
+        return List.of(Booking.builder().id((long) loads.size()).build());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
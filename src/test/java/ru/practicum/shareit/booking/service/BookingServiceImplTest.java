@@ -6,17 +6,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.UnsupportedStateException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shard.ShardRouter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -30,6 +35,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.mappers.BookingMapper.toBooking;
 import static ru.practicum.shareit.mappers.UserMapper.toUserDto;
@@ -42,7 +50,16 @@ public class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingViewRepository bookingViewRepository;
+    @Spy
+    private BookingListCache bookingListCache = BookingListCache.disabled();
     private ModelMapper mapper = new ModelMapper();
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
     private BookingDto bookingDto;
@@ -200,7 +217,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getBookingListByOwnerId(any(), any()))
+        when(bookingViewRepository.findAll(any(), eq(true), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -215,7 +232,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllFutureBookingsByBooker(any(), any(), any()))
+        when(bookingViewRepository.findFuture(any(), eq(false), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -229,7 +246,7 @@ public class BookingServiceImplTest {
         when(userRepository.existsById(any()))
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
-        when(bookingRepository.getAllByBookerIdAndStatusOrderByStartDesc(any(), any(), any()))
+        when(bookingViewRepository.findByStatus(any(), eq(false), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
         List<Booking> expectedResult = List.of(booking);
 
@@ -243,7 +260,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllByBookerIdAndStatusOrderByStartDesc(any(), any(), any()))
+        when(bookingViewRepository.findByStatus(any(), eq(false), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -258,7 +275,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllCurrentBookingsByBooker(any(), any(), any(), any()))
+        when(bookingViewRepository.findCurrent(any(), eq(false), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -273,7 +290,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllPastBookingsByBooker(any(), any(), any()))
+        when(bookingViewRepository.findPast(any(), eq(false), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -288,7 +305,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getBookingListByOwnerId(anyLong(), any()))
+        when(bookingViewRepository.findAll(anyLong(), eq(true), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -303,7 +320,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllCurrentBookingsByOwner(any(), any(), any(), any()))
+        when(bookingViewRepository.findCurrent(any(), eq(true), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -318,7 +335,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllPastBookingsByOwner(any(), any(), any()))
+        when(bookingViewRepository.findPast(any(), eq(true), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -333,7 +350,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllFutureBookingsByOwner(anyLong(), any(), any()))
+        when(bookingViewRepository.findFuture(anyLong(), eq(true), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -348,7 +365,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+        when(bookingViewRepository.findByStatus(anyLong(), eq(true), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -363,7 +380,7 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
 
-        when(bookingRepository.getAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+        when(bookingViewRepository.findByStatus(anyLong(), eq(true), any(), any()))
                 .thenReturn(Collections.singletonList(booking));
 
         List<Booking> expectedResult = List.of(booking);
@@ -378,13 +395,46 @@ public class BookingServiceImplTest {
                 .thenReturn(true);
         Booking booking = toBooking(user, item, bookingDto);
         booking.setItem(item2);
+        booking.setStatus(Status.WAITING);
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
-        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookingRepository.updateStatusIfWaiting(3L, Status.APPROVED)).thenReturn(1);
 
         Booking booking1 = bookingService.confirmOrCancelBooking(user.getId(), 3L, true);
 
-        assertEquals(booking.getStatus(), booking1.getStatus());
+        assertEquals(Status.APPROVED, booking1.getStatus());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmOrCancelDecidedBookingTest() {
+        when(userRepository.existsById(any()))
+                .thenReturn(true);
+        Booking booking = toBooking(user, item, bookingDto);
+        booking.setItem(item2);
+        booking.setStatus(Status.REJECTED);
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        assertThrows(UnsupportedStateException.class,
+                () -> bookingService.confirmOrCancelBooking(user.getId(), 3L, true));
+        verify(bookingRepository, never()).updateStatusIfWaiting(anyLong(), any());
+    }
+
+    @Test
+    void confirmOrCancelBookingDecidedConcurrentlyTest() {
+        when(userRepository.existsById(any()))
+                .thenReturn(true);
+        Booking booking = toBooking(user, item, bookingDto);
+        booking.setItem(item2);
+        booking.setStatus(Status.WAITING);
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(3L, Status.REJECTED)).thenReturn(0);
+
+        assertThrows(UnsupportedStateException.class,
+                () -> bookingService.confirmOrCancelBooking(user.getId(), 3L, false));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -4,16 +4,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.ItemUnavailableException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shard.ShardRouter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -34,9 +38,17 @@ public class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private BookingViewRepository bookingViewRepository;
+    @Spy
+    private BookingListCache bookingListCache = BookingListCache.disabled();
+    @Mock
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Test
     void saveBookingTest() {
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "shareit.import.batch-size=2")
+public class BulkImportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+
+    @SneakyThrows
+    @Test
+    void importUsersReportsRowErrors() {
+        userRepository.save(User.builder().name("Exists").email("bulk-exists@mail.ru").build());
+        String body = "{\"name\":\"Bulk1\",\"email\":\"bulk1@mail.ru\"}\n" +
+                "{\"name\":\"Bulk2\",\"email\":\"bulk2@mail.ru\"}\n" +
+                "\n" +
+                "{\"name\":\"Bulk3\",\"email\":\"bulk1@mail.ru\"}\n" +
+                "{\"name\":\"\",\"email\":\"bulk4@mail.ru\"}\n" +
+                "{\"name\":\"Bulk5\",\"email\":\"bulk-exists@mail.ru\"}\n" +
+                "not json\n" +
+                "{\"name\":\"Bulk7\",\"email\":\"bulk7@mail.ru\"}\n";
+
+        mockMvc.perform(post("/import/users")
+                        .contentType("application/x-ndjson")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(3)))
+                .andExpect(jsonPath("$.failed", is(4)))
+                .andExpect(jsonPath("$.errors[0].line", is(5)))
+                .andExpect(jsonPath("$.errors[1].line", is(4)))
+                .andExpect(jsonPath("$.errors[2].line", is(6)))
+                .andExpect(jsonPath("$.errors[3].line", is(7)));
+
+        assertTrue(userRepository.existsByEmailIgnoreCase("bulk7@mail.ru"));
+    }
+
+    @SneakyThrows
+    @Test
+    void importUsersDetectsExistingEmailIgnoringCase() {
+        userService.saveUser(User.builder().name("Mixed").email("Bulk-Mixed@Mail.ru").build());
+        String body = "{\"name\":\"Lower\",\"email\":\"bulk-mixed@mail.ru\"}\n" +
+                "{\"name\":\"Upper\",\"email\":\"BULK-UPPER@MAIL.RU\"}\n" +
+                "{\"name\":\"Upper2\",\"email\":\"bulk-upper@mail.ru\"}\n";
+
+        mockMvc.perform(post("/import/users")
+                        .contentType("application/x-ndjson")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.errors[0].line", is(1)))
+                .andExpect(jsonPath("$.errors[1].line", is(3)));
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsAssignsHeaderOwner() {
+        User owner = userRepository.save(User.builder().name("Owner").email("bulk-owner@mail.ru").build());
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":false,\"ownerId\":" + owner.getId() + "}\n" +
+                "{\"name\":\"Отвёртка\",\"description\":\"Крестовая\"}\n";
+
+        mockMvc.perform(post("/import/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType("application/x-ndjson")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)));
+
+        assertEquals(2, itemRepository.findAllByOwnerId(owner.getId(), null).size());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsRejectsForeignOwner() {
+        User owner = userRepository.save(User.builder().name("Owner").email("bulk-importer@mail.ru").build());
+        User victim = userRepository.save(User.builder().name("Victim").email("bulk-victim@mail.ru").build());
+        String body = "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true,\"ownerId\":" + victim.getId() + "}\n" +
+                "{\"name\":\"Молоток\",\"description\":\"Большой\",\"available\":true}\n";
+
+        mockMvc.perform(post("/import/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType("application/x-ndjson")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(1)));
+
+        assertTrue(itemRepository.findAllByOwnerId(victim.getId(), null).isEmpty());
+        assertEquals(1, itemRepository.findAllByOwnerId(owner.getId(), null).size());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsRequiresOwnerHeader() {
+        mockMvc.perform(post("/import/items")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"
+                                .getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.changes;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.changes.dto.ChangeDto;
+import ru.practicum.shareit.changes.dto.ChangePageDto;
+import ru.practicum.shareit.events.ChangeType;
+import ru.practicum.shareit.events.EntityType;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.changes.head-ttl=0ms")
+@AutoConfigureMockMvc
+public class ChangeControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void changesArePagedInSequenceOrder() {
+        long since = jdbcTemplate.queryForObject("SELECT SEQ FROM CHANGE_COUNTER", Long.class);
+        User owner = userRepository.save(User.builder().name("Owner").email("changes-owner@mail.ru").build());
+        Item item = itemService.saveItem(ItemDto.builder()
+                .name("Пила")
+                .description("Ручная пила")
+                .available(true)
+                .build(), owner.getId());
+        itemService.updateItem(ItemDto.builder().id(item.getId()).name("Лобзик").build(), owner.getId());
+        itemService.deleteItemById(owner.getId(), item.getId());
+
+        ChangePageDto first = changeFeedService.getChanges(since, 2);
+        assertEquals(2, first.getChanges().size());
+        assertTrue(first.isHasMore());
+        ChangePageDto second = changeFeedService.getChanges(first.getNext(), 2);
+        assertEquals(1, second.getChanges().size());
+        assertFalse(second.isHasMore());
+        assertEquals(second.getHead(), second.getNext());
+
+        List<ChangeDto> changes = List.of(first.getChanges().get(0), first.getChanges().get(1),
+                second.getChanges().get(0));
+        assertEquals(List.of(since + 1, since + 2, since + 3),
+                changes.stream().map(ChangeDto::getSeq).collect(Collectors.toList()));
+        assertEquals(List.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED),
+                changes.stream().map(ChangeDto::getChangeType).collect(Collectors.toList()));
+        assertTrue(changes.stream().allMatch(change -> change.getEntityType() == EntityType.ITEM
+                && change.getEntityId().equals(item.getId())));
+
+        assertTrue(changeFeedService.getChanges(second.getNext(), 100).getChanges().isEmpty());
+    }
+
+    @Test
+    void compactKeepsLatestChangePerEntity() {
+        User owner = userRepository.save(User.builder().name("Owner").email("compact-owner@mail.ru").build());
+        Item item = itemService.saveItem(ItemDto.builder()
+                .name("Молоток")
+                .description("Слесарный молоток")
+                .available(true)
+                .build(), owner.getId());
+        itemService.updateItem(ItemDto.builder().id(item.getId()).description("Кровельный").build(), owner.getId());
+
+        changeFeedService.compact();
+
+        List<String> types = jdbcTemplate.queryForList("SELECT CHANGE_TYPE FROM CHANGES " +
+                "WHERE ENTITY_TYPE = 'ITEM' AND ENTITY_ID = ?", String.class, item.getId());
+        assertEquals(List.of(ChangeType.UPDATED.name()), types);
+    }
+
+    @SneakyThrows
+    @Test
+    void expiredChangesAnswerGone() {
+        User owner = userRepository.save(User.builder().name("Owner").email("expired-owner@mail.ru").build());
+        itemService.saveItem(ItemDto.builder()
+                .name("Стремянка")
+                .description("Алюминиевая стремянка")
+                .available(true)
+                .build(), owner.getId());
+        jdbcTemplate.update("UPDATE CHANGES SET CHANGED_AT = DATEADD('DAY', -30, CHANGED_AT)");
+
+        changeFeedService.compact();
+
+        mockMvc.perform(get("/changes").param("since", "0"))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
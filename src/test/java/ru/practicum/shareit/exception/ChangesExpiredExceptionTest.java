@@ -0,0 +1,27 @@
+package ru.practicum.shareit.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.exceptions.ChangesExpiredException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class ChangesExpiredExceptionTest {
+    @Test
+    public void constructorTest() {
+        String expectedMessage = "Gone";
+        ChangesExpiredException exception = new ChangesExpiredException(HttpStatus.GONE, expectedMessage);
+        assertEquals(HttpStatus.GONE, exception.getStatus());
+    }
+
+    @Test
+    public void constructorWithCustomStatusAndMessageTest() {
+        String expectedMessage = "Custom message";
+        HttpStatus expectedStatus = HttpStatus.BAD_REQUEST;
+        ChangesExpiredException exception = new ChangesExpiredException(expectedStatus, expectedMessage);
+        assertEquals(expectedStatus, exception.getStatus());
+
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.export.service.ExportService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ExportControllerTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private ExportService exportService;
+    @MockBean
+    private UserService userService;
+    private ItemDto itemDto;
+    private BookingDto bookingDto;
+
+    @BeforeEach
+    void setUp() {
+        itemDto = ItemDto.builder()
+                .id(1L)
+                .name("Щётка для обуви")
+                .description("Стандартная, \"мягкая\" щётка")
+                .available(true)
+                .build();
+        bookingDto = BookingDto.builder()
+                .id(2L)
+                .start(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .end(LocalDateTime.of(2030, 1, 2, 10, 0))
+                .status(Status.APPROVED)
+                .item(itemDto)
+                .booker(UserDto.builder().id(3L).name("Petr").email("petr@mail.ru").build())
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    void exportItemsAsNdjson() {
+        doAnswer(invocation -> {
+            Consumer<ItemDto> consumer = invocation.getArgument(1);
+            consumer.accept(itemDto);
+            consumer.accept(itemDto);
+            return null;
+        }).when(exportService).exportItems(eq(1L), any());
+
+        String body = readBody(mockMvc.perform(get("/export/items").header(USER_ID_HEADER, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn());
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(itemDto.getDescription(), objectMapper.readValue(lines[0], ItemDto.class).getDescription());
+    }
+
+    @SneakyThrows
+    @Test
+    void exportOwnerBookingsAsCsv() {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(2);
+            consumer.accept(bookingDto);
+            return null;
+        }).when(exportService).exportBookings(eq(1L), eq(true), any());
+
+        String body = readBody(mockMvc.perform(get("/export/bookings/owner")
+                        .header(USER_ID_HEADER, 1)
+                        .param("format", "csv"))
+                .andReturn());
+
+        assertEquals("id,start,end,status,itemId,itemName,bookerId,bookerName\n" +
+                "2,2030-01-01T10:00,2030-01-02T10:00,APPROVED,1,Щётка для обуви,3,Petr\n", body);
+    }
+
+    @SneakyThrows
+    @Test
+    void exportUsersGzipped() {
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(User.builder().id(1L).name("Ivan").email("ivan@mail.ru").build());
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/export/users").param("format", "CSV").param("gzip", "true"))
+                .andReturn();
+        byte[] compressed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals("id,name,email\n1,Ivan,ivan@mail.ru\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @SneakyThrows
+    @Test
+    void exportWithUnknownFormat() {
+        mockMvc.perform(get("/export/items").header(USER_ID_HEADER, 1).param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void exportForUnknownUser() {
+        doThrow(new UserNotFoundException("Пользователь не найден 99"))
+                .when(exportService).checkUserExists(99L);
+
+        mockMvc.perform(get("/export/items").header(USER_ID_HEADER, 99))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    private String readBody(MvcResult result) {
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.history;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.UnsupportedStateException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookingHistoryTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingHistoryService bookingHistoryService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SneakyThrows
+    @Test
+    void historyRecordsTransitionsAndRebuildsProjection() {
+        User owner = userRepository.save(User.builder().name("Owner").email("history-owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("history-booker@mail.ru").build());
+        User stranger = userRepository.save(User.builder().name("Stranger").email("history-x@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Байдарка")
+                .description("Двухместная байдарка")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        BookingDto approved = book(booker, item, 1);
+        bookingService.confirmOrCancelBooking(owner.getId(), approved.getId(), true);
+        BookingDto stale = book(booker, item, 3);
+        jdbcTemplate.update("UPDATE BOOKINGS SET END_DATE = ? WHERE BOOKING_ID = ?",
+                LocalDateTime.now().minusMinutes(1), stale.getId());
+
+        assertTrue(bookingHistoryService.expireStale() >= 1);
+
+        mockMvc.perform(get("/bookings/{bookingId}/history", approved.getId())
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(Status.APPROVED.name())))
+                .andExpect(jsonPath("$.decidedAt", notNullValue()))
+                .andExpect(jsonPath("$.events[0].type", is(BookingEventType.CREATED.name())))
+                .andExpect(jsonPath("$.events[1].type", is(BookingEventType.APPROVED.name())));
+        mockMvc.perform(get("/bookings/{bookingId}/history", stale.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(Status.EXPIRED.name())));
+        mockMvc.perform(get("/bookings/{bookingId}/history", approved.getId())
+                        .header("X-Sharer-User-Id", stranger.getId()))
+                .andExpect(status().isNotFound());
+        assertThrows(UnsupportedStateException.class,
+                () -> bookingService.confirmOrCancelBooking(owner.getId(), stale.getId(), true));
+        assertEquals(Status.EXPIRED.name(), statusOf(stale.getId()));
+
+        bookingHistoryService.snapshot();
+        jdbcTemplate.update("UPDATE BOOKINGS SET STATUS = ? WHERE BOOKING_ID IN (?, ?)",
+                Status.WAITING.name(), approved.getId(), stale.getId());
+        long approvedChange = lastChangeOf(approved.getId());
+        long staleChange = lastChangeOf(stale.getId());
+
+        mockMvc.perform(post("/admin/bookings/projection"))
+                .andExpect(status().isOk());
+
+        assertEquals(Status.APPROVED.name(), statusOf(approved.getId()));
+        assertEquals(Status.EXPIRED.name(), statusOf(stale.getId()));
+        assertTrue(lastChangeOf(approved.getId()) > approvedChange);
+        assertTrue(lastChangeOf(stale.getId()) > staleChange);
+    }
+
+    @Test
+    void snapshotFoldsEventsCommittedAfterLaterOnes() {
+        User owner = userRepository.save(User.builder().name("Owner").email("snapshot-owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("snapshot-booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Палатка")
+                .description("Трёхместная палатка")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        BookingDto late = book(booker, item, 1);
+        BookingDto early = book(booker, item, 3);
+        // номер выдан раньше, а событие с ним зафиксируется позже подтверждения early
+        long lateEventId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR BOOKING_EVENTS_SEQ", Long.class);
+        bookingService.confirmOrCancelBooking(owner.getId(), early.getId(), true);
+        bookingHistoryService.snapshot();
+
+        jdbcTemplate.update("INSERT INTO BOOKING_EVENTS (EVENT_ID, BOOKING_ID, ITEM_ID, BOOKER_ID, EVENT_TYPE, " +
+                        "START_DATE, END_DATE, OCCURRED_AT) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", lateEventId,
+                late.getId(), item.getId(), booker.getId(), BookingEventType.REJECTED.name(), late.getStart(),
+                late.getEnd(), LocalDateTime.now());
+        bookingHistoryService.snapshot();
+
+        assertEquals(Status.REJECTED.name(), jdbcTemplate.queryForObject(
+                "SELECT STATUS FROM BOOKING_SNAPSHOTS WHERE BOOKING_ID = ?", String.class, late.getId()));
+        bookingHistoryService.rebuildProjection();
+        assertEquals(Status.REJECTED.name(), statusOf(late.getId()));
+        assertEquals(Status.APPROVED.name(), statusOf(early.getId()));
+    }
+
+    private BookingDto book(User booker, Item item, int days) {
+        return bookingService.saveBooking(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(days))
+                .end(LocalDateTime.now().plusDays(days + 1))
+                .build());
+    }
+
+    private long lastChangeOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(SEQ), 0) FROM CHANGES WHERE ENTITY_TYPE = 'BOOKING' " +
+                "AND ENTITY_ID = ?", Long.class, bookingId);
+    }
+
+    private String statusOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT STATUS FROM BOOKINGS WHERE BOOKING_ID = ?", String.class,
+                bookingId);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.history;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BookingStateTest {
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void replaysLifecycleFromEvents() {
+        BookingState state = BookingState.replay(null, List.of(
+                event(1L, BookingEventType.CREATED, now),
+                event(2L, BookingEventType.APPROVED, now.plusHours(1))));
+
+        assertEquals(Status.APPROVED, state.getStatus());
+        assertEquals(now, state.getCreatedAt());
+        assertEquals(now.plusHours(1), state.getDecidedAt());
+        assertEquals(2L, state.getLastEventId());
+    }
+
+    @Test
+    void snapshotSkipsEventsItAlreadyContains() {
+        BookingState snapshot = BookingState.replay(null, List.of(event(5L, BookingEventType.CREATED, now)));
+
+        BookingState state = BookingState.replay(snapshot, List.of(
+                event(5L, BookingEventType.CREATED, now.plusDays(1)),
+                event(7L, BookingEventType.EXPIRED, now.plusDays(2))));
+
+        assertEquals(Status.EXPIRED, state.getStatus());
+        assertEquals(now, state.getCreatedAt());
+        assertEquals(now.plusDays(2), state.getDecidedAt());
+        assertEquals(7L, state.getLastEventId());
+    }
+
+    @Test
+    void bookingWithoutCreatedEventHasNoCreationTime() {
+        BookingState state = BookingState.replay(null, List.of(event(3L, BookingEventType.REJECTED, now)));
+
+        assertEquals(Status.REJECTED, state.getStatus());
+        assertNull(state.getCreatedAt());
+        assertNull(BookingEventType.of(Status.CANCELED));
+    }
+
+    private BookingEvent event(Long eventId, BookingEventType type, LocalDateTime occurredAt) {
+        return BookingEvent.builder()
+                .eventId(eventId)
+                .bookingId(1L)
+                .itemId(2L)
+                .bookerId(3L)
+                .type(type)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
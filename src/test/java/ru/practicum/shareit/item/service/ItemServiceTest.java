@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
@@ -20,6 +23,8 @@ import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.search.ItemSearchIndex;
+import ru.practicum.shareit.shard.ShardRouter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -46,6 +51,17 @@ public class ItemServiceTest {
     private CommentRepository commentRepository;
 
     private ModelMapper mapper = new ModelMapper();
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Mock
+    private ItemSearchIndex searchIndex;
+    @Mock
+    private BookingViewRepository bookingViewRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemServiceImpl itemService;
     private User user;
@@ -208,10 +224,10 @@ public class ItemServiceTest {
 
         when(commentRepository.save(any()))
                 .thenReturn(comment);
-        CommentDto commentDto = mapper.map(comment, CommentDto.class);
+        CommentDto commentDto = CommentDto.builder().text(comment.getText()).build();
         CommentDto commentDto1 = itemService.postComment(1L, 1L, commentDto);
 
-        assertEquals(commentDto1, commentDto);
+        assertEquals(CommentDto.builder().text(comment.getText()).authorName(user.getName()).build(), commentDto1);
     }
 
     @Test
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Тест падает, если за время выполнения тестового метода (без {@code @BeforeEach}) поток теста
+ * обратился к базе больше {@link #value()} раз. Запросы MockMvc выполняются в том же потоке и учитываются.
+ * На классе задаёт бюджет для всех его тестов; аннотация на методе его переопределяет.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface MaxQueries {
+
+    int value();
+}
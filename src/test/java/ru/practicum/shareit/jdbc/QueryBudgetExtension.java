@@ -0,0 +1,41 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Открывает {@link QueryCounter.Scope} на время тестового метода и сверяет число обращений с {@link MaxQueries}.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), QueryCounter.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter.Scope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), QueryCounter.Scope.class);
+        scope.close();
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxQueries.class))
+                .map(MaxQueries::value)
+                .orElseThrow();
+        if (scope.getStatements() > budget && context.getExecutionException().isEmpty()) {
+            String statements = scope.getExecutions().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .map(execution -> execution.getValue() + " × " + execution.getKey())
+                    .collect(Collectors.joining("\n"));
+            throw new AssertionFailedError("Обращений к базе " + scope.getStatements() + ", бюджет " + budget
+                    + ":\n" + statements);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-queries")
+@AutoConfigureMockMvc
+public class QueryBudgetTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long ownerId;
+    private long requesterId;
+    private long requestId;
+    private long itemId;
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ownerId = create(post("/users"), "{\"name\":\"Owner\",\"email\":\"" + UUID.randomUUID() + "@q.ru\"}");
+        requesterId = create(post("/users"), "{\"name\":\"Requester\",\"email\":\"" + UUID.randomUUID() + "@q.ru\"}");
+        requestId = create(post("/requests").header(USER_ID_HEADER, requesterId), "{\"description\":\"Нужна дрель\"}");
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(create(post("/items").header(USER_ID_HEADER, ownerId), "{\"name\":\"Дрель " + i
+                    + "\",\"description\":\"Ударная\",\"available\":true,\"requestId\":" + requestId + "}"));
+        }
+        itemId = itemIds.get(2);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            long bookerId = create(post("/users"), "{\"name\":\"Booker " + i + "\",\"email\":\""
+                    + UUID.randomUUID() + "@q.ru\"}");
+            bookerIds.add(bookerId);
+            for (Long bookedItem : itemIds) {
+                LocalDateTime from = start.plusDays(3L * i + itemIds.indexOf(bookedItem));
+                long bookingId = create(post("/bookings").header(USER_ID_HEADER, bookerId), "{\"itemId\":"
+                        + bookedItem + ",\"start\":\"" + from + "\",\"end\":\"" + from.plusHours(2) + "\"}");
+                approve(bookingId);
+            }
+        }
+        // Отзыв оставляют только после начала бронирования: бронирования предмета сдвигаются в прошлое
+        for (String table : List.of("BOOKINGS", "OWNER_BOOKINGS_VIEW", "BOOKER_BOOKINGS_VIEW")) {
+            jdbcTemplate.update("UPDATE " + table + " SET START_DATE = DATEADD('DAY', -30, START_DATE), "
+                    + "END_DATE = DATEADD('DAY', -30, END_DATE) WHERE ITEM_ID = ?", itemId);
+        }
+        for (Long bookerId : bookerIds) {
+            create(post("/items/{itemId}/comment", itemId).header(USER_ID_HEADER, bookerId),
+                    "{\"text\":\"Сверлит отлично\"}");
+        }
+        // Кэш второго уровня прогрет записями выше и скрыл бы запросы на каждого автора и арендатора
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @SneakyThrows
+    @Test
+    @MaxQueries(3)
+    void ownRequestsLoadItemsInOneQuery() {
+        mockMvc.perform(get("/requests").header(USER_ID_HEADER, requesterId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items.length()").value(3));
+    }
+
+    @SneakyThrows
+    @Test
+    @MaxQueries(3)
+    void requestByIdLoadsItemsInOneQuery() {
+        mockMvc.perform(get("/requests/{requestId}", requestId).header(USER_ID_HEADER, requesterId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3));
+    }
+
+    @SneakyThrows
+    @Test
+    @MaxQueries(4)
+    void itemWithBookingsAndComments() {
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(3))
+                .andExpect(jsonPath("$.lastBooking.bookerId").value(bookerIds.get(2)));
+    }
+
+    @SneakyThrows
+    @Test
+    @MaxQueries(2)
+    void bookingListReadsOneViewPage() {
+        mockMvc.perform(get("/bookings?state={state}", "ALL").header(USER_ID_HEADER, bookerIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @SneakyThrows
+    @Test
+    @MaxQueries(2)
+    void ownerBookingListOfSeveralBookersReadsOneViewPage() {
+        mockMvc.perform(get("/bookings/owner?state={state}", "ALL").header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(9))
+                .andExpect(jsonPath("$[*].booker.id").value(containsInAnyOrder(
+                        bookerIds.get(0).intValue(), bookerIds.get(0).intValue(), bookerIds.get(0).intValue(),
+                        bookerIds.get(1).intValue(), bookerIds.get(1).intValue(), bookerIds.get(1).intValue(),
+                        bookerIds.get(2).intValue(), bookerIds.get(2).intValue(), bookerIds.get(2).intValue())));
+    }
+
+    @SneakyThrows
+    @Test
+    void nestedScopesCountTheSameStatements() {
+        try (QueryCounter.Scope outer = QueryCounter.open()) {
+            try (QueryCounter.Scope inner = QueryCounter.open()) {
+                mockMvc.perform(get("/requests/{requestId}", requestId).header(USER_ID_HEADER, requesterId));
+                assertEquals(3, inner.getStatements());
+            }
+            // Второй раз пользователь читается из кэша второго уровня
+            mockMvc.perform(get("/requests/{requestId}", requestId).header(USER_ID_HEADER, requesterId));
+            assertEquals(5, outer.getStatements());
+            assertEquals(List.of(1, 2, 2), List.copyOf(outer.getExecutions().values()));
+        }
+    }
+
+    @SneakyThrows
+    private void approve(long bookingId) {
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId).param("approved", "true")
+                        .header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk());
+    }
+
+    @SneakyThrows
+    private long create(MockHttpServletRequestBuilder request, String body) {
+        String response = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
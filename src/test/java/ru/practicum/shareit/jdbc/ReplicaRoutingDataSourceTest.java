@@ -0,0 +1,69 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-primary",
+        "shareit.datasource.replica.url=jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test",
+        "shareit.datasource.replica.max-lag=1h"
+})
+public class ReplicaRoutingDataSourceTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ReplicationLagGuard lagGuard;
+
+    @AfterEach
+    void tearDown() {
+        lagGuard.clear();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        lagGuard.bindUser(1001L);
+        insertUser("replica-reader@mail.ru");
+
+        lagGuard.bindUser(1002L);
+        assertEquals(0, countUsers("replica-reader@mail.ru", true));
+        assertEquals(1, countUsers("replica-reader@mail.ru", false));
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() {
+        lagGuard.bindUser(2001L);
+        insertUser("replica-writer@mail.ru");
+
+        assertEquals(1, countUsers("replica-writer@mail.ru", true));
+    }
+
+    @Test
+    void readsOutsideTransactionGoToPrimary() {
+        insertUser("replica-plain@mail.ru");
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, "replica-plain@mail.ru"));
+    }
+
+    private void insertUser(String email) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO users (user_name, email) VALUES (?, ?)", "Replica", email));
+    }
+
+    private int countUsers(String email, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@Import(SequenceIdAllocator.class)
+public class SequenceIdAllocatorTest {
+    @Autowired
+    private SequenceIdAllocator idAllocator;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void allocatedIdsDoNotOverlapWithEntityIdsTest() {
+        Set<Long> allocated = new HashSet<>();
+        for (int i = 0; i < SequenceIdAllocator.ALLOCATION_SIZE + 10; i++) {
+            allocated.add(idAllocator.next("USERS_SEQ"));
+        }
+        assertEquals(SequenceIdAllocator.ALLOCATION_SIZE + 10, allocated.size());
+
+        for (int i = 0; i < 60; i++) {
+            User user = userRepository.save(User.builder()
+                    .name("User" + i)
+                    .email("seq" + i + "@mail.ru")
+                    .build());
+            assertFalse(allocated.contains(user.getId()));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.bulk.BulkImportControllerTest;
+
+@SpringBootTest(properties = {
+        "shareit.memory.dir=${java.io.tmpdir}/shareit-memory-${random.uuid}",
+        "shareit.memory.fsync=false"})
+@ActiveProfiles({"test", "memory"})
+public class MemoryBulkImportControllerTest extends BulkImportControllerTest {
+}
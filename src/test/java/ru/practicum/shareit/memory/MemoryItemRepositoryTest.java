@@ -0,0 +1,17 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.repository.ItemRepositoryTest;
+
+@DataJpaTest(properties = {
+        "shareit.memory.dir=${java.io.tmpdir}/shareit-memory-${random.uuid}",
+        "shareit.memory.fsync=false"})
+@ActiveProfiles({"test", "memory"})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({MemoryStore.class, MemoryUserRepository.class, MemoryItemRepository.class})
+public class MemoryItemRepositoryTest extends ItemRepositoryTest {
+}
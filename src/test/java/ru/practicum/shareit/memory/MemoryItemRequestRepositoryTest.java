@@ -0,0 +1,15 @@
+package ru.practicum.shareit.memory;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.request.repository.ItemRequestRepositoryTest;
+
+@SpringBootTest(properties = {
+        "shareit.memory.dir=${java.io.tmpdir}/shareit-memory-${random.uuid}",
+        "shareit.memory.fsync=false"})
+@ActiveProfiles({"test", "memory"})
+// Сценарий сохраняет пользователей с явными id 1 и 2, поэтому ему нужно пустое хранилище
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class MemoryItemRequestRepositoryTest extends ItemRequestRepositoryTest {
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.memory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.memory.dir=${java.io.tmpdir}/shareit-memory-${random.uuid}",
+        "shareit.memory.fsync=false"})
+@ActiveProfiles({"test", "memory"})
+public class MemoryProfileTest {
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Test
+    void servicesWorkOnMemoryStore() {
+        assertTrue(itemRepository instanceof MemoryItemRepository);
+        User owner = userService.saveUser(User.builder().name("Owner").email("memory-owner@mail.ru").build());
+        User booker = userService.saveUser(User.builder().name("Booker").email("memory-booker@mail.ru").build());
+        Item item = itemService.saveItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Дрель из памяти")
+                .available(true)
+                .build(), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.saveBooking(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build());
+        assertEquals(Status.APPROVED,
+                bookingService.confirmOrCancelBooking(owner.getId(), booking.getId(), true).getStatus());
+
+        List<Booking> ownerBookings = bookingService.getAllBookingsForUser(owner.getId(), "FUTURE", true, 0, 10);
+        assertEquals(1, ownerBookings.size());
+        assertEquals("Booker", ownerBookings.get(0).getBooker().getName());
+        assertEquals(1, itemService.searchItem("ДРЕЛЬ", 0, 10).size());
+        assertEquals(booking.getId(), itemService.getItemById(owner.getId(), item.getId()).getNextBooking().getId());
+
+        userService.deleteUser(booker.getId());
+        assertEquals(0, bookingService.getAllBookingsForUser(owner.getId(), "ALL", true, 0, 10).size());
+    }
+
+    @Test
+    void updatesAndDeletesThroughServices() {
+        User owner = userService.saveUser(User.builder().name("Owner").email("memory-update@mail.ru").build());
+        userService.updateUser(User.builder().id(owner.getId()).name("Renamed").email("memory-renamed@mail.ru").build());
+        assertEquals("Renamed", userService.getUserById(owner.getId()).getName());
+        assertEquals("memory-renamed@mail.ru", userService.getUserById(owner.getId()).getEmail());
+
+        Item item = itemService.saveItem(ItemDto.builder()
+                .name("Стремянка")
+                .description("Стремянка из памяти")
+                .available(true)
+                .build(), owner.getId());
+        itemService.updateItem(ItemDto.builder().id(item.getId()).name("Лестница").available(false).build(),
+                owner.getId());
+        ItemDto updated = itemService.getItemById(owner.getId(), item.getId());
+        assertEquals("Лестница", updated.getName());
+        assertEquals("Стремянка из памяти", updated.getDescription());
+        assertFalse(updated.getAvailable());
+        assertTrue(itemService.searchItem("стремянка", 0, 10).isEmpty());
+
+        itemService.deleteItemById(owner.getId(), item.getId());
+        assertThrows(ItemNotFoundException.class, () -> itemService.getItemById(owner.getId(), item.getId()));
+        userService.deleteUser(owner.getId());
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(owner.getId()));
+    }
+
+    @Test
+    void commentsOfPastBookingAreShownWithItem() {
+        User owner = userService.saveUser(User.builder().name("Owner").email("memory-comment-owner@mail.ru").build());
+        User booker = userService.saveUser(User.builder().name("Author").email("memory-author@mail.ru").build());
+        Item item = itemService.saveItem(ItemDto.builder()
+                .name("Палатка")
+                .description("Палатка из памяти")
+                .available(true)
+                .build(), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        BookingDto saved = bookingService.saveBooking(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build());
+        bookingService.confirmOrCancelBooking(owner.getId(), saved.getId(), true);
+        Booking booking = bookingRepository.findById(saved.getId()).orElseThrow();
+        booking.setStart(start.minusDays(3));
+        booking.setEnd(start.minusDays(2));
+        bookingRepository.save(booking);
+
+        CommentDto comment = itemService.postComment(booker.getId(), item.getId(),
+                CommentDto.builder().text("Не протекает").build());
+
+        List<CommentDto> comments = itemService.getItemById(owner.getId(), item.getId()).getComments();
+        assertEquals(1, comments.size());
+        assertEquals(comment.getId(), comments.get(0).getId());
+        assertEquals("Не протекает", comments.get(0).getText());
+        assertEquals("Author", comments.get(0).getAuthorName());
+    }
+
+    @Test
+    void requestsAreAnsweredWithItems() {
+        User requestor = userService.saveUser(User.builder().name("Requestor").email("memory-requestor@mail.ru").build());
+        User owner = userService.saveUser(User.builder().name("Owner").email("memory-request-owner@mail.ru").build());
+        RequestDto request = itemRequestService.addItemRequest(RequestDto.builder()
+                .description("Нужен проектор")
+                .build(), requestor.getId());
+        Item item = itemService.saveItem(ItemDto.builder()
+                .name("Проектор")
+                .description("Проектор из памяти")
+                .available(true)
+                .requestId(request.getId())
+                .build(), owner.getId());
+
+        List<RequestDtoWithRequest> own = itemRequestService.getItemRequest(requestor.getId());
+        assertEquals(1, own.size());
+        assertEquals("Нужен проектор", own.get(0).getDescription());
+        assertEquals(item.getId(), own.get(0).getItems().get(0).getId());
+        assertTrue(itemRequestService.getAllItemRequest(owner.getId(), 0, 10).stream()
+                .anyMatch(other -> other.getId().equals(request.getId())));
+        assertEquals(item.getId(),
+                itemRequestService.getRequestById(owner.getId(), request.getId()).getItems().get(0).getId());
+    }
+}
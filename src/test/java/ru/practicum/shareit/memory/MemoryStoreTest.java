@@ -0,0 +1,200 @@
+package ru.practicum.shareit.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryStoreTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @TempDir
+    Path directory;
+    private MemoryStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void indexesFollowUpdatesAndCascadingDeletes() {
+        store = open();
+        fill(store);
+
+        assertTrue(store.emailExistsIgnoreCase("OWNER@mail.ru"));
+        assertEquals(List.of(10L, 11L), ids(store.itemsOfOwner(1L).map(ItemRow::getId)));
+        assertEquals(List.of(100L), ids(store.bookingsOfOwner(1L).map(BookingRow::getId)));
+        assertEquals(1, store.toItem(store.item(10L).orElseThrow()).getComments().size());
+
+        store.putItem(ItemRow.builder().id(11L).name("Пила").description("Ручная").ownerId(2L).available(true).build());
+        assertEquals(List.of(10L), ids(store.itemsOfOwner(1L).map(ItemRow::getId)));
+        assertEquals(List.of(11L), ids(store.itemsOfOwner(2L).map(ItemRow::getId)));
+
+        store.delete(MemoryTable.USERS, 1L);
+        assertFalse(store.item(10L).isPresent());
+        assertFalse(store.booking(100L).isPresent());
+        assertFalse(store.comment(1000L).isPresent());
+        assertFalse(store.emailExists("owner@mail.ru"));
+        assertEquals(0, store.bookingsOfBooker(2L).count());
+    }
+
+    @Test
+    void ownerAndBookerIndexesKeepStartOrder() {
+        store = open();
+        fill(store);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        store.putBooking(BookingRow.builder().id(101L).itemId(11L).bookerId(2L).start(start.plusDays(5))
+                .end(start.plusDays(6)).status(Status.WAITING).build());
+        store.putBooking(BookingRow.builder().id(102L).itemId(10L).bookerId(2L).start(start.minusDays(5))
+                .end(start.minusDays(4)).status(Status.WAITING).build());
+
+        assertEquals(List.of(101L, 100L, 102L), ids(store.bookingsOfOwner(1L).map(BookingRow::getId)));
+        assertEquals(List.of(101L, 100L, 102L), ids(store.bookingsOfBooker(2L).map(BookingRow::getId)));
+
+        store.putBooking(BookingRow.builder().id(102L).itemId(10L).bookerId(2L).start(start.plusDays(9))
+                .end(start.plusDays(10)).status(Status.APPROVED).build());
+        assertEquals(List.of(102L, 101L, 100L), ids(store.bookingsOfOwner(1L).map(BookingRow::getId)));
+
+        store.putItem(ItemRow.builder().id(11L).name("Пила").description("Ручная").ownerId(2L).available(true).build());
+        assertEquals(List.of(102L, 100L), ids(store.bookingsOfOwner(1L).map(BookingRow::getId)));
+        assertEquals(List.of(101L), ids(store.bookingsOfOwner(2L).map(BookingRow::getId)));
+
+        store.delete(MemoryTable.BOOKINGS, 102L);
+        assertEquals(List.of(100L), ids(store.bookingsOfOwner(1L).map(BookingRow::getId)));
+        assertEquals(List.of(101L, 100L), ids(store.bookingsOfBooker(2L).map(BookingRow::getId)));
+    }
+
+    @Test
+    void bookingStatusChangesOnlyFromExpected() {
+        store = open();
+        fill(store);
+
+        assertTrue(store.compareAndSetBookingStatus(100L, Status.WAITING, Status.APPROVED));
+        assertFalse(store.compareAndSetBookingStatus(100L, Status.WAITING, Status.REJECTED));
+        assertFalse(store.compareAndSetBookingStatus(404L, Status.WAITING, Status.REJECTED));
+        assertEquals(Status.APPROVED, store.booking(100L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void searchUsesTrigramsOfAvailableItems() {
+        store = open();
+        fill(store);
+
+        assertEquals(List.of(10L), ids(store.availableItemsContaining("ДРЕЛ").map(ItemRow::getId)));
+        assertEquals(List.of(10L, 11L), ids(store.availableItemsContaining("Р").map(ItemRow::getId)));
+        assertEquals(List.of(11L), ids(store.availableItemsContaining("РУЧН").map(ItemRow::getId)));
+        assertEquals(List.of(), ids(store.availableItemsContaining("ДРЕЛЬ РУЧНАЯ").map(ItemRow::getId)));
+
+        store.putItem(ItemRow.builder().id(10L).name("Дрель").description("Аккумуляторная").ownerId(1L)
+                .available(false).build());
+        assertEquals(List.of(), ids(store.availableItemsContaining("ДРЕЛ").map(ItemRow::getId)));
+
+        store.putItem(ItemRow.builder().id(11L).name("Пила").description("Дисковая").ownerId(1L)
+                .available(true).build());
+        assertEquals(List.of(), ids(store.availableItemsContaining("РУЧН").map(ItemRow::getId)));
+        assertEquals(List.of(11L), ids(store.availableItemsContaining("ДИСК").map(ItemRow::getId)));
+
+        store.delete(MemoryTable.ITEMS, 11L);
+        assertEquals(List.of(), ids(store.availableItemsContaining("ДИСК").map(ItemRow::getId)));
+    }
+
+    @Test
+    void itemRelationsLoadOnFirstAccess() {
+        store = open();
+        fill(store);
+
+        Item item = store.toItem(store.item(10L).orElseThrow());
+        assertFalse(((LazyList<Booking>) item.getBookings()).isLoaded());
+        assertFalse(((LazyList<Comment>) item.getComments()).isLoaded());
+
+        assertEquals(1, item.getBookings().size());
+        assertTrue(((LazyList<Booking>) item.getBookings()).isLoaded());
+        assertEquals(item, item.getBookings().get(0).getItem());
+        assertFalse(((LazyList<Comment>) item.getComments()).isLoaded());
+    }
+
+    @Test
+    void rejectsDuplicateEmailAndMissingReferences() {
+        store = open();
+        fill(store);
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.putUser(user(3L, "owner@mail.ru")));
+        assertThrows(DataIntegrityViolationException.class, () -> store.putUsers(List.of(
+                user(3L, "third@mail.ru"), user(4L, "third@mail.ru"))));
+        assertFalse(store.user(3L).isPresent());
+        assertThrows(DataIntegrityViolationException.class, () -> store.putItem(
+                ItemRow.builder().id(12L).name("Молоток").description("Стальной").ownerId(42L).build()));
+    }
+
+    @Test
+    void recoversFromSnapshotAndWalWithTornTail() throws IOException {
+        MemoryStore crashed = open();
+        fill(crashed);
+        crashed.snapshot();
+        crashed.delete(MemoryTable.ITEMS, 11L);
+        crashed.putUser(user(3L, "third@mail.ru"));
+        Files.writeString(directory.resolve(WriteAheadLog.WAL_FILE), "{\"op\":\"PUT\",\"tab",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        store = open();
+        assertEquals(3, store.count(MemoryTable.USERS));
+        assertEquals(List.of(10L), ids(store.itemsOfOwner(1L).map(ItemRow::getId)));
+        assertEquals(Status.WAITING, store.booking(100L).orElseThrow().getStatus());
+        assertTrue(store.nextId(MemoryTable.BOOKINGS) > 100L);
+
+        store.putUser(user(4L, "fourth@mail.ru"));
+        store.destroy();
+        store = open();
+        assertTrue(store.emailExists("fourth@mail.ru"));
+        assertEquals(4, store.count(MemoryTable.USERS));
+    }
+
+    private MemoryStore open() {
+        return new MemoryStore(objectMapper, directory.toString(), false, Duration.ofHours(1));
+    }
+
+    private static void fill(MemoryStore store) {
+        store.putUser(user(1L, "owner@mail.ru"));
+        store.putUser(user(2L, "booker@mail.ru"));
+        store.putItem(ItemRow.builder().id(10L).name("Дрель").description("Аккумуляторная").ownerId(1L)
+                .available(true).build());
+        store.putItem(ItemRow.builder().id(11L).name("Пила").description("Ручная").ownerId(1L)
+                .available(true).build());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        store.putBooking(BookingRow.builder().id(100L).itemId(10L).bookerId(2L).start(start).end(start.plusDays(1))
+                .status(Status.WAITING).build());
+        store.putComment(CommentRow.builder().id(1000L).itemId(10L).authorId(2L).text("Отлично")
+                .created(start).build());
+    }
+
+    private static UserRow user(Long id, String email) {
+        return UserRow.builder().id(id).name("Пользователь " + id).email(email).build();
+    }
+
+    private static List<Long> ids(Stream<Long> ids) {
+        return ids.collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MethodMetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @SneakyThrows
+    @Test
+    void exposesServiceAndRepositoryTimersTaggedByEndpointStateAndRole() {
+        String body = "{\"name\":\"Metrics\",\"email\":\"" + UUID.randomUUID() + "@metrics.ru\"}";
+        String user = mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getContentAsString();
+        String userId = objectMapper.readTree(user).get("id").asText();
+        mockMvc.perform(get("/bookings?state={state}", "WAITING").header("X-Sharer-User-Id", userId));
+        mockMvc.perform(get("/bookings/owner?state={state}", "ALL").header("X-Sharer-User-Id", userId));
+        mockMvc.perform(get("/bookings?state={state}", "<script>").header("X-Sharer-User-Id", userId));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("shareit_service_seconds_bucket{class=\"BookingServiceImpl\","
+                + "endpoint=\"GET /bookings\",exception=\"none\",method=\"getAllBookingsForUser\","
+                + "role=\"booker\",state=\"WAITING\","), scrape);
+        assertTrue(scrape.contains("shareit_service_seconds_count{class=\"BookingServiceImpl\","
+                + "endpoint=\"GET /bookings/owner\",exception=\"none\",method=\"getAllBookingsForUser\","
+                + "role=\"owner\",state=\"ALL\",}"), scrape);
+        assertTrue(scrape.contains("shareit_service_seconds_count{class=\"BookingServiceImpl\","
+                + "endpoint=\"GET /bookings\",exception=\"UnsupportedStateException\","
+                + "method=\"getAllBookingsForUser\",role=\"booker\",state=\"other\",}"), scrape);
+        assertTrue(scrape.contains("shareit_repository_seconds_count{class=\"BookingViewRepository\","
+                + "endpoint=\"GET /bookings\",exception=\"none\",method=\"findByStatus\","
+                + "role=\"booker\",state=\"WAITING\",}"), scrape);
+        assertTrue(scrape.contains("shareit_repository_seconds_count{class=\"UserRepository\","
+                + "endpoint=\"POST /users\",exception=\"none\",method=\"save\",role=\"none\",state=\"none\",}"), scrape);
+    }
+
+    @SneakyThrows
+    @Test
+    void inheritedRepositoryMethodIsTaggedWithEachRepository() {
+        userRepository.findById(Long.MAX_VALUE);
+        itemRepository.findById(Long.MAX_VALUE);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+
+        for (String repository : new String[]{"UserRepository", "ItemRepository"}) {
+            assertTrue(Pattern.compile("shareit_repository_seconds_count\\{class=\"" + repository
+                    + "\",endpoint=\"[^\"]*\",exception=\"none\",method=\"findById\",").matcher(scrape).find(), scrape);
+        }
+    }
+
+    @SneakyThrows
+    @Test
+    void exposesOutboxBacklogGauges() {
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("shareit_outbox_pending "), scrape);
+        assertTrue(scrape.contains("shareit_outbox_oldest_pending_age_seconds "), scrape);
+        assertTrue(scrape.contains("shareit_outbox_delivery_lag_seconds "), scrape);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+    @Mock
+    private OutboxRepository outboxRepository;
+    @Mock
+    private OutboxSink sink;
+    @Mock
+    private ObjectProvider<OutboxSink> sinks;
+    @Captor
+    private ArgumentCaptor<List<OutboxMessage>> published;
+
+    @Test
+    void deliversFullBatchesUntilOutboxIsEmpty() throws Exception {
+        List<OutboxMessage> first = List.of(message(1L), message(2L));
+        List<OutboxMessage> second = List.of(message(3L));
+        when(outboxRepository.findBatch(2)).thenReturn(first).thenReturn(second);
+
+        assertEquals(3, relay().drain());
+
+        InOrder order = inOrder(sink, outboxRepository);
+        order.verify(sink).publish(published.capture());
+        order.verify(outboxRepository).delete(List.of(1L, 2L));
+        order.verify(sink).publish(published.capture());
+        order.verify(outboxRepository).delete(List.of(3L));
+        assertEquals(List.of(first, second), published.getAllValues());
+    }
+
+    @Test
+    void failedBatchStaysInOutbox() throws Exception {
+        List<OutboxMessage> batch = List.of(message(1L), message(2L));
+        when(outboxRepository.findBatch(2)).thenReturn(batch);
+        doThrow(new IllegalStateException("Очередь событий заполнена")).when(sink).publish(batch);
+
+        OutboxRelay relay = relay();
+        assertEquals(0, relay.drain());
+
+        verify(outboxRepository).markFailed(List.of(1L, 2L));
+        verify(outboxRepository, never()).delete(any());
+        assertEquals(1, relay.stats().getFailedAttempts());
+    }
+
+    @Test
+    void exposesBacklogAndLagAsGauges() throws Exception {
+        when(outboxRepository.findBatch(2)).thenReturn(List.of(message(1L, LocalDateTime.now().minusSeconds(5))));
+        when(outboxRepository.countPending()).thenReturn(7L);
+        when(outboxRepository.oldestPendingCreatedAt()).thenReturn(LocalDateTime.now().minusMinutes(2));
+
+        OutboxRelay relay = relay();
+        relay.drain();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        relay.bindTo(registry);
+
+        assertEquals(7, registry.get("shareit.outbox.pending").gauge().value());
+        assertTrue(registry.get("shareit.outbox.oldest.pending.age").timeGauge().value(TimeUnit.SECONDS) >= 120);
+        assertTrue(registry.get("shareit.outbox.delivery.lag").timeGauge().value(TimeUnit.SECONDS) >= 5);
+        assertEquals(1, registry.get("shareit.outbox.published").functionCounter().count());
+    }
+
+    private OutboxRelay relay() {
+        when(sinks.orderedStream()).thenReturn(Stream.of(sink));
+        return new OutboxRelay(outboxRepository, sinks, 2, Duration.ofHours(1));
+    }
+
+    private static OutboxMessage message(Long id) {
+        return message(id, LocalDateTime.now());
+    }
+
+    private static OutboxMessage message(Long id, LocalDateTime createdAt) {
+        return OutboxMessage.builder()
+                .id(id)
+                .aggregateType("BOOKING")
+                .aggregateId(id)
+                .eventType(OutboxRecorder.BOOKING_STATUS_CHANGED)
+                .payload("{}")
+                .createdAt(createdAt)
+                .build();
+    }
+}
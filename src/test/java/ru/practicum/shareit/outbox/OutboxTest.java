@@ -0,0 +1,105 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OutboxTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private QueueOutboxSink queueOutboxSink;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SneakyThrows
+    @Test
+    void bookingStatusChangesAndCommentsAreDeliveredInOrder() {
+        User owner = userRepository.save(User.builder().name("Owner").email("outbox-owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("outbox-booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Палатка")
+                .description("Четырёхместная палатка")
+                .available(true)
+                .ownerId(owner.getId())
+                .build());
+        BookingDto booking = bookingService.saveBooking(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusSeconds(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .build());
+        bookingService.confirmOrCancelBooking(owner.getId(), booking.getId(), true);
+        Thread.sleep(1100);
+        CommentDto comment = itemService.postComment(booker.getId(), item.getId(),
+                CommentDto.builder().text("Не промокает").build());
+
+        List<OutboxMessage> received = new ArrayList<>();
+        while (received.size() < 3) {
+            OutboxMessage message = queueOutboxSink.poll(Duration.ofSeconds(5));
+            if (message == null) {
+                break;
+            }
+            if (message.getAggregateId().equals(booking.getId()) && message.getAggregateType().equals("BOOKING")
+                    || message.getAggregateId().equals(item.getId()) && message.getAggregateType().equals("ITEM")) {
+                received.add(message);
+            }
+        }
+
+        assertEquals(3, received.size());
+        assertEquals(List.of(OutboxRecorder.BOOKING_STATUS_CHANGED, OutboxRecorder.BOOKING_STATUS_CHANGED,
+                OutboxRecorder.COMMENT_POSTED), List.of(received.get(0).getEventType(),
+                received.get(1).getEventType(), received.get(2).getEventType()));
+        JsonNode waiting = objectMapper.readTree(received.get(0).getPayload());
+        assertEquals(Status.WAITING.name(), waiting.get("status").asText());
+        assertEquals(booker.getId(), waiting.get("bookerId").asLong());
+        assertEquals(Status.APPROVED.name(), objectMapper.readTree(received.get(1).getPayload())
+                .get("status").asText());
+        JsonNode posted = objectMapper.readTree(received.get(2).getPayload());
+        assertEquals("Не промокает", posted.get("text").asText());
+        assertEquals(comment.getId(), posted.get("commentId").asLong());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OUTBOX WHERE AGGREGATE_ID IN (?, ?)",
+                Long.class, booking.getId(), item.getId()));
+
+        mockMvc.perform(get("/admin/outbox"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sinks", hasItem("queue")));
+    }
+}
@@ -6,17 +6,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.shard.ShardRouter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -40,6 +44,15 @@ public class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ModelMapper mapper = new ModelMapper();
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
@@ -177,11 +190,16 @@ public class ItemRequestServiceImplTest {
 
         when(itemRequestRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(request));
+        when(itemRepository.findAllByRequestIn(List.of(1L)))
+                .thenReturn(List.of(item));
         RequestDtoWithRequest requestById = itemRequestService.getRequestById(1L, 1L);
 
         RequestDtoWithRequest requestDto1 = mapper.map(request, RequestDtoWithRequest.class);
 
         assertEquals(requestById, requestDto1);
+        assertEquals(1, requestById.getItems().size());
+        assertEquals(item.getId(), requestById.getItems().get(0).getId());
+        assertEquals(1L, requestById.getItems().get(0).getRequestId());
     }
 
     @Test
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.search.index.enabled=true",
+        "shareit.search.index.dir=${java.io.tmpdir}/shareit-search-${random.uuid}",
+        "shareit.search.index.fsync=false"})
+public class IndexedItemSearchTest {
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void searchFollowsItemChanges() {
+        User owner = userService.saveUser(User.builder().name("Owner").email("index-owner@mail.ru").build());
+        Item first = itemService.saveItem(itemDto(null, "Перфоратор Индексный", "Мощный"), owner.getId());
+        Item second = itemService.saveItem(itemDto(null, "Шуруповёрт", "Почти индексный"), owner.getId());
+        assertTrue(searchIndex.canSearch("индексн"));
+        assertEquals(List.of(first.getId(), second.getId()), searchIds("индексн", 0, 10));
+        assertEquals(List.of(second.getId()), searchIds("индексн", 1, 1));
+
+        itemService.updateItem(itemDto(first.getId(), "Перфоратор", null), owner.getId());
+        assertEquals(List.of(second.getId()), searchIds("индексн", 0, 10));
+        assertEquals(List.of(first.getId()), searchIds("перфоратор", 0, 10));
+
+        itemService.deleteItemById(owner.getId(), second.getId());
+        assertEquals(List.of(), searchIds("индексн", 0, 10));
+    }
+
+    private List<Long> searchIds(String text, int from, int size) {
+        return itemService.searchItem(text, from, size).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static ItemDto itemDto(Long id, String name, String description) {
+        return ItemDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+}
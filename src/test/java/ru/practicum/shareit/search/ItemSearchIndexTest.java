@@ -0,0 +1,119 @@
+package ru.practicum.shareit.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSearchIndexTest {
+    @TempDir
+    Path directory;
+    private ItemSearchIndex index;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (index != null) {
+            index.destroy();
+        }
+    }
+
+    @Test
+    void searchesTailAndSegmentsWithNewestVersionWinning() throws IOException {
+        index = open();
+        index.index(List.of(item(1L, "Дрель", "Аккумуляторная дрель", true),
+                item(2L, "Пила", "Ручная пила по дереву", true),
+                item(3L, "Дрель ударная", "Сломана", false)));
+        assertEquals(List.of(1L), search("дРеЛ"));
+
+        index.flush();
+        assertEquals(1, index.segmentCount());
+        index.index(item(2L, "Пила", "Электрическая дрель-пила", true));
+        index.remove(1L);
+        assertEquals(List.of(2L), search("дрель"));
+        assertEquals(List.of(), search("дереву"));
+
+        index.flush();
+        index.index(item(3L, "Дрель ударная", "Починена", true));
+        index.flush();
+        assertEquals(3, index.segmentCount());
+        assertEquals(List.of(2L, 3L), search("ДРЕЛЬ"));
+
+        index.merge();
+        assertEquals(1, index.segmentCount());
+        assertEquals(List.of(2L, 3L), search("дрель"));
+        assertEquals(List.of(3L), search("почин"));
+        assertTrue(index.canSearch("abc"));
+        assertFalse(index.canSearch("ab"));
+    }
+
+    @Test
+    void restartMapsSegmentsAndReplaysTail() throws IOException {
+        index = open();
+        index.index(item(1L, "Лестница", "Стремянка алюминиевая", true));
+        index.flush();
+        index.index(item(2L, "Стремянка", "Деревянная", true));
+        index.destroy();
+        Files.write(directory.resolve(ItemSearchIndex.TAIL_FILE), new byte[]{0, 0, 0, 40, 1, 2},
+                StandardOpenOption.APPEND);
+
+        index = open();
+        assertEquals(1, index.segmentCount());
+        assertEquals(List.of(1L, 2L), search("стрем"));
+        assertEquals(List.of("0000000001.seg"), Files.readAllLines(directory.resolve(ItemSearchIndex.MANIFEST_FILE),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void mergesSegmentsAndTailInIdOrder() throws IOException {
+        index = open();
+        index.index(List.of(item(1L, "Палатка", "Двухместная", true), item(4L, "Палатка", "Трёхместная", true)));
+        index.flush();
+        index.index(List.of(item(2L, "Тент", "Для палатки", true), item(5L, "Палатка", "Зимняя", true)));
+        index.flush();
+        index.index(List.of(item(3L, "Палатка", "Пляжная", true), item(4L, "Шатёр", "Трёхместный", true)));
+
+        assertEquals(List.of(1L, 2L, 3L, 5L), search("палат"));
+        PrimitiveIterator.OfLong ids = index.search("палат");
+        assertEquals(1L, ids.nextLong());
+        assertEquals(2L, ids.nextLong());
+    }
+
+    private List<Long> search(String text) {
+        List<Long> ids = new ArrayList<>();
+        index.search(text).forEachRemaining((LongConsumer) ids::add);
+        return ids;
+    }
+
+    private ItemSearchIndex open() throws IOException {
+        ItemSearchIndex opened = new ItemSearchIndex(Mockito.mock(JdbcTemplate.class), true, directory.toString(),
+                false, 1000, 8);
+        opened.afterPropertiesSet();
+        return opened;
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .ownerId(1L)
+                .build();
+    }
+}
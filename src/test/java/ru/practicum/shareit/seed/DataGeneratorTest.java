@@ -0,0 +1,88 @@
+package ru.practicum.shareit.seed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-seed")
+public class DataGeneratorTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final String RELATIVE_BOOKINGS = "SELECT BOOKING_ID - ? AS B, START_DATE, END_DATE, STATUS, " +
+            "ITEM_ID - ? AS I, BOOKER_ID - ? AS U FROM BOOKINGS WHERE BOOKING_ID >= ? AND BOOKING_ID < ? ORDER BY B";
+
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesConsistentRowsDeterministically() {
+        SeedReport first = dataGenerator.generate(volumes(4, 7));
+
+        assertEquals(2000, count("SELECT COUNT(*) FROM BOOKINGS WHERE BOOKING_ID >= ?", first.getFirstBookingId()));
+        assertEquals(2000, count("SELECT COUNT(*) FROM OWNER_BOOKINGS_VIEW WHERE BOOKING_ID >= ?",
+                first.getFirstBookingId()));
+        assertEquals(2000, count("SELECT COUNT(*) FROM BOOKER_BOOKINGS_VIEW WHERE BOOKING_ID >= ?",
+                first.getFirstBookingId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM BOOKINGS b JOIN ITEMS i ON i.ITEM_ID = b.ITEM_ID " +
+                "WHERE i.OWNER_ID = b.BOOKER_ID AND b.BOOKING_ID >= ?", first.getFirstBookingId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM BOOKINGS WHERE END_DATE < ? AND STATUS = 'WAITING' " +
+                "AND BOOKING_ID >= ?", NOW, first.getFirstBookingId()));
+        assertTrue(first.getComments() > 0);
+        assertEquals(0, count("SELECT COUNT(*) FROM COMMENTS c WHERE c.ITEM_ID >= ? AND NOT EXISTS (" +
+                "SELECT 1 FROM BOOKINGS b WHERE b.ITEM_ID = c.ITEM_ID AND b.BOOKER_ID = c.AUTHOR_ID " +
+                "AND b.STATUS = 'APPROVED' AND b.END_DATE <= c.CREATED)", first.getFirstItemId()));
+
+        List<Long> popularity = jdbcTemplate.queryForList("SELECT COUNT(*) FROM BOOKINGS WHERE BOOKING_ID >= ? " +
+                "AND BOOKING_ID < ? GROUP BY ITEM_ID ORDER BY COUNT(*) DESC", Long.class,
+                first.getFirstBookingId(), first.getFirstBookingId() + first.getBookings());
+        assertTrue(popularity.get(0) > 10 * popularity.get(popularity.size() / 2),
+                "самый популярный предмет бронируют много чаще медианного");
+
+        SeedReport second = dataGenerator.generate(volumes(1, 1000));
+        assertEquals(first.getComments(), second.getComments());
+        assertEquals(bookings(first), bookings(second));
+        long nextUserId = jdbcTemplate.queryForObject("SELECT nextval('USERS_SEQ')", Long.class);
+        assertTrue(nextUserId >= second.getFirstUserId() + second.getUsers());
+    }
+
+    private List<Map<String, Object>> bookings(SeedReport report) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(RELATIVE_BOOKINGS, report.getFirstBookingId(),
+                report.getFirstItemId(), report.getFirstUserId(), report.getFirstBookingId(),
+                report.getFirstBookingId() + report.getBookings());
+        assertFalse(rows.isEmpty());
+        return rows;
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private static SeedVolumes volumes(int threads, int batchSize) {
+        return SeedVolumes.builder()
+                .users(300)
+                .owners(60)
+                .itemsPerOwner(5)
+                .requests(40)
+                .bookings(2000)
+                .commentRate(0.3)
+                .requestAnswerRate(0.2)
+                .zipfExponent(1.1)
+                .historyDays(90)
+                .horizonDays(30)
+                .now(NOW)
+                .seed(42)
+                .threads(threads)
+                .batchSize(batchSize)
+                .build();
+    }
+}
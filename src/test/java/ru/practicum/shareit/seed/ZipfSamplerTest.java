@@ -0,0 +1,53 @@
+package ru.practicum.shareit.seed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZipfSamplerTest {
+
+    @Test
+    void frequenciesFollowPowerLaw() {
+        int n = 1000;
+        double exponent = 1.1;
+        int samples = 200_000;
+        ZipfSampler sampler = new ZipfSampler(n, exponent);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] counts = new long[n + 1];
+        for (int i = 0; i < samples; i++) {
+            long rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= n);
+            counts[(int) rank]++;
+        }
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += Math.pow(k, -exponent);
+        }
+        for (int k : new int[]{1, 2, 10}) {
+            double expected = samples * Math.pow(k, -exponent) / harmonic;
+            assertEquals(expected, counts[k], expected * 0.05, "ранг " + k);
+        }
+        assertTrue(counts[1] > counts[2] && counts[2] > counts[10] && counts[10] > counts[100]);
+    }
+
+    @Test
+    void sameSeedGivesSameSequence() {
+        ZipfSampler sampler = new ZipfSampler(10_000_000, 0.9);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(sampler.sample(first), sampler.sample(second));
+        }
+    }
+
+    @Test
+    void singleElementAndInvalidArguments() {
+        assertEquals(1, new ZipfSampler(1, 1.0).sample(new SplittableRandom(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(10, 0));
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestDtoWithRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "shareit.sharding.urls="
+        + "jdbc:h2:mem:shareit-shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shareit-shard1;DB_CLOSE_DELAY=-1")
+public class ShardRoutingTest {
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void itemsAndBookingsLiveOnOwnerShard() {
+        User first = userService.saveUser(User.builder().name("First").email("shard-first@mail.ru").build());
+        User second = userService.saveUser(User.builder().name("Second").email("shard-second@mail.ru").build());
+        User booker = userService.saveUser(User.builder().name("Booker").email("shard-booker@mail.ru").build());
+        assertNotEquals(shardRouter.shardForOwner(first.getId()), shardRouter.shardForOwner(second.getId()));
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            assertEquals(1, countOnShard(shard, "SELECT COUNT(*) FROM users WHERE email = ?", "shard-booker@mail.ru"));
+        }
+
+        Item firstItem = itemService.saveItem(itemDto("Шардовая дрель"), first.getId());
+        Item secondItem = itemService.saveItem(itemDto("Шардовая пила"), second.getId());
+        assertEquals(shardRouter.shardForOwner(first.getId()), shardRouter.shardOfId(firstItem.getId()));
+        assertEquals(shardRouter.shardForOwner(second.getId()), shardRouter.shardOfId(secondItem.getId()));
+        assertEquals(1, countOnShard(shardRouter.shardOfId(firstItem.getId()),
+                "SELECT COUNT(*) FROM items WHERE item_id = ?", firstItem.getId()));
+        assertEquals(0, countOnShard(shardRouter.shardOfId(secondItem.getId()),
+                "SELECT COUNT(*) FROM items WHERE item_id = ?", firstItem.getId()));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto firstBooking = bookingService.saveBooking(booker.getId(), bookingDto(firstItem, start));
+        BookingDto secondBooking = bookingService.saveBooking(booker.getId(), bookingDto(secondItem, start.plusDays(1)));
+        assertEquals(shardRouter.shardOfId(firstItem.getId()), shardRouter.shardOfId(firstBooking.getId()));
+        assertEquals(firstBooking.getId(),
+                bookingService.getBookingForOwnerOrBooker(first.getId(), firstBooking.getId()).getId());
+
+        List<Booking> bookerBookings = bookingService.getAllBookingsForUser(booker.getId(), "ALL", false, 0, 10);
+        assertEquals(List.of(secondBooking.getId(), firstBooking.getId()),
+                List.of(bookerBookings.get(0).getId(), bookerBookings.get(1).getId()));
+        assertEquals("Booker", bookerBookings.get(0).getBooker().getName());
+        assertEquals(1, bookingService.getAllBookingsForUser(booker.getId(), "ALL", false, 1, 1).size());
+        assertEquals(1, bookingService.getAllBookingsForUser(first.getId(), "ALL", true, 0, 10).size());
+
+        assertEquals(List.of(firstItem.getId(), secondItem.getId()).stream().sorted().collect(Collectors.toList()),
+                itemService.searchItem("шардовая", 0, 10).stream()
+                        .map(ItemDto::getId)
+                        .collect(Collectors.toList()));
+        assertEquals(1, itemService.getItemsByUser(second.getId(), 0, 10).size());
+    }
+
+    @Test
+    void requestsCollectItemsFromEveryShard() {
+        User first = userService.saveUser(User.builder().name("First").email("shard-req-first@mail.ru").build());
+        User second = userService.saveUser(User.builder().name("Second").email("shard-req-second@mail.ru").build());
+        User requestor = userService.saveUser(User.builder().name("Requestor").email("shard-req@mail.ru").build());
+        assertNotEquals(shardRouter.shardForOwner(first.getId()), shardRouter.shardForOwner(second.getId()));
+        RequestDto request = itemRequestService.addItemRequest(
+                RequestDto.builder().description("Нужен инструмент").build(), requestor.getId());
+
+        ItemDto answer = itemDto("Ответ");
+        answer.setRequestId(request.getId());
+        itemService.saveItem(answer, first.getId());
+        itemService.saveItem(answer, second.getId());
+
+        assertEquals(2, itemRequestService.getRequestById(first.getId(), request.getId()).getItems().size());
+        assertEquals(2, itemRequestService.getItemRequest(requestor.getId()).get(0).getItems().size());
+        RequestDtoWithRequest other = itemRequestService.getAllItemRequest(first.getId(), 0, 10).stream()
+                .filter(dto -> dto.getId().equals(request.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, other.getItems().size());
+    }
+
+    @Test
+    void idFromUnknownShardIsNotFound() {
+        User owner = userService.saveUser(User.builder().name("Owner").email("shard-unknown@mail.ru").build());
+        long foreignId = ShardRouter.firstId(shardRouter.shardCount());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(owner.getId(), foreignId));
+    }
+
+    private int countOnShard(int shard, String sql, Object arg) {
+        return shardRouter.onShard(shard, () -> jdbcTemplate.queryForObject(sql, Integer.class, arg));
+    }
+
+    private static ItemDto itemDto(String name) {
+        return ItemDto.builder()
+                .name(name)
+                .description(name + " для тестов шардирования")
+                .available(true)
+                .build();
+    }
+
+    private static BookingDto bookingDto(Item item, LocalDateTime start) {
+        return BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build();
+    }
+}
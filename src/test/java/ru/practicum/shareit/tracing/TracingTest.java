@@ -0,0 +1,140 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-tracing",
+        "shareit.tracing.enabled=true",
+        "shareit.tracing.sample-rate=0",
+        "shareit.tracing.exporter.memory.enabled=true"
+})
+@AutoConfigureMockMvc
+public class TracingTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    private long ownerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = create(post("/users"), "{\"name\":\"Owner\",\"email\":\"" + UUID.randomUUID() + "@trace.ru\"}");
+        itemId = create(post("/items").header(USER_ID_HEADER, ownerId),
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}");
+        exporter.clear();
+    }
+
+    @SneakyThrows
+    @Test
+    void itemDetailCallIsOneTraceFromControllerToSql() {
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_HEADER, ownerId)
+                        .header("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("traceparent", startsWith("00-" + TRACE_ID + "-")));
+
+        List<SpanData> trace = exporter.getTrace(TRACE_ID);
+        Map<String, SpanData> byId = trace.stream()
+                .collect(Collectors.toMap(SpanData::getSpanId, Function.identity()));
+        SpanData request = trace.stream().filter(span -> span.getKind() == SpanKind.SERVER).findFirst().orElseThrow();
+        assertEquals("GET /items/{itemId}", request.getName());
+        assertEquals(CALLER_SPAN_ID, request.getParentSpanId());
+        assertEquals("200", request.getAttributes().get("http.status_code"));
+
+        SpanData controller = named(trace, "ItemController.getItemById");
+        assertEquals(request.getSpanId(), controller.getParentSpanId());
+        SpanData service = named(trace, "ItemServiceImpl.getItemById");
+        assertEquals(controller.getSpanId(), service.getParentSpanId());
+        assertEquals("true", service.getAttributes().get("transaction.readOnly"));
+        SpanData mapper = named(trace, "ItemMapping.toItemDto");
+        assertEquals(service.getSpanId(), mapper.getParentSpanId());
+
+        List<SpanData> statements = trace.stream()
+                .filter(span -> span.getKind() == SpanKind.CLIENT)
+                .collect(Collectors.toList());
+        assertTrue(statements.size() > 0);
+        for (SpanData statement : statements) {
+            SpanData ancestor = byId.get(statement.getParentSpanId());
+            while (ancestor != service && ancestor != null) {
+                ancestor = byId.get(ancestor.getParentSpanId());
+            }
+            assertSame(service, ancestor, statement.getAttributes().get("db.statement"));
+        }
+        assertTrue(statements.stream()
+                .map(statement -> byId.get(statement.getParentSpanId()).getAttributes().get("layer"))
+                .anyMatch("repository"::equals));
+    }
+
+    @SneakyThrows
+    @Test
+    void unsampledRequestsAreNotTraced() {
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("traceparent"));
+
+        assertEquals(List.of(), exporter.getSpans());
+    }
+
+    @SneakyThrows
+    @Test
+    void propagatingExecutorRunsTasksInSubmittersSpan() {
+        ExecutorService executor = Tracing.propagating(Executors.newSingleThreadExecutor());
+        try {
+            Span span = Tracing.startTrace("test", SpanKind.INTERNAL, null);
+            assertSame(span, executor.submit(Tracing::current).get());
+            span.end();
+            assertNull(Tracing.current());
+            assertNull(executor.submit(Tracing::current).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static SpanData named(List<SpanData> trace, String name) {
+        return trace.stream().filter(span -> span.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @SneakyThrows
+    private long create(MockHttpServletRequestBuilder request, String body) {
+        String response = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.traffic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrafficLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsRoundTripAndAppendAcrossReopen() throws IOException {
+        Path file = directory.resolve("traffic.bin");
+        try (TrafficLog log = TrafficLog.openForAppend(file)) {
+            log.append(List.of(post(1), get(2)));
+        }
+        try (TrafficLog log = TrafficLog.openForAppend(file)) {
+            log.append(List.of(get(3)));
+        }
+
+        List<TrafficRecord> records = read(file);
+        assertEquals(3, records.size());
+        TrafficRecord post = records.get(0);
+        assertEquals(1, post.getStartedAtMicros());
+        assertEquals("POST", post.getMethod());
+        assertEquals("/bookings", post.getUri());
+        assertEquals(7L, post.getUserId());
+        assertEquals("application/json", post.getContentType());
+        assertArrayEquals("{\"itemId\":1}".getBytes(StandardCharsets.UTF_8), post.getBody());
+        assertTrue(post.isBodyTruncated());
+        TrafficRecord get = records.get(1);
+        assertNull(get.getUserId());
+        assertNull(get.getContentType());
+        assertEquals(0, get.getBody().length);
+        assertFalse(get.isBodyTruncated());
+        assertEquals("/items/search?text=дрель", get.getUri());
+        assertEquals(404, get.getStatus());
+        assertEquals(3, records.get(2).getStartedAtMicros());
+    }
+
+    @Test
+    void incompleteLastRecordIsDroppedAndTruncatedOnAppend() throws IOException {
+        Path file = directory.resolve("traffic.bin");
+        try (TrafficLog log = TrafficLog.openForAppend(file)) {
+            log.append(List.of(post(1), post(2)));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        assertEquals(1, read(file).size());
+
+        try (TrafficLog log = TrafficLog.openForAppend(file)) {
+            log.append(List.of(get(3)));
+        }
+        List<TrafficRecord> records = read(file);
+        assertEquals(2, records.size());
+        assertEquals(3, records.get(1).getStartedAtMicros());
+    }
+
+    @Test
+    void rejectsForeignFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("other.bin"), "not a traffic file");
+        assertThrows(IOException.class, () -> read(file));
+        assertThrows(IOException.class, () -> TrafficLog.openForAppend(file));
+    }
+
+    private static List<TrafficRecord> read(Path file) throws IOException {
+        List<TrafficRecord> records = new ArrayList<>();
+        TrafficLog.read(file, records::add);
+        return records;
+    }
+
+    private static TrafficRecord post(long startedAt) {
+        return TrafficRecord.builder()
+                .startedAtMicros(startedAt)
+                .durationMicros(1500)
+                .status(200)
+                .method("POST")
+                .uri("/bookings")
+                .userId(7L)
+                .contentType("application/json")
+                .body("{\"itemId\":1}".getBytes(StandardCharsets.UTF_8))
+                .bodyTruncated(true)
+                .build();
+    }
+
+    private static TrafficRecord get(long startedAt) {
+        return TrafficRecord.builder()
+                .startedAtMicros(startedAt)
+                .durationMicros(300)
+                .status(404)
+                .method("GET")
+                .uri("/items/search?text=дрель")
+                .build();
+    }
+}
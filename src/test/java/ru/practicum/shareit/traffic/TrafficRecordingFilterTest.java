@@ -0,0 +1,93 @@
+package ru.practicum.shareit.traffic;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-traffic",
+        "shareit.traffic.record.enabled=true",
+        "shareit.traffic.record.file=target/traffic-test/traffic.bin"
+})
+@AutoConfigureMockMvc
+public class TrafficRecordingFilterTest {
+    private static final Path FILE = Path.of("target/traffic-test/traffic.bin");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SneakyThrows
+    @Test
+    void recordsApiRequestsButNotAdmin() {
+        String email = UUID.randomUUID() + "@traffic.ru";
+        String body = "{\"name\":\"Traffic\",\"email\":\"" + email + "\"}";
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body));
+        mockMvc.perform(get("/items/search?text={text}", "дрель").header("X-Sharer-User-Id", "42"));
+        mockMvc.perform(get("/admin/cache"));
+
+        List<TrafficRecord> records = awaitRecords(email);
+        TrafficRecord signUp = records.get(0);
+        assertEquals("POST", signUp.getMethod());
+        assertEquals("/users", signUp.getUri());
+        assertNull(signUp.getUserId());
+        assertEquals(body, new String(signUp.getBody(), StandardCharsets.UTF_8));
+        assertFalse(signUp.isBodyTruncated());
+        assertEquals(200, signUp.getStatus());
+
+        TrafficRecord search = records.get(1);
+        assertEquals("GET", search.getMethod());
+        assertTrue(search.getUri().startsWith("/items/search?text="));
+        assertEquals(42L, search.getUserId());
+        assertTrue(search.getDurationMicros() >= 0);
+        assertTrue(search.getStartedAtMicros() >= signUp.getStartedAtMicros());
+        assertEquals(2, records.size());
+    }
+
+    /**
+     * Записи этого теста — начиная с регистрации с уникальным email: файл мог остаться от прошлых запусков.
+     * Запись идёт из фонового потока, поэтому файл перечитывается, пока не появятся оба запроса.
+     */
+    @SneakyThrows
+    private static List<TrafficRecord> awaitRecords(String email) {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            List<TrafficRecord> records = recordsSince(email);
+            if (records.size() >= 2) {
+                Thread.sleep(200);
+                return recordsSince(email);
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("запросы не записаны в " + FILE);
+    }
+
+    @SneakyThrows
+    private static List<TrafficRecord> recordsSince(String email) {
+        List<TrafficRecord> records = new ArrayList<>();
+        if (Files.exists(FILE)) {
+            TrafficLog.read(FILE, record -> {
+                if (!records.isEmpty() || new String(record.getBody(), StandardCharsets.UTF_8).contains(email)) {
+                    records.add(record);
+                }
+            });
+        }
+        return records;
+    }
+}
@@ -10,19 +10,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -120,17 +126,83 @@ public class UserControllerTest {
     @SneakyThrows
     @Test
     void getAllUsers() {
-
-        when(userService.getAllUsers())
-                .thenReturn(List.of(user1, user2));
-
-        mockMvc.perform(get("/users")
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(user1);
+            consumer.accept(user2);
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].name", is(user1.getName())))
                 .andExpect(jsonPath("$[0].email", is(user1.getEmail())))
                 .andExpect(jsonPath("$[1].name", is(user2.getName())))
                 .andExpect(jsonPath("$[1].email", is(user2.getEmail())));
     }
+
+    @SneakyThrows
+    @Test
+    void getUsersPageWithNextCursor() {
+        user2.setId(2L);
+        when(userService.getUsers(1L, 2))
+                .thenReturn(List.of(user1, user2));
+
+        mockMvc.perform(get("/users")
+                        .param("after", "1")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "2"))
+                .andExpect(jsonPath("$.length()", is(2)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsersPageWithDefaultSize() {
+        when(userService.getUsers(5L, 100))
+                .thenReturn(List.of(user1));
+
+        mockMvc.perform(get("/users")
+                        .param("after", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()", is(1)));
+        verify(userService, never()).streamAllUsers(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void streamAllUsers() {
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(user1);
+            consumer.accept(user2);
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(user1.getEmail(), objectMapper.readValue(lines[0], UserDto.class).getEmail());
+        assertEquals(user2.getEmail(), objectMapper.readValue(lines[1], UserDto.class).getEmail());
+    }
 }
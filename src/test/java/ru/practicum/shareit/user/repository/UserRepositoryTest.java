@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(UserJdbcRepository.class)
+public class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            users.add(userRepository.saveAndFlush(User.builder()
+                    .name("User" + i)
+                    .email("user" + i + "@mail.ru")
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findPageAfterCursorTest() {
+        List<User> firstPage = userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2));
+        List<User> secondPage = userRepository.findAllByIdGreaterThanOrderByIdAsc(
+                firstPage.get(1).getId(), PageRequest.of(0, 2));
+
+        assertEquals(users.subList(0, 2), firstPage);
+        assertEquals(users.subList(2, 4), secondPage);
+    }
+
+    @Test
+    void streamAllTest() {
+        List<User> streamed = new ArrayList<>();
+        userJdbcRepository.streamAll(streamed::add);
+
+        assertEquals(users, streamed);
+        assertEquals(users.get(0).getId(), streamed.get(0).getId());
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmailBloomFilterTest {
+
+    @Test
+    void shouldContainPutEmailsIgnoringCaseAndSpacesTest() {
+        EmailBloomFilter filter = new EmailBloomFilter(100, 0.01);
+        filter.put("Ivan@Mail.ru");
+
+        assertTrue(filter.mightContain("ivan@mail.ru"));
+        assertTrue(filter.mightContain("  IVAN@MAIL.RU "));
+        assertFalse(filter.mightContain("petr@mail.ru"));
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearConfiguredTest() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@mail.ru");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@mail.ru"));
+            if (filter.mightContain("other" + i + "@mail.ru")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void disabledFilterSendsEveryCheckToDatabaseTest() {
+        EmailBloomFilter filter = new EmailBloomFilter(100, 0.01, false);
+        filter.put("ivan@mail.ru");
+
+        assertTrue(filter.mightContain("petr@mail.ru"));
+    }
+}
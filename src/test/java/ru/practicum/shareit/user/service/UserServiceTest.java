@@ -7,9 +7,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.booking.service.BookingListCache;
 import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.shard.UserShardReplicator;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -26,6 +32,14 @@ import static ru.practicum.shareit.mappers.UserMapper.toUser;
 public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
+    @Spy
+    private EmailBloomFilter emailFilter = new EmailBloomFilter(1000, 0.01);
+    @Mock
+    private UserShardReplicator shardReplicator;
+    @Mock
+    private BookingViewRepository bookingViewRepository;
+    @Mock
+    private BookingListCache bookingListCache;
     private final ModelMapper mapper = new ModelMapper(); //maybe final
     @InjectMocks
     private UserServiceImpl userService;
@@ -74,13 +88,37 @@ public class UserServiceTest {
 
 
     @Test
-    void getAllUsersTest() {
+    void saveUserWithKnownEmailTest() {
+        emailFilter.put(user.getEmail());
+        when(userRepository.existsByEmailIgnoreCase("ivan@mail.ru"))
+                .thenReturn(true);
+
+        assertThrows(
+                ConflictException.class,
+                () -> userService.saveUser(User.builder().name("Ivan").email(" IVAN@mail.ru").build())
+        );
+        Mockito.verify(userRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    void saveUserWithNewEmailSkipsLookupTest() {
+        when(userRepository.save(any()))
+                .thenReturn(user);
+
+        userService.saveUser(user);
 
-        when(userRepository.findAll())
+        Mockito.verify(userRepository, Mockito.never()).existsByEmailIgnoreCase(any());
+        assertTrue(emailFilter.mightContain(user.getEmail()));
+    }
+
+    @Test
+    void getUsersPageTest() {
+
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10)))
                 .thenReturn(List.of(user));
         List<User> expectedResult = List.of(mapper.map(user, User.class));
 
-        assertEquals(expectedResult, userService.getAllUsers());
+        assertEquals(expectedResult, userService.getUsers(0L, 10));
     }
 
     @Test
@@ -91,7 +129,7 @@ public class UserServiceTest {
 
         Mockito.when(userRepository.findById(Mockito.any()))
                 .thenReturn(Optional.ofNullable(user));
-        Mockito.when(userRepository.save(Mockito.any()))
+        Mockito.when(userRepository.saveAndFlush(Mockito.any()))
                 .thenReturn(user);
         User content = userService.updateUser(user);
 
@@ -99,6 +137,20 @@ public class UserServiceTest {
         assertEquals(content.getName(), "ivanupdated");
     }
 
+    @Test
+    void updateUserWithConcurrentDuplicateEmailTest() {
+        User stored = User.builder().id(user.getId()).name(user.getName()).email("ivan@mail.ru").build();
+        Mockito.when(userRepository.findById(Mockito.any()))
+                .thenReturn(Optional.of(stored));
+        Mockito.when(userRepository.saveAndFlush(Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("USERS_pk2"));
+
+        assertThrows(
+                ConflictException.class,
+                () -> userService.updateUser(User.builder().id(user.getId()).email("petr@mail.ru").build())
+        );
+    }
+
     @Test
     void deleteUserServiceTest() {
         when(userRepository.save(any()))